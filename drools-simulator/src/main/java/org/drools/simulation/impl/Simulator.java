@@ -16,11 +16,13 @@
 
 package org.drools.simulation.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
@@ -42,7 +44,10 @@ import org.kie.internal.simulation.SimulationStep;
 public class Simulator
         implements World, GetDefaultValue {
 
-    private PriorityQueue<SimulationStep>           queue;
+    // all steps of all paths, ordered by their distance; equal distances keep the order of the paths
+    private List<SimulationStep>          steps;
+    private int                           nextStep;
+    private long                          currentTime;
     private SimulationImpl                simulation;
     //    private SessionPseudoClock  clock;
     private long                          startTime;
@@ -52,6 +57,16 @@ public class Simulator
 
     private static String                 ROOT             = "ROOT";
 
+    private static final String           KSESSION_ID      = StatefulKnowledgeSession.class.getName();
+
+    static final Comparator<SimulationStep> STEP_COMPARATOR = new Comparator<SimulationStep>() {
+        public int compare(SimulationStep s1,
+                           SimulationStep s2) {
+            return Long.compare( s1.getDistanceMillis(),
+                                 s2.getDistanceMillis() );
+        }
+    };
+
     private Set<StatefulKnowledgeSession> ksessions;
 
     private CommandExecutionHandler       executionHandler = new DefaultCommandExecutionHandler();
@@ -65,6 +80,7 @@ public class Simulator
         this.ksessions = new HashSet<StatefulKnowledgeSession>();
 
         this.startTime = startTime;
+        this.currentTime = startTime;
         this.simulation = (SimulationImpl) simulation;
         this.root = new ContextImpl( ROOT,
                                      this );
@@ -89,49 +105,67 @@ public class Simulator
             capacity += path.getSteps().size();
         }
 
-        if ( capacity == 0 ) {
-            return;
-        }
-
-        this.queue = new PriorityQueue( capacity,
-                                        new Comparator<SimulationStep>() {
-                                            public int compare(SimulationStep s1,
-                                                               SimulationStep s2) {
-                                                return (int) (s1.getDistanceMillis() - s2.getDistanceMillis());
-                                            }
-                                        } );
-
+        this.steps = new ArrayList<SimulationStep>( capacity );
         for ( SimulationPath path : paths.values() ) {
-            for ( SimulationStep step : path.getSteps() )
-                this.queue.add( step );
+            this.steps.addAll( path.getSteps() );
         }
+        // stable sort, unlike a priority queue steps sharing a distance run in the order they were added
+        Collections.sort( this.steps,
+                          STEP_COMPARATOR );
     }
 
     public void run() {
-        SimulationStep step;
-        while ( (step = executeNextStep()) != null ) {
+        while ( !executeNextSteps().isEmpty() ) {
 
         }
+        synchronizeClocks();
     }
 
     public SimulationStep executeNextStep() {
-        if ( this.queue.isEmpty() ) {
+        if ( this.nextStep >= this.steps.size() ) {
             return null;
         }
-        SimulationStepImpl step = (SimulationStepImpl) this.queue.remove();
-        SimulationPathImpl path = (SimulationPathImpl) step.getPath();
+        SimulationStep step = this.steps.get( this.nextStep++ );
+        this.currentTime = startTime + step.getDistanceMillis();
+        executeStep( (SimulationStepImpl) step );
 
-        Context pathContext = new ResolvingKnowledgeCommandContext( this.contexts.get( path.getName() ) );
+        return step;
+    }
 
-        // increment the clock for all the registered ksessions
-        for ( StatefulKnowledgeSession ksession : this.ksessions ) {
-            SessionPseudoClock clock = (SessionPseudoClock) ksession.getSessionClock();
-            long newTime = startTime + step.getDistanceMillis();
-            long currentTime = clock.getCurrentTime();
+    /**
+     * Executes all the steps that share the distance of the next step in one pass.
+     * @return executed steps, empty list when there are no more steps to execute
+     */
+    public List<SimulationStep> executeNextSteps() {
+        if ( this.nextStep >= this.steps.size() ) {
+            return Collections.emptyList();
+        }
+        long distance = this.steps.get( this.nextStep ).getDistanceMillis();
+        this.currentTime = startTime + distance;
 
-            clock.advanceTime( newTime - currentTime,
-                               TimeUnit.MILLISECONDS );
+        int from = this.nextStep;
+        while ( this.nextStep < this.steps.size() && this.steps.get( this.nextStep ).getDistanceMillis() == distance ) {
+            executeStep( (SimulationStepImpl) this.steps.get( this.nextStep++ ) );
+        }
+
+        return this.steps.subList( from,
+                                   this.nextStep );
+    }
+
+    /**
+     * Advances the clocks of all the registered ksessions to the time of the last executed step.
+     * Clocks are otherwise only advanced when a command is about to run against their ksession.
+     */
+    public void synchronizeClocks() {
+        for ( StatefulKnowledgeSession ksession : this.ksessions ) {
+            synchronizeClock( ksession );
         }
+    }
+
+    private void executeStep(SimulationStepImpl step) {
+        SimulationPathImpl path = (SimulationPathImpl) step.getPath();
+
+        Context pathContext = new ResolvingKnowledgeCommandContext( this.contexts.get( path.getName() ) );
 
         for ( Command cmd : step.getCommands() ) {
             if ( cmd instanceof NewKieSessionCommand ) {
@@ -139,11 +173,7 @@ public class Simulator
                 StatefulKnowledgeSession ksession = (StatefulKnowledgeSession) executionHandler.execute( (GenericCommand) cmd,
                                                                                                          pathContext );
                 if ( ksession != null ) {
-                    SessionPseudoClock clock = (SessionPseudoClock) ksession.getSessionClock();
-                    long newTime = startTime + step.getDistanceMillis();
-                    long currentTime = clock.getCurrentTime();
-                    clock.advanceTime( newTime - currentTime,
-                                       TimeUnit.MILLISECONDS );
+                    synchronizeClock( ksession );
                     this.ksessions.add( ksession );
                     this.lastReturnValue = ksession;
                 }
@@ -151,12 +181,24 @@ public class Simulator
                 this.ksessions.remove(getLastReturnValue());
                 executionHandler.execute( (GenericCommand) cmd, pathContext );
             } else if ( cmd instanceof GenericCommand ) {
+                // the ksession the command runs against is the one currently bound to the path
+                Object ksession = pathContext.get( KSESSION_ID );
+                if ( ksession instanceof StatefulKnowledgeSession && this.ksessions.contains( ksession ) ) {
+                    synchronizeClock( (StatefulKnowledgeSession) ksession );
+                }
                 this.lastReturnValue = executionHandler.execute( (GenericCommand) cmd,
                                                                  pathContext );
             }
         }
+    }
 
-        return step;
+    private void synchronizeClock(StatefulKnowledgeSession ksession) {
+        SessionPseudoClock clock = (SessionPseudoClock) ksession.getSessionClock();
+        long delta = this.currentTime - clock.getCurrentTime();
+        if ( delta != 0 ) {
+            clock.advanceTime( delta,
+                               TimeUnit.MILLISECONDS );
+        }
     }
 
     public void setCommandExecutionHandler(CommandExecutionHandler executionHandler) {
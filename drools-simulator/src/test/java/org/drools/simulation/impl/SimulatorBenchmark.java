@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.simulation.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.drools.simulation.fluent.simulation.SimulateTestBase;
+import org.drools.simulation.fluent.simulation.SimulationFluent;
+import org.drools.simulation.fluent.simulation.impl.DefaultSimulationFluent;
+import org.kie.api.builder.ReleaseId;
+
+/**
+ * Runs a simulation with many ksessions (one per path) and many steps per path and reports the time
+ * spent by the simulator. Not run as part of the build, start it with
+ * <code>SimulatorBenchmark [sessions] [steps] [iterations]</code>.
+ */
+public class SimulatorBenchmark extends SimulateTestBase {
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt( args[0] ) : 200;
+        int steps = args.length > 1 ? Integer.parseInt( args[1] ) : 200;
+        int iterations = args.length > 2 ? Integer.parseInt( args[2] ) : 10;
+
+        new SimulatorBenchmark().run( sessions, steps, iterations );
+    }
+
+    public void run(int sessions, int steps, int iterations) throws Exception {
+        String str = "package org.test\n" +
+                     "rule noop when String() then end\n";
+        ReleaseId releaseId = createKJar( "org.test.KBase1", str );
+
+        for ( int i = 0; i < iterations; i++ ) {
+            SimulationFluent f = newSimulation( releaseId, sessions, steps );
+
+            long start = System.nanoTime();
+            Simulator simulator = new Simulator( f.getSimulation(), 0 );
+            simulator.run();
+            long elapsed = System.nanoTime() - start;
+            simulator.dispose();
+
+            System.out.println( "Iteration " + i + ": " + sessions + " sessions x " + steps + " steps in "
+                                + TimeUnit.NANOSECONDS.toMillis( elapsed ) + " ms" );
+        }
+    }
+
+    private SimulationFluent newSimulation(ReleaseId releaseId, int sessions, int steps) {
+        SimulationFluent f = new DefaultSimulationFluent();
+        for ( int s = 0; s < sessions; s++ ) {
+            f.newPath( "path" + s )
+             .newStep( 0 )
+             .newKieSession( releaseId, "org.test.KBase1.KSession1" )
+             .end();
+            // paths interleave, every step distance is shared by a few paths only
+            for ( int i = 1; i <= steps; i++ ) {
+                f.newStep( i * 1000L + s % 10 )
+                 .getKieSession()
+                 .insert( "step" + i )
+                 .fireAllRules()
+                 .end();
+            }
+        }
+        return f;
+    }
+}
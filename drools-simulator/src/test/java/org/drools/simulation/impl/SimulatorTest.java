@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.simulation.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.command.GetVariableCommand;
+import org.drools.core.command.impl.GenericCommand;
+import org.drools.core.time.SessionPseudoClock;
+import org.drools.simulation.fluent.simulation.SimulateTestBase;
+import org.drools.simulation.fluent.simulation.SimulationFluent;
+import org.drools.simulation.fluent.simulation.impl.DefaultSimulationFluent;
+import org.junit.Test;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.command.Command;
+import org.kie.internal.command.Context;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+import org.kie.internal.simulation.SimulationStep;
+
+public class SimulatorTest extends SimulateTestBase {
+
+    @Test
+    public void testStepComparatorDoesNotOverflow() {
+        SimulationImpl simulation = new SimulationImpl();
+        SimulationPathImpl path = new SimulationPathImpl( simulation, "path" );
+
+        SimulationStep first = new SimulationStepImpl( path, 0 );
+        SimulationStep last = new SimulationStepImpl( path, Long.MAX_VALUE );
+
+        assertTrue( Simulator.STEP_COMPARATOR.compare( first, last ) < 0 );
+        assertTrue( Simulator.STEP_COMPARATOR.compare( last, first ) > 0 );
+        assertEquals( 0, Simulator.STEP_COMPARATOR.compare( last, new SimulationStepImpl( path, Long.MAX_VALUE ) ) );
+    }
+
+    @Test
+    public void testStepsSharingDistanceRunInOnePass() {
+        SimulationImpl simulation = new SimulationImpl();
+        SimulationPathImpl path1 = new SimulationPathImpl( simulation, "path1" );
+        SimulationPathImpl path2 = new SimulationPathImpl( simulation, "path2" );
+        simulation.getPaths().put( "path1", path1 );
+        simulation.getPaths().put( "path2", path2 );
+
+        final Map<Command, String> labels = new IdentityHashMap<Command, String>();
+        addStep( path1, 2000, "p1-2000", labels );
+        addStep( path1, 1000, "p1-1000", labels );
+        addStep( path2, 1000, "p2-1000", labels );
+        addStep( path2, 3000, "p2-3000", labels );
+
+        final List<String> executed = new ArrayList<String>();
+        Simulator simulator = new Simulator( simulation, 0 );
+        simulator.setCommandExecutionHandler( new Simulator.CommandExecutionHandler() {
+            public Object execute(GenericCommand command,
+                                  Context context) {
+                executed.add( labels.get( command ) );
+                return null;
+            }
+        } );
+
+        List<SimulationStep> steps = simulator.executeNextSteps();
+        assertEquals( 2, steps.size() );
+        assertEquals( 2, executed.size() );
+        assertTrue( executed.contains( "p1-1000" ) );
+        assertTrue( executed.contains( "p2-1000" ) );
+
+        assertEquals( 1, simulator.executeNextSteps().size() );
+        assertEquals( "p1-2000", executed.get( 2 ) );
+
+        assertEquals( 3000, simulator.executeNextStep().getDistanceMillis() );
+        assertTrue( simulator.executeNextSteps().isEmpty() );
+        assertEquals( null, simulator.executeNextStep() );
+    }
+
+    @Test
+    public void testClocksAreAdvancedLazily() throws Exception {
+        String str = "package org.test\n" +
+                     "rule noop when String() then end\n";
+        ReleaseId releaseId = createKJar( "org.test.KBase1", str );
+
+        SimulationFluent f = new DefaultSimulationFluent();
+        // @formatter:off
+        f.newPath( "path1" )
+        .newStep( 0 )
+        .newKieSession( releaseId, "org.test.KBase1.KSession1" )
+            .end()
+        .newStep( 1000 )
+        .getKieSession()
+            .fireAllRules()
+            .end()
+        .newPath( "path2" )
+        .newStep( 0 )
+        .newKieSession( releaseId, "org.test.KBase1.KSession1" )
+            .end()
+        .newStep( 5000 )
+        .getKieSession()
+            .fireAllRules()
+            .end();
+        // @formatter:on
+
+        long startTime = 10000;
+        Simulator simulator = new Simulator( f.getSimulation(), startTime );
+        try {
+            assertEquals( 2, simulator.executeNextSteps().size() );
+            StatefulKnowledgeSession ksession1 = getKieSession( simulator, "path1" );
+            StatefulKnowledgeSession ksession2 = getKieSession( simulator, "path2" );
+            assertEquals( startTime, getTime( ksession1 ) );
+            assertEquals( startTime, getTime( ksession2 ) );
+
+            // only the ksession the step runs against is advanced
+            assertEquals( 1, simulator.executeNextSteps().size() );
+            assertEquals( startTime + 1000, getTime( ksession1 ) );
+            assertEquals( startTime, getTime( ksession2 ) );
+
+            simulator.run();
+            assertEquals( startTime + 5000, getTime( ksession1 ) );
+            assertEquals( startTime + 5000, getTime( ksession2 ) );
+            assertSame( ksession1, getKieSession( simulator, "path1" ) );
+        } finally {
+            simulator.dispose();
+        }
+    }
+
+    private void addStep(SimulationPathImpl path, long distance, String label, Map<Command, String> labels) {
+        SimulationStepImpl step = new SimulationStepImpl( path, distance );
+        GetVariableCommand command = new GetVariableCommand( label );
+        labels.put( command, label );
+        step.getCommands().add( command );
+        path.getSteps().add( step );
+    }
+
+    private StatefulKnowledgeSession getKieSession(Simulator simulator, String path) {
+        return (StatefulKnowledgeSession) simulator.getContext( path ).get( StatefulKnowledgeSession.class.getName() );
+    }
+
+    private long getTime(StatefulKnowledgeSession ksession) {
+        return ((SessionPseudoClock) ksession.getSessionClock()).getCurrentTime();
+    }
+}
@@ -18,8 +18,10 @@ package org.jbpm.process.svg;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringWriter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -71,8 +73,9 @@ public class SVGImageProcessor {
 
     public static String transform(InputStream svg, List<String> completed, List<String> active, Map<String, String> subProcessLinks) {
         SVGImageProcessor processor = new SVGImageProcessor(svg);
+        Set<String> activeNodes = new HashSet<String>(active);
         for (String nodeId : completed) {
-            if (!active.contains(nodeId)) {
+            if (!activeNodes.contains(nodeId)) {
                 processor.defaultCompletedTransformation(nodeId);
             }
         }
@@ -91,8 +94,9 @@ public class SVGImageProcessor {
 
     public static String transformByName(InputStream svg, List<String> completed, List<String> active) {
         SVGImageProcessor processor = new SVGImageProcessor(svg, false);
+        Set<String> activeNodes = new HashSet<String>(active);
         for (String nodeId : completed) {
-            if (!active.contains(nodeId)) {
+            if (!activeNodes.contains(nodeId)) {
                 processor.defaultCompletedTransformation(nodeId);
             }
         }
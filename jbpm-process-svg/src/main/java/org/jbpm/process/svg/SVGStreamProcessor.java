@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.jbpm.process.svg;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * Applies the default completed, active and sub process link transformations of {@link SVGImageProcessor}
+ * in a single pass over the SVG, without building a DOM. Elements to be changed are identified when
+ * the element carrying the <code>bpmn2nodeid</code> attribute is read - the fill, frame and link elements
+ * of a node always follow it in documents produced by the designer - so only ids of the pending elements
+ * are kept in memory.
+ * <p>
+ * Only the mapping by node id is supported, mapping by name needs the node label which comes after
+ * the elements to be changed and is therefore left to {@link SVGImageProcessor#transformByName}.
+ */
+public class SVGStreamProcessor {
+
+    private static final String XLINK_NS = "http://www.w3.org/1999/xlink";
+
+    private static final String COMPLETED_COLOR = "#C0C0C0";
+    private static final String ACTIVE_COLOR = "#FF0000";
+
+    private static final QName ID = new QName("id");
+    private static final QName NODE_ID = new QName("bpmn2nodeid");
+
+    private static final XMLInputFactory inputFactory = createInputFactory();
+    private static final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+    private static final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    private final Set<String> completed;
+    private final Set<String> active;
+    private final Map<String, String> subProcessLinks;
+
+    // svg element id -> attributes to set on it
+    private final Map<String, List<Attribute>> pending = new HashMap<String, List<Attribute>>();
+
+    public SVGStreamProcessor(Collection<String> completed, Collection<String> active, Map<String, String> subProcessLinks) {
+        this.active = new HashSet<String>(active);
+        this.completed = new HashSet<String>(completed);
+        this.completed.removeAll(this.active);
+        this.subProcessLinks = subProcessLinks == null ? Collections.<String, String>emptyMap() : subProcessLinks;
+    }
+
+    public static String transform(InputStream svg, Collection<String> completed, Collection<String> active) {
+        return transform(svg, completed, active, null);
+    }
+
+    public static String transform(InputStream svg, Collection<String> completed, Collection<String> active, Map<String, String> subProcessLinks) {
+        StringWriter writer = new StringWriter();
+        new SVGStreamProcessor(completed, active, subProcessLinks).transform(svg, writer);
+        return writer.toString();
+    }
+
+    public void transform(InputStream svg, Writer output) {
+        try {
+            XMLEventReader reader = inputFactory.createXMLEventReader(svg);
+            XMLEventWriter writer = outputFactory.createXMLEventWriter(output);
+            try {
+                while (reader.hasNext()) {
+                    XMLEvent event = reader.nextEvent();
+                    switch (event.getEventType()) {
+                        case XMLEvent.START_DOCUMENT:
+                            writer.add(eventFactory.createStartDocument("UTF-8", "1.0"));
+                            break;
+                        case XMLEvent.START_ELEMENT:
+                            writer.add(processElement(event.asStartElement()));
+                            break;
+                        default:
+                            writer.add(event);
+                    }
+                }
+                writer.flush();
+            } finally {
+                reader.close();
+                writer.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Could not transform svg", e);
+        } finally {
+            pending.clear();
+        }
+    }
+
+    private StartElement processElement(StartElement element) {
+        Attribute idAttribute = element.getAttributeByName(ID);
+        if (idAttribute == null) {
+            return element;
+        }
+        String svgId = idAttribute.getValue();
+
+        Attribute nodeIdAttribute = element.getAttributeByName(NODE_ID);
+        if (nodeIdAttribute != null) {
+            registerNode(svgId, nodeIdAttribute.getValue());
+        }
+
+        List<Attribute> changes = pending.remove(svgId);
+        if (changes == null) {
+            return element;
+        }
+        return rewrite(element, changes);
+    }
+
+    private void registerNode(String svgId, String nodeId) {
+        if (completed.contains(nodeId)) {
+            pending.put(svgId + "fill_el", Collections.singletonList(eventFactory.createAttribute("stop-color", COMPLETED_COLOR)));
+        }
+        if (active.contains(nodeId)) {
+            List<Attribute> border = new ArrayList<Attribute>(2);
+            border.add(eventFactory.createAttribute("stroke", ACTIVE_COLOR));
+            border.add(eventFactory.createAttribute("stroke-width", "2"));
+            pending.put(svgId + "bg_frame", border);
+            pending.put(svgId + "frame", border);
+        }
+        String link = subProcessLinks.get(nodeId);
+        if (link != null) {
+            List<Attribute> linkAttributes = new ArrayList<Attribute>(3);
+            linkAttributes.add(eventFactory.createAttribute("onclick", ""));
+            linkAttributes.add(eventFactory.createAttribute("xlink", XLINK_NS, "href", link));
+            linkAttributes.add(eventFactory.createAttribute("target", "_blank"));
+            pending.put(svgId + "pimg", linkAttributes);
+        }
+    }
+
+    /*
+     * Same semantics as DOM setAttribute - existing attributes keep their position and get the new value,
+     * missing ones are appended
+     */
+    private StartElement rewrite(StartElement element, List<Attribute> changes) {
+        Map<String, Attribute> remaining = new HashMap<String, Attribute>();
+        for (Attribute change : changes) {
+            remaining.put(qualifiedName(change.getName()), change);
+        }
+        List<Attribute> attributes = new ArrayList<Attribute>();
+        Iterator<?> it = element.getAttributes();
+        while (it.hasNext()) {
+            Attribute attribute = (Attribute) it.next();
+            Attribute change = remaining.remove(qualifiedName(attribute.getName()));
+            attributes.add(change == null ? attribute : eventFactory.createAttribute(attribute.getName(), change.getValue()));
+        }
+        for (Attribute change : changes) {
+            if (remaining.containsKey(qualifiedName(change.getName()))) {
+                attributes.add(change);
+            }
+        }
+        return eventFactory.createStartElement(element.getName(), attributes.iterator(), element.getNamespaces());
+    }
+
+    private static String qualifiedName(QName name) {
+        String prefix = name.getPrefix();
+        if (prefix == null || prefix.isEmpty()) {
+            return name.getLocalPart();
+        }
+        return prefix + ":" + name.getLocalPart();
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+        return factory;
+    }
+}
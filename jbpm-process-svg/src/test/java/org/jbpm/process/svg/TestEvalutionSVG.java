@@ -108,8 +108,63 @@ public class TestEvalutionSVG {
         validateCallActivityLinked(svgDocument, active, links);
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        List<String> completed = new ArrayList<String>();
+        completed.add("_343B16DA-961A-49BF-8697-9A86DEAFBAF4");
+        completed.add("_6063D302-9D81-4C86-920B-E808A45377C2");
+        List<String> active = new ArrayList<String>();
+        active.add("_6063D302-9D81-4C86-920B-E808A45377C2");
+        String svg = SVGStreamProcessor.transform(TestEvalutionSVG.class.getResourceAsStream("/evaluation-svg.svg"), completed, active);
+
+        // verify transformation
+        Document svgDocument = readSVG(svg);
+        validateNodesMarkedAsActive(svgDocument, active);
+        completed.remove("_6063D302-9D81-4C86-920B-E808A45377C2");
+        validateNodesMarkedAsCompleted(svgDocument, completed);
+
+        String domSvg = SVGImageProcessor.transform(TestEvalutionSVG.class.getResourceAsStream("/evaluation-svg.svg"), completed, active);
+        assertSameElements(readSVG(domSvg), svgDocument);
+    }
+
+    @Test
+    public void testStreamingSubProcessLink() throws Exception {
+        List<String> completed = new ArrayList<String>();
+        List<String> active = new ArrayList<String>();
+        active.add("_35262208-8B3E-457E-8D8A-798E70CC280D");
+
+        Map<String, String> links = new HashMap<>();
+        links.put("_35262208-8B3E-457E-8D8A-798E70CC280D", "http://localhost/processes/1");
+        String svg = SVGStreamProcessor.transform(TestEvalutionSVG.class.getResourceAsStream("/call-activity-svg.svg"), completed, active, links);
+
+        // verify transformation
+        Document svgDocument = readSVG(svg);
+        validateNodesMarkedAsActive(svgDocument, active);
+        validateCallActivityLinked(svgDocument, active, links);
+
+        String domSvg = SVGImageProcessor.transform(TestEvalutionSVG.class.getResourceAsStream("/call-activity-svg.svg"), completed, active, links);
+        assertSameElements(readSVG(domSvg), svgDocument);
+    }
+
     // helper methods for verifying svg transformation
 
+    private void assertSameElements(Document expected, Document actual) throws XPathExpressionException {
+        NodeList expectedElements = (NodeList) xpath.compile("//*").evaluate(expected, XPathConstants.NODESET);
+        NodeList actualElements = (NodeList) xpath.compile("//*").evaluate(actual, XPathConstants.NODESET);
+        assertEquals(expectedElements.getLength(), actualElements.getLength());
+        for (int i = 0; i < expectedElements.getLength(); i++) {
+            Element expectedElement = (Element) expectedElements.item(i);
+            Element actualElement = (Element) actualElements.item(i);
+            assertEquals(expectedElement.getNodeName(), actualElement.getNodeName());
+            assertEquals(expectedElement.getAttributes().getLength(), actualElement.getAttributes().getLength());
+            for (int j = 0; j < expectedElement.getAttributes().getLength(); j++) {
+                Node attribute = expectedElement.getAttributes().item(j);
+                assertEquals(attribute.getNodeValue(), actualElement.getAttribute(attribute.getNodeName()));
+            }
+        }
+    }
+
+
     private void validateNodesMarkedAsActive(Document svgDocument, List<String> activeNodes) throws XPathExpressionException {
         for (String activeNode : activeNodes) {
 
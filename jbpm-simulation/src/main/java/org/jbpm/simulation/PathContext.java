@@ -19,6 +19,7 @@ import java.util.*;
 
 import org.eclipse.bpmn2.FlowElement;
 import org.eclipse.bpmn2.SequenceFlow;
+import org.jbpm.simulation.util.SharedLinkedSet;
 
 public class PathContext {
 
@@ -31,7 +32,7 @@ public class PathContext {
         TEMP;
     }
 
-    private Set<FlowElement> pathElements = new LinkedHashSet<FlowElement>();
+    private Set<FlowElement> pathElements = new SharedLinkedSet<FlowElement>();
     private Type type;
     private boolean canBeFinished = true;
     private boolean locked = false;
@@ -39,7 +40,7 @@ public class PathContext {
     private int canBeFinishedCounter = 0;
     private String pathId;
 
-    private Set<FlowElement> visitedSplitPoint = new LinkedHashSet<FlowElement>();
+    private Set<FlowElement> visitedSplitPoint = new SharedLinkedSet<FlowElement>();
 
     private FlowElement splitOrigin = null;
 
@@ -63,7 +64,7 @@ public class PathContext {
     
     public void addPathElement(FlowElement element) {
         checkSize();
-        if (!locked) {
+        if (!locked && element != null) {
             this.pathElements.add(element);
         }
     }
@@ -77,17 +78,22 @@ public class PathContext {
     public void addAllPathElement(List<SequenceFlow> elements) {
         checkSize();
         if (!locked) {
-            this.pathElements.addAll(elements);
+            for (SequenceFlow element : elements) {
+                if (element != null) {
+                    this.pathElements.add(element);
+                }
+            }
         }
     }
     
     public Set<FlowElement> getPathElements() {
-        this.pathElements.removeIf(Objects::isNull);
+        // never contains null elements, they are skipped when added and removed from sets given to setPathElements
         return this.pathElements;
     }
 
     public void setPathElements(Set<FlowElement> pathElements) {
-        this.pathElements = pathElements;
+        this.pathElements = SharedLinkedSet.copyOf(pathElements);
+        this.pathElements.remove(null);
     }
 
     public boolean isCanBeFinished() {
@@ -152,7 +158,16 @@ public class PathContext {
     }
 
     public void setVisitedSplitPoint(Set<FlowElement> visitedSplitPoint) {
-        this.visitedSplitPoint = visitedSplitPoint;
+        this.visitedSplitPoint = SharedLinkedSet.copyOf(visitedSplitPoint);
+    }
+
+    /**
+     * Copies path elements and visited split points of the given context into this one. The copy takes
+     * constant time as the content is shared between both contexts until either of them changes it.
+     */
+    public void copyPathFrom(PathContext other) {
+        this.pathElements = SharedLinkedSet.copyOf(other.pathElements);
+        this.visitedSplitPoint = SharedLinkedSet.copyOf(other.visitedSplitPoint);
     }
 
 
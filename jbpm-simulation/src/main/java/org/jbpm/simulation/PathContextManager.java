@@ -20,7 +20,6 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -119,8 +118,7 @@ public class PathContextManager {
         clone.setCanBeFinishedNoIncrement(toclone.isCanBeFinished());
         clone.setCanBeFinishedCounter(toclone.getCanBeFinishedCounter());
         
-        clone.setPathElements(new LinkedHashSet<FlowElement>(toclone.getPathElements()));
-        clone.setVisitedSplitPoint(new LinkedHashSet<FlowElement>(toclone.getVisitedSplitPoint()));
+        clone.copyPathFrom(toclone);
         
         this.paths.push(clone);
         return clone;
@@ -132,8 +130,7 @@ public class PathContextManager {
         clone.setCanBeFinishedNoIncrement(toclone.isCanBeFinished());
         clone.setCanBeFinishedCounter(toclone.getCanBeFinishedCounter());
         
-        clone.setPathElements(new LinkedHashSet<FlowElement>(toclone.getPathElements()));
-        clone.setVisitedSplitPoint(new LinkedHashSet<FlowElement>(toclone.getVisitedSplitPoint()));
+        clone.copyPathFrom(toclone);
         toclone.setType(Type.TEMP);
         return clone;
     }
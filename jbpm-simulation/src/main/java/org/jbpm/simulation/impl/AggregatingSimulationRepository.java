@@ -0,0 +1,443 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.jbpm.simulation.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jbpm.simulation.SimulationEvent;
+import org.jbpm.simulation.SimulationInfo;
+import org.jbpm.simulation.SimulationRepository;
+import org.jbpm.simulation.impl.events.ActivitySimulationEvent;
+import org.jbpm.simulation.impl.events.EndSimulationEvent;
+import org.jbpm.simulation.impl.events.GatewaySimulationEvent;
+import org.jbpm.simulation.impl.events.GenericSimulationEvent;
+import org.jbpm.simulation.impl.events.HumanTaskActivitySimulationEvent;
+import org.jbpm.simulation.impl.events.ProcessInstanceEndSimulationEvent;
+import org.jbpm.simulation.impl.events.StartSimulationEvent;
+
+/**
+ * Simulation repository that does not keep events in memory - instead it updates per node and per process
+ * aggregates as events arrive, so memory used by a simulation grows with number of nodes and not with number
+ * of events. Raw events can optionally be spilled to a local file and read back with
+ * {@link #readSpilledEvents(File, SimulationRepository)}.
+ * <br/>
+ * Spill file format: a header (magic number and version) followed by one record per event. Each record starts
+ * with the event kind, strings are written once and referenced by their index afterwards, and numbers are
+ * written as variable length values.
+ */
+public class AggregatingSimulationRepository implements SimulationRepository {
+
+    static final int SPILL_MAGIC = 0x4A53494D;
+    static final byte SPILL_VERSION = 1;
+
+    private static final byte KIND_GENERIC = 0;
+    private static final byte KIND_ACTIVITY = 1;
+    private static final byte KIND_HUMAN_TASK = 2;
+    private static final byte KIND_START = 3;
+    private static final byte KIND_END = 4;
+    private static final byte KIND_GATEWAY = 5;
+    private static final byte KIND_PROCESS_INSTANCE_END = 6;
+
+    // process id -> (node id -> aggregate)
+    private final Map<String, Map<String, SimulationAggregate>> nodeAggregates = new LinkedHashMap<String, Map<String, SimulationAggregate>>();
+    private final Map<String, SimulationAggregate> processAggregates = new LinkedHashMap<String, SimulationAggregate>();
+    private long eventCount;
+
+    private final File spillFile;
+    private DataOutputStream spillOutput;
+    private Map<String, Integer> spillStrings;
+
+    protected SimulationInfo simulationInfo;
+
+    public AggregatingSimulationRepository() {
+        this(null);
+    }
+
+    /**
+     * @param spillFile file raw events are written to, or <code>null</code> to only keep aggregates
+     */
+    public AggregatingSimulationRepository(File spillFile) {
+        this.spillFile = spillFile;
+    }
+
+    public synchronized void storeEvent(SimulationEvent event) {
+        eventCount++;
+        aggregate(event);
+        if (spillFile != null) {
+            spill(event);
+        }
+    }
+
+    public SimulationInfo getSimulationInfo() {
+        return this.simulationInfo;
+    }
+
+    public void setSimulationInfo(SimulationInfo simInfo) {
+        this.simulationInfo = simInfo;
+    }
+
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    public synchronized SimulationAggregate getNodeAggregate(String processId, String nodeId) {
+        Map<String, SimulationAggregate> nodes = nodeAggregates.get(processId);
+        if (nodes == null) {
+            return null;
+        }
+        return nodes.get(nodeId);
+    }
+
+    public synchronized Collection<SimulationAggregate> getNodeAggregates(String processId) {
+        Map<String, SimulationAggregate> nodes = nodeAggregates.get(processId);
+        if (nodes == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<SimulationAggregate>(nodes.values());
+    }
+
+    public synchronized SimulationAggregate getProcessAggregate(String processId) {
+        return processAggregates.get(processId);
+    }
+
+    public synchronized Collection<SimulationAggregate> getProcessAggregates() {
+        return new ArrayList<SimulationAggregate>(processAggregates.values());
+    }
+
+    public File getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Flushes and closes the spill file, if any. Aggregates remain available after close.
+     */
+    public synchronized void close() {
+        if (spillOutput != null) {
+            try {
+                spillOutput.close();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to close simulation spill file " + spillFile, e);
+            } finally {
+                spillOutput = null;
+                spillStrings = null;
+            }
+        }
+    }
+
+    protected void aggregate(SimulationEvent event) {
+        String processId = event.getProcessId();
+        long startTime = event.getStartTime();
+        long endTime = event.getEndTime();
+
+        if (event instanceof ProcessInstanceEndSimulationEvent) {
+            ProcessInstanceEndSimulationEvent processEvent = (ProcessInstanceEndSimulationEvent) event;
+            processAggregate(processId).record(processEvent.getProcessName(), event.getType(), startTime, endTime,
+                    processEvent.getProcessDuration());
+            return;
+        }
+
+        String nodeId = null;
+        String nodeName = null;
+        long duration = endTime - startTime;
+        if (event instanceof HumanTaskActivitySimulationEvent) {
+            HumanTaskActivitySimulationEvent taskEvent = (HumanTaskActivitySimulationEvent) event;
+            nodeId = taskEvent.getActivityId();
+            nodeName = taskEvent.getActivityName();
+            duration = taskEvent.getDuration();
+        } else if (event instanceof ActivitySimulationEvent) {
+            ActivitySimulationEvent activityEvent = (ActivitySimulationEvent) event;
+            nodeId = activityEvent.getActivityId();
+            nodeName = activityEvent.getActivityName();
+            duration = activityEvent.getDuration();
+        } else if (event instanceof StartSimulationEvent) {
+            nodeId = ((StartSimulationEvent) event).getActivityId();
+            nodeName = ((StartSimulationEvent) event).getActivityName();
+        } else if (event instanceof EndSimulationEvent) {
+            nodeId = ((EndSimulationEvent) event).getActivityId();
+            nodeName = ((EndSimulationEvent) event).getActivityName();
+        } else if (event instanceof GatewaySimulationEvent) {
+            nodeId = ((GatewaySimulationEvent) event).getActivityId();
+            nodeName = ((GatewaySimulationEvent) event).getActivityName();
+        }
+        if (nodeId == null) {
+            return;
+        }
+
+        SimulationAggregate node = nodeAggregate(processId, nodeId);
+        node.record(nodeName, event.getType(), startTime, endTime, duration);
+        if (event instanceof HumanTaskActivitySimulationEvent) {
+            HumanTaskActivitySimulationEvent taskEvent = (HumanTaskActivitySimulationEvent) event;
+            node.recordWaitTime(taskEvent.getWaitTime());
+            node.recordResources(taskEvent.getResourceCost(), taskEvent.getResourceUtilization());
+            processAggregate(processId).recordResources(taskEvent.getResourceCost(), 0);
+        }
+    }
+
+    private SimulationAggregate nodeAggregate(String processId, String nodeId) {
+        Map<String, SimulationAggregate> nodes = nodeAggregates.get(processId);
+        if (nodes == null) {
+            nodes = new LinkedHashMap<String, SimulationAggregate>();
+            nodeAggregates.put(processId, nodes);
+        }
+        SimulationAggregate aggregate = nodes.get(nodeId);
+        if (aggregate == null) {
+            aggregate = new SimulationAggregate(processId, nodeId);
+            nodes.put(nodeId, aggregate);
+        }
+        return aggregate;
+    }
+
+    private SimulationAggregate processAggregate(String processId) {
+        SimulationAggregate aggregate = processAggregates.get(processId);
+        if (aggregate == null) {
+            aggregate = new SimulationAggregate(processId, processId);
+            processAggregates.put(processId, aggregate);
+        }
+        return aggregate;
+    }
+
+    private void spill(SimulationEvent event) {
+        try {
+            if (spillOutput == null) {
+                spillOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile), 64 * 1024));
+                spillOutput.writeInt(SPILL_MAGIC);
+                spillOutput.writeByte(SPILL_VERSION);
+                spillStrings = new HashMap<String, Integer>();
+            }
+            writeEvent(event);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to write simulation event to spill file " + spillFile, e);
+        }
+    }
+
+    private void writeEvent(SimulationEvent event) throws IOException {
+        DataOutputStream out = spillOutput;
+        if (event instanceof HumanTaskActivitySimulationEvent) {
+            HumanTaskActivitySimulationEvent taskEvent = (HumanTaskActivitySimulationEvent) event;
+            writeHeader(KIND_HUMAN_TASK, event);
+            writeString(taskEvent.getActivityId());
+            writeString(taskEvent.getActivityName());
+            writeVarLong(out, taskEvent.getDuration());
+            writeVarLong(out, taskEvent.getWaitTime());
+            out.writeDouble(taskEvent.getResourceCost());
+            out.writeDouble(taskEvent.getResourceUtilization());
+        } else if (event instanceof ActivitySimulationEvent) {
+            ActivitySimulationEvent activityEvent = (ActivitySimulationEvent) event;
+            writeHeader(KIND_ACTIVITY, event);
+            writeString(event.getType());
+            writeString(activityEvent.getActivityId());
+            writeString(activityEvent.getActivityName());
+            writeVarLong(out, activityEvent.getDuration());
+        } else if (event instanceof StartSimulationEvent) {
+            writeHeader(KIND_START, event);
+            writeString(((StartSimulationEvent) event).getActivityId());
+            writeString(((StartSimulationEvent) event).getActivityName());
+        } else if (event instanceof EndSimulationEvent) {
+            EndSimulationEvent endEvent = (EndSimulationEvent) event;
+            writeHeader(KIND_END, event);
+            writeString(endEvent.getActivityId());
+            writeString(endEvent.getActivityName());
+            writeString(endEvent.getProcessName());
+            writeString(endEvent.getProcessVersion());
+            writeVarLong(out, endEvent.getProcessDuration());
+        } else if (event instanceof GatewaySimulationEvent) {
+            writeHeader(KIND_GATEWAY, event);
+            writeString(event.getType());
+            writeString(((GatewaySimulationEvent) event).getActivityId());
+            writeString(((GatewaySimulationEvent) event).getActivityName());
+        } else if (event instanceof ProcessInstanceEndSimulationEvent) {
+            ProcessInstanceEndSimulationEvent processEvent = (ProcessInstanceEndSimulationEvent) event;
+            writeHeader(KIND_PROCESS_INSTANCE_END, event);
+            writeString(processEvent.getPathId());
+            writeString(processEvent.getProcessName());
+            writeString(processEvent.getProcessVersion());
+        } else {
+            writeHeader(KIND_GENERIC, event);
+            writeString(event.getType());
+        }
+    }
+
+    private void writeHeader(byte kind, SimulationEvent event) throws IOException {
+        spillOutput.writeByte(kind);
+        writeString(event.getProcessId());
+        writeVarLong(spillOutput, event.getProcessInstanceId());
+        spillOutput.writeLong(event.getStartTime());
+        writeVarLong(spillOutput, event.getEndTime() - event.getStartTime());
+    }
+
+    /*
+     * strings are referenced by index + 1 (0 stands for null); an index equal to the size of the table
+     * announces a new string that follows in modified UTF-8
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(spillOutput, 0);
+            return;
+        }
+        Integer index = spillStrings.get(value);
+        if (index != null) {
+            writeVarLong(spillOutput, index);
+            return;
+        }
+        index = spillStrings.size() + 1;
+        spillStrings.put(value, index);
+        writeVarLong(spillOutput, index);
+        spillOutput.writeUTF(value);
+    }
+
+    /**
+     * Reads events spilled by this repository and stores them into given repository, in the order they
+     * were written.
+     * @return number of events read
+     */
+    public static long readSpilledEvents(File spillFile, SimulationRepository target) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile), 64 * 1024));
+        try {
+            if (in.readInt() != SPILL_MAGIC) {
+                throw new IOException("File " + spillFile + " is not a simulation spill file");
+            }
+            byte version = in.readByte();
+            if (version != SPILL_VERSION) {
+                throw new IOException("Unsupported simulation spill file version " + version);
+            }
+            List<String> strings = new ArrayList<String>();
+            long count = 0;
+            while (true) {
+                int kind = in.read();
+                if (kind == -1) {
+                    return count;
+                }
+                target.storeEvent(readEvent((byte) kind, in, strings));
+                count++;
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static SimulationEvent readEvent(byte kind, DataInputStream in, List<String> strings) throws IOException {
+        String processId = readString(in, strings);
+        long processInstanceId = readVarLong(in);
+        long startTime = in.readLong();
+        long endTime = startTime + readVarLong(in);
+
+        switch (kind) {
+            case KIND_HUMAN_TASK: {
+                String activityId = readString(in, strings);
+                String activityName = readString(in, strings);
+                long duration = readVarLong(in);
+                long waitTime = readVarLong(in);
+                double resourceCost = in.readDouble();
+                double resourceUtilization = in.readDouble();
+                return new HumanTaskActivitySimulationEvent(processId, processInstanceId, activityName, activityId,
+                        duration, waitTime, resourceCost, startTime, endTime, resourceUtilization);
+            }
+            case KIND_ACTIVITY: {
+                String type = readString(in, strings);
+                String activityId = readString(in, strings);
+                String activityName = readString(in, strings);
+                long duration = readVarLong(in);
+                return new ActivitySimulationEvent(processId, processInstanceId, activityName, activityId, duration,
+                        startTime, endTime, type);
+            }
+            case KIND_START: {
+                String activityId = readString(in, strings);
+                String activityName = readString(in, strings);
+                return new StartSimulationEvent(processId, processInstanceId, startTime, endTime, activityId, activityName);
+            }
+            case KIND_END: {
+                String activityId = readString(in, strings);
+                String activityName = readString(in, strings);
+                String processName = readString(in, strings);
+                String processVersion = readString(in, strings);
+                long processDuration = readVarLong(in);
+                return new EndSimulationEvent(processId, processInstanceId, startTime, endTime, endTime - processDuration,
+                        activityId, activityName, processName, processVersion);
+            }
+            case KIND_GATEWAY: {
+                String type = readString(in, strings);
+                String activityId = readString(in, strings);
+                String activityName = readString(in, strings);
+                return new GatewaySimulationEvent(processId, processInstanceId, startTime, endTime, activityId, activityName, type);
+            }
+            case KIND_PROCESS_INSTANCE_END: {
+                String pathId = readString(in, strings);
+                String processName = readString(in, strings);
+                String processVersion = readString(in, strings);
+                return new ProcessInstanceEndSimulationEvent(processId, processInstanceId, startTime, endTime, pathId,
+                        processName, processVersion);
+            }
+            case KIND_GENERIC:
+                return new GenericSimulationEvent(processId, processInstanceId, startTime, endTime, readString(in, strings));
+            default:
+                throw new IOException("Unknown simulation event kind " + kind);
+        }
+    }
+
+    private static String readString(DataInputStream in, List<String> strings) throws IOException {
+        int index = (int) readVarLong(in);
+        if (index == 0) {
+            return null;
+        }
+        if (index == strings.size() + 1) {
+            strings.add(in.readUTF());
+        } else if (index > strings.size()) {
+            throw new IOException("Corrupted simulation spill file, unknown string reference " + index);
+        }
+        return strings.get(index - 1);
+    }
+
+    // zig-zag encoded variable length longs, so small negative values stay short too
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        long encoded = (value << 1) ^ (value >> 63);
+        while ((encoded & ~0x7FL) != 0) {
+            out.writeByte((int) ((encoded & 0x7F) | 0x80));
+            encoded >>>= 7;
+        }
+        out.writeByte((int) encoded);
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long encoded = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Truncated simulation spill file");
+            }
+            encoded |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (encoded >>> 1) ^ -(encoded & 1);
+            }
+        }
+        throw new IOException("Corrupted simulation spill file, variable length value too long");
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.jbpm.simulation.impl;
+
+/**
+ * Running statistics of a single node or process, updated with every simulation event
+ * and kept in constant space regardless of the number of events seen.
+ */
+public class SimulationAggregate {
+
+    private final String processId;
+    private final String id;
+    private String name;
+    private String type;
+
+    private long count;
+    private long minDuration = Long.MAX_VALUE;
+    private long maxDuration = Long.MIN_VALUE;
+    private long totalDuration;
+
+    private long minWaitTime = Long.MAX_VALUE;
+    private long maxWaitTime = Long.MIN_VALUE;
+    private long totalWaitTime;
+
+    private double totalResourceCost;
+    private double totalResourceUtilization;
+
+    private long firstStartTime = Long.MAX_VALUE;
+    private long lastEndTime = Long.MIN_VALUE;
+
+    public SimulationAggregate(String processId, String id) {
+        this.processId = processId;
+        this.id = id;
+    }
+
+    void record(String name, String type, long startTime, long endTime, long duration) {
+        if (name != null) {
+            this.name = name;
+        }
+        if (type != null) {
+            this.type = type;
+        }
+        count++;
+        minDuration = Math.min(minDuration, duration);
+        maxDuration = Math.max(maxDuration, duration);
+        totalDuration += duration;
+        firstStartTime = Math.min(firstStartTime, startTime);
+        lastEndTime = Math.max(lastEndTime, endTime);
+    }
+
+    void recordWaitTime(long waitTime) {
+        minWaitTime = Math.min(minWaitTime, waitTime);
+        maxWaitTime = Math.max(maxWaitTime, waitTime);
+        totalWaitTime += waitTime;
+    }
+
+    void recordResources(double resourceCost, double resourceUtilization) {
+        totalResourceCost += resourceCost;
+        totalResourceUtilization += resourceUtilization;
+    }
+
+    public String getProcessId() {
+        return processId;
+    }
+
+    /**
+     * Returns node id for node aggregates and process id for process aggregates.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        if (name != null) {
+            return name;
+        }
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMinDuration() {
+        return count == 0 ? 0 : minDuration;
+    }
+
+    public long getMaxDuration() {
+        return count == 0 ? 0 : maxDuration;
+    }
+
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    public double getAverageDuration() {
+        return count == 0 ? 0 : (double) totalDuration / count;
+    }
+
+    public long getMinWaitTime() {
+        return minWaitTime == Long.MAX_VALUE ? 0 : minWaitTime;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime == Long.MIN_VALUE ? 0 : maxWaitTime;
+    }
+
+    public double getAverageWaitTime() {
+        return count == 0 ? 0 : (double) totalWaitTime / count;
+    }
+
+    public double getTotalResourceCost() {
+        return totalResourceCost;
+    }
+
+    public double getAverageResourceCost() {
+        return count == 0 ? 0 : totalResourceCost / count;
+    }
+
+    public double getAverageResourceUtilization() {
+        return count == 0 ? 0 : totalResourceUtilization / count;
+    }
+
+    public long getFirstStartTime() {
+        return count == 0 ? 0 : firstStartTime;
+    }
+
+    public long getLastEndTime() {
+        return count == 0 ? 0 : lastEndTime;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationAggregate[process=" + processId + ", id=" + id + ", count=" + count
+                + ", min=" + getMinDuration() + ", max=" + getMaxDuration() + ", avg=" + getAverageDuration()
+                + ", resource cost=" + totalResourceCost + "]";
+    }
+}
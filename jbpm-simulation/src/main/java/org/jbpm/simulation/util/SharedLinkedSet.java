@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.jbpm.simulation.util;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Insertion ordered set (same iteration order as <code>LinkedHashSet</code>) that can be copied in constant time.
+ * Content that exists at the time of the copy is frozen into an immutable segment shared by the original
+ * and the copy; each of them records only elements added or removed afterwards.
+ * Used by path contexts of the path finder, where every diverging gateway copies the current path.
+ */
+public class SharedLinkedSet<E> extends AbstractSet<E> {
+
+    /*
+     * Number of shared segments after which the content is flattened into a single segment,
+     * to keep lookups cheap on paths with many splits
+     */
+    static final int MAX_DEPTH = 32;
+
+    private static final class Segment<E> {
+        private final Segment<E> parent;
+        private final Set<E> elements;
+        // elements hidden from the older segments
+        private final Set<Object> removed;
+        private final int depth;
+
+        private Segment(Segment<E> parent, Set<E> elements, Set<Object> removed) {
+            this.parent = parent;
+            this.elements = elements;
+            this.removed = removed;
+            this.depth = parent == null ? 1 : parent.depth + 1;
+        }
+    }
+
+    private Segment<E> shared;
+    private Set<E> elements = new LinkedHashSet<E>();
+    private Set<Object> removed;
+    private int size;
+
+    public SharedLinkedSet() {
+    }
+
+    public SharedLinkedSet(Collection<? extends E> elements) {
+        addAll(elements);
+    }
+
+    /**
+     * Returns a set with the same content as the given one - in constant time if the given set is
+     * a <code>SharedLinkedSet</code> too.
+     */
+    public static <E> SharedLinkedSet<E> copyOf(Set<E> set) {
+        if (set instanceof SharedLinkedSet) {
+            return ((SharedLinkedSet<E>) set).copy();
+        }
+        return new SharedLinkedSet<E>(set);
+    }
+
+    /**
+     * Returns an independent copy of this set, sharing the current content with it.
+     */
+    public SharedLinkedSet<E> copy() {
+        freeze();
+        SharedLinkedSet<E> copy = new SharedLinkedSet<E>();
+        copy.shared = this.shared;
+        copy.size = this.size;
+        return copy;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (elements.contains(o)) {
+            return true;
+        }
+        if (removed != null && removed.contains(o)) {
+            return false;
+        }
+        return sharedContains(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (contains(e)) {
+            return false;
+        }
+        elements.add(e);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (elements.remove(o)) {
+            size--;
+            return true;
+        }
+        if ((removed != null && removed.contains(o)) || !sharedContains(o)) {
+            return false;
+        }
+        if (removed == null) {
+            removed = new HashSet<Object>();
+        }
+        removed.add(o);
+        size--;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        shared = null;
+        elements = new LinkedHashSet<E>();
+        removed = null;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Iterator<E> snapshot = toList().iterator();
+        return new Iterator<E>() {
+            private E last;
+            private boolean canRemove;
+
+            @Override
+            public boolean hasNext() {
+                return snapshot.hasNext();
+            }
+
+            @Override
+            public E next() {
+                if (!snapshot.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                last = snapshot.next();
+                canRemove = true;
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException();
+                }
+                SharedLinkedSet.this.remove(last);
+                canRemove = false;
+            }
+        };
+    }
+
+    /**
+     * Number of shared segments behind this set, exposed for tests.
+     */
+    int getSharedDepth() {
+        return shared == null ? 0 : shared.depth;
+    }
+
+    /**
+     * Number of elements owned by this set only, exposed for tests.
+     */
+    int getOwnedSize() {
+        return elements.size() + (removed == null ? 0 : removed.size());
+    }
+
+    private boolean sharedContains(Object o) {
+        for (Segment<E> segment = shared; segment != null; segment = segment.parent) {
+            if (segment.elements.contains(o)) {
+                return true;
+            }
+            if (segment.removed != null && segment.removed.contains(o)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void freeze() {
+        if (!elements.isEmpty() || (removed != null && !removed.isEmpty())) {
+            shared = new Segment<E>(shared, elements, removed);
+            elements = new LinkedHashSet<E>();
+            removed = null;
+        }
+        if (shared != null && shared.depth > MAX_DEPTH) {
+            shared = new Segment<E>(null, new LinkedHashSet<E>(toList()), null);
+        }
+    }
+
+    /*
+     * Collects the visible elements in insertion order; an element of a segment is visible unless
+     * a newer segment removed it
+     */
+    private List<E> toList() {
+        List<Set<E>> levels = new ArrayList<Set<E>>();
+        List<Set<Object>> removals = new ArrayList<Set<Object>>();
+        levels.add(elements);
+        removals.add(removed);
+        for (Segment<E> segment = shared; segment != null; segment = segment.parent) {
+            levels.add(segment.elements);
+            removals.add(segment.removed);
+        }
+
+        List<List<E>> visible = new ArrayList<List<E>>(levels.size());
+        Set<Object> hidden = new HashSet<Object>();
+        for (int i = 0; i < levels.size(); i++) {
+            List<E> visibleAtLevel = new ArrayList<E>(levels.get(i).size());
+            for (E element : levels.get(i)) {
+                if (!hidden.contains(element)) {
+                    visibleAtLevel.add(element);
+                }
+            }
+            visible.add(visibleAtLevel);
+            if (removals.get(i) != null) {
+                hidden.addAll(removals.get(i));
+            }
+        }
+
+        List<E> result = new ArrayList<E>(size);
+        for (int i = visible.size() - 1; i >= 0; i--) {
+            result.addAll(visible.get(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.jbpm.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.time.SessionPseudoClock;
+import org.jbpm.simulation.converter.SimulationFilterPathFormatConverter;
+import org.jbpm.simulation.helper.TestUtils;
+import org.jbpm.simulation.impl.AggregatingSimulationRepository;
+import org.jbpm.simulation.impl.BPMN2SimulationDataProvider;
+import org.jbpm.simulation.impl.InMemorySimulationRepository;
+import org.jbpm.simulation.impl.SimulationAggregate;
+import org.jbpm.simulation.impl.SimulationPath;
+import org.jbpm.simulation.impl.events.ActivitySimulationEvent;
+import org.jbpm.simulation.impl.events.EndSimulationEvent;
+import org.jbpm.simulation.impl.events.HumanTaskActivitySimulationEvent;
+import org.jbpm.simulation.impl.events.ProcessInstanceEndSimulationEvent;
+import org.jbpm.simulation.impl.events.StartSimulationEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.api.runtime.KieSession;
+
+public class AggregatingSimulationRepositoryTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAggregatesAreUpdatedPerEvent() {
+        AggregatingSimulationRepository repo = new AggregatingSimulationRepository();
+
+        repo.storeEvent(new StartSimulationEvent("proc", 1, 0, 0, "_1", "start"));
+        repo.storeEvent(new HumanTaskActivitySimulationEvent("proc", 1, "task", "_2", 100, 10, 5.0, 0, 100, 50.0));
+        repo.storeEvent(new HumanTaskActivitySimulationEvent("proc", 2, "task", "_2", 300, 30, 7.0, 100, 400, 70.0));
+        repo.storeEvent(new ActivitySimulationEvent("proc", 1, "script", "_3", 40, 100, 140, "scriptTask"));
+        repo.storeEvent(new EndSimulationEvent("proc", 1, 140, 140, 0, "_4", "end", "Process", "1.0"));
+        repo.storeEvent(new ProcessInstanceEndSimulationEvent("proc", 1, 0, 140, "path", "Process", "1.0"));
+        repo.storeEvent(new ProcessInstanceEndSimulationEvent("proc", 2, 100, 460, "path", "Process", "1.0"));
+
+        assertEquals(7, repo.getEventCount());
+        assertEquals(4, repo.getNodeAggregates("proc").size());
+
+        SimulationAggregate task = repo.getNodeAggregate("proc", "_2");
+        assertNotNull(task);
+        assertEquals("task", task.getName());
+        assertEquals(2, task.getCount());
+        assertEquals(100, task.getMinDuration());
+        assertEquals(300, task.getMaxDuration());
+        assertEquals(200.0, task.getAverageDuration(), 0);
+        assertEquals(10, task.getMinWaitTime());
+        assertEquals(30, task.getMaxWaitTime());
+        assertEquals(12.0, task.getTotalResourceCost(), 0);
+        assertEquals(60.0, task.getAverageResourceUtilization(), 0);
+
+        SimulationAggregate process = repo.getProcessAggregate("proc");
+        assertNotNull(process);
+        assertEquals(2, process.getCount());
+        assertEquals(140, process.getMinDuration());
+        assertEquals(360, process.getMaxDuration());
+        assertEquals(12.0, process.getTotalResourceCost(), 0);
+        assertEquals(0, process.getFirstStartTime());
+        assertEquals(460, process.getLastEndTime());
+    }
+
+    @Test
+    public void testSpilledEventsCanBeReadBack() throws Exception {
+        File spillFile = new File(temporaryFolder.getRoot(), "events.bin");
+        AggregatingSimulationRepository repo = new AggregatingSimulationRepository(spillFile);
+
+        int instances = 1000;
+        for (int i = 0; i < instances; i++) {
+            repo.storeEvent(new StartSimulationEvent("proc", i, i, i, "_1", "start"));
+            repo.storeEvent(new HumanTaskActivitySimulationEvent("proc", i, "task", "_2", i, 2 * i, 1.5, i, 2 * i, 20.0));
+            repo.storeEvent(new ProcessInstanceEndSimulationEvent("proc", i, i, 3 * i, "path", "Process", "1.0"));
+        }
+        repo.close();
+        assertTrue(spillFile.length() > 0);
+
+        InMemorySimulationRepository target = new InMemorySimulationRepository();
+        assertEquals(3 * instances, AggregatingSimulationRepository.readSpilledEvents(spillFile, target));
+        assertEquals(3 * instances, target.getEvents().size());
+
+        HumanTaskActivitySimulationEvent task = (HumanTaskActivitySimulationEvent) target.getEvents().get(3 * 500 + 1);
+        assertEquals("proc", task.getProcessId());
+        assertEquals(500, task.getProcessInstanceId());
+        assertEquals("_2", task.getActivityId());
+        assertEquals("task", task.getActivityName());
+        assertEquals(500, task.getDuration());
+        assertEquals(1000, task.getWaitTime());
+        assertEquals(1.5, task.getResourceCost(), 0);
+        assertEquals(500, task.getStartTime());
+        assertEquals(1000, task.getEndTime());
+
+        ProcessInstanceEndSimulationEvent end = (ProcessInstanceEndSimulationEvent) target.getEvents().get(3 * 999 + 2);
+        assertEquals("path", end.getPathId());
+        assertEquals(2 * 999, end.getProcessDuration());
+
+        // replaying the spill file gives the same aggregates
+        AggregatingSimulationRepository replayed = new AggregatingSimulationRepository();
+        AggregatingSimulationRepository.readSpilledEvents(spillFile, replayed);
+        assertEquals(repo.getNodeAggregate("proc", "_2").getTotalDuration(),
+                replayed.getNodeAggregate("proc", "_2").getTotalDuration());
+        assertEquals(repo.getProcessAggregate("proc").getAverageDuration(),
+                replayed.getProcessAggregate("proc").getAverageDuration(), 0);
+    }
+
+    @Test
+    public void testAggregatingRepositoryWithSimulation() {
+        PathFinder finder = PathFinderFactory.getInstance(this.getClass().getResourceAsStream("/BPMN2-TwoUserTasks.bpmn2"));
+
+        List<SimulationPath> paths = finder.findPaths(new SimulationFilterPathFormatConverter());
+        AggregatingSimulationRepository repo = new AggregatingSimulationRepository();
+        SimulationContext context = SimulationContextFactory.newContext(new BPMN2SimulationDataProvider(this.getClass().getResourceAsStream("/BPMN2-TwoUserTasks.bpmn2"))
+        , repo);
+
+        for (int i = 0; i < 5; i++) {
+            for (SimulationPath path : paths) {
+                context.setCurrentPath(path);
+                KieSession session = TestUtils.createSession("BPMN2-TwoUserTasks.bpmn2");
+
+                context.setClock((SessionPseudoClock) session.getSessionClock());
+                context.getClock().advanceTime(System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+
+                session.startProcess("BPMN2-TwoUserTasks");
+            }
+        }
+
+        assertTrue(repo.getEventCount() > 0);
+        assertTrue(repo.getNodeAggregates("BPMN2-TwoUserTasks").size() > 0);
+        for (SimulationAggregate node : repo.getNodeAggregates("BPMN2-TwoUserTasks")) {
+            assertEquals(5 * paths.size(), node.getCount());
+        }
+    }
+}
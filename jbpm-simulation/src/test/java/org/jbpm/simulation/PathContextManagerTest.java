@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.jbpm.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.bpmn2.Bpmn2Factory;
+import org.eclipse.bpmn2.ExclusiveGateway;
+import org.eclipse.bpmn2.FlowElement;
+import org.eclipse.bpmn2.SequenceFlow;
+import org.junit.Test;
+
+public class PathContextManagerTest {
+
+    /*
+     * Simulates a chain of nested diverging gateways where each gateway splits the path in two and
+     * every resulting path stays alive; with copied sets this needed memory quadratic in the depth
+     * of the chain for each path, with shared sets every split only records the new elements
+     */
+    @Test
+    public void testDeeplyNestedGatewaysShareTheirPrefix() {
+        int depth = 240;
+        PathContextManager manager = new PathContextManager();
+        PathContext current = manager.getContextFromStack();
+
+        List<PathContext> branches = new ArrayList<PathContext>();
+        List<FlowElement> expectedPrefix = new ArrayList<FlowElement>();
+        for (int i = 0; i < depth; i++) {
+            ExclusiveGateway gateway = Bpmn2Factory.eINSTANCE.createExclusiveGateway();
+            gateway.setId("gateway" + i);
+            current.addPathElement(gateway);
+            expectedPrefix.add(gateway);
+
+            SequenceFlow left = sequenceFlow("left" + i);
+            SequenceFlow right = sequenceFlow("right" + i);
+
+            PathContext leftBranch = manager.cloneGivenWithoutPush(current);
+            leftBranch.addVisitedSplitPoint(left);
+            leftBranch.addPathElement(left);
+            branches.add(leftBranch);
+
+            PathContext rightBranch = manager.cloneGivenWithoutPush(current);
+            rightBranch.addVisitedSplitPoint(right);
+            rightBranch.addPathElement(right);
+            expectedPrefix.add(right);
+
+            // continue the chain in the right branch
+            current = rightBranch;
+        }
+
+        assertEquals(2 * depth, current.getPathElements().size());
+        assertEquals(expectedPrefix, new ArrayList<FlowElement>(current.getPathElements()));
+        assertEquals(depth, current.getVisitedSplitPoint().size());
+
+        for (int i = 0; i < depth; i++) {
+            PathContext leftBranch = branches.get(i);
+            List<FlowElement> elements = new ArrayList<FlowElement>(leftBranch.getPathElements());
+            assertEquals(2 * i + 2, elements.size());
+            assertEquals("left" + i, elements.get(elements.size() - 1).getId());
+            assertTrue(leftBranch.getVisitedSplitPoint().contains(elements.get(elements.size() - 1)));
+            assertFalse(leftBranch.getPathElements().contains(expectedPrefix.get(2 * i + 1)));
+        }
+    }
+
+    /*
+     * Many paths forked from a single long prefix - copying the prefix for each of them
+     * would need tens of millions of set entries
+     */
+    @Test
+    public void testManySplitsOfLongPathStayBounded() {
+        PathContextManager manager = new PathContextManager();
+        PathContext root = manager.getContextFromStack();
+        for (int i = 0; i < 450; i++) {
+            root.addPathElement(sequenceFlow("flow" + i));
+        }
+
+        List<PathContext> paths = new ArrayList<PathContext>();
+        for (int i = 0; i < 100000; i++) {
+            PathContext path = manager.cloneGivenWithoutPush(root);
+            path.addPathElement(sequenceFlow("split" + i));
+            paths.add(path);
+        }
+
+        assertEquals(100000, paths.size());
+        assertEquals(451, paths.get(paths.size() - 1).getPathElements().size());
+        assertEquals(450, root.getPathElements().size());
+    }
+
+    private static SequenceFlow sequenceFlow(String id) {
+        SequenceFlow flow = Bpmn2Factory.eINSTANCE.createSequenceFlow();
+        flow.setId(id);
+        return flow;
+    }
+}
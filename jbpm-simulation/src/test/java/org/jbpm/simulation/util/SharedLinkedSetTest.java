@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.jbpm.simulation.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SharedLinkedSetTest {
+
+    @Test
+    public void testKeepsInsertionOrder() {
+        SharedLinkedSet<String> set = new SharedLinkedSet<String>(Arrays.asList("a", "b", "c"));
+        assertFalse(set.add("b"));
+        assertTrue(set.add("d"));
+
+        assertEquals(Arrays.asList("a", "b", "c", "d"), new ArrayList<String>(set));
+        assertEquals(4, set.size());
+    }
+
+    @Test
+    public void testCopiesAreIndependent() {
+        SharedLinkedSet<String> original = new SharedLinkedSet<String>(Arrays.asList("a", "b"));
+        SharedLinkedSet<String> copy = original.copy();
+
+        original.add("c");
+        copy.add("x");
+        copy.remove("a");
+
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<String>(original));
+        assertEquals(Arrays.asList("b", "x"), new ArrayList<String>(copy));
+        assertTrue(original.contains("a"));
+        assertFalse(copy.contains("a"));
+        assertFalse(original.contains("x"));
+    }
+
+    @Test
+    public void testRemovedAndAddedAgainGoesToTheEnd() {
+        SharedLinkedSet<String> set = new SharedLinkedSet<String>(Arrays.asList("a", "b", "c"));
+        SharedLinkedSet<String> copy = set.copy();
+
+        assertTrue(copy.remove("a"));
+        assertFalse(copy.remove("a"));
+        assertTrue(copy.add("a"));
+        SharedLinkedSet<String> copyOfCopy = copy.copy();
+        assertTrue(copyOfCopy.remove("a"));
+
+        // same behaviour as LinkedHashSet
+        Set<String> expected = new LinkedHashSet<String>(Arrays.asList("a", "b", "c"));
+        expected.remove("a");
+        expected.add("a");
+        assertEquals(new ArrayList<String>(expected), new ArrayList<String>(copy));
+        assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(copyOfCopy));
+        assertEquals(2, copyOfCopy.size());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        SharedLinkedSet<String> set = new SharedLinkedSet<String>(Arrays.asList("a", "b", "c")).copy();
+        Iterator<String> it = set.iterator();
+        while (it.hasNext()) {
+            if ("b".equals(it.next())) {
+                it.remove();
+            }
+        }
+        assertEquals(Arrays.asList("a", "c"), new ArrayList<String>(set));
+    }
+
+    @Test
+    public void testCopyDoesNotDuplicateContent() {
+        SharedLinkedSet<Integer> set = new SharedLinkedSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+        }
+        SharedLinkedSet<Integer> copy = set.copy();
+        assertEquals(0, copy.getOwnedSize());
+        assertEquals(1000, copy.size());
+    }
+
+    @Test
+    public void testDepthIsBounded() {
+        SharedLinkedSet<Integer> set = new SharedLinkedSet<Integer>();
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 10 * SharedLinkedSet.MAX_DEPTH; i++) {
+            set.add(i);
+            expected.add(i);
+            set = set.copy();
+            assertTrue(set.getSharedDepth() <= SharedLinkedSet.MAX_DEPTH);
+        }
+        assertEquals(expected, new ArrayList<Integer>(set));
+    }
+}
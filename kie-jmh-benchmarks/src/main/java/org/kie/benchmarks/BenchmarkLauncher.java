@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark module. Accepts the regular JMH command line options
+ * and, unless told otherwise, stores the results as JSON in {@link #DEFAULT_RESULT_FILE}
+ * so that runs can be compared with each other.
+ */
+public class BenchmarkLauncher {
+
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-results.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(normalize(args));
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+        if (commandLineOptions.shouldList()) {
+            new Runner(commandLineOptions).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+
+    /*
+     * Maven passes every configured argument even when the property behind it is empty,
+     * and the extra JMH options arrive as a single space separated string
+     */
+    private static String[] normalize(String[] args) {
+        List<String> normalized = new ArrayList<String>();
+        for (String arg : args) {
+            if (arg == null) {
+                continue;
+            }
+            for (String part : arg.trim().split("\\s+")) {
+                if (!part.isEmpty()) {
+                    normalized.add(part);
+                }
+            }
+        }
+        return normalized.toArray(new String[normalized.size()]);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.benchmarks.dmn;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.api.KieServices;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.kie.dmn.api.core.DMNContext;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.api.core.DMNResult;
+import org.kie.dmn.api.core.DMNRuntime;
+import org.kie.dmn.core.api.DMNFactory;
+import org.kie.internal.utils.KieHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Evaluates the vacation days decision model, once against a shared DMNRuntime and once
+ * the way ModelEvaluatorServiceBase does it, with a new KieSession per evaluation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@State(Scope.Thread)
+public class DMNEvaluationBenchmark {
+
+    private static final String MODEL_RESOURCE = "org/kie/benchmarks/dmn/0020-vacation-days.dmn";
+    private static final String NAMESPACE = "https://www.drools.org/kie-dmn";
+    private static final String MODEL_NAME = "0020-vacation-days";
+
+    private KieContainer kieContainer;
+    private KieSession kieSession;
+    private DMNRuntime dmnRuntime;
+    private DMNModel dmnModel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        kieContainer = new KieHelper()
+                .addResource(KieServices.Factory.get().getResources().newClassPathResource(MODEL_RESOURCE))
+                .getKieContainer();
+        kieSession = kieContainer.newKieSession();
+        dmnRuntime = kieSession.getKieRuntime(DMNRuntime.class);
+        dmnModel = dmnRuntime.getModel(NAMESPACE, MODEL_NAME);
+        if (dmnModel == null) {
+            throw new IllegalStateException("Unable to load DMN model " + MODEL_NAME);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        kieSession.dispose();
+        kieContainer.dispose();
+    }
+
+    @Benchmark
+    public DMNResult evaluateAll() {
+        return dmnRuntime.evaluateAll(dmnModel, newContext());
+    }
+
+    @Benchmark
+    public DMNResult evaluateByName() {
+        return dmnRuntime.evaluateDecisionByName(dmnModel, "Total Vacation Days", newContext());
+    }
+
+    @Benchmark
+    public DMNResult evaluateWithNewSession() {
+        KieSession session = kieContainer.newKieSession();
+        try {
+            DMNRuntime runtime = session.getKieRuntime(DMNRuntime.class);
+            return runtime.evaluateAll(runtime.getModel(NAMESPACE, MODEL_NAME), newContext());
+        } finally {
+            session.dispose();
+        }
+    }
+
+    private static DMNContext newContext() {
+        DMNContext context = DMNFactory.newContext();
+        context.set("Age", BigDecimal.valueOf(58));
+        context.set("Years of Service", BigDecimal.valueOf(31));
+        return context;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.benchmarks.drools;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kie.api.KieBase;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.utils.KieHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inserts a batch of facts into a KieSession and fires all rules, both against a long living
+ * session (facts are deleted again so the working memory does not grow between invocations)
+ * and against a fresh session per batch, the way stateless KIE Server calls use it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@State(Scope.Thread)
+public class KieSessionInsertFireBenchmark {
+
+    @Param({"10", "100"})
+    private int rulesNr;
+
+    @Param({"100", "1000"})
+    private int factsNr;
+
+    private KieBase kieBase;
+    private KieSession ksession;
+    private FactHandle[] handles;
+
+    @Setup(Level.Trial)
+    public void setupKieBase() {
+        StringBuilder drl = new StringBuilder("package org.kie.benchmarks.drools\n");
+        for (int i = 0; i < rulesNr; i++) {
+            drl.append("rule R").append(i).append(" when\n")
+                    .append("    Integer( intValue % ").append(rulesNr).append(" == ").append(i).append(" )\n")
+                    .append("then\n")
+                    .append("end\n");
+        }
+        kieBase = new KieHelper().addContent(drl.toString(), ResourceType.DRL).build();
+        handles = new FactHandle[factsNr];
+    }
+
+    @Setup(Level.Iteration)
+    public void setupSession() {
+        ksession = kieBase.newKieSession();
+    }
+
+    @TearDown(Level.Iteration)
+    public void disposeSession() {
+        ksession.dispose();
+    }
+
+    @Benchmark
+    public int insertFireDelete() {
+        for (int i = 0; i < factsNr; i++) {
+            handles[i] = ksession.insert(i);
+        }
+        int fired = ksession.fireAllRules();
+        for (int i = 0; i < factsNr; i++) {
+            ksession.delete(handles[i]);
+        }
+        return fired + ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int insertFireNewSession() {
+        KieSession session = kieBase.newKieSession();
+        try {
+            for (int i = 0; i < factsNr; i++) {
+                session.insert(i);
+            }
+            return session.fireAllRules();
+        } finally {
+            session.dispose();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.benchmarks.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.instance.ProcessInstance;
+import org.kie.server.api.model.instance.ProcessInstanceList;
+import org.kie.server.common.rest.ContentCompression;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares CPU cost of compressing and decompressing a typical query response (list of process instances)
+ * with the size of the payload sent over the wire. The size in bytes of every compressed payload
+ * is reported as the secondary "wireBytes" result, to be compared against NONE.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+
+    @Param({"NONE", "GZIP", "DEFLATE"})
+    private ContentCompression compression;
+
+    @Param({"JAXB", "JSON"})
+    private MarshallingFormat format;
+
+    @Param({"10", "100", "1000"})
+    private int itemsNr;
+
+    private byte[] payload;
+    private byte[] compressedPayload;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wireBytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Marshaller marshaller = MarshallerFactory.getMarshaller(format, CompressionBenchmark.class.getClassLoader());
+
+        List<ProcessInstance> instances = new ArrayList<ProcessInstance>(itemsNr);
+        for (int i = 0; i < itemsNr; i++) {
+            Map<String, Object> variables = new HashMap<String, Object>();
+            variables.put("name", "item-" + i);
+            variables.put("amount", i * 10);
+            instances.add(ProcessInstance.builder()
+                    .id((long) i)
+                    .processId("org.kie.benchmarks.process")
+                    .processName("Benchmark process")
+                    .processVersion("1.0")
+                    .state(1)
+                    .containerId("benchmark-container")
+                    .initiator("john")
+                    .date(new Date())
+                    .correlationKey(String.valueOf(i))
+                    .variables(variables)
+                    .build());
+        }
+        payload = marshaller.marshall(new ProcessInstanceList(instances)).getBytes(StandardCharsets.UTF_8);
+        compressedPayload = compression.compress(payload);
+        marshaller.dispose();
+    }
+
+    @Benchmark
+    public byte[] compress(PayloadSize size) throws IOException {
+        byte[] compressed = compression.compress(payload);
+        size.wireBytes = compressed.length;
+        return compressed;
+    }
+
+    @Benchmark
+    public byte[] decompress() throws IOException {
+        InputStream input = compression.decompress(new ByteArrayInputStream(compressedPayload));
+        ByteArrayOutputStream output = new ByteArrayOutputStream(payload.length);
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.benchmarks.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.ReleaseId;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.KieServerRegistryImpl;
+import org.kie.server.services.impl.locator.LatestContainerLocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per request container resolution as done by the KIE Server resources: lookup of the container
+ * instance by id or by alias and retrieval of its marshaller.
+ * All containers are versions of the same kjar, built in memory, so they share one alias.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ContainerLookupBenchmark {
+
+    private static final String GROUP_ID = "org.kie.benchmarks";
+    private static final String ARTIFACT_ID = "benchmark-kjar";
+
+    @Param({"1", "10"})
+    private int containersNr;
+
+    private KieServerRegistryImpl registry;
+    private String[] containerIds;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+
+        int next(int size) {
+            index = (index + 1) % size;
+            return index;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        KieServices ks = KieServices.Factory.get();
+        registry = new KieServerRegistryImpl();
+        containerIds = new String[containersNr];
+
+        for (int i = 0; i < containersNr; i++) {
+            ReleaseId releaseId = ks.newReleaseId(GROUP_ID, ARTIFACT_ID, "1.0." + i);
+            KieFileSystem kfs = ks.newKieFileSystem();
+            kfs.generateAndWritePomXML(releaseId);
+            kfs.writeKModuleXML(ks.newKieModuleModel().toXML());
+            ks.newKieBuilder(kfs).buildAll();
+
+            containerIds[i] = ARTIFACT_ID + "-" + i;
+            InternalKieContainer kieContainer = (InternalKieContainer) ks.newKieContainer(releaseId);
+            registry.registerContainer(containerIds[i],
+                    new KieContainerInstanceImpl(containerIds[i], KieContainerStatus.STARTED, kieContainer));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        for (KieContainerInstanceImpl containerInstance : registry.getContainers()) {
+            containerInstance.disposeMarshallers();
+            containerInstance.getKieContainer().dispose();
+        }
+    }
+
+    @Benchmark
+    public KieContainerInstanceImpl lookupById(Cursor cursor) {
+        return registry.getContainer(containerIds[cursor.next(containersNr)]);
+    }
+
+    @Benchmark
+    public KieContainerInstanceImpl lookupByAlias() {
+        return registry.getContainer(ARTIFACT_ID, LatestContainerLocator.get());
+    }
+
+    @Benchmark
+    public Marshaller lookupMarshaller(Cursor cursor) {
+        return registry.getContainer(containerIds[cursor.next(containersNr)]).getMarshaller(MarshallingFormat.JSON);
+    }
+
+    @Benchmark
+    public Object lookupResource(Cursor cursor) {
+        return registry.getContainer(containerIds[cursor.next(containersNr)]).getResource();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.benchmarks.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.ReleaseId;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.marshal.MarshallerHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the fixed cost every container request pays before any real work is done: parsing the format
+ * descriptor, looking up the container's marshaller and reading the container resource (e.g. for conversation id).
+ * All threads share one container instance, the way concurrent requests to the same container do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ContainerRequestOverheadBenchmark {
+
+    @Param({"application/json", "xstream", "JAXB"})
+    private String formatDescriptor;
+
+    private MarshallingFormat format;
+    private InternalKieContainer kieContainer;
+    private KieContainerInstanceImpl containerInstance;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie.benchmarks", "request-overhead", "1.0.0");
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(releaseId);
+        ks.newKieBuilder(kfs).buildAll();
+
+        kieContainer = (InternalKieContainer) ks.newKieContainer(releaseId);
+        containerInstance = new KieContainerInstanceImpl("benchmark-container", KieContainerStatus.STARTED, kieContainer);
+        // marshaller creation is a one time cost, not part of the measurement
+        format = MarshallerHelper.getFormat(formatDescriptor);
+        containerInstance.getMarshaller(format);
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        containerInstance.disposeMarshallers();
+        kieContainer.dispose();
+    }
+
+    @Benchmark
+    public MarshallingFormat getFormat() {
+        return MarshallerHelper.getFormat(formatDescriptor);
+    }
+
+    @Benchmark
+    public Marshaller getMarshaller() {
+        return containerInstance.getMarshaller(format);
+    }
+
+    @Benchmark
+    public KieContainerResource getResource() {
+        return containerInstance.getResource();
+    }
+
+    @Benchmark
+    public void perRequest(Blackhole blackhole) {
+        MarshallingFormat requestFormat = MarshallerHelper.getFormat(formatDescriptor);
+        blackhole.consume(containerInstance.getMarshaller(requestFormat));
+        blackhole.consume(containerInstance.getResource().getResolvedReleaseId());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.benchmarks.server;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallerFactory;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.instance.ProcessInstance;
+import org.kie.server.api.model.instance.ProcessInstanceList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Marshals and unmarshals a typical query response (list of process instances) with each of the
+ * marshallers provided by kie-server-api.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+@State(Scope.Thread)
+public class MarshallerBenchmark {
+
+    @Param({"JAXB", "JSON", "XSTREAM"})
+    private MarshallingFormat format;
+
+    @Param({"10", "100"})
+    private int itemsNr;
+
+    private Marshaller marshaller;
+    private ProcessInstanceList payload;
+    private String marshalledPayload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        marshaller = MarshallerFactory.getMarshaller(format, MarshallerBenchmark.class.getClassLoader());
+
+        List<ProcessInstance> instances = new ArrayList<ProcessInstance>(itemsNr);
+        for (int i = 0; i < itemsNr; i++) {
+            Map<String, Object> variables = new HashMap<String, Object>();
+            variables.put("name", "item-" + i);
+            variables.put("amount", i * 10);
+            instances.add(ProcessInstance.builder()
+                    .id((long) i)
+                    .processId("org.kie.benchmarks.process")
+                    .processName("Benchmark process")
+                    .processVersion("1.0")
+                    .state(1)
+                    .containerId("benchmark-container")
+                    .initiator("john")
+                    .date(new Date())
+                    .correlationKey(String.valueOf(i))
+                    .variables(variables)
+                    .build());
+        }
+        payload = new ProcessInstanceList(instances);
+        marshalledPayload = marshaller.marshall(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void dispose() {
+        marshaller.dispose();
+    }
+
+    @Benchmark
+    public String marshall() {
+        return marshaller.marshall(payload);
+    }
+
+    @Benchmark
+    public ProcessInstanceList unmarshall() {
+        return marshaller.unmarshall(marshalledPayload, ProcessInstanceList.class);
+    }
+}
@@ -16,10 +16,13 @@
 package org.kie.maven.plugin;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -102,6 +105,13 @@ public class BuildMojo extends AbstractKieMojo {
     @Parameter(required = false, defaultValue = "${compilation.ID}")
     private String compilationID;
 
+    /**
+     * When enabled, fingerprints of the build inputs are kept in target/kie-build-cache and only kbases
+     * whose resources changed since the last successful build are compiled again.
+     */
+    @Parameter(property = "kie.build.incremental", defaultValue = "false")
+    private boolean incremental;
+
     /**
      * This container is the same accessed in the KieMavenCli in the kie-wb-common
      */
@@ -110,6 +120,30 @@ public class BuildMojo extends AbstractKieMojo {
 
     public void execute() throws MojoExecutionException, MojoFailureException {
 
+        project.setArtifactFilter(new CumulativeScopeArtifactFilter(Arrays.asList("compile",
+                                                                                  "runtime")));
+
+        // incremental build is not used when the KieModule is shared with the kie-wb-common
+        boolean useCache = incremental && !(container != null && compilationID != null);
+        KieBuildCache buildCache = null;
+        Map<String, String> kieBaseFingerprints = null;
+        Set<String> kieBasesToBuild = null;
+        if (useCache) {
+            buildCache = new KieBuildCache(new File(project.getBuild().getDirectory()));
+            kieBaseFingerprints = getKieBaseFingerprints();
+            if (buildCache.isUpToDate(getGlobalFingerprint()) && buildCache.getMetaInfo() != null) {
+                kieBasesToBuild = buildCache.getChangedKieBases(kieBaseFingerprints);
+                if (kieBasesToBuild.isEmpty()
+                        && new File(outputDirectory, KieModuleModelImpl.KMODULE_INFO_JAR_PATH).isFile()) {
+                    getLog().info("KieModule is up to date, skipping build");
+                    return;
+                }
+                getLog().info("Incremental build of kbases " + kieBasesToBuild);
+            } else {
+                getLog().info("Build inputs changed, building all kbases");
+            }
+        }
+
         ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
 
         List<InternalKieModule> kmoduleDeps = new ArrayList<InternalKieModule>();
@@ -120,8 +154,6 @@ public class BuildMojo extends AbstractKieMojo {
                 urls.add(new File(element).toURI().toURL());
             }
 
-            project.setArtifactFilter(new CumulativeScopeArtifactFilter(Arrays.asList("compile",
-                                                                                      "runtime")));
             for (Artifact artifact : project.getArtifacts()) {
                 File file = artifact.getFile();
                 if (file != null) {
@@ -166,6 +198,9 @@ public class BuildMojo extends AbstractKieMojo {
             for (InternalKieModule kmoduleDep : kmoduleDeps) {
                 kModule.addKieDependency(kmoduleDep);
             }
+            if (kieBasesToBuild != null) {
+                retainKieBases(kModule.getKieModuleModel(), kieBasesToBuild);
+            }
 
             KieContainerImpl kContainer = (KieContainerImpl) ks.newKieContainer(kModule.getReleaseId());
 
@@ -182,6 +217,8 @@ public class BuildMojo extends AbstractKieMojo {
 
                 if (container != null && compilationID != null) {
                     shareKieObjectsWithMap(kModule);
+                } else if (useCache) {
+                    writeKieModuleMetaInfo(kModule, buildCache, kieBaseFingerprints, kieBasesToBuild != null);
                 } else {
                     new KieMetaInfoBuilder(kModule).writeKieModuleMetaInfo(new DiskResourceStore(outputDirectory));
                 }
@@ -192,6 +229,83 @@ public class BuildMojo extends AbstractKieMojo {
         getLog().info("KieModule successfully built!");
     }
 
+    private void writeKieModuleMetaInfo(InternalKieModule kModule,
+                                        KieBuildCache buildCache,
+                                        Map<String, String> kieBaseFingerprints,
+                                        boolean partial) throws MojoExecutionException {
+        DiskResourceStore resourceStore = new DiskResourceStore(outputDirectory);
+        KieModuleMetaInfo metaInfo = new KieMetaInfoBuilder(kModule).generateKieModuleMetaInfo(resourceStore);
+        if (partial) {
+            metaInfo = KieBuildCache.merge(buildCache.getMetaInfo(), metaInfo);
+        }
+        resourceStore.write(KieModuleModelImpl.KMODULE_INFO_JAR_PATH,
+                            metaInfo.marshallMetaInfos().getBytes(Charset.forName("UTF-8")),
+                            true);
+        try {
+            // computed after the meta info is written, as it may have generated classes of declared types
+            buildCache.store(getGlobalFingerprint(), kieBaseFingerprints, metaInfo);
+        } catch (IOException e) {
+            getLog().warn("Unable to store incremental build cache, next build will be a full one", e);
+        }
+    }
+
+    /*
+     * Removes from the module model all kbases that do not need to be built, keeping the ones they include
+     */
+    private void retainKieBases(KieModuleModel kieModuleModel, Set<String> kieBaseNames) {
+        Set<String> retained = KieBuildCache.withIncludes(kieModuleModel, kieBaseNames);
+        for (String kieBaseName : new ArrayList<String>(kieModuleModel.getKieBaseModels().keySet())) {
+            if (!retained.contains(kieBaseName)) {
+                kieModuleModel.removeKieBaseModel(kieBaseName);
+            }
+        }
+    }
+
+    private Map<String, String> getKieBaseFingerprints() throws MojoExecutionException {
+        File kmoduleXml = new File(sourceFolder, KieModuleModelImpl.KMODULE_JAR_PATH);
+        try {
+            KieModuleModel kieModuleModel;
+            if (kmoduleXml.isFile()) {
+                try (InputStream in = new FileInputStream(kmoduleXml)) {
+                    kieModuleModel = KieModuleModelImpl.fromXML(in);
+                }
+            } else {
+                kieModuleModel = KieServices.Factory.get().newKieModuleModel();
+            }
+            setDefaultsforEmptyKieModule(kieModuleModel);
+            return KieBuildCache.kieBaseFingerprints(sourceFolder, kieModuleModel);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to fingerprint resources of " + sourceFolder, e);
+        }
+    }
+
+    /*
+     * Dependencies are identified by their location, size and timestamp, so the jars do not need
+     * to be opened when nothing changed
+     */
+    private String getGlobalFingerprint() throws MojoExecutionException {
+        try {
+            List<String> dependencies = new ArrayList<String>();
+            for (String element : project.getCompileClasspathElements()) {
+                File file = new File(element);
+                if (file.isFile()) {
+                    dependencies.add(element + ":" + file.length() + ":" + file.lastModified());
+                }
+            }
+            for (Artifact artifact : project.getArtifacts()) {
+                File file = artifact.getFile();
+                if (file != null) {
+                    dependencies.add(artifact.getId() + ":" + file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified());
+                }
+            }
+            return KieBuildCache.globalFingerprint(sourceFolder, outputDirectory, dependencies, properties);
+        } catch (DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException("Unable to resolve project classpath", e);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to fingerprint build inputs", e);
+        }
+    }
+
     private void shareKieObjectsWithMap(InternalKieModule kModule) {
         Optional<Map<String, Object>> optionalKieMap = getKieMap();
         if (optionalKieMap.isPresent()) {
@@ -72,6 +72,10 @@ public class BytecodeInjectReactive {
     public static BytecodeInjectReactive newInstance(ClassPool cp) {
         return new BytecodeInjectReactive(cp);
     }
+
+    public ClassPool getClassPool() {
+        return cp;
+    }
     
     /**
      * Utility method for returning the (inferred) classpath of classloading from the given Class.
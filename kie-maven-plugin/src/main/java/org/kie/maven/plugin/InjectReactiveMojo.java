@@ -14,22 +14,33 @@
 */
 package org.kie.maven.plugin;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
-import java.net.URLClassLoader;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -45,6 +56,8 @@ import org.drools.core.phreak.ReactiveObject;
 import javassist.ClassPool;
 import javassist.CtClass;
 
+import static org.drools.core.util.IoUtils.readBytesFromInputStream;
+
 @Mojo(name = "injectreactive",
         requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME,
         requiresProject = true,
@@ -69,6 +82,19 @@ public class InjectReactiveMojo extends AbstractKieMojo {
      */
     @Parameter(alias = "instrument-packages", property = "kie.instrument.packages")
     private String[] instrumentPackages;
+
+    /**
+     * Number of threads used to instrument classes, 0 means one per available processor.
+     */
+    @Parameter(alias = "instrument-threads", property = "kie.instrument.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Digests of the instrumented classes are kept here, so classes which were not recompiled since
+     * the last execution are not instrumented again.
+     */
+    @Parameter(required = true, defaultValue = "${project.build.directory}/kie-injectreactive.digests")
+    private File digestsFile;
     
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -100,9 +126,7 @@ public class InjectReactiveMojo extends AbstractKieMojo {
         }
 
         getLog().info( "Starting InjectReactive enhancement for classes on " + outputDirectory );
-        final ClassLoader classLoader = toClassLoader( Collections.singletonList( root ) );
-        
-        
+
         final ClassPool classPool = new ClassPool( true ); // 'true' will append classpath for Object.class.
         // Need to append classpath for the project itself output directory for dependencies betweek Pojos of the project itself.
         try {
@@ -136,8 +160,7 @@ public class InjectReactiveMojo extends AbstractKieMojo {
             getLog().info("Adding to ClassPool the classpath: " + f.getAbsolutePath());
             classPool.appendClassPath(f.getAbsolutePath());
         } catch (Exception e) {
-            getLog().error( "Unable to locate path for ReactiveObject." );
-            e.printStackTrace();
+            getLog().error( "Unable to locate path for ReactiveObject.", e );
             if (failOnError) {
                 throw new MojoExecutionException("Unable to locate path for ReactiveObject.", e);
             } else {
@@ -159,68 +182,159 @@ public class InjectReactiveMojo extends AbstractKieMojo {
             }
         }
         
-        final BytecodeInjectReactive enhancer = BytecodeInjectReactive.newInstance(classPool);
-        
-        for ( File file : sourceSet ) {
-            final CtClass ctClass = toCtClass( file, classPool );
-            if ( ctClass == null ) {
-                continue;
+        // the pool built above is shared as read-only parent, every worker thread gets its own child pool
+        // for the classes it instruments
+        final ThreadLocal<BytecodeInjectReactive> enhancers = new ThreadLocal<BytecodeInjectReactive>() {
+            @Override
+            protected BytecodeInjectReactive initialValue() {
+                ClassPool threadPool = new ClassPool( classPool );
+                threadPool.childFirstLookup = true;
+                return BytecodeInjectReactive.newInstance( threadPool );
             }
+        };
 
-            getLog().info( "Evaluating class [" + ctClass.getName() + "]" );
-            getLog().info( ctClass.getPackageName() );
-            getLog().info( ""+Arrays.asList( packageRegExps ) );
-            if ( !isPackageNameIncluded(ctClass.getPackageName(), packageRegExps) ) {
-                continue;
-            }
+        final Properties previousDigests = loadDigests();
+        final Properties digests = new Properties();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
 
-            byte[] enhancedBytecode;
-            try {
-                enhancedBytecode = enhancer.injectReactive(ctClass.getName());
-                
-                writeOutEnhancedClass( enhancedBytecode, ctClass, file );
+        int nThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool( nThreads );
+        List<Future<?>> results = new ArrayList<Future<?>>();
+        try {
+            for ( final File file : sourceSet ) {
+                final String className = toClassName( root, file );
+                if ( !isPackageNameIncluded( packageNameOf( className ), packageRegExps ) ) {
+                    continue;
+                }
+                results.add( executor.submit( new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        byte[] bytecode = readClassFile( file );
+                        String digest = digest( bytecode );
+                        if ( digest.equals( previousDigests.getProperty( className ) ) ) {
+                            getLog().debug( "Skipping unchanged class [" + className + "]" );
+                            digests.setProperty( className, digest );
+                            skipped.incrementAndGet();
+                            return null;
+                        }
 
-                getLog().info( "Successfully enhanced class [" + ctClass.getName() + "]" );
-            } catch (Exception e) {
-                getLog().error( "ERROR while trying to enhanced class [" + ctClass.getName() + "]" );
-                e.printStackTrace();
-                if (failOnError) {
-                    throw new MojoExecutionException("ERROR while trying to enhanced class [" + ctClass.getName() + "]", e);
-                } else {
-                    return;
+                        BytecodeInjectReactive enhancer = enhancers.get();
+                        CtClass ctClass = toCtClass( bytecode, file, enhancer.getClassPool() );
+                        if ( ctClass == null ) {
+                            return null;
+                        }
+                        try {
+                            byte[] enhancedBytecode = enhancer.injectReactive( ctClass.getName() );
+                            writeOutEnhancedClass( enhancedBytecode, ctClass, file );
+                            digests.setProperty( className, digest( enhancedBytecode ) );
+                            processed.incrementAndGet();
+                            getLog().info( "Successfully enhanced class [" + ctClass.getName() + "]" );
+                        } catch (Exception e) {
+                            throw new MojoExecutionException( "ERROR while trying to enhanced class [" + ctClass.getName() + "]", e );
+                        } finally {
+                            ctClass.detach();
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+
+            for ( Future<?> result : results ) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    getLog().error( cause.getMessage(), cause );
+                    if ( failOnError ) {
+                        throw cause instanceof MojoExecutionException ?
+                                (MojoExecutionException) cause :
+                                new MojoExecutionException( cause.getMessage(), cause );
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException( "Interrupted while enhancing classes", e );
                 }
             }
-            
+        } finally {
+            executor.shutdownNow();
         }
+
+        storeDigests( digests );
+        getLog().info( "InjectReactive enhancement finished: " + processed.get() + " classes enhanced, "
+                + skipped.get() + " unchanged classes skipped, using " + nThreads + " threads" );
     }
-    
-    private CtClass toCtClass(File file, ClassPool classPool) throws MojoExecutionException {
+
+    private static String toClassName(File root, File classFile) {
+        String path = root.toURI().relativize( classFile.toURI() ).getPath();
+        return path.substring( 0, path.length() - ".class".length() ).replace( '/', '.' );
+    }
+
+    private static String packageNameOf(String className) {
+        int lastDot = className.lastIndexOf( '.' );
+        return lastDot < 0 ? "" : className.substring( 0, lastDot );
+    }
+
+    private static byte[] readClassFile(File file) throws IOException {
+        InputStream is = new FileInputStream( file );
         try {
-            final InputStream is = new FileInputStream( file.getAbsolutePath() );
+            return readBytesFromInputStream( is );
+        } finally {
+            is.close();
+        }
+    }
 
-            try {
-                return classPool.makeClass( is );
-            }
-            catch (IOException e) {
-                String msg = "Javassist unable to load class in preparation for enhancing: " + file.getAbsolutePath();
-                if ( failOnError ) {
-                    throw new MojoExecutionException( msg, e );
-                }
-                getLog().warn( msg );
-                return null;
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance( "SHA-1" ).digest( bytes );
+            StringBuilder sb = new StringBuilder( digest.length * 2 );
+            for ( byte b : digest ) {
+                sb.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) ).append( Character.forDigit( b & 0xF, 16 ) );
             }
-            finally {
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private Properties loadDigests() {
+        Properties properties = new Properties();
+        if ( digestsFile.isFile() ) {
+            try {
+                InputStream is = new FileInputStream( digestsFile );
                 try {
+                    properties.load( is );
+                } finally {
                     is.close();
                 }
-                catch (IOException e) {
-                    getLog().info( "Was unable to close InputStream : " + file.getAbsolutePath(), e );
-                }
+            } catch (IOException e) {
+                getLog().warn( "Unable to read " + digestsFile + ", all classes will be enhanced" );
+                properties.clear();
             }
         }
-        catch (FileNotFoundException e) {
-            // should never happen, but...
-            String msg = "Unable to locate class file for InputStream: " + file.getAbsolutePath();
+        return properties;
+    }
+
+    private void storeDigests(Properties digests) {
+        try {
+            digestsFile.getParentFile().mkdirs();
+            FileOutputStream os = new FileOutputStream( digestsFile );
+            try {
+                digests.store( os, "Digests of classes enhanced by InjectReactive" );
+            } finally {
+                os.close();
+            }
+        } catch (IOException e) {
+            getLog().warn( "Unable to write " + digestsFile + ", all classes will be enhanced next time" );
+        }
+    }
+
+    private CtClass toCtClass(byte[] bytecode, File file, ClassPool classPool) throws MojoExecutionException {
+        try {
+            return classPool.makeClass( new ByteArrayInputStream( bytecode ) );
+        }
+        catch (IOException e) {
+            String msg = "Javassist unable to load class in preparation for enhancing: " + file.getAbsolutePath();
             if ( failOnError ) {
                 throw new MojoExecutionException( msg, e );
             }
@@ -229,27 +343,6 @@ public class InjectReactiveMojo extends AbstractKieMojo {
         }
     }
     
-    private ClassLoader toClassLoader(List<File> runtimeClasspath) throws MojoExecutionException {
-        List<URL> urls = new ArrayList<URL>();
-        for ( File file : runtimeClasspath ) {
-            try {
-                urls.add( file.toURI().toURL() );
-                getLog().debug( "Adding classpath entry for classes root " + file.getAbsolutePath() );
-            }
-            catch (MalformedURLException e) {
-                String msg = "Unable to resolve classpath entry to URL: " + file.getAbsolutePath();
-                if ( failOnError ) {
-                    throw new MojoExecutionException( msg, e );
-                }
-                getLog().warn( msg );
-            }
-        }
-
-        urls.addAll( dependenciesURLs() );
-
-        return new URLClassLoader( urls.toArray( new URL[urls.size()] ), null );
-    }
-
     private List<URL> dependenciesURLs() throws MojoExecutionException {
         List<URL> urls = new ArrayList<>();
         // HHH-10145 Add dependencies to classpath as well - all but the ones used for testing purposes
@@ -310,48 +403,34 @@ public class InjectReactiveMojo extends AbstractKieMojo {
         Collections.addAll( this.sourceSet, files );
     }
 
+    /*
+     * Enhanced class is written to a temporary file first and then moved over the original one,
+     * so concurrent readers of the output directory never see a partially written class
+     */
     private void writeOutEnhancedClass(byte[] enhancedBytecode, CtClass ctClass, File file) throws MojoExecutionException{
         if ( enhancedBytecode == null ) {
             return;
         }
+        File tmpFile = new File( file.getParentFile(), file.getName() + ".tmp" );
         try {
-            if ( file.delete() ) {
-                if ( !file.createNewFile() ) {
-                    getLog().error( "Unable to recreate class file [" + ctClass.getName() + "]" );
-                }
-            }
-            else {
-                getLog().error( "Unable to delete class file [" + ctClass.getName() + "]" );
-            }
-        }
-        catch (IOException e) {
-            getLog().warn( "Problem preparing class file for writing out enhancements [" + ctClass.getName() + "]" );
-        }
-
-        try {
-            FileOutputStream outputStream = new FileOutputStream( file, false );
+            FileOutputStream outputStream = new FileOutputStream( tmpFile, false );
             try {
                 outputStream.write( enhancedBytecode );
                 outputStream.flush();
             }
-            catch (IOException e) {
-                String msg = String.format( "Error writing to enhanced class [%s] to file [%s]", ctClass.getName(), file.getAbsolutePath() );
-                if ( failOnError ) {
-                    throw new MojoExecutionException( msg, e );
-                }
-                getLog().warn( msg );
-            }
             finally {
-                try {
-                    outputStream.close();
-                    ctClass.detach();
-                }
-                catch (IOException ignore) {
-                }
+                outputStream.close();
+            }
+            try {
+                Files.move( tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move( tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
             }
         }
-        catch (FileNotFoundException e) {
-            String msg = "Error opening class file for writing: " + file.getAbsolutePath();
+        catch (IOException e) {
+            tmpFile.delete();
+            String msg = String.format( "Error writing to enhanced class [%s] to file [%s]", ctClass.getName(), file.getAbsolutePath() );
             if ( failOnError ) {
                 throw new MojoExecutionException( msg, e );
             }
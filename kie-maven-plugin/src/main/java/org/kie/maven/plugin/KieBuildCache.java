@@ -0,0 +1,341 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.maven.plugin;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.drools.compiler.kproject.models.KieModuleModelImpl;
+import org.drools.core.rule.KieModuleMetaInfo;
+import org.drools.core.rule.TypeMetaInfo;
+import org.kie.api.builder.model.KieBaseModel;
+import org.kie.api.builder.model.KieModuleModel;
+
+import static org.drools.core.util.IoUtils.readBytesFromInputStream;
+
+/**
+ * Fingerprints of the inputs of a kjar build, kept in the build directory between two executions of the
+ * build goal.
+ *
+ * Inputs are split in two groups:
+ * <ul>
+ *     <li>global inputs - kmodule.xml, the list of resource files, compiled classes, dependencies and build
+ *     properties. Any change here makes the whole KieModule to be rebuilt</li>
+ *     <li>kbase inputs - content of the resources that belong to the packages of a kbase (and of the kbases
+ *     it includes). Only kbases whose content changed are rebuilt</li>
+ * </ul>
+ * The KieModuleMetaInfo of the last successful build is kept next to the fingerprints, so the meta info of
+ * the kbases that are not rebuilt can be reused.
+ */
+public class KieBuildCache {
+
+    public static final String CACHE_FOLDER = "kie-build-cache";
+
+    static final String FINGERPRINTS_FILE = "fingerprints.properties";
+    static final String META_INFO_FILE = "kmodule.info";
+
+    private static final String GLOBAL_KEY = "global";
+    private static final String KBASE_KEY_PREFIX = "kbase.";
+    private static final String META_INF = "META-INF";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final File cacheFolder;
+    private final Properties fingerprints = new Properties();
+
+    public KieBuildCache(File buildDirectory) {
+        this.cacheFolder = new File(buildDirectory, CACHE_FOLDER);
+        File fingerprintsFile = new File(cacheFolder, FINGERPRINTS_FILE);
+        if (fingerprintsFile.isFile()) {
+            try (InputStream in = new FileInputStream(fingerprintsFile)) {
+                fingerprints.load(in);
+            } catch (IOException e) {
+                // corrupted cache means full rebuild
+                fingerprints.clear();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the global inputs are the same as the ones of the last successful build.
+     */
+    public boolean isUpToDate(String globalFingerprint) {
+        return globalFingerprint.equals(fingerprints.getProperty(GLOBAL_KEY));
+    }
+
+    /**
+     * Returns names of the kbases whose fingerprint differs from the one recorded by the last successful build.
+     */
+    public Set<String> getChangedKieBases(Map<String, String> kieBaseFingerprints) {
+        Set<String> changed = new HashSet<String>();
+        for (Map.Entry<String, String> entry : kieBaseFingerprints.entrySet()) {
+            if (!entry.getValue().equals(fingerprints.getProperty(KBASE_KEY_PREFIX + entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    public KieModuleMetaInfo getMetaInfo() {
+        File metaInfoFile = new File(cacheFolder, META_INFO_FILE);
+        if (!metaInfoFile.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(metaInfoFile)) {
+            return KieModuleMetaInfo.unmarshallMetaInfos(new String(readBytesFromInputStream(in), UTF8));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Records the inputs and the meta info of a successful build.
+     */
+    public void store(String globalFingerprint, Map<String, String> kieBaseFingerprints, KieModuleMetaInfo metaInfo) throws IOException {
+        if (!cacheFolder.exists() && !cacheFolder.mkdirs()) {
+            throw new IOException("Unable to create build cache folder " + cacheFolder);
+        }
+        try (OutputStream out = new FileOutputStream(new File(cacheFolder, META_INFO_FILE))) {
+            out.write(metaInfo.marshallMetaInfos().getBytes(UTF8));
+        }
+
+        fingerprints.clear();
+        fingerprints.setProperty(GLOBAL_KEY, globalFingerprint);
+        for (Map.Entry<String, String> entry : kieBaseFingerprints.entrySet()) {
+            fingerprints.setProperty(KBASE_KEY_PREFIX + entry.getKey(), entry.getValue());
+        }
+        try (OutputStream out = new FileOutputStream(new File(cacheFolder, FINGERPRINTS_FILE))) {
+            fingerprints.store(out, "KIE build cache - do not edit");
+        }
+    }
+
+    /**
+     * Merges meta info of the rebuilt kbases into the cached one. Packages and types produced by the
+     * rebuilt kbases replace the cached entries of the same packages.
+     */
+    public static KieModuleMetaInfo merge(KieModuleMetaInfo cached, KieModuleMetaInfo rebuilt) {
+        Map<String, Set<String>> rulesByPackage = new HashMap<String, Set<String>>(cached.getRulesByPackage());
+        rulesByPackage.putAll(rebuilt.getRulesByPackage());
+
+        Map<String, TypeMetaInfo> typeMetaInfos = new HashMap<String, TypeMetaInfo>();
+        for (Map.Entry<String, TypeMetaInfo> entry : cached.getTypeMetaInfos().entrySet()) {
+            if (!rebuilt.getRulesByPackage().containsKey(packageOf(entry.getKey()))) {
+                typeMetaInfos.put(entry.getKey(), entry.getValue());
+            }
+        }
+        typeMetaInfos.putAll(rebuilt.getTypeMetaInfos());
+
+        return new KieModuleMetaInfo(typeMetaInfos, rulesByPackage);
+    }
+
+    /**
+     * Fingerprint of the inputs shared by all kbases.
+     * @param sourceFolder resources folder of the kjar
+     * @param outputDirectory folder with compiled classes
+     * @param dependencies dependency descriptions (coordinates, location, size and timestamp of each artifact)
+     * @param properties build properties, might be null
+     */
+    public static String globalFingerprint(File sourceFolder, File outputDirectory, Collection<String> dependencies,
+                                           Map<String, String> properties) throws IOException {
+        MessageDigest digest = newDigest();
+
+        File kmoduleXml = new File(sourceFolder, KieModuleModelImpl.KMODULE_JAR_PATH);
+        if (kmoduleXml.isFile()) {
+            digest.update(readFile(kmoduleXml));
+        }
+        for (String path : listFiles(sourceFolder).keySet()) {
+            update(digest, path);
+        }
+        for (Map.Entry<String, File> entry : listFiles(outputDirectory).entrySet()) {
+            if (entry.getKey().endsWith(".class")) {
+                update(digest, entry.getKey() + ":" + entry.getValue().length() + ":" + entry.getValue().lastModified());
+            }
+        }
+        List<String> sortedDependencies = new ArrayList<String>(dependencies);
+        Collections.sort(sortedDependencies);
+        for (String dependency : sortedDependencies) {
+            update(digest, dependency);
+        }
+        if (properties != null) {
+            update(digest, new TreeMap<String, String>(properties).toString());
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Fingerprints of the content of the resources of each kbase of the given module. The fingerprint of a
+     * kbase covers the kbases it includes, so an including kbase is rebuilt together with the included one.
+     */
+    public static Map<String, String> kieBaseFingerprints(File sourceFolder, KieModuleModel kieModuleModel) throws IOException {
+        // every resource is read once, no matter how many kbases it belongs to
+        Map<String, byte[]> resourceDigests = new TreeMap<String, byte[]>();
+        for (Map.Entry<String, File> resource : listFiles(sourceFolder).entrySet()) {
+            resourceDigests.put(resource.getKey(), newDigest().digest(readFile(resource.getValue())));
+        }
+
+        Map<String, byte[]> ownDigests = new HashMap<String, byte[]>();
+        for (KieBaseModel kieBaseModel : kieModuleModel.getKieBaseModels().values()) {
+            MessageDigest digest = newDigest();
+            for (Map.Entry<String, byte[]> resource : resourceDigests.entrySet()) {
+                if (isInKieBase(kieBaseModel, resource.getKey())) {
+                    update(digest, resource.getKey());
+                    digest.update(resource.getValue());
+                }
+            }
+            ownDigests.put(kieBaseModel.getName(), digest.digest());
+        }
+
+        Map<String, String> result = new HashMap<String, String>();
+        for (String kieBaseName : ownDigests.keySet()) {
+            MessageDigest digest = newDigest();
+            for (String included : withIncludes(kieModuleModel, Collections.singleton(kieBaseName))) {
+                update(digest, included);
+                byte[] includedDigest = ownDigests.get(included);
+                if (includedDigest != null) {
+                    digest.update(includedDigest);
+                }
+            }
+            result.put(kieBaseName, toHex(digest.digest()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the given kbases together with all the kbases they (transitively) include.
+     */
+    public static Set<String> withIncludes(KieModuleModel kieModuleModel, Set<String> kieBaseNames) {
+        Set<String> result = new TreeSet<String>();
+        List<String> toVisit = new ArrayList<String>(kieBaseNames);
+        while (!toVisit.isEmpty()) {
+            String name = toVisit.remove(toVisit.size() - 1);
+            if (result.add(name)) {
+                KieBaseModel kieBaseModel = kieModuleModel.getKieBaseModels().get(name);
+                if (kieBaseModel != null) {
+                    toVisit.addAll(kieBaseModel.getIncludes());
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Mirrors the package filter applied when a kbase is built. When in doubt the resource is considered
+     * part of the kbase, as that only costs a rebuild which could have been avoided.
+     */
+    static boolean isInKieBase(KieBaseModel kieBaseModel, String resourcePath) {
+        if (resourcePath.startsWith(META_INF + "/")) {
+            return false;
+        }
+        int lastSlash = resourcePath.lastIndexOf('/');
+        String pkgName = lastSlash < 0 ? "" : resourcePath.substring(0, lastSlash).replace('/', '.');
+        List<String> packages = kieBaseModel.getPackages();
+        if (packages == null || packages.isEmpty()) {
+            return true;
+        }
+        for (String candidate : packages) {
+            if (candidate.startsWith("!")) {
+                // exclusions are ignored on purpose, see above
+                candidate = candidate.substring(1);
+            }
+            if (candidate.equals("*") || pkgName.equals(candidate) || pkgName.endsWith("." + candidate)) {
+                return true;
+            }
+            if (candidate.endsWith(".*")) {
+                String prefix = candidate.substring(0, candidate.length() - 2);
+                if (pkgName.equals(prefix) || pkgName.startsWith(prefix + ".") || pkgName.contains("." + prefix + ".")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String packageOf(String className) {
+        int lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    /*
+     * Files of the given folder keyed (and sorted) by their '/' separated path relative to the folder
+     */
+    private static Map<String, File> listFiles(File folder) {
+        Map<String, File> files = new TreeMap<String, File>();
+        if (folder != null && folder.isDirectory()) {
+            collectFiles(folder, "", files);
+        }
+        return files;
+    }
+
+    private static void collectFiles(File dir, String prefix, Map<String, File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            String path = prefix + child.getName();
+            if (child.isDirectory()) {
+                collectFiles(child, path + "/", files);
+            } else {
+                files.put(path, child);
+            }
+        }
+    }
+
+    private static byte[] readFile(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return readBytesFromInputStream(in);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(UTF8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -36,5 +36,23 @@ public class BuildMojoIntegrationTest extends KieMavenPluginBaseIntegrationTest
         result.assertErrorFreeLog();
     }
 
+    @Test
+    public void testIncrementalBuildSkipsUnchangedKieModule() throws Exception {
+        File basedir = resources.getBasedir("kjar-2-all-resources");
+        MavenExecutionResult result = mavenRuntime
+                .forProject(basedir)
+                .withCliOption("-Dkie.build.incremental=true")
+                .execute("clean", "compile");
+        result.assertErrorFreeLog();
+        result.assertLogText("Build inputs changed, building all kbases");
+
+        result = mavenRuntime
+                .forProject(basedir)
+                .withCliOption("-Dkie.build.incremental=true")
+                .execute("compile");
+        result.assertErrorFreeLog();
+        result.assertLogText("KieModule is up to date, skipping build");
+    }
+
 }
 
@@ -104,6 +104,42 @@ public class InjectReactiveIntegrationTest extends KieMavenPluginBaseIntegration
         assertFalse( looksLikeInstrumentedClass( cl.loadClass("to.not.instrument.ImmutablePojo") ) );
     }
 
+    @Test
+    public void testUnchangedClassesSkipped() throws Exception {
+        File basedir = resources.getBasedir("kjar-4-bytecode-inject");
+        MavenExecutionResult result = mavenRuntime
+                .forProject(basedir)
+                .execute("clean", "install");
+        result.assertErrorFreeLog();
+        result.assertLogText("classes enhanced, 0 unchanged classes skipped");
+
+        assertTrue(new File(basedir, "target/kie-injectreactive.digests").isFile());
+
+        // classes are not recompiled so none of them is enhanced again
+        result = mavenRuntime
+                .forProject(basedir)
+                .execute("install");
+        result.assertErrorFreeLog();
+        result.assertLogText("InjectReactive enhancement finished: 0 classes enhanced");
+
+        List<URL> classloadingURLs = new ArrayList<>();
+        classloadingURLs.add(new File(basedir, "target/classes").toURI().toURL());
+        classloadingURLs.add(new File(BytecodeInjectReactive.classpathFromClass(ReactiveObject.class)).toURI().toURL());
+        for (File jar : new File(basedir, "target/lib").listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".jar");
+            }
+        })) {
+            classloadingURLs.add(jar.toURI().toURL());
+        }
+
+        ClassLoader cl = new URLClassLoader( classloadingURLs.toArray(new URL[]{}), null );
+
+        assertTrue( looksLikeInstrumentedClass( cl.loadClass("org.drools.compiler.xpath.tobeinstrumented.model.Adult") ) );
+        assertTrue( looksLikeInstrumentedClass( cl.loadClass("org.drools.compiler.xpath.tobeinstrumented.model.TMFileSet") ) );
+        assertFalse( looksLikeInstrumentedClass( cl.loadClass("org.drools.compiler.xpath.tobeinstrumented.model.ImmutablePojo") ) );
+    }
+
     private boolean looksLikeInstrumentedClass(Class<?> personClass) {
         boolean foundReactiveObjectInterface = false;
         for ( Class<?> i : personClass.getInterfaces() ){
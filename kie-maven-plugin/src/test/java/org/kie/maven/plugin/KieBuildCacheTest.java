@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.maven.plugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.rule.KieModuleMetaInfo;
+import org.drools.core.rule.TypeMetaInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.api.KieServices;
+import org.kie.api.builder.model.KieModuleModel;
+
+import static org.junit.Assert.*;
+
+public class KieBuildCacheTest {
+
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void testOnlyChangedKieBaseIsRebuilt() throws Exception {
+        File sources = temp.newFolder("resources");
+        File build = temp.newFolder("target");
+        writeFile(sources, "org/test/a/rules.drl", "rule A when then end");
+        writeFile(sources, "org/test/b/rules.drl", "rule B when then end");
+
+        KieModuleModel kieModuleModel = KieServices.Factory.get().newKieModuleModel();
+        kieModuleModel.newKieBaseModel("kbaseA").addPackage("org.test.a");
+        kieModuleModel.newKieBaseModel("kbaseB").addPackage("org.test.b");
+        kieModuleModel.newKieBaseModel("kbaseAll").addInclude("kbaseA").addInclude("kbaseB");
+
+        String global = KieBuildCache.globalFingerprint(sources, build, Collections.<String>emptyList(), null);
+        Map<String, String> fingerprints = KieBuildCache.kieBaseFingerprints(sources, kieModuleModel);
+
+        KieBuildCache cache = new KieBuildCache(build);
+        assertFalse(cache.isUpToDate(global));
+        assertEquals(3, cache.getChangedKieBases(fingerprints).size());
+
+        cache.store(global, fingerprints, new KieModuleMetaInfo(new HashMap<String, TypeMetaInfo>(), new HashMap<String, Set<String>>()));
+
+        cache = new KieBuildCache(build);
+        assertTrue(cache.isUpToDate(global));
+        assertTrue(cache.getChangedKieBases(fingerprints).isEmpty());
+        assertNotNull(cache.getMetaInfo());
+
+        writeFile(sources, "org/test/a/rules.drl", "rule A2 when then end");
+        // content changes do not affect the global inputs, only the kbases containing the resource
+        assertEquals(global, KieBuildCache.globalFingerprint(sources, build, Collections.<String>emptyList(), null));
+        Set<String> changed = cache.getChangedKieBases(KieBuildCache.kieBaseFingerprints(sources, kieModuleModel));
+        assertEquals(2, changed.size());
+        assertTrue(changed.contains("kbaseA"));
+        assertTrue(changed.contains("kbaseAll"));
+    }
+
+    @Test
+    public void testNewResourceChangesGlobalFingerprint() throws Exception {
+        File sources = temp.newFolder("resources");
+        File build = temp.newFolder("target");
+        writeFile(sources, "org/test/a/rules.drl", "rule A when then end");
+
+        String global = KieBuildCache.globalFingerprint(sources, build, Collections.<String>emptyList(), null);
+        writeFile(sources, "org/test/a/more-rules.drl", "rule A2 when then end");
+
+        assertNotEquals(global, KieBuildCache.globalFingerprint(sources, build, Collections.<String>emptyList(), null));
+    }
+
+    @Test
+    public void testKieBasePackageFilter() {
+        KieModuleModel kieModuleModel = KieServices.Factory.get().newKieModuleModel();
+        kieModuleModel.newKieBaseModel("exact").addPackage("org.test");
+        kieModuleModel.newKieBaseModel("wildcard").addPackage("org.test.*");
+
+        assertTrue(KieBuildCache.isInKieBase(kieModuleModel.getKieBaseModels().get("exact"), "org/test/rules.drl"));
+        assertFalse(KieBuildCache.isInKieBase(kieModuleModel.getKieBaseModels().get("exact"), "org/other/rules.drl"));
+        assertTrue(KieBuildCache.isInKieBase(kieModuleModel.getKieBaseModels().get("wildcard"), "org/test/sub/rules.drl"));
+        assertFalse(KieBuildCache.isInKieBase(kieModuleModel.getKieBaseModels().get("wildcard"), "META-INF/kmodule.xml"));
+    }
+
+    private void writeFile(File root, String path, String content) throws IOException {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes("UTF-8"));
+        }
+    }
+}
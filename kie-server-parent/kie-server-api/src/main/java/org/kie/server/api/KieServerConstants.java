@@ -22,6 +22,7 @@ public class KieServerConstants {
     public static final String CLASS_TYPE_HEADER = "X-KIE-ClassType";
     public static final String KIE_CONTENT_TYPE_HEADER = "X-KIE-ContentType";
     public static final String KIE_CONVERSATION_ID_TYPE_HEADER = "X-KIE-ConversationId";
+    public static final String KIE_QUERY_CURSOR_HEADER = "X-KIE-QueryCursor";
 
     // extensions control parameters
     public static final String KIE_DROOLS_SERVER_EXT_DISABLED = "org.drools.server.ext.disabled";
@@ -31,6 +32,7 @@ public class KieServerConstants {
     public static final String KIE_CASE_SERVER_EXT_DISABLED = "org.jbpm.case.server.ext.disabled";
     public static final String KIE_DMN_SERVER_EXT_DISABLED = "org.kie.dmn.server.ext.disabled";
     public static final String KIE_JBM_SEARCH_SERVER_EXT_DISABLED = "org.jbpm.search.server.ext.disabled";
+    public static final String KIE_METRICS_SERVER_EXT_DISABLED = "org.kie.server.metrics.ext.disabled";
 
     public static final String KIE_DROOLS_FILTER_REMOTEABLE_CLASSES = "org.drools.server.filter.classes";
 
@@ -40,6 +42,7 @@ public class KieServerConstants {
     public static final String KIE_SERVER_JAAS_DOMAIN = "org.kie.server.domain";
     public static final String KIE_SERVER_CONTROLLER = "org.kie.server.controller";
     public static final String KIE_SERVER_STATE_REPO = "org.kie.server.repo";
+    public static final String KIE_SERVER_STATE_REPO_WRITE_DELAY = "org.kie.server.repo.write.delay";
     public static final String KIE_SERVER_CONTAINER_LOCATOR = "org.kie.server.container.locator";
     public static final String KIE_SERVER_ACTIVATE_POLICIES = "org.kie.server.policy.activate";
 
@@ -79,6 +82,13 @@ public class KieServerConstants {
     public static final String CFG_EXECUTOR_TIME_UNIT = "org.kie.executor.timeunit";
     public static final String CFG_EXECUTOR_JMS_QUEUE = "org.kie.executor.jms.queue";
     public static final String CFG_EXECUTOR_DISABLED = "org.kie.executor.disabled";
+    public static final String CFG_EXECUTOR_POOL_ADAPTIVE = "org.kie.executor.pool.adaptive";
+    public static final String CFG_EXECUTOR_POOL_MIN = "org.kie.executor.pool.size.min";
+    public static final String CFG_EXECUTOR_POOL_MAX = "org.kie.executor.pool.size.max";
+    public static final String CFG_EXECUTOR_POOL_CHECK_INTERVAL = "org.kie.executor.pool.check.interval";
+    public static final String CFG_EXECUTOR_POOL_MAX_WAIT = "org.kie.executor.pool.max.wait";
+
+    public static final String CFG_BULK_START_CHUNK_SIZE = "org.kie.server.bulk.start.chunk.size";
 
     public static final String CFG_DOCUMENT_STORAGE_PATH = "org.jbpm.document.storage";
 
@@ -90,6 +100,17 @@ public class KieServerConstants {
 
     public static final String CFG_SYNC_DEPLOYMENT = "org.kie.server.sync.deploy";
 
+    public static final String CFG_CONTAINER_UPGRADE_SWAP = "org.kie.server.container.upgrade.swap";
+    public static final String CFG_CONTAINER_UPGRADE_DRAIN_TIMEOUT = "org.kie.server.container.upgrade.drain.timeout";
+
+    public static final String CFG_CONTAINER_CACHE = "org.kie.server.container.cache";
+    public static final String CFG_CONTAINER_CACHE_DIR = "org.kie.server.container.cache.dir";
+
+    public static final String CFG_REST_COMPRESSION_DISABLED = "org.kie.server.rest.compression.disabled";
+    public static final String CFG_REST_COMPRESSION_THRESHOLD = "org.kie.server.rest.compression.threshold";
+
+    public static final String CFG_METRICS_JMX_DISABLED = "org.kie.server.metrics.jmx.disabled";
+
     public static final String KIE_SERVER_PARAM_MODULE_METADATA = "KieModuleMetaData";
 
     public static final String KIE_SERVER_ROUTER = "org.kie.server.router";
@@ -101,6 +122,11 @@ public class KieServerConstants {
     public static final String PCFG_KIE_SESSION = "KSession";
     public static final String PCFG_MERGE_MODE = "MergeMode";
 
+    // container request limits configuration item constants
+    public static final String CCFG_MAX_CONCURRENT_REQUESTS = "MaxConcurrentRequests";
+    public static final String CCFG_MAX_QUEUED_REQUESTS = "MaxQueuedRequests";
+    public static final String CCFG_MAX_QUEUE_WAIT = "MaxQueueWait";
+
     public static final String CAPABILITY_BRM = "BRM"; // Business Rules Management
     public static final String CAPABILITY_BPM = "BPM"; // Business Process Management
     public static final String CAPABILITY_BPM_UI = "BPM-UI"; // Business Process Management UI
@@ -108,6 +134,7 @@ public class KieServerConstants {
     public static final String CAPABILITY_CASE = "CaseMgmt"; // Case Management
     public static final String CAPABILITY_DMN = "DMN"; // DMN
     public static final String CAPABILITY_BPM_QUERIES = "BPMQueries"; // BPM Queries
+    public static final String CAPABILITY_METRICS = "Metrics"; // Request metrics
 
     public static final String FAILURE_REASON_PROP = "failure-reason";
 
@@ -130,4 +157,5 @@ public class KieServerConstants {
 
     public static final String CFG_KIE_SERVER_JMS_SESSION_TX = "org.kie.server.jms.session.tx";
     public static final String CFG_KIE_SERVER_JMS_SESSION_ACK = "org.kie.server.jms.session.ack";
+    public static final String CFG_KIE_SERVER_JMS_AUTH_CACHE_TTL = "org.kie.server.jms.auth.cache.ttl";
 }
@@ -87,6 +87,7 @@ import org.kie.server.api.model.ServiceResponsesList;
 import org.kie.server.api.model.admin.EmailNotification;
 import org.kie.server.api.model.admin.ExecutionErrorInstance;
 import org.kie.server.api.model.admin.ExecutionErrorInstanceList;
+import org.kie.server.api.model.admin.ExecutorConcurrency;
 import org.kie.server.api.model.admin.MigrationReportInstance;
 import org.kie.server.api.model.admin.MigrationReportInstanceList;
 import org.kie.server.api.model.admin.OrgEntities;
@@ -142,6 +143,10 @@ import org.kie.server.api.model.instance.NodeInstance;
 import org.kie.server.api.model.instance.NodeInstanceList;
 import org.kie.server.api.model.instance.ProcessInstance;
 import org.kie.server.api.model.instance.ProcessInstanceList;
+import org.kie.server.api.model.instance.ProcessStartResult;
+import org.kie.server.api.model.instance.ProcessStartResultList;
+import org.kie.server.api.model.instance.ProcessStartSpec;
+import org.kie.server.api.model.instance.ProcessStartSpecList;
 import org.kie.server.api.model.instance.RequestInfoInstance;
 import org.kie.server.api.model.instance.RequestInfoInstanceList;
 import org.kie.server.api.model.instance.ScoreWrapper;
@@ -155,6 +160,8 @@ import org.kie.server.api.model.instance.TaskEventInstance;
 import org.kie.server.api.model.instance.TaskEventInstanceList;
 import org.kie.server.api.model.instance.TaskInstance;
 import org.kie.server.api.model.instance.TaskInstanceList;
+import org.kie.server.api.model.instance.TaskOperationResult;
+import org.kie.server.api.model.instance.TaskOperationResultList;
 import org.kie.server.api.model.instance.TaskSummary;
 import org.kie.server.api.model.instance.TaskSummaryList;
 import org.kie.server.api.model.instance.VariableInstance;
@@ -240,6 +247,10 @@ public class JaxbMarshaller implements Marshaller {
 
                 ProcessInstance.class,
                 ProcessInstanceList.class,
+                ProcessStartSpec.class,
+                ProcessStartSpecList.class,
+                ProcessStartResult.class,
+                ProcessStartResultList.class,
 
                 NodeInstance.class,
                 NodeInstanceList.class,
@@ -259,6 +270,8 @@ public class JaxbMarshaller implements Marshaller {
                 TaskCommentList.class,
                 TaskAttachment.class,
                 TaskAttachmentList.class,
+                TaskOperationResult.class,
+                TaskOperationResultList.class,
 
                 WorkItemInstance.class,
                 WorkItemInstanceList.class,
@@ -312,6 +325,7 @@ public class JaxbMarshaller implements Marshaller {
                 TaskReassignmentList.class,
                 ExecutionErrorInstance.class,
                 ExecutionErrorInstanceList.class,
+                ExecutorConcurrency.class,
 
                 // case management
                 CaseMilestone.class,
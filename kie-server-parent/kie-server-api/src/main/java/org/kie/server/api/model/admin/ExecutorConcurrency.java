@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.api.model.admin;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "executor-concurrency")
+public class ExecutorConcurrency {
+
+    @XmlElement(name="adaptive")
+    private boolean adaptive;
+    @XmlElement(name="pool-size")
+    private int poolSize;
+    @XmlElement(name="target-pool-size")
+    private int targetPoolSize;
+    @XmlElement(name="min-pool-size")
+    private int minPoolSize;
+    @XmlElement(name="max-pool-size")
+    private int maxPoolSize;
+    @XmlElement(name="queued-jobs")
+    private int queuedJobs;
+    @XmlElement(name="running-jobs")
+    private int runningJobs;
+    @XmlElement(name="max-wait-time")
+    private long maxWaitTime;
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getTargetPoolSize() {
+        return targetPoolSize;
+    }
+
+    public void setTargetPoolSize(int targetPoolSize) {
+        this.targetPoolSize = targetPoolSize;
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public int getQueuedJobs() {
+        return queuedJobs;
+    }
+
+    public void setQueuedJobs(int queuedJobs) {
+        this.queuedJobs = queuedJobs;
+    }
+
+    public int getRunningJobs() {
+        return runningJobs;
+    }
+
+    public void setRunningJobs(int runningJobs) {
+        this.runningJobs = runningJobs;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(long maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private ExecutorConcurrency executorConcurrency = new ExecutorConcurrency();
+
+        public ExecutorConcurrency build() {
+            return executorConcurrency;
+        }
+
+        public Builder adaptive(boolean adaptive) {
+            executorConcurrency.setAdaptive(adaptive);
+            return this;
+        }
+
+        public Builder poolSize(int poolSize) {
+            executorConcurrency.setPoolSize(poolSize);
+            return this;
+        }
+
+        public Builder targetPoolSize(int targetPoolSize) {
+            executorConcurrency.setTargetPoolSize(targetPoolSize);
+            return this;
+        }
+
+        public Builder minPoolSize(int minPoolSize) {
+            executorConcurrency.setMinPoolSize(minPoolSize);
+            return this;
+        }
+
+        public Builder maxPoolSize(int maxPoolSize) {
+            executorConcurrency.setMaxPoolSize(maxPoolSize);
+            return this;
+        }
+
+        public Builder queuedJobs(int queuedJobs) {
+            executorConcurrency.setQueuedJobs(queuedJobs);
+            return this;
+        }
+
+        public Builder runningJobs(int runningJobs) {
+            executorConcurrency.setRunningJobs(runningJobs);
+            return this;
+        }
+
+        public Builder maxWaitTime(long maxWaitTime) {
+            executorConcurrency.setMaxWaitTime(maxWaitTime);
+            return this;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorConcurrency{" +
+                "adaptive=" + adaptive +
+                ", poolSize=" + poolSize +
+                ", targetPoolSize=" + targetPoolSize +
+                ", minPoolSize=" + minPoolSize +
+                ", maxPoolSize=" + maxPoolSize +
+                ", queuedJobs=" + queuedJobs +
+                ", runningJobs=" + runningJobs +
+                ", maxWaitTime=" + maxWaitTime +
+                '}';
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package org.kie.server.api.model.instance;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Outcome of starting a single process instance that was part of a bulk start, results are
+ * returned in the same order as the start specifications were given.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "process-start-result")
+public class ProcessStartResult {
+
+    @XmlElement(name="process-instance-id")
+    private Long processInstanceId;
+
+    @XmlElement(name="correlation-key")
+    private String correlationKey;
+
+    @XmlElement(name="successful")
+    private Boolean successful;
+
+    @XmlElement(name="error-message")
+    private String errorMessage;
+
+    public ProcessStartResult() {
+    }
+
+    public ProcessStartResult(Long processInstanceId, String correlationKey, Boolean successful, String errorMessage) {
+        this.processInstanceId = processInstanceId;
+        this.correlationKey = correlationKey;
+        this.successful = successful;
+        this.errorMessage = errorMessage;
+    }
+
+    public static ProcessStartResult success(Long processInstanceId, String correlationKey) {
+        return new ProcessStartResult(processInstanceId, correlationKey, Boolean.TRUE, null);
+    }
+
+    public static ProcessStartResult failure(String correlationKey, String errorMessage) {
+        return new ProcessStartResult(null, correlationKey, Boolean.FALSE, errorMessage);
+    }
+
+    public Long getProcessInstanceId() {
+        return processInstanceId;
+    }
+
+    public void setProcessInstanceId(Long processInstanceId) {
+        this.processInstanceId = processInstanceId;
+    }
+
+    public String getCorrelationKey() {
+        return correlationKey;
+    }
+
+    public void setCorrelationKey(String correlationKey) {
+        this.correlationKey = correlationKey;
+    }
+
+    public Boolean getSuccessful() {
+        return successful;
+    }
+
+    public void setSuccessful(Boolean successful) {
+        this.successful = successful;
+    }
+
+    public boolean isSuccessful() {
+        return Boolean.TRUE.equals(successful);
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessStartResult{" +
+                "processInstanceId=" + processInstanceId +
+                ", correlationKey='" + correlationKey + '\'' +
+                ", successful=" + successful +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package org.kie.server.api.model.instance;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Variables and optional correlation key of a single process instance to be started as part of a bulk start.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "process-start-spec")
+public class ProcessStartSpec {
+
+    @XmlElement(name="correlation-key")
+    private String correlationKey;
+
+    @XmlElement(name="variables")
+    private Map<String, Object> variables;
+
+    public ProcessStartSpec() {
+    }
+
+    public ProcessStartSpec(String correlationKey, Map<String, Object> variables) {
+        this.correlationKey = correlationKey;
+        this.variables = variables;
+    }
+
+    public String getCorrelationKey() {
+        return correlationKey;
+    }
+
+    public void setCorrelationKey(String correlationKey) {
+        this.correlationKey = correlationKey;
+    }
+
+    public Map<String, Object> getVariables() {
+        if (this.variables == null) {
+            this.variables = new HashMap<String, Object>();
+        }
+        return this.variables;
+    }
+
+    public void setVariables(Map<String, Object> variables) {
+        this.variables = variables;
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessStartSpec{" +
+                "correlationKey='" + correlationKey + '\'' +
+                ", variables=" + variables +
+                '}';
+    }
+}
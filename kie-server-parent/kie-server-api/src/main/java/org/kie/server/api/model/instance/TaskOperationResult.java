@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.api.model.instance;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Outcome of an operation on a single task that was part of a bulk request.
+ */
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlRootElement(name = "task-operation-result")
+public class TaskOperationResult {
+
+    @XmlElement(name="task-id")
+    private Long taskId;
+
+    @XmlElement(name="successful")
+    private Boolean successful;
+
+    @XmlElement(name="error-message")
+    private String errorMessage;
+
+    public TaskOperationResult() {
+    }
+
+    public TaskOperationResult(Long taskId, Boolean successful, String errorMessage) {
+        this.taskId = taskId;
+        this.successful = successful;
+        this.errorMessage = errorMessage;
+    }
+
+    public static TaskOperationResult success(Long taskId) {
+        return new TaskOperationResult(taskId, Boolean.TRUE, null);
+    }
+
+    public static TaskOperationResult failure(Long taskId, String errorMessage) {
+        return new TaskOperationResult(taskId, Boolean.FALSE, errorMessage);
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Boolean getSuccessful() {
+        return successful;
+    }
+
+    public void setSuccessful(Boolean successful) {
+        this.successful = successful;
+    }
+
+    public boolean isSuccessful() {
+        return Boolean.TRUE.equals(successful);
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskOperationResult{" +
+                "taskId=" + taskId +
+                ", successful=" + successful +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
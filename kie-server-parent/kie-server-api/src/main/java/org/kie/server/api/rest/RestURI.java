@@ -74,11 +74,13 @@ public class RestURI {
     public static final String ADMIN_PROCESS_URI = "admin/containers/{" + CONTAINER_ID + "}/processes";
     public static final String ADMIN_TASK_URI = "admin/containers/{" + CONTAINER_ID + "}/tasks";
     public static final String ADMIN_CASE_URI = "admin/cases";
+    public static final String ADMIN_JOB_URI = "admin/jobs";
 
     // uris
     // process related prefixed by PROCESS_URI
     public static final String START_PROCESS_POST_URI = "{" + PROCESS_ID +"}/instances";
     public static final String START_PROCESS_WITH_CORRELATION_KEY_POST_URI = "{" + PROCESS_ID +"}/instances/correlation/{" + CORRELATION_KEY + "}";
+    public static final String START_PROCESSES_POST_URI = "{" + PROCESS_ID +"}/instances/bulk";
     public static final String ABORT_PROCESS_INST_DEL_URI = "instances/{" + PROCESS_INST_ID +"}";
     public static final String ABORT_PROCESS_INSTANCES_DEL_URI = "instances";
     public static final String SIGNAL_PROCESS_INST_POST_URI = "instances/{" + PROCESS_INST_ID +"}/signal/{" + SIGNAL_NAME + "}";
@@ -159,6 +161,13 @@ public class RestURI {
     public static final String TASK_INSTANCE_SUSPEND_PUT_URI = "{" + TASK_INSTANCE_ID + "}/states/suspended";
     public static final String TASK_INSTANCE_NOMINATE_PUT_URI = "{" + TASK_INSTANCE_ID + "}/states/nominated";
 
+    // bulk task operations, task ids given as taskId query parameters
+    public static final String TASK_INSTANCES_CLAIM_PUT_URI = "bulk/states/claimed";
+    public static final String TASK_INSTANCES_START_PUT_URI = "bulk/states/started";
+    public static final String TASK_INSTANCES_CLAIM_START_PUT_URI = "bulk/states/claimed-started";
+    public static final String TASK_INSTANCES_RELEASE_PUT_URI = "bulk/states/released";
+    public static final String TASK_INSTANCES_COMPLETE_PUT_URI = "bulk/states/completed";
+
     public static final String TASK_INSTANCE_PRIORITY_PUT_URI = "{" + TASK_INSTANCE_ID + "}/priority";
     public static final String TASK_INSTANCE_DESCRIPTION_PUT_URI = "{" + TASK_INSTANCE_ID + "}/description";
     public static final String TASK_INSTANCE_NAME_PUT_URI = "{" + TASK_INSTANCE_ID + "}/name";
@@ -196,6 +205,9 @@ public class RestURI {
     public static final String JOB_INSTANCES_BY_PROCESS_INSTANCE_GET_URI = "processes/instances/{" + PROCESS_INST_ID + "}";
     public static final String JOB_INSTANCE_GET_URI = "{" + JOB_ID + "}";
 
+    // job executor admin prefixed by ADMIN_JOB_URI
+    public static final String JOB_EXECUTOR_CONCURRENCY_GET_URI = "executor";
+
     // form prefixed by FORM_URI
     public static final String PROCESS_FORM_GET_URI = "processes/{" + PROCESS_ID + "}";
     public static final String TASK_FORM_GET_URI = "tasks/{" + TASK_INSTANCE_ID + "}";
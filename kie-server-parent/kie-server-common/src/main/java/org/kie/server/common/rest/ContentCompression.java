@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.common.rest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HTTP content codings supported for request and response bodies exchanged between
+ * KIE Server and its REST clients.
+ */
+public enum ContentCompression {
+
+    NONE(null),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    /**
+     * Default minimal size in bytes of a body to be compressed - smaller bodies usually
+     * do not gain anything from compression.
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private final String encoding;
+
+    ContentCompression(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * Returns value of the 'Content-Encoding' header for this compression or null for {@link #NONE}.
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public OutputStream compress(OutputStream stream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(stream);
+            case DEFLATE:
+                return new DeflaterOutputStream(stream);
+            default:
+                return stream;
+        }
+    }
+
+    public InputStream decompress(InputStream stream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(stream);
+            case DEFLATE:
+                return new InflaterInputStream(stream);
+            default:
+                return stream;
+        }
+    }
+
+    public byte[] compress(byte[] data) throws IOException {
+        if (this == NONE) {
+            return data;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(32, data.length / 4));
+        OutputStream out = compress(bytes);
+        out.write(data);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Finds compression by the value of 'Content-Encoding' header; returns null when the
+     * encoding is not supported and {@link #NONE} for empty or identity encoding.
+     */
+    public static ContentCompression fromEncoding(String encoding) {
+        if (encoding == null || encoding.trim().isEmpty() || "identity".equalsIgnoreCase(encoding.trim())) {
+            return NONE;
+        }
+        String value = encoding.trim();
+        for (ContentCompression compression : values()) {
+            if (value.equalsIgnoreCase(compression.encoding) || value.equalsIgnoreCase("x-" + compression.encoding)) {
+                return compression;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Selects the preferred supported compression from value of 'Accept-Encoding' header,
+     * honouring quality values; gzip wins over deflate on equal quality.
+     */
+    public static ContentCompression fromAcceptEncoding(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return NONE;
+        }
+        ContentCompression selected = NONE;
+        float selectedQuality = 0;
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim();
+            float quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Float.parseFloat(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            ContentCompression compression = "*".equals(coding) ? GZIP : fromEncoding(coding);
+            if (compression == null || compression == NONE || quality <= 0) {
+                continue;
+            }
+            if (quality > selectedQuality || (quality == selectedQuality && compression == GZIP)) {
+                selected = compression;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+}
@@ -132,6 +132,8 @@ public class KieServerHttpRequest {
     private int bufferSize = 8192;
     private boolean ignoreCloseExceptions = true;
     boolean uncompress = false;
+    private ContentCompression bodyCompression = ContentCompression.NONE;
+    private int bodyCompressionThreshold = ContentCompression.DEFAULT_THRESHOLD;
 
     private HttpURLConnection connection = null;
     private RequestOutputStream output;
@@ -161,6 +163,7 @@ public class KieServerHttpRequest {
         String charset;
 
         StringBuilder body;
+        InputStream bodyStream;
         MediaType bodyContentType;
 
         public URL getRequestUrl() {
@@ -227,6 +230,7 @@ public class KieServerHttpRequest {
             RequestInfo clone = new RequestInfo();
             clone.baseUrl = baseUrl;
             clone.body = body;
+            clone.bodyStream = bodyStream;
             clone.bodyContentType = bodyContentType;
             clone.charset = charset;
             clone.form = form;
@@ -794,9 +798,9 @@ public class KieServerHttpRequest {
     /**
      * Set whether or not the response body should be automatically uncompressed when read from.
      * <p>
-     * This will only affect requests that have the 'Content-Encoding' response header set to 'gzip'.
+     * This will only affect requests that have the 'Content-Encoding' response header set to 'gzip' or 'deflate'.
      * <p>
-     * This causes all receive methods to use a {@link GZIPInputStream} when applicable so that higher level streams and readers can
+     * This causes all receive methods to use a {@link GZIPInputStream} (or an inflater stream) when applicable so that higher level streams and readers can
      * read the data uncompressed.
      * <p>
      * Setting this option does not cause any request headers to be set automatically so {@link #acceptGzipEncoding()} should be
@@ -810,6 +814,22 @@ public class KieServerHttpRequest {
         return this;
     }
 
+    /**
+     * Set compression of the request body.
+     * <p>
+     * Bodies of at least given size in bytes are compressed and sent with the 'Content-Encoding' header,
+     * smaller bodies are sent as they are.
+     *
+     * @param compression
+     * @param threshold
+     * @return this request
+     */
+    public KieServerHttpRequest compressBody(final ContentCompression compression, final int threshold ) {
+        this.bodyCompression = compression == null ? ContentCompression.NONE : compression;
+        this.bodyCompressionThreshold = threshold;
+        return this;
+    }
+
     public KieServerHttpRequest followRedirects(final boolean followRedirects ) {
         this.followRedirects = followRedirects;
         return this;
@@ -891,15 +911,30 @@ public class KieServerHttpRequest {
             // various
             RequestInfo requestInfo = getRequestInfo();
             int contentLength = 0;
+            byte[] content = null;
             if( requestInfo.body != null ) {
-                contentLength = requestInfo.body.toString().getBytes(Charset.forName("UTF-8")).length;
+                content = requestInfo.body.toString().getBytes(Charset.forName("UTF-8"));
+                if( bodyCompression != ContentCompression.NONE && content.length >= bodyCompressionThreshold ) {
+                    try {
+                        content = bodyCompression.compress(content);
+                    } catch( IOException ioe ) {
+                        throw new KieServerHttpRequestException("Unable to compress request body", ioe);
+                    }
+                    requestInfo.setHeader(CONTENT_ENCODING, bodyCompression.getEncoding());
+                }
+                contentLength = content.length;
                 connection.setFixedLengthStreamingMode(contentLength);
                 List<String> contentTypeList = requestInfo.getHeader(ACCEPT);
                 if( contentTypeList != null && ! contentTypeList.isEmpty() ) {
                    requestInfo.setHeader(CONTENT_TYPE, contentTypeList.get(0));
                 }
             }
-            requestInfo.setHeader(CONTENT_LENGTH, contentLength);
+            if( requestInfo.bodyStream != null ) {
+                // length is not known up front, stream the body in chunks
+                connection.setChunkedStreamingMode(bufferSize);
+            } else {
+                requestInfo.setHeader(CONTENT_LENGTH, contentLength);
+            }
             connection.setInstanceFollowRedirects(followRedirects);
 
             // auth
@@ -919,13 +954,20 @@ public class KieServerHttpRequest {
 
             // output: form parameters, body
             addFormParametersToConnection();
-            if( requestInfo.body != null ) {
+            if( content != null ) {
                 try {
                     openOutput();
-                    output.write(requestInfo.body.toString());
+                    output.write(content);
                 } catch( IOException ioe ) {
                     throw new KieServerHttpRequestException("Unable to add char sequence to request body", ioe);
                 }
+            } else if( requestInfo.bodyStream != null ) {
+                try {
+                    openOutput();
+                    copy(requestInfo.bodyStream, output);
+                } catch( IOException ioe ) {
+                    throw new KieServerHttpRequestException("Unable to add stream to request body", ioe);
+                }
             }
         }
     }
@@ -1155,6 +1197,18 @@ public class KieServerHttpRequest {
 
     // Request/Input helper methods -----------------------------------------------------------------------------------------------
 
+    /**
+     * Set the request body to be streamed from given input stream, using chunked transfer encoding.
+     * The stream is read with a buffer of {@link #bufferSize()} bytes and closed once sent.
+     *
+     * @param input
+     * @return this request
+     */
+    public KieServerHttpRequest body(final InputStream input ) throws KieServerHttpRequestException {
+        getRequestInfo().bodyStream = input;
+        return this;
+    }
+
     public KieServerHttpRequest body(final CharSequence value ) throws KieServerHttpRequestException {
         getRequestInfo().addToBody(value);
         return this;
@@ -1392,13 +1446,17 @@ public class KieServerHttpRequest {
                 }
         }
 
-        if( !uncompress || !"gzip".equals(responseContentEncoding()) ) {
+        if( !uncompress ) {
+            return stream;
+        }
+        ContentCompression compression = ContentCompression.fromEncoding(responseContentEncoding());
+        if( compression == null || compression == ContentCompression.NONE ) {
             return stream;
         } else {
             try {
-                return new GZIPInputStream(stream);
+                return compression.decompress(stream);
             } catch( IOException e ) {
-                throw new KieServerHttpRequestException("Unable to decompress gzipped stream", e);
+                throw new KieServerHttpRequestException("Unable to decompress " + compression.getEncoding() + " stream", e);
             }
         }
     }
@@ -58,7 +58,10 @@ import static org.kie.server.common.rest.KieServerHttpRequest.getRequest;
 import static org.kie.server.common.rest.KieServerHttpRequest.newRequest;
 import static org.kie.server.common.rest.KieServerHttpRequest.postRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Arrays;
 import java.util.Collections;
@@ -1130,6 +1133,126 @@ public class KieServerHttpRequestTest extends ServerTestCase {
         assertEquals("hello not compressed", request.response().body());
     }
 
+    /**
+     * Make a GET request that should be deflated
+     *
+     * @throws Exception
+     */
+    @Test
+    public void getDeflated() throws Exception {
+        handler = new RequestHandler() {
+
+            @Override
+            public void handle( Request request, HttpServletResponse response ) {
+                response.setStatus(HTTP_OK);
+                if( !"deflate".equals(request.getHeader("Accept-Encoding")) )
+                    return;
+
+                response.setHeader("Content-Encoding", "deflate");
+                try {
+                    response.getOutputStream().write(ContentCompression.DEFLATE.compress("hello deflated".getBytes(CHARSET_UTF8)));
+                } catch( IOException e ) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        KieServerHttpRequest request = getRequest(url).acceptEncoding("deflate").setUncompress(true);
+        assertEquals(HTTP_OK, request.response().code());
+        assertEquals("hello deflated", request.response().body());
+    }
+
+    /**
+     * Make a POST request with body compressed only when above threshold
+     *
+     * @throws Exception
+     */
+    @Test
+    public void postCompressedBody() throws Exception {
+        final AtomicReference<String> body = new AtomicReference<String>();
+        final AtomicReference<String> encoding = new AtomicReference<String>();
+        handler = new RequestHandler() {
+
+            @Override
+            public void handle( Request request, HttpServletResponse response ) {
+                encoding.set(request.getHeader("Content-Encoding"));
+                try {
+                    ContentCompression compression = ContentCompression.fromEncoding(encoding.get());
+                    body.set(new String(readFully(compression.decompress(request.getInputStream())), CHARSET_UTF8));
+                } catch( IOException e ) {
+                    throw new RuntimeException(e);
+                }
+                response.setStatus(HTTP_OK);
+            }
+        };
+        StringBuilder data = new StringBuilder();
+        for( int i = 0; i < 200; i++ ) {
+            data.append("hello compressed ");
+        }
+        int code = newRequest(new URL(url)).compressBody(ContentCompression.GZIP, 1024).body(data).post().response().code();
+        assertEquals(HTTP_OK, code);
+        assertEquals("gzip", encoding.get());
+        assertEquals(data.toString(), body.get());
+
+        code = newRequest(new URL(url)).compressBody(ContentCompression.GZIP, 1024).body("hello").post().response().code();
+        assertEquals(HTTP_OK, code);
+        assertNull(encoding.get());
+        assertEquals("hello", body.get());
+    }
+
+    /**
+     * Make a POST request with body streamed from an input stream
+     *
+     * @throws Exception
+     */
+    @Test
+    public void postStreamedBody() throws Exception {
+        final AtomicReference<byte[]> body = new AtomicReference<byte[]>();
+        final AtomicReference<String> transferEncoding = new AtomicReference<String>();
+        handler = new RequestHandler() {
+
+            @Override
+            public void handle( Request request, HttpServletResponse response ) {
+                transferEncoding.set(request.getHeader("Transfer-Encoding"));
+                body.set(read());
+                response.setStatus(HTTP_OK);
+            }
+        };
+        byte[] data = new byte[100000];
+        for( int i = 0; i < data.length; i++ ) {
+            data[i] = (byte) i;
+        }
+        int code = newRequest(new URL(url)).bufferSize(4096).body(new ByteArrayInputStream(data)).post().response().code();
+        assertEquals(HTTP_OK, code);
+        assertEquals("chunked", transferEncoding.get());
+        assertTrue(Arrays.equals(data, body.get()));
+    }
+
+    /**
+     * Select compression from the 'Accept-Encoding' header
+     *
+     * @throws Exception
+     */
+    @Test
+    public void acceptEncodingNegotiation() throws Exception {
+        assertEquals(ContentCompression.NONE, ContentCompression.fromAcceptEncoding(null));
+        assertEquals(ContentCompression.NONE, ContentCompression.fromAcceptEncoding("br"));
+        assertEquals(ContentCompression.GZIP, ContentCompression.fromAcceptEncoding("deflate, gzip"));
+        assertEquals(ContentCompression.DEFLATE, ContentCompression.fromAcceptEncoding("gzip;q=0.5, deflate"));
+        assertEquals(ContentCompression.DEFLATE, ContentCompression.fromAcceptEncoding("gzip;q=0, deflate;q=0.1"));
+        assertEquals(ContentCompression.GZIP, ContentCompression.fromAcceptEncoding("*"));
+        assertNull(ContentCompression.fromEncoding("br"));
+        assertEquals(ContentCompression.GZIP, ContentCompression.fromEncoding("x-gzip"));
+    }
+
+    private static byte[] readFully( InputStream input ) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8196];
+        int read;
+        while( (read = input.read(buffer)) != -1 )
+            content.write(buffer, 0, read);
+        return content.toByteArray();
+    }
+
     /**
      * Get header with multiple response values
      *
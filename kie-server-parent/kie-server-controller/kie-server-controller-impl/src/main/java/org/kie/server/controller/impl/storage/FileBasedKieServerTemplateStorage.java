@@ -14,9 +14,22 @@
 */
 package org.kie.server.controller.impl.storage;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -40,10 +53,42 @@ public class FileBasedKieServerTemplateStorage implements KieServerTemplateStora
     public static final String DEFAULT_SERVER_TEMPLATE_FILENAME = System.getProperty("java.io.tmpdir")+
     		System.getProperty("file.separator")
     		+"template_store.xml";
+    /**
+     * Default location of templates in per-template mode
+     */
+    public static final String DEFAULT_SERVER_TEMPLATE_DIRECTORY = System.getProperty("java.io.tmpdir") +
+            System.getProperty("file.separator")
+            + "template_store";
+    /**
+     * Storage mode, either <code>single</code> (default) - all templates in one file, or <code>per-template</code> -
+     * templatesLocation is a directory with one file per template that are read whenever asked for and not kept in memory
+     */
+    public static final String SERVER_TEMPLATE_STORAGE_MODE_PROP = "org.kie.server.controller.templatefile.mode";
+    public static final String SINGLE_FILE_MODE = "single";
+    public static final String PER_TEMPLATE_MODE = "per-template";
+    /**
+     * Enables append only change log next to the single template file so that a change does not rewrite all templates
+     */
+    public static final String CHANGE_LOG_PROP = "org.kie.server.controller.templatefile.changelog";
+    /**
+     * Number of changes in the change log after which the log is compacted into the template file
+     */
+    public static final String CHANGE_LOG_COMPACTION_PROP = "org.kie.server.controller.templatefile.changelog.compaction";
+    public static final String CHANGE_LOG_SUFFIX = ".log";
+    public static final String KEYS_FILE_NAME = "template_keys.xml";
+    private static final String TEMPLATE_FILE_SUFFIX = ".xml";
+
+    private static final byte CHANGE_STORE = 1;
+    private static final byte CHANGE_DELETE = 2;
+
     private static Logger logger = LoggerFactory.getLogger(FileBasedKieServerTemplateStorage.class);
     private Map<String, ServerTemplate> templateMap = new ConcurrentHashMap<>();
     private Map<String, ServerTemplateKey> templateKeyMap = new ConcurrentHashMap<>();
     private String templatesLocation;
+    private boolean perTemplate;
+    private boolean changeLogEnabled;
+    private int compactionThreshold;
+    private int changeLogSize;
     private Marshaller templateMarshaller = MarshallerFactory.getMarshaller(MarshallingFormat.XSTREAM,ServerTemplate.class.getClassLoader());
     
     public static synchronized FileBasedKieServerTemplateStorage getInstance() {
@@ -75,32 +120,59 @@ public class FileBasedKieServerTemplateStorage implements KieServerTemplateStora
     protected FileBasedKieServerTemplateStorage(String templatesLocation) {
     	init(templatesLocation);
     }
+
+    /**
+     * Constructor that takes a template location argument and storage options, ignoring the system properties
+     * @param templatesLocation A string value that indicates where the server templates should be stored - a directory
+     * when perTemplate is set
+     * @param perTemplate Whether each template should be stored in a file of its own
+     * @param changeLogEnabled Whether changes should be appended to a change log instead of rewriting the template file,
+     * applies to single file mode only
+     */
+    protected FileBasedKieServerTemplateStorage(String templatesLocation, boolean perTemplate, boolean changeLogEnabled) {
+        init(templatesLocation, perTemplate, changeLogEnabled);
+    }
     
     /**
      * Initializes the class instance
      * @param templatesLocation A string value that indicates where the server templates should be stored. A null value
      * indicates that the value should be retrieved from the system properties.
      */
-    protected synchronized void init(String templatesLocation) {
+    protected void init(String templatesLocation) {
+        init(templatesLocation,
+             PER_TEMPLATE_MODE.equalsIgnoreCase(System.getProperty(SERVER_TEMPLATE_STORAGE_MODE_PROP, SINGLE_FILE_MODE)),
+             Boolean.getBoolean(CHANGE_LOG_PROP));
+    }
+
+    protected synchronized void init(String templatesLocation, boolean perTemplate, boolean changeLogEnabled) {
     	this.templateMap = new ConcurrentHashMap<>();
     	this.templateKeyMap = new ConcurrentHashMap<>();
     	if (templatesLocation != null && !templatesLocation.trim().isEmpty()) {
     		this.templatesLocation = templatesLocation;
     	} else {
-    		this.templatesLocation = System.getProperty(SERVER_TEMPLATE_FILE_NAME_PROP, DEFAULT_SERVER_TEMPLATE_FILENAME);
+    		this.templatesLocation = System.getProperty(SERVER_TEMPLATE_FILE_NAME_PROP,
+    		                                            perTemplate ? DEFAULT_SERVER_TEMPLATE_DIRECTORY : DEFAULT_SERVER_TEMPLATE_FILENAME);
     	}
+        if (perTemplate && new File(this.templatesLocation).isFile()) {
+            throw new IllegalArgumentException("Server templates location " + this.templatesLocation + " is a file, "
+                                                       + PER_TEMPLATE_MODE + " storage mode requires a directory");
+        }
+        this.perTemplate = perTemplate;
+        this.changeLogEnabled = changeLogEnabled && !perTemplate;
+        this.compactionThreshold = Integer.parseInt(System.getProperty(CHANGE_LOG_COMPACTION_PROP, "100"));
     	loadTemplateMapsFromFile();
     }
 
     /**
      * Writes the map of server templates to the file pointed at by templatesLocation
      */
-    private synchronized void writeTemplateMap() {
-        try (FileWriter writer = new FileWriter(templatesLocation)) {
-            ((XStreamMarshaller)templateMarshaller).getXstream()
-            	.toXML(new ArrayList<ServerTemplate>(templateMap.values()), writer);
+    private synchronized boolean writeTemplateMap() {
+        try {
+            writeAtomically(new File(templatesLocation), new ArrayList<ServerTemplate>(templateMap.values()));
+            return true;
         } catch (Throwable e) {
             logger.error("Unable to write template maps for standalone controller",e);
+            return false;
         }
     }
 
@@ -109,6 +181,10 @@ public class FileBasedKieServerTemplateStorage implements KieServerTemplateStora
      */
     @SuppressWarnings("unchecked")
     private synchronized void loadTemplateMapsFromFile() {
+        if (perTemplate) {
+            loadTemplateKeys();
+            return;
+        }
         ArrayList<ServerTemplate> templates = null;
         try (FileReader reader = new FileReader(templatesLocation)) {
             templates = (ArrayList<ServerTemplate>)((XStreamMarshaller)templateMarshaller).getXstream().fromXML(reader);
@@ -127,23 +203,237 @@ public class FileBasedKieServerTemplateStorage implements KieServerTemplateStora
                 templateMap.put(template.getId(),template);
             });
         }
+        if (changeLogEnabled) {
+            replayChangeLog();
+        }
     }
 
+    /*
+     * Per template mode - keys of all templates are kept in a small file of their own so that templates
+     * do not need to be read until they are asked for
+     */
+
+    @SuppressWarnings("unchecked")
+    private void loadTemplateKeys() {
+        File keysFile = new File(templatesLocation, KEYS_FILE_NAME);
+        if (keysFile.isFile()) {
+            try (FileReader reader = new FileReader(keysFile)) {
+                List<ServerTemplateKey> keys = (List<ServerTemplateKey>) ((XStreamMarshaller) templateMarshaller).getXstream().fromXML(reader);
+                keys.forEach(key -> templateKeyMap.put(key.getId(), key));
+                return;
+            } catch (Throwable e) {
+                logger.warn("Unable to read server template keys from file {}, reading all templates instead", keysFile, e);
+            }
+        }
+        // no (valid) keys file, rebuild it from the template files
+        File[] templateFiles = new File(templatesLocation).listFiles((dir, name) -> name.endsWith(TEMPLATE_FILE_SUFFIX) && !name.equals(KEYS_FILE_NAME));
+        if (templateFiles == null) {
+            return;
+        }
+        for (File templateFile : templateFiles) {
+            ServerTemplate template = readTemplateFile(templateFile);
+            if (template != null) {
+                templateKeyMap.put(template.getId(), new ServerTemplateKey(template.getId(), template.getName()));
+            }
+        }
+        writeTemplateKeys();
+    }
+
+    private void writeTemplateKeys() {
+        try {
+            writeAtomically(new File(templatesLocation, KEYS_FILE_NAME), new ArrayList<ServerTemplateKey>(templateKeyMap.values()));
+        } catch (Throwable e) {
+            logger.error("Unable to write server template keys for standalone controller", e);
+        }
+    }
+
+    private ServerTemplate readTemplateFile(File templateFile) {
+        if (!templateFile.isFile()) {
+            return null;
+        }
+        try (FileReader reader = new FileReader(templateFile)) {
+            return (ServerTemplate) ((XStreamMarshaller) templateMarshaller).getXstream().fromXML(reader);
+        } catch (Throwable e) {
+            logger.error("Unable to read server template from file {}", templateFile, e);
+            return null;
+        }
+    }
+
+    private void writeTemplateFile(ServerTemplate template) {
+        try {
+            writeAtomically(getTemplateFile(template.getId()), template);
+        } catch (Throwable e) {
+            logger.error("Unable to write server template {} for standalone controller", template.getId(), e);
+        }
+    }
+
+    private File getTemplateFile(String id) {
+        try {
+            return new File(templatesLocation, URLEncoder.encode(id, "UTF-8") + TEMPLATE_FILE_SUFFIX);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+     * Change log - single file mode only, every change is appended as a record of
+     * [change type][template id][template xml length][template xml] and replayed on top of the template file
+     */
+
+    private File getChangeLogFile() {
+        return new File(templatesLocation + CHANGE_LOG_SUFFIX);
+    }
+
+    private synchronized void appendChange(byte type, String id, ServerTemplate template) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getChangeLogFile(), true)))) {
+            out.writeByte(type);
+            out.writeUTF(id);
+            if (type == CHANGE_STORE) {
+                byte[] xml = ((XStreamMarshaller) templateMarshaller).getXstream().toXML(template).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(xml.length);
+                out.write(xml);
+            }
+        } catch (Throwable e) {
+            logger.error("Unable to append server template change to change log, writing all templates instead", e);
+            compactChangeLog();
+            return;
+        }
+        changeLogSize++;
+        if (changeLogSize >= compactionThreshold) {
+            compactChangeLog();
+        }
+    }
+
+    private synchronized void compactChangeLog() {
+        if (!writeTemplateMap()) {
+            // the change log still holds changes not in the template file
+            return;
+        }
+        try {
+            Files.deleteIfExists(getChangeLogFile().toPath());
+            changeLogSize = 0;
+        } catch (IOException e) {
+            logger.error("Unable to remove compacted server template change log", e);
+        }
+    }
+
+    private void replayChangeLog() {
+        File changeLog = getChangeLogFile();
+        if (!changeLog.isFile()) {
+            return;
+        }
+        int replayed = 0;
+        try (RandomAccessFile in = new RandomAccessFile(changeLog, "rw")) {
+            long replayedLength = 0;
+            try {
+                while (replayedLength < in.length()) {
+                    byte type = in.readByte();
+                    String id = in.readUTF();
+                    if (type == CHANGE_STORE) {
+                        byte[] xml = new byte[in.readInt()];
+                        in.readFully(xml);
+                        ServerTemplate template = (ServerTemplate) ((XStreamMarshaller) templateMarshaller).getXstream().fromXML(new String(xml, StandardCharsets.UTF_8));
+                        templateKeyMap.put(id, new ServerTemplateKey(template.getId(), template.getName()));
+                        templateMap.put(id, template);
+                    } else if (type == CHANGE_DELETE) {
+                        templateKeyMap.remove(id);
+                        templateMap.remove(id);
+                    } else {
+                        throw new IOException("Unknown change type " + type);
+                    }
+                    replayed++;
+                    replayedLength = in.getFilePointer();
+                }
+            } catch (EOFException e) {
+                logger.warn("Last record of server template change log {} was not completely written and is dropped", changeLog);
+            } catch (Throwable e) {
+                logger.error("Unable to replay server template change log {}, changes after offset {} are dropped", changeLog, replayedLength, e);
+            }
+            if (replayedLength < in.length()) {
+                // next changes must be appended right after the last complete record, not after the torn one
+                in.setLength(replayedLength);
+            }
+        } catch (IOException e) {
+            logger.error("Unable to truncate server template change log {}, writing all templates instead", changeLog, e);
+            changeLogSize = replayed;
+            compactChangeLog();
+            return;
+        }
+        changeLogSize = replayed;
+        logger.debug("Replayed {} server template changes from {}", replayed, changeLog);
+    }
+
+    private void writeAtomically(File target, Object content) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File tmp = File.createTempFile(target.getName(), ".tmp", parent);
+        try {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+                ((XStreamMarshaller) templateMarshaller).getXstream().toXML(content, writer);
+            }
+            try {
+                Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+    }
+
+    private void persist(ServerTemplate serverTemplate, ServerTemplateKey previousKey) {
+        if (perTemplate) {
+            writeTemplateFile(serverTemplate);
+            if (!templateKeyMap.get(serverTemplate.getId()).equals(previousKey)) {
+                writeTemplateKeys();
+            }
+        } else if (changeLogEnabled) {
+            appendChange(CHANGE_STORE, serverTemplate.getId(), serverTemplate);
+        } else {
+            writeTemplateMap();
+        }
+    }
+
+    private void persistDelete(String identifier) {
+        if (perTemplate) {
+            writeTemplateKeys();
+            try {
+                Files.deleteIfExists(getTemplateFile(identifier).toPath());
+            } catch (IOException e) {
+                logger.error("Unable to delete server template file of {}", identifier, e);
+            }
+        } else if (changeLogEnabled) {
+            appendChange(CHANGE_DELETE, identifier, null);
+        } else {
+            writeTemplateMap();
+        }
+    }
 
     @Override
     public ServerTemplate store(ServerTemplate serverTemplate) {
         ServerTemplate template = null;
         synchronized (templateMap) {
-            templateKeyMap.put(serverTemplate.getId(),
-                               new ServerTemplateKey(serverTemplate.getId(),
-                                                     serverTemplate.getName()));
-            template = templateMap.put(serverTemplate.getId(),
-                                   serverTemplate);
-            writeTemplateMap();
+            ServerTemplateKey previousKey = templateKeyMap.put(serverTemplate.getId(),
+                                                               new ServerTemplateKey(serverTemplate.getId(),
+                                                                                     serverTemplate.getName()));
+            template = putTemplate(serverTemplate, previousKey);
+            persist(serverTemplate, previousKey);
         }
         return template;
     }
 
+    /*
+     * templates are kept in memory in single file mode only, in per-template mode the previous one is read from its file
+     */
+    private ServerTemplate putTemplate(ServerTemplate serverTemplate, ServerTemplateKey previousKey) {
+        if (perTemplate) {
+            return previousKey != null ? readTemplateFile(getTemplateFile(serverTemplate.getId())) : null;
+        }
+        return templateMap.put(serverTemplate.getId(), serverTemplate);
+    }
+
     @Override
     public List<ServerTemplateKey> loadKeys() {
         return new ArrayList<ServerTemplateKey>(templateKeyMap.values());
@@ -161,27 +451,41 @@ public class FileBasedKieServerTemplateStorage implements KieServerTemplateStora
 
     @Override
     public List<ServerTemplate> load() {
+        if (perTemplate) {
+            List<ServerTemplate> templates = new ArrayList<ServerTemplate>(templateKeyMap.size());
+            templateKeyMap.keySet().forEach(id -> {
+                ServerTemplate template = load(id);
+                if (template != null) {
+                    templates.add(template);
+                }
+            });
+            return templates;
+        }
         return new ArrayList<ServerTemplate>(templateMap.values());
     }
 
     @Override
     public ServerTemplate load(String identifier) {
+        if (perTemplate) {
+            // read whenever asked for so that memory does not grow with the number of templates
+            return templateKeyMap.containsKey(identifier) ? readTemplateFile(getTemplateFile(identifier)) : null;
+        }
         return templateMap.get(identifier);
     }
 
     @Override
     public boolean exists(String identifier) {
-        return templateMap.containsKey(identifier);
+        return templateKeyMap.containsKey(identifier);
     }
 
     @Override
     public ServerTemplate update(ServerTemplate serverTemplate) {
         ServerTemplate updated = null;
         synchronized (templateMap) {
-            templateKeyMap.put(serverTemplate.getId(),
-                               new ServerTemplateKey(serverTemplate.getId(),serverTemplate.getName()));
-            updated = templateMap.put(serverTemplate.getId(),serverTemplate);
-            writeTemplateMap();
+            ServerTemplateKey previousKey = templateKeyMap.put(serverTemplate.getId(),
+                                                               new ServerTemplateKey(serverTemplate.getId(),serverTemplate.getName()));
+            updated = putTemplate(serverTemplate, previousKey);
+            persist(serverTemplate, previousKey);
         }
         return updated;
     }
@@ -190,9 +494,17 @@ public class FileBasedKieServerTemplateStorage implements KieServerTemplateStora
     public ServerTemplate delete(String identifier) {
         ServerTemplate removed = null;
         synchronized (templateMap) {
-            templateKeyMap.remove(identifier);
-            removed = templateMap.remove(identifier);
-            writeTemplateMap();
+            if (perTemplate) {
+                removed = load(identifier);
+            }
+            ServerTemplateKey removedKey = templateKeyMap.remove(identifier);
+            ServerTemplate removedTemplate = templateMap.remove(identifier);
+            if (removed == null) {
+                removed = removedTemplate;
+            }
+            if (removedKey != null || removedTemplate != null) {
+                persistDelete(identifier);
+            }
         }
         return removed;
     }
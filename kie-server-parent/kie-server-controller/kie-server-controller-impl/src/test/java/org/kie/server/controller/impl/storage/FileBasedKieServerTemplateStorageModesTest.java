@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package org.kie.server.controller.impl.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.controller.api.model.spec.ServerTemplate;
+
+public class FileBasedKieServerTemplateStorageModesTest {
+
+    private File storageDirectory;
+
+    private static ServerTemplate createServerTemplate(String name) {
+        ServerTemplate template = new ServerTemplate();
+        template.setId(UUID.randomUUID().toString());
+        template.setName(name);
+        return template;
+    }
+
+    @Before
+    public void setup() throws IOException {
+        storageDirectory = Files.createTempDirectory("templates_").toFile();
+    }
+
+    @After
+    public void clean() throws IOException {
+        try (Stream<java.nio.file.Path> paths = Files.walk(storageDirectory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testPerTemplateStorage() {
+        FileBasedKieServerTemplateStorage storage = new FileBasedKieServerTemplateStorage(storageDirectory.getAbsolutePath(), true, false);
+        ServerTemplate first = createServerTemplate("first");
+        ServerTemplate second = createServerTemplate("second");
+        storage.store(first);
+        storage.store(second);
+
+        // one file per template plus the keys file
+        assertEquals(3, storageDirectory.list().length);
+        assertTrue(new File(storageDirectory, FileBasedKieServerTemplateStorage.KEYS_FILE_NAME).isFile());
+
+        // only keys are read on reload, templates are read when asked for
+        storage.reloadTemplateMaps();
+        assertEquals(2, storage.loadKeys().size());
+        assertTrue(storage.exists(first.getId()));
+        assertEquals(first, storage.load(first.getId()));
+        assertEquals(2, storage.load().size());
+
+        second.setName("renamed");
+        storage.update(second);
+        storage.reloadTemplateMaps();
+        assertEquals("renamed", storage.getTemplateKey(second.getId()).getName());
+        assertEquals(second, storage.load(second.getId()));
+
+        assertEquals(first, storage.delete(first.getId()));
+        assertEquals(2, storageDirectory.list().length);
+        storage.reloadTemplateMaps();
+        assertFalse(storage.exists(first.getId()));
+        assertNull(storage.load(first.getId()));
+        assertEquals(1, storage.load().size());
+    }
+
+    @Test
+    public void testPerTemplateStorageWithoutKeysFile() {
+        FileBasedKieServerTemplateStorage storage = new FileBasedKieServerTemplateStorage(storageDirectory.getAbsolutePath(), true, false);
+        ServerTemplate template = createServerTemplate("template");
+        storage.store(template);
+
+        assertTrue(new File(storageDirectory, FileBasedKieServerTemplateStorage.KEYS_FILE_NAME).delete());
+        storage.reloadTemplateMaps();
+        assertEquals(1, storage.loadKeys().size());
+        assertEquals(template, storage.load(template.getId()));
+        assertTrue(new File(storageDirectory, FileBasedKieServerTemplateStorage.KEYS_FILE_NAME).isFile());
+    }
+
+    @Test
+    public void testPerTemplateStorageDoesNotKeepTemplates() {
+        FileBasedKieServerTemplateStorage storage = new FileBasedKieServerTemplateStorage(storageDirectory.getAbsolutePath(), true, false);
+        ServerTemplate template = createServerTemplate("template");
+        storage.store(template);
+
+        // every load reads the template file again instead of keeping the template in memory
+        ServerTemplate loaded = storage.load(template.getId());
+        assertEquals(template, loaded);
+        assertNotSame(template, loaded);
+        assertNotSame(loaded, storage.load(template.getId()));
+
+        template.setName("renamed");
+        assertEquals(loaded, storage.update(template));
+        assertEquals("renamed", storage.load(template.getId()).getName());
+    }
+
+    @Test
+    public void testPerTemplateStorageRefusesFile() throws IOException {
+        File templateFile = new File(storageDirectory, "templates.xml");
+        assertTrue(templateFile.createNewFile());
+
+        try {
+            new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), true, false);
+            fail("Per template storage must not use a file as its directory");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(templateFile.getAbsolutePath()));
+        }
+    }
+
+    @Test
+    public void testChangeLog() {
+        File templateFile = new File(storageDirectory, "templates.xml");
+        File changeLog = new File(templateFile.getAbsolutePath() + FileBasedKieServerTemplateStorage.CHANGE_LOG_SUFFIX);
+
+        FileBasedKieServerTemplateStorage storage = new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), false, true);
+        ServerTemplate first = createServerTemplate("first");
+        ServerTemplate second = createServerTemplate("second");
+        storage.store(first);
+        storage.store(second);
+        second.setName("renamed");
+        storage.update(second);
+        storage.delete(first.getId());
+
+        // changes are only appended to the log
+        assertFalse(templateFile.exists());
+        assertTrue(changeLog.isFile());
+
+        FileBasedKieServerTemplateStorage reloaded = new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), false, true);
+        assertEquals(1, reloaded.loadKeys().size());
+        assertFalse(reloaded.exists(first.getId()));
+        ServerTemplate loaded = reloaded.load(second.getId());
+        assertNotNull(loaded);
+        assertEquals("renamed", loaded.getName());
+    }
+
+    @Test
+    public void testChangeLogWithTornRecord() throws IOException {
+        File templateFile = new File(storageDirectory, "templates.xml");
+        File changeLog = new File(templateFile.getAbsolutePath() + FileBasedKieServerTemplateStorage.CHANGE_LOG_SUFFIX);
+
+        FileBasedKieServerTemplateStorage storage = new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), false, true);
+        ServerTemplate first = createServerTemplate("first");
+        storage.store(first);
+        long firstRecordLength = changeLog.length();
+        storage.store(createServerTemplate("second"));
+
+        // crash while the second record was written
+        try (RandomAccessFile file = new RandomAccessFile(changeLog, "rw")) {
+            file.setLength(firstRecordLength + (changeLog.length() - firstRecordLength) / 2);
+        }
+
+        FileBasedKieServerTemplateStorage reloaded = new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), false, true);
+        assertEquals(1, reloaded.loadKeys().size());
+        assertEquals(first, reloaded.load(first.getId()));
+        assertEquals(firstRecordLength, changeLog.length());
+
+        // changes made after the recovery are not lost behind the torn record
+        ServerTemplate third = createServerTemplate("third");
+        reloaded.store(third);
+
+        reloaded = new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), false, true);
+        assertEquals(2, reloaded.loadKeys().size());
+        assertEquals(first, reloaded.load(first.getId()));
+        assertEquals(third, reloaded.load(third.getId()));
+    }
+
+    @Test
+    public void testChangeLogCompaction() {
+        File templateFile = new File(storageDirectory, "templates.xml");
+        File changeLog = new File(templateFile.getAbsolutePath() + FileBasedKieServerTemplateStorage.CHANGE_LOG_SUFFIX);
+
+        System.setProperty(FileBasedKieServerTemplateStorage.CHANGE_LOG_COMPACTION_PROP, "3");
+        try {
+            FileBasedKieServerTemplateStorage storage = new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), false, true);
+            for (int i = 0; i < 3; i++) {
+                storage.store(createServerTemplate("template " + i));
+            }
+            assertTrue(templateFile.isFile());
+            assertFalse(changeLog.exists());
+
+            storage.store(createServerTemplate("template 3"));
+            assertTrue(changeLog.isFile());
+
+            FileBasedKieServerTemplateStorage reloaded = new FileBasedKieServerTemplateStorage(templateFile.getAbsolutePath(), false, true);
+            assertEquals(4, reloaded.load().size());
+        } finally {
+            System.clearProperty(FileBasedKieServerTemplateStorage.CHANGE_LOG_COMPACTION_PROP);
+        }
+    }
+}
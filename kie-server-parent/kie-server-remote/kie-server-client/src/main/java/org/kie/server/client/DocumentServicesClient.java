@@ -15,6 +15,7 @@
 
 package org.kie.server.client;
 
+import java.io.InputStream;
 import java.util.List;
 
 import org.kie.server.api.model.instance.DocumentInstance;
@@ -30,6 +31,30 @@ public interface DocumentServicesClient {
 
     void updateDocument(DocumentInstance documentInstance);
 
+    /**
+     * Creates document of given name with content read from given stream. Over REST the content is streamed
+     * to the server as it is read, without being held in client memory; the stream is closed once sent.
+     * @param name name of the document
+     * @param content stream of document content
+     * @return identifier of the created document
+     */
+    String createDocument(String name, InputStream content);
+
+    /**
+     * Replaces content of the document with content read from given stream, see {@link #createDocument(String, InputStream)}.
+     * @param identifier identifier of the document
+     * @param content stream of document content
+     */
+    void updateDocumentContent(String identifier, InputStream content);
+
+    /**
+     * Returns content of the document as stream, over REST it is read directly from the connection
+     * which is released when the stream is closed - callers must always close it.
+     * @param identifier identifier of the document
+     * @return stream of document content
+     */
+    InputStream getDocumentContent(String identifier);
+
     void deleteDocument(String identifier);
 
     List<DocumentInstance> listDocuments(Integer page, Integer pageSize);
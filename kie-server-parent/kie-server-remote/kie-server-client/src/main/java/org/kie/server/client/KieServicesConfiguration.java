@@ -18,6 +18,7 @@ package org.kie.server.client;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.client.balancer.LoadBalancer;
 import org.kie.server.client.jms.ResponseHandler;
+import org.kie.server.common.rest.ContentCompression;
 
 import javax.jms.ConnectionFactory;
 import javax.jms.Queue;
@@ -112,6 +113,31 @@ public interface KieServicesConfiguration {
 
     Map<String, String> getHeaders();
 
+    /**
+     * Sets compression negotiated with the server over REST - request bodies of at least
+     * compression threshold bytes are compressed and compressed responses are accepted.
+     * Defaults to {@link ContentCompression#NONE}.
+     */
+    void setCompression(ContentCompression compression);
+
+    ContentCompression getCompression();
+
+    /**
+     * Sets minimal size in bytes of request body to be compressed.
+     */
+    void setCompressionThreshold(int compressionThreshold);
+
+    int getCompressionThreshold();
+
+    /**
+     * Sets number of pages fetched ahead in background by iterators returned from query services
+     * (e.g. {@link QueryServicesClient#iterateQuery(String, String, Integer, Class)}). Zero fetches
+     * each page only when requested. Defaults to 1.
+     */
+    void setPrefetchDepth(int prefetchDepth);
+
+    int getPrefetchDepth();
+
     /**
      * Deprecated use #getExtraClasses instead
      */
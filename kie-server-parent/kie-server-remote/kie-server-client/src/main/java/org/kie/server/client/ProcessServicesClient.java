@@ -29,6 +29,8 @@ import org.kie.server.api.model.definition.UserTaskDefinitionList;
 import org.kie.server.api.model.definition.VariablesDefinition;
 import org.kie.server.api.model.instance.NodeInstance;
 import org.kie.server.api.model.instance.ProcessInstance;
+import org.kie.server.api.model.instance.ProcessStartResult;
+import org.kie.server.api.model.instance.ProcessStartSpec;
 import org.kie.server.api.model.instance.VariableInstance;
 import org.kie.server.api.model.instance.WorkItemInstance;
 import org.kie.server.client.jms.ResponseHandler;
@@ -61,6 +63,10 @@ public interface ProcessServicesClient {
 
     Long startProcess(String containerId, String processId, CorrelationKey correlationKey, Map<String, Object> variables);
 
+    List<ProcessStartResult> startProcesses(String containerId, String processId, List<ProcessStartSpec> specs);
+
+    List<ProcessStartResult> startProcesses(String containerId, String processId, List<ProcessStartSpec> specs, Integer chunkSize);
+
     void abortProcessInstance(String containerId, Long processInstanceId);
 
     void abortProcessInstances(String containerId, List<Long> processInstanceIds);
@@ -116,4 +122,9 @@ public interface ProcessServicesClient {
     List<ProcessInstance> findProcessInstances(String containerId, Integer page, Integer pageSize);
 
     List<ProcessInstance> findProcessInstances(String containerId, Integer page, Integer pageSize, String sort, boolean sortOrder);
+
+    /**
+     * Iterates over all process instances of the container prefetching pages of given size in background.
+     */
+    QueryResultIterator<ProcessInstance> iterateProcessInstances(String containerId, Integer pageSize);
 }
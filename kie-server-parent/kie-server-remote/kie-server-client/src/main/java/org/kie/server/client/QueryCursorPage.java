@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.client;
+
+import java.util.List;
+
+/**
+ * Page of query results fetched with cursor paging. Next page is requested with {@link #getNextCursor()},
+ * the first page with <code>null</code> cursor.
+ */
+public class QueryCursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public QueryCursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Opaque token of the next page or null when there are no more results.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCursorPage{items=" + (items == null ? 0 : items.size()) + ", nextCursor=" + nextCursor + "}";
+    }
+}
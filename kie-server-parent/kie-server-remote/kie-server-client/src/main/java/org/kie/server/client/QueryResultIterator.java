@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.client;
+
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.kie.server.api.exception.KieServicesException;
+
+/**
+ * Iterates over all results of a paged query, fetching pages from the server as needed.
+ * <p>
+ * While the current page is consumed up to prefetch depth following pages are already being fetched in background
+ * so walking large result sets does not wait for one round-trip per page. Pages given by cursor are fetched one
+ * ahead at most as each of them needs the cursor returned with the previous one.
+ * <p>
+ * Iterator should be closed (or the stream returned from {@link #stream()}) when not consumed completely to cancel
+ * pages being prefetched. Iteration is not thread safe, closing may be done from any thread.
+ */
+public class QueryResultIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService fetchers = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "KieServicesClientPrefetch-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Fetches single page of results given by page number, starting with 0.
+     */
+    public interface PageFetcher<T> {
+
+        List<T> fetch(int page, int pageSize);
+    }
+
+    /**
+     * Fetches single page of results given by cursor, null cursor for the first page.
+     */
+    public interface CursorPageFetcher<T> {
+
+        QueryCursorPage<T> fetch(String cursor, int pageSize);
+    }
+
+    private final PageFetcher<T> pageFetcher;
+    private final CursorPageFetcher<T> cursorPageFetcher;
+    private final int pageSize;
+    private final int prefetchDepth;
+
+    private final Deque<Future<Page<T>>> pending = new ConcurrentLinkedDeque<Future<Page<T>>>();
+    private int nextPage;
+    private String nextCursor;
+    private boolean exhausted;
+    private volatile boolean closed;
+
+    private Iterator<T> current = Collections.emptyIterator();
+
+    /**
+     * Creates iterator fetching pages by page number.
+     */
+    public static <T> QueryResultIterator<T> ofPages(PageFetcher<T> pageFetcher, int pageSize, int prefetchDepth) {
+        return new QueryResultIterator<T>(pageFetcher, null, pageSize, prefetchDepth);
+    }
+
+    /**
+     * Creates iterator fetching pages by cursor.
+     */
+    public static <T> QueryResultIterator<T> ofCursor(CursorPageFetcher<T> cursorPageFetcher, int pageSize, int prefetchDepth) {
+        return new QueryResultIterator<T>(null, cursorPageFetcher, pageSize, prefetchDepth);
+    }
+
+    protected QueryResultIterator(PageFetcher<T> pageFetcher, CursorPageFetcher<T> cursorPageFetcher, int pageSize, int prefetchDepth) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive, was " + pageSize);
+        }
+        this.pageFetcher = pageFetcher;
+        this.cursorPageFetcher = cursorPageFetcher;
+        this.pageSize = pageSize;
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        while (!current.hasNext()) {
+            List<T> items = nextItems();
+            if (items == null) {
+                return false;
+            }
+            current = items.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Returns stream over remaining results, closing the stream closes this iterator.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Stops iteration and cancels all pages being prefetched.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        current = Collections.emptyIterator();
+        cancelPending();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    protected List<T> nextItems() {
+        Page<T> page;
+        if (prefetchDepth == 0) {
+            if (exhausted) {
+                return null;
+            }
+            page = call(nextFetch());
+        } else {
+            prefetch();
+            Future<Page<T>> future = pending.poll();
+            if (future == null) {
+                return null;
+            }
+            page = await(future);
+            if (page == null) {
+                return null;
+            }
+        }
+
+        if (page.last) {
+            exhausted = true;
+            cancelPending();
+        } else if (cursorPageFetcher != null) {
+            nextCursor = page.nextCursor;
+        }
+        // start fetching following pages before current one is handed over
+        if (prefetchDepth > 0 && !closed) {
+            prefetch();
+        }
+        return page.items;
+    }
+
+    protected void prefetch() {
+        // next cursor is known only once previous page is fetched
+        int limit = cursorPageFetcher != null ? 1 : prefetchDepth;
+        while (!exhausted && !closed && pending.size() < limit) {
+            pending.add(fetchers.submit(nextFetch()));
+        }
+    }
+
+    protected Callable<Page<T>> nextFetch() {
+        if (cursorPageFetcher != null) {
+            String cursor = nextCursor;
+            return () -> {
+                QueryCursorPage<T> result = cursorPageFetcher.fetch(cursor, pageSize);
+                List<T> items = result.getItems() == null ? Collections.<T>emptyList() : result.getItems();
+                return new Page<T>(items, !result.hasNext(), result.getNextCursor());
+            };
+        }
+        int page = nextPage++;
+        return () -> {
+            List<T> items = pageFetcher.fetch(page, pageSize);
+            if (items == null) {
+                items = Collections.emptyList();
+            }
+            return new Page<T>(items, items.size() < pageSize, null);
+        };
+    }
+
+    private Page<T> call(Callable<Page<T>> fetch) {
+        try {
+            return fetch.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new KieServicesException("Unable to fetch page of results", e);
+        }
+    }
+
+    private Page<T> await(Future<Page<T>> future) {
+        try {
+            return future.get();
+        } catch (CancellationException e) {
+            // closed while waiting for the page
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new KieServicesException("Interrupted while fetching page of results", e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new KieServicesException("Unable to fetch page of results", e.getCause());
+        }
+    }
+
+    private void cancelPending() {
+        Future<Page<T>> future;
+        while ((future = pending.poll()) != null) {
+            future.cancel(true);
+        }
+    }
+
+    private static class Page<T> {
+
+        private final List<T> items;
+        private final boolean last;
+        private final String nextCursor;
+
+        Page(List<T> items, boolean last, String nextCursor) {
+            this.items = items;
+            this.last = last;
+            this.nextCursor = nextCursor;
+        }
+    }
+}
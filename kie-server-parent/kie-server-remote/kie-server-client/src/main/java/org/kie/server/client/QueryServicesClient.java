@@ -133,5 +133,38 @@ public interface QueryServicesClient {
 
     <T> List<T> query(String queryName, String mapper, String builder, Map<String, Object> parameters, Integer page, Integer pageSize, Class<T> resultType);
 
+    /**
+     * Runs query paging results with cursor instead of page offset - each page continues after the last row of the previous
+     * one so deep pages are as fast as the first one. Results are ordered by process instance or task id
+     * (based on mapper). Supported only over REST.
+     * @param cursor token of the page returned with the previous page ({@link QueryCursorPage#getNextCursor()}), null for the first page
+     */
+    <T> QueryCursorPage<T> queryWithCursor(String queryName, String mapper, String cursor, Integer pageSize, Class<T> resultType);
+
+    /**
+     * Same as {@link #queryWithCursor(String, String, String, Integer, Class)} with filtering; ordering given in filter spec
+     * must be either empty or by the id column.
+     */
+    <T> QueryCursorPage<T> queryWithCursor(String queryName, String mapper, QueryFilterSpec filterSpec, String cursor, Integer pageSize, Class<T> resultType);
+
+    /**
+     * Iterates over all results of the query fetching pages of given size as needed - following pages are prefetched
+     * in background (see {@link KieServicesConfiguration#setPrefetchDepth(int)}) while the current one is consumed.
+     * Returned iterator should be closed when not consumed completely.
+     */
+    <T> QueryResultIterator<T> iterateQuery(String queryName, String mapper, Integer pageSize, Class<T> resultType);
+
+    <T> QueryResultIterator<T> iterateQuery(String queryName, String mapper, QueryFilterSpec filterSpec, Integer pageSize, Class<T> resultType);
+
+    /**
+     * Same as {@link #iterateQuery(String, String, QueryFilterSpec, Integer, Class)} fetching pages with cursor, see
+     * {@link #queryWithCursor(String, String, QueryFilterSpec, String, Integer, Class)}. Filter spec is optional.
+     */
+    <T> QueryResultIterator<T> iterateQueryWithCursor(String queryName, String mapper, QueryFilterSpec filterSpec, Integer pageSize, Class<T> resultType);
+
+    QueryResultIterator<ProcessInstance> iterateProcessInstancesByStatus(List<Integer> status, Integer pageSize);
+
+    QueryResultIterator<ProcessInstance> iterateProcessInstancesByContainerId(String containerId, List<Integer> status, Integer pageSize);
+
     void setResponseHandler(ResponseHandler responseHandler);
 }
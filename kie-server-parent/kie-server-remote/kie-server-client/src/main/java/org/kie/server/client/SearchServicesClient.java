@@ -30,5 +30,29 @@ public interface SearchServicesClient {
 	List<ProcessInstance> findProcessInstancesWithFilters(ProcessInstanceQueryFilterSpec filterSpec, Integer page, Integer pageSize);
 	
 	List<TaskInstance> findHumanTasksWithFilters(TaskQueryFilterSpec filterSpec, Integer page, Integer pageSize);
+
+	/**
+	 * Cursor paged variant of {@link #findProcessInstancesWithFilters(ProcessInstanceQueryFilterSpec, Integer, Integer)},
+	 * results are ordered by process instance id.
+	 * @param cursor token returned with the previous page or null for the first page
+	 */
+	QueryCursorPage<ProcessInstance> findProcessInstancesWithCursor(ProcessInstanceQueryFilterSpec filterSpec, String cursor, Integer pageSize);
+
+	/**
+	 * Cursor paged variant of {@link #findHumanTasksWithFilters(TaskQueryFilterSpec, Integer, Integer)},
+	 * results are ordered by task id.
+	 * @param cursor token returned with the previous page or null for the first page
+	 */
+	QueryCursorPage<TaskInstance> findHumanTasksWithCursor(TaskQueryFilterSpec filterSpec, String cursor, Integer pageSize);
+
+	/**
+	 * Iterates over all process instances matching the filter prefetching pages of given size in background.
+	 */
+	QueryResultIterator<ProcessInstance> iterateProcessInstancesWithFilters(ProcessInstanceQueryFilterSpec filterSpec, Integer pageSize);
+
+	/**
+	 * Iterates over all tasks matching the filter prefetching pages of given size in background.
+	 */
+	QueryResultIterator<TaskInstance> iterateHumanTasksWithFilters(TaskQueryFilterSpec filterSpec, Integer pageSize);
 	
 }
\ No newline at end of file
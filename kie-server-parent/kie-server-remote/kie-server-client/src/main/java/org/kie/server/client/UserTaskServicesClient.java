@@ -24,6 +24,7 @@ import org.kie.server.api.model.instance.TaskAttachment;
 import org.kie.server.api.model.instance.TaskComment;
 import org.kie.server.api.model.instance.TaskEventInstance;
 import org.kie.server.api.model.instance.TaskInstance;
+import org.kie.server.api.model.instance.TaskOperationResult;
 import org.kie.server.api.model.instance.TaskSummary;
 import org.kie.server.client.jms.ResponseHandler;
 
@@ -60,6 +61,16 @@ public interface UserTaskServicesClient {
 
     void nominateTask(String containerId, Long taskId, String userId, List<String> potentialOwners);
 
+    List<TaskOperationResult> claimTasks(String containerId, List<Long> taskIds, String userId);
+
+    List<TaskOperationResult> startTasks(String containerId, List<Long> taskIds, String userId);
+
+    List<TaskOperationResult> claimAndStartTasks(String containerId, List<Long> taskIds, String userId);
+
+    List<TaskOperationResult> releaseTasks(String containerId, List<Long> taskIds, String userId);
+
+    List<TaskOperationResult> completeTasks(String containerId, String userId, Map<Long, Map<String, Object>> params);
+
     void setTaskPriority(String containerId, Long taskId, int priority);
 
     void setTaskExpirationDate(String containerId, Long taskId, Date date);
@@ -161,5 +172,12 @@ public interface UserTaskServicesClient {
 
     List<TaskSummary> findTasksByVariableAndValue(String userId, String variableName, String variableValue, List<String> status, Integer page, Integer pageSize, String sort, boolean sortOrder);
 
+    /**
+     * Iterates over all tasks of the user prefetching pages of given size in background.
+     */
+    QueryResultIterator<TaskSummary> iterateTasks(String userId, Integer pageSize);
+
+    QueryResultIterator<TaskSummary> iterateTasksAssignedAsPotentialOwner(String userId, Integer pageSize);
+
     void setResponseHandler(ResponseHandler responseHandler);
 }
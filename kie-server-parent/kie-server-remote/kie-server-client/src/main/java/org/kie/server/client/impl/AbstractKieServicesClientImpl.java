@@ -15,7 +15,9 @@
 
 package org.kie.server.client.impl;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
@@ -46,10 +48,12 @@ import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.ServiceResponse;
 import org.kie.server.api.model.ServiceResponsesList;
 import org.kie.server.client.KieServicesConfiguration;
+import org.kie.server.client.QueryResultIterator;
 import org.kie.server.api.exception.KieServicesException;
 import org.kie.server.api.exception.KieServicesHttpException;
 import org.kie.server.client.balancer.LoadBalancer;
 import org.kie.server.client.jms.ResponseHandler;
+import org.kie.server.common.rest.ContentCompression;
 import org.kie.server.common.rest.KieServerHttpRequest;
 import org.kie.server.common.rest.KieServerHttpRequestException;
 import org.kie.server.common.rest.KieServerHttpResponse;
@@ -65,6 +69,7 @@ public abstract class AbstractKieServicesClientImpl {
     private static Logger logger = LoggerFactory.getLogger(AbstractKieServicesClientImpl.class);
 
     protected static final Boolean BYPASS_AUTH_USER = Boolean.parseBoolean(System.getProperty(KieServerConstants.CFG_BYPASS_AUTH_USER, "false"));
+    protected static final int DEFAULT_PAGE_SIZE = 10;
 
     protected LoadBalancer loadBalancer;
     protected final KieServicesConfiguration config;
@@ -210,6 +215,29 @@ public abstract class AbstractKieServicesClientImpl {
         }
     }
 
+    /*
+     * Same as makeHttpGetRequestAndCreateCustomResponse, in addition values of response headers named
+     * by keys of given responseHeaders map are put into the map (null when not present in the response)
+     */
+    protected <T> T makeHttpGetRequestAndCreateCustomResponse(String uri, Class<T> resultType, Map<String, String> responseHeaders) {
+        logger.debug("About to send GET request to '{}'", uri);
+        KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation() {
+            @Override
+            public KieServerHttpRequest doOperation(String url) {
+                return newRequest(url).get();
+            }
+        });
+        KieServerHttpResponse response = request.response();
+
+        owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
+        if ( response.code() == Response.Status.OK.getStatusCode() ) {
+            readResponseHeaders(response, responseHeaders);
+            return deserialize(response.body(), resultType);
+        } else {
+            throw createExceptionForUnexpectedResponseCode( request, response );
+        }
+    }
+
     protected String makeHttpGetRequestAndCreateRawResponse(String uri) {
         logger.debug("About to send GET request to '{}'", uri);
         KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation() {
@@ -321,6 +349,29 @@ public abstract class AbstractKieServicesClientImpl {
         }
     }
 
+    protected <T> T makeHttpPostRequestAndCreateCustomResponse(String uri, Object bodyObject, Class<T> resultType, Map<String, String> headers, Map<String, String> responseHeaders) {
+        final String body = serialize(bodyObject);
+        logger.debug("About to send POST request to '{}' with payload '{}'", uri, body);
+        KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation(){
+            @Override
+            public KieServerHttpRequest doOperation(String url) {
+                return newRequest(uri ).headers(headers).body(body).post();
+            }
+        });
+
+        KieServerHttpResponse response = request.response();
+
+        owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
+
+        if ( response.code() == Response.Status.OK.getStatusCode()
+                || response.code() == Response.Status.CREATED.getStatusCode()) {
+            readResponseHeaders(response, responseHeaders);
+            return deserialize( response.body(), resultType );
+        } else {
+            throw createExceptionForUnexpectedResponseCode( request, response );
+        }
+    }
+
     protected <T> ServiceResponse<T> makeHttpPutRequestAndCreateServiceResponse(
             String uri, Object bodyObject,
             Class<T> resultType) {
@@ -380,6 +431,73 @@ public abstract class AbstractKieServicesClientImpl {
         }
     }
 
+    /*
+     * Requests with body streamed from the given input stream - the stream can be sent only once
+     * so such requests are not retried on another endpoint
+     */
+    protected <T> T makeHttpPostStreamRequestAndCreateCustomResponse(String uri, InputStream body, Class<T> resultType) {
+        logger.debug("About to send streamed POST request to '{}'", uri);
+        KieServerHttpRequest request = newRequest(uri).contentType(MediaType.APPLICATION_OCTET_STREAM).body(body).post();
+
+        KieServerHttpResponse response = request.response();
+
+        owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
+
+        if ( response.code() == Response.Status.OK.getStatusCode()
+                || response.code() == Response.Status.CREATED.getStatusCode()) {
+            return deserialize( response.body(), resultType );
+        } else {
+            throw createExceptionForUnexpectedResponseCode( request, response );
+        }
+    }
+
+    protected <T> T makeHttpPutStreamRequestAndCreateCustomResponse(String uri, InputStream body, Class<T> resultType) {
+        logger.debug("About to send streamed PUT request to '{}'", uri);
+        KieServerHttpRequest request = newRequest(uri).contentType(MediaType.APPLICATION_OCTET_STREAM).body(body).put();
+
+        KieServerHttpResponse response = request.response();
+
+        owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
+
+        if ( response.code() == Response.Status.CREATED.getStatusCode() ) {
+            return deserialize( response.body(), resultType );
+        } else {
+            throw createExceptionForUnexpectedResponseCode( request, response );
+        }
+    }
+
+    /*
+     * Returns response body as stream read directly from the connection, closing the stream releases the connection
+     */
+    protected InputStream makeHttpGetRequestAndCreateStreamResponse(String uri) {
+        logger.debug("About to send GET request to '{}' for streamed response", uri);
+        final KieServerHttpRequest request = invoke(uri, new RemoteHttpOperation(){
+            @Override
+            public KieServerHttpRequest doOperation(String url) {
+                return newRequest( uri ).get();
+            }
+        });
+
+        KieServerHttpResponse response = request.response();
+
+        owner.setConversationId(response.header(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER));
+
+        if ( response.code() == Response.Status.OK.getStatusCode() ) {
+            return new FilterInputStream(response.stream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        request.disconnect();
+                    }
+                }
+            };
+        } else {
+            throw createExceptionForUnexpectedResponseCode( request, response );
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected <T> ServiceResponse<T> makeHttpDeleteRequestAndCreateServiceResponse(String uri, Class<T> resultType) {
         logger.debug("About to send DELETE request to '{}' ", uri);
@@ -434,6 +552,11 @@ public abstract class AbstractKieServicesClientImpl {
                 KieServerHttpRequest.newRequest( uri ).followRedirects( true ).timeout( config.getTimeout() );
         httpRequest.accept( getMediaType( config.getMarshallingFormat() ) );
         httpRequest.header(KieServerConstants.KIE_CONTENT_TYPE_HEADER, config.getMarshallingFormat().toString());
+        // negotiate compression in both directions
+        if (config.getCompression() != null && config.getCompression() != ContentCompression.NONE) {
+            httpRequest.acceptEncoding(config.getCompression().getEncoding()).setUncompress(true);
+            httpRequest.compressBody(config.getCompression(), config.getCompressionThreshold());
+        }
 
         if (config.getHeaders() != null) {
             for (Map.Entry<String, String> header : config.getHeaders().entrySet()) {
@@ -708,6 +831,14 @@ public abstract class AbstractKieServicesClientImpl {
         return queryString.toString();
     }
 
+    protected <T> QueryResultIterator<T> iterate(Integer pageSize, QueryResultIterator.PageFetcher<T> pageFetcher) {
+        return QueryResultIterator.ofPages(pageFetcher, pageSize == null ? DEFAULT_PAGE_SIZE : pageSize, config.getPrefetchDepth());
+    }
+
+    protected <T> QueryResultIterator<T> iterateWithCursor(Integer pageSize, QueryResultIterator.CursorPageFetcher<T> pageFetcher) {
+        return QueryResultIterator.ofCursor(pageFetcher, pageSize == null ? DEFAULT_PAGE_SIZE : pageSize, config.getPrefetchDepth());
+    }
+
     protected String getSortingQueryString(String inQueryString, String sort, boolean sortOrder) {
         StringBuilder queryString = new StringBuilder(inQueryString);
         if (queryString.length() == 0) {
@@ -818,6 +949,15 @@ public abstract class AbstractKieServicesClientImpl {
         throw new KieServerHttpRequestException("Unable to invoke operation " + operation);
     }
 
+    protected void readResponseHeaders(KieServerHttpResponse response, Map<String, String> responseHeaders) {
+        if (responseHeaders == null) {
+            return;
+        }
+        for (String name : new ArrayList<String>(responseHeaders.keySet())) {
+            responseHeaders.put(name, response.header(name));
+        }
+    }
+
     protected String encode(String value) {
         try {
             return URLEncoder.encode(value, "UTF-8");
@@ -15,6 +15,10 @@
 
 package org.kie.server.client.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -22,6 +26,7 @@ import java.util.Map;
 
 import org.kie.server.api.commands.CommandScript;
 import org.kie.server.api.commands.DescriptorCommand;
+import org.kie.server.api.exception.KieServicesException;
 import org.kie.server.api.model.KieServerCommand;
 import org.kie.server.api.model.ServiceResponse;
 import org.kie.server.api.model.Wrapped;
@@ -119,6 +124,83 @@ public class DocumentServicesClientImpl extends AbstractKieServicesClientImpl im
         }
     }
 
+    @Override
+    public String createDocument(String name, InputStream content) {
+        Object result = null;
+        if( config.isRest() ) {
+
+            Map<String, Object> valuesMap = new HashMap<String, Object>();
+
+            result = makeHttpPostStreamRequestAndCreateCustomResponse(
+                    build(loadBalancer.getUrl(), DOCUMENT_URI, valuesMap) + "?name=" + encode(name), content, Object.class);
+
+        } else {
+            // JMS message carries the whole document so the content has to be read first
+            byte[] bytes = readContent(content);
+            return createDocument(DocumentInstance.builder().name(name).size(bytes.length).content(bytes).build());
+        }
+        if (result instanceof Wrapped) {
+            return (String) ((Wrapped) result).unwrap();
+        }
+        return (String) result;
+    }
+
+    @Override
+    public void updateDocumentContent(String identifier, InputStream content) {
+        if( config.isRest() ) {
+
+            Map<String, Object> valuesMap = new HashMap<String, Object>();
+            valuesMap.put(DOCUMENT_ID, identifier);
+
+            makeHttpPutStreamRequestAndCreateCustomResponse(
+                    build(loadBalancer.getUrl(), DOCUMENT_URI + "/" + DOCUMENT_INSTANCE_PUT_URI, valuesMap), content, Object.class);
+
+        } else {
+            byte[] bytes = readContent(content);
+            DocumentInstance documentInstance = getDocument(identifier);
+            documentInstance.setContent(bytes);
+            documentInstance.setSize(bytes.length);
+            updateDocument(documentInstance);
+        }
+    }
+
+    @Override
+    public InputStream getDocumentContent(String identifier) {
+        if( config.isRest() ) {
+
+            Map<String, Object> valuesMap = new HashMap<String, Object>();
+            valuesMap.put(DOCUMENT_ID, identifier);
+
+            return makeHttpGetRequestAndCreateStreamResponse(
+                    build(loadBalancer.getUrl(), DOCUMENT_URI + "/" + DOCUMENT_INSTANCE_CONTENT_GET_URI, valuesMap));
+
+        } else {
+            DocumentInstance documentInstance = getDocument(identifier);
+            if (documentInstance == null) {
+                return null;
+            }
+            return new ByteArrayInputStream(documentInstance.getContent());
+        }
+    }
+
+    protected byte[] readContent(InputStream content) {
+        try {
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+                return output.toByteArray();
+            } finally {
+                content.close();
+            }
+        } catch (IOException e) {
+            throw new KieServicesException("Unable to read document content", e);
+        }
+    }
+
     @Override
     public void deleteDocument(String identifier) {
         if( config.isRest() ) {
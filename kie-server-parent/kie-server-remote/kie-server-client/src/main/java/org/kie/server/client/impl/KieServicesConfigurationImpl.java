@@ -23,6 +23,7 @@ import org.kie.server.client.balancer.LoadBalancer;
 import org.kie.server.client.credentials.EnteredCredentialsProvider;
 import org.kie.server.client.jms.RequestReplyResponseHandler;
 import org.kie.server.client.jms.ResponseHandler;
+import org.kie.server.common.rest.ContentCompression;
 
 import javax.jms.ConnectionFactory;
 import javax.jms.Queue;
@@ -73,6 +74,10 @@ public final class KieServicesConfigurationImpl
 
     private Map<String, String> headers;
 
+    private ContentCompression compression = ContentCompression.NONE;
+    private int compressionThreshold = ContentCompression.DEFAULT_THRESHOLD;
+    private int prefetchDepth = 1;
+
     /*
      * Public constructors and setters
      */
@@ -428,6 +433,36 @@ public final class KieServicesConfigurationImpl
         return this.headers;
     }
 
+    @Override
+    public void setCompression(ContentCompression compression) {
+        this.compression = compression == null ? ContentCompression.NONE : compression;
+    }
+
+    @Override
+    public ContentCompression getCompression() {
+        return this.compression;
+    }
+
+    @Override
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public int getCompressionThreshold() {
+        return this.compressionThreshold;
+    }
+
+    @Override
+    public void setPrefetchDepth(int prefetchDepth) {
+        this.prefetchDepth = Math.max(0, prefetchDepth);
+    }
+
+    @Override
+    public int getPrefetchDepth() {
+        return this.prefetchDepth;
+    }
+
 
     // Clone ---
     private KieServicesConfigurationImpl(KieServicesConfigurationImpl config) {
@@ -449,6 +484,9 @@ public final class KieServicesConfigurationImpl
         this.responseHandler = config.responseHandler;
         this.jmsTransactional = config.jmsTransactional;
         this.headers = config.headers;
+        this.compression = config.compression;
+        this.compressionThreshold = config.compressionThreshold;
+        this.prefetchDepth = config.prefetchDepth;
     }
 
     @Override
@@ -40,12 +40,17 @@ import org.kie.server.api.model.instance.NodeInstance;
 import org.kie.server.api.model.instance.NodeInstanceList;
 import org.kie.server.api.model.instance.ProcessInstance;
 import org.kie.server.api.model.instance.ProcessInstanceList;
+import org.kie.server.api.model.instance.ProcessStartResult;
+import org.kie.server.api.model.instance.ProcessStartResultList;
+import org.kie.server.api.model.instance.ProcessStartSpec;
+import org.kie.server.api.model.instance.ProcessStartSpecList;
 import org.kie.server.api.model.instance.VariableInstance;
 import org.kie.server.api.model.instance.VariableInstanceList;
 import org.kie.server.api.model.instance.WorkItemInstance;
 import org.kie.server.api.model.instance.WorkItemInstanceList;
 import org.kie.server.client.KieServicesConfiguration;
 import org.kie.server.client.ProcessServicesClient;
+import org.kie.server.client.QueryResultIterator;
 
 import static org.kie.server.api.rest.RestURI.*;
 
@@ -320,6 +325,42 @@ public class ProcessServicesClientImpl extends AbstractKieServicesClientImpl imp
         return ((Number) result).longValue();
     }
 
+    @Override
+    public List<ProcessStartResult> startProcesses(String containerId, String processId, List<ProcessStartSpec> specs) {
+        return startProcesses(containerId, processId, specs, null);
+    }
+
+    @Override
+    public List<ProcessStartResult> startProcesses(String containerId, String processId, List<ProcessStartSpec> specs, Integer chunkSize) {
+        ProcessStartResultList resultList = null;
+        if( config.isRest() ) {
+
+            Map<String, Object> valuesMap = new HashMap<String, Object>();
+            valuesMap.put(CONTAINER_ID, containerId);
+            valuesMap.put(PROCESS_ID, processId);
+
+            String queryString = chunkSize == null ? "" : "?chunkSize=" + chunkSize;
+            resultList = makeHttpPostRequestAndCreateCustomResponse(
+                    build(loadBalancer.getUrl(), PROCESS_URI + "/" + START_PROCESSES_POST_URI, valuesMap) + queryString, new ProcessStartSpecList(specs),
+                    ProcessStartResultList.class);
+
+        } else {
+            // non positive chunk size means the server default
+            Integer actualChunkSize = chunkSize == null ? 0 : chunkSize;
+            CommandScript script = new CommandScript( Collections.singletonList(
+                    (KieServerCommand) new DescriptorCommand( "ProcessService", "startProcesses", serialize(new ProcessStartSpecList(specs)), marshaller.getFormat().getType(), new Object[]{containerId, processId, actualChunkSize}) ) );
+            ServiceResponse<String> response = (ServiceResponse<String>) executeJmsCommand( script, DescriptorCommand.class.getName(), "BPM", containerId ).getResponses().get(0);
+
+            throwExceptionOnFailure(response);
+            if (shouldReturnWithNullResponse(response)) {
+                return null;
+            }
+            resultList = deserialize(response.getResult(), ProcessStartResultList.class);
+        }
+
+        return resultList.getItems();
+    }
+
     @Override
     public void abortProcessInstance(String containerId, Long processInstanceId) {
         if( config.isRest() ) {
@@ -946,4 +987,9 @@ public class ProcessServicesClientImpl extends AbstractKieServicesClientImpl imp
 
         return Collections.emptyList();
     }
+
+    @Override
+    public QueryResultIterator<ProcessInstance> iterateProcessInstances(String containerId, Integer pageSize) {
+        return iterate(pageSize, (page, size) -> findProcessInstances(containerId, page, size));
+    }
 }
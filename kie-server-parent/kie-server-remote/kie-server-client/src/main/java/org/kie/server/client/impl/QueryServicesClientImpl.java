@@ -55,6 +55,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.kie.internal.process.CorrelationKey;
+import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.commands.CommandScript;
 import org.kie.server.api.commands.DescriptorCommand;
 import org.kie.server.api.model.ItemList;
@@ -79,6 +80,8 @@ import org.kie.server.api.model.instance.TaskSummaryList;
 import org.kie.server.api.model.instance.VariableInstance;
 import org.kie.server.api.model.instance.VariableInstanceList;
 import org.kie.server.client.KieServicesConfiguration;
+import org.kie.server.client.QueryCursorPage;
+import org.kie.server.client.QueryResultIterator;
 import org.kie.server.client.QueryServicesClient;
 
 public class QueryServicesClientImpl extends AbstractKieServicesClientImpl implements QueryServicesClient {
@@ -971,6 +974,43 @@ public class QueryServicesClientImpl extends AbstractKieServicesClientImpl imple
         return Collections.emptyList();
     }
 
+    @Override
+    public <T> QueryCursorPage<T> queryWithCursor(String queryName, String mapper, String cursor, Integer pageSize, Class<T> resultType) {
+        if (!config.isRest()) {
+            throw new UnsupportedOperationException("Cursor paging is only supported over REST");
+        }
+        Class<?> resultTypeList = getResultTypeList(resultType);
+        Map<String, Object> valuesMap = new HashMap<String, Object>();
+        valuesMap.put(QUERY_NAME, queryName);
+
+        Map<String, String> responseHeaders = new HashMap<String, String>();
+        responseHeaders.put(KieServerConstants.KIE_QUERY_CURSOR_HEADER, null);
+
+        String queryString = getCursorQueryString("?mapper=" + mapper, cursor, pageSize);
+        Object result = makeHttpGetRequestAndCreateCustomResponse(build(loadBalancer.getUrl(), QUERY_DEF_URI + "/" + RUN_QUERY_DEF_GET_URI, valuesMap) + queryString, resultTypeList, responseHeaders);
+
+        return new QueryCursorPage<T>(toItems(result), responseHeaders.get(KieServerConstants.KIE_QUERY_CURSOR_HEADER));
+    }
+
+    @Override
+    public <T> QueryCursorPage<T> queryWithCursor(String queryName, String mapper, QueryFilterSpec filterSpec, String cursor, Integer pageSize, Class<T> resultType) {
+        if (!config.isRest()) {
+            throw new UnsupportedOperationException("Cursor paging is only supported over REST");
+        }
+        Class<?> resultTypeList = getResultTypeList(resultType);
+        Map<String, Object> valuesMap = new HashMap<String, Object>();
+        valuesMap.put(QUERY_NAME, queryName);
+
+        Map<String, String> responseHeaders = new HashMap<String, String>();
+        responseHeaders.put(KieServerConstants.KIE_QUERY_CURSOR_HEADER, null);
+
+        String queryString = getCursorQueryString("?mapper=" + mapper, cursor, pageSize);
+        Object result = makeHttpPostRequestAndCreateCustomResponse(build(loadBalancer.getUrl(), QUERY_DEF_URI + "/" + RUN_FILTERED_QUERY_DEF_POST_URI, valuesMap) + queryString,
+                filterSpec, resultTypeList, new HashMap<String, String>(), responseHeaders);
+
+        return new QueryCursorPage<T>(toItems(result), responseHeaders.get(KieServerConstants.KIE_QUERY_CURSOR_HEADER));
+    }
+
     @Override
     public <T> List<T> query(String queryName, String mapper, String builder, Map<String, Object> parameters, Integer page, Integer pageSize, Class<T> resultType) {
         Object result = null;
@@ -1008,6 +1048,57 @@ public class QueryServicesClientImpl extends AbstractKieServicesClientImpl imple
         return Collections.emptyList();
     }
 
+    @Override
+    public <T> QueryResultIterator<T> iterateQuery(String queryName, String mapper, Integer pageSize, Class<T> resultType) {
+        return iterate(pageSize, (page, size) -> query(queryName, mapper, page, size, resultType));
+    }
+
+    @Override
+    public <T> QueryResultIterator<T> iterateQuery(String queryName, String mapper, QueryFilterSpec filterSpec, Integer pageSize, Class<T> resultType) {
+        return iterate(pageSize, (page, size) -> query(queryName, mapper, filterSpec, page, size, resultType));
+    }
+
+    @Override
+    public <T> QueryResultIterator<T> iterateQueryWithCursor(String queryName, String mapper, QueryFilterSpec filterSpec, Integer pageSize, Class<T> resultType) {
+        if (filterSpec == null) {
+            return iterateWithCursor(pageSize, (cursor, size) -> queryWithCursor(queryName, mapper, cursor, size, resultType));
+        }
+        return iterateWithCursor(pageSize, (cursor, size) -> queryWithCursor(queryName, mapper, filterSpec, cursor, size, resultType));
+    }
+
+    @Override
+    public QueryResultIterator<ProcessInstance> iterateProcessInstancesByStatus(List<Integer> status, Integer pageSize) {
+        return iterate(pageSize, (page, size) -> findProcessInstancesByStatus(status, page, size));
+    }
+
+    @Override
+    public QueryResultIterator<ProcessInstance> iterateProcessInstancesByContainerId(String containerId, List<Integer> status, Integer pageSize) {
+        return iterate(pageSize, (page, size) -> findProcessInstancesByContainerId(containerId, status, page, size));
+    }
+
+    protected String getCursorQueryString(String queryString, String cursor, Integer pageSize) {
+        StringBuilder builder = new StringBuilder(queryString);
+        builder.append(queryString.contains("?") ? "&" : "?");
+        // empty cursor selects the first page
+        builder.append("cursor=").append(cursor == null ? "" : encode(cursor));
+        if (pageSize != null) {
+            builder.append("&pageSize=").append(pageSize);
+        }
+        return builder.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T> List<T> toItems(Object result) {
+        if (result instanceof ItemList) {
+            return ((ItemList<T>) result).getItems();
+        } else if (result instanceof List) {
+            return (List<T>) result;
+        } else if (result instanceof Wrapped) {
+            return (List<T>) ((Wrapped) result).unwrap();
+        }
+        return Collections.emptyList();
+    }
+
     protected Class<?> getResultTypeList(Class<?> resultType) {
         if (TaskSummary.class.isAssignableFrom(resultType)) {
             return TaskSummaryList.class;
@@ -19,8 +19,11 @@ import static org.kie.server.api.rest.RestURI.PROCESS_INSTANCES_GET_FILTERED_URI
 import static org.kie.server.api.rest.RestURI.TASKS_GET_FILTERED_URI;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.model.definition.ProcessInstanceQueryFilterSpec;
 import org.kie.server.api.model.definition.TaskQueryFilterSpec;
 import org.kie.server.api.model.instance.ProcessInstance;
@@ -28,6 +31,8 @@ import org.kie.server.api.model.instance.ProcessInstanceList;
 import org.kie.server.api.model.instance.TaskInstance;
 import org.kie.server.api.model.instance.TaskInstanceList;
 import org.kie.server.client.KieServicesConfiguration;
+import org.kie.server.client.QueryCursorPage;
+import org.kie.server.client.QueryResultIterator;
 import org.kie.server.client.SearchServicesClient;
 
 public class SearchServicesClientImpl extends AbstractKieServicesClientImpl implements SearchServicesClient {
@@ -83,4 +88,52 @@ public class SearchServicesClientImpl extends AbstractKieServicesClientImpl impl
 		}
 	}
 
+	@Override
+	public QueryCursorPage<ProcessInstance> findProcessInstancesWithCursor(ProcessInstanceQueryFilterSpec filterSpec, String cursor, Integer pageSize) {
+		if (!config.isRest()) {
+			throw new UnsupportedOperationException("This operation does not yet provide support for non-REST commands.");
+		}
+		Map<String, String> responseHeaders = new HashMap<String, String>();
+		responseHeaders.put(KieServerConstants.KIE_QUERY_CURSOR_HEADER, null);
+
+		ProcessInstanceList result = makeHttpPostRequestAndCreateCustomResponse(loadBalancer.getUrl() + "/" + PROCESS_INSTANCES_GET_FILTERED_URI + getCursorQueryString(cursor, pageSize),
+				filterSpec, ProcessInstanceList.class, new HashMap<String, String>(), responseHeaders);
+
+		List<ProcessInstance> items = result != null ? result.getItems() : Collections.<ProcessInstance>emptyList();
+		return new QueryCursorPage<ProcessInstance>(items, responseHeaders.get(KieServerConstants.KIE_QUERY_CURSOR_HEADER));
+	}
+
+	@Override
+	public QueryCursorPage<TaskInstance> findHumanTasksWithCursor(TaskQueryFilterSpec filterSpec, String cursor, Integer pageSize) {
+		if (!config.isRest()) {
+			throw new UnsupportedOperationException("This operation does not yet provide support for non-REST commands.");
+		}
+		Map<String, String> responseHeaders = new HashMap<String, String>();
+		responseHeaders.put(KieServerConstants.KIE_QUERY_CURSOR_HEADER, null);
+
+		TaskInstanceList result = makeHttpPostRequestAndCreateCustomResponse(loadBalancer.getUrl() + "/" + TASKS_GET_FILTERED_URI + getCursorQueryString(cursor, pageSize),
+				filterSpec, TaskInstanceList.class, new HashMap<String, String>(), responseHeaders);
+
+		List<TaskInstance> items = result != null ? result.getItems() : Collections.<TaskInstance>emptyList();
+		return new QueryCursorPage<TaskInstance>(items, responseHeaders.get(KieServerConstants.KIE_QUERY_CURSOR_HEADER));
+	}
+
+	@Override
+	public QueryResultIterator<ProcessInstance> iterateProcessInstancesWithFilters(ProcessInstanceQueryFilterSpec filterSpec, Integer pageSize) {
+		return iterate(pageSize, (page, size) -> findProcessInstancesWithFilters(filterSpec, page, size));
+	}
+
+	@Override
+	public QueryResultIterator<TaskInstance> iterateHumanTasksWithFilters(TaskQueryFilterSpec filterSpec, Integer pageSize) {
+		return iterate(pageSize, (page, size) -> findHumanTasksWithFilters(filterSpec, page, size));
+	}
+
+	protected String getCursorQueryString(String cursor, Integer pageSize) {
+		// empty cursor selects the first page
+		String queryString = "?cursor=" + (cursor == null ? "" : encode(cursor));
+		if (pageSize != null) {
+			queryString += "&pageSize=" + pageSize;
+		}
+		return queryString;
+	}
 }
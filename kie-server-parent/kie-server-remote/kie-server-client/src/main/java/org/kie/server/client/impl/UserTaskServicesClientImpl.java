@@ -36,9 +36,12 @@ import org.kie.server.api.model.instance.TaskCommentList;
 import org.kie.server.api.model.instance.TaskEventInstance;
 import org.kie.server.api.model.instance.TaskEventInstanceList;
 import org.kie.server.api.model.instance.TaskInstance;
+import org.kie.server.api.model.instance.TaskOperationResult;
+import org.kie.server.api.model.instance.TaskOperationResultList;
 import org.kie.server.api.model.instance.TaskSummary;
 import org.kie.server.api.model.instance.TaskSummaryList;
 import org.kie.server.client.KieServicesConfiguration;
+import org.kie.server.client.QueryResultIterator;
 import org.kie.server.client.UserTaskServicesClient;
 
 import static org.kie.server.api.rest.RestURI.*;
@@ -280,6 +283,82 @@ public class UserTaskServicesClientImpl extends AbstractKieServicesClientImpl im
         }
     }
 
+    @Override
+    public List<TaskOperationResult> claimTasks(String containerId, List<Long> taskIds, String userId) {
+        return executeBulkTaskOperation(containerId, taskIds, userId, TASK_INSTANCES_CLAIM_PUT_URI, "claimTasks");
+    }
+
+    @Override
+    public List<TaskOperationResult> startTasks(String containerId, List<Long> taskIds, String userId) {
+        return executeBulkTaskOperation(containerId, taskIds, userId, TASK_INSTANCES_START_PUT_URI, "startTasks");
+    }
+
+    @Override
+    public List<TaskOperationResult> claimAndStartTasks(String containerId, List<Long> taskIds, String userId) {
+        return executeBulkTaskOperation(containerId, taskIds, userId, TASK_INSTANCES_CLAIM_START_PUT_URI, "claimAndStartTasks");
+    }
+
+    @Override
+    public List<TaskOperationResult> releaseTasks(String containerId, List<Long> taskIds, String userId) {
+        return executeBulkTaskOperation(containerId, taskIds, userId, TASK_INSTANCES_RELEASE_PUT_URI, "releaseTasks");
+    }
+
+    @Override
+    public List<TaskOperationResult> completeTasks(String containerId, String userId, Map<Long, Map<String, Object>> params) {
+        // task ids are sent as map keys, which are always strings once marshalled
+        Map<String, Object> taskParams = new HashMap<String, Object>();
+        if (params != null) {
+            for (Map.Entry<Long, Map<String, Object>> entry : params.entrySet()) {
+                taskParams.put(String.valueOf(entry.getKey()), safeMap(entry.getValue()));
+            }
+        }
+        TaskOperationResultList resultList = null;
+        if( config.isRest() ) {
+            Map<String, Object> valuesMap = new HashMap<String, Object>();
+            valuesMap.put(CONTAINER_ID, containerId);
+
+            resultList = makeHttpPutRequestAndCreateCustomResponse(
+                    build(loadBalancer.getUrl(), TASK_URI + "/" + TASK_INSTANCES_COMPLETE_PUT_URI, valuesMap) + getUserQueryStr(userId),
+                    taskParams, TaskOperationResultList.class, getHeaders(null));
+        } else {
+            CommandScript script = new CommandScript( Collections.singletonList( (KieServerCommand)
+                    new DescriptorCommand( "UserTaskService", "completeTasks", serialize(taskParams), marshaller.getFormat().getType(), new Object[]{containerId, userId}) ) );
+            ServiceResponse<String> response = (ServiceResponse<String>) executeJmsCommand( script, DescriptorCommand.class.getName(), "BPM", containerId ).getResponses().get(0);
+
+            throwExceptionOnFailure(response);
+            if (shouldReturnWithNullResponse(response)) {
+                return null;
+            }
+            resultList = deserialize(response.getResult(), TaskOperationResultList.class);
+        }
+
+        return resultList.getItems();
+    }
+
+    protected List<TaskOperationResult> executeBulkTaskOperation(String containerId, List<Long> taskIds, String userId, String uri, String operation) {
+        TaskOperationResultList resultList = null;
+        if( config.isRest() ) {
+            Map<String, Object> valuesMap = new HashMap<String, Object>();
+            valuesMap.put(CONTAINER_ID, containerId);
+
+            resultList = makeHttpPutRequestAndCreateCustomResponse(
+                    build(loadBalancer.getUrl(), TASK_URI + "/" + uri, valuesMap) + getUserAndAdditionalParams(userId, "taskId", taskIds),
+                    null, TaskOperationResultList.class, getHeaders(null));
+        } else {
+            CommandScript script = new CommandScript( Collections.singletonList( (KieServerCommand)
+                    new DescriptorCommand( "UserTaskService", operation, marshaller.getFormat().getType(), new Object[]{containerId, taskIds, userId}) ) );
+            ServiceResponse<String> response = (ServiceResponse<String>) executeJmsCommand( script, DescriptorCommand.class.getName(), "BPM", containerId ).getResponses().get(0);
+
+            throwExceptionOnFailure(response);
+            if (shouldReturnWithNullResponse(response)) {
+                return null;
+            }
+            resultList = deserialize(response.getResult(), TaskOperationResultList.class);
+        }
+
+        return resultList.getItems();
+    }
+
     @Override
     public void setTaskPriority(String containerId, Long taskId, int priority) {
         if( config.isRest() ) {
@@ -1367,4 +1446,14 @@ public class UserTaskServicesClientImpl extends AbstractKieServicesClientImpl im
 
         return Collections.emptyList();
     }
+
+    @Override
+    public QueryResultIterator<TaskSummary> iterateTasks(String userId, Integer pageSize) {
+        return iterate(pageSize, (page, size) -> findTasks(userId, page, size));
+    }
+
+    @Override
+    public QueryResultIterator<TaskSummary> iterateTasksAssignedAsPotentialOwner(String userId, Integer pageSize) {
+        return iterate(pageSize, (page, size) -> findTasksAssignedAsPotentialOwner(userId, page, size));
+    }
 }
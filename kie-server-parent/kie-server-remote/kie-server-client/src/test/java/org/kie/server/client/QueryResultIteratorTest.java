@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.kie.server.api.exception.KieServicesException;
+
+import static org.junit.Assert.*;
+
+public class QueryResultIteratorTest {
+
+    @Test
+    public void testIterateAllPages() {
+        for (int prefetchDepth = 0; prefetchDepth < 4; prefetchDepth++) {
+            AtomicInteger fetches = new AtomicInteger();
+            QueryResultIterator<Integer> iterator = QueryResultIterator.ofPages((page, pageSize) -> {
+                fetches.incrementAndGet();
+                return range(page * pageSize, Math.min(25, (page + 1) * pageSize));
+            }, 10, prefetchDepth);
+
+            List<Integer> result = iterator.stream().collect(Collectors.toList());
+            assertEquals(range(0, 25), result);
+            assertFalse(iterator.hasNext());
+            // pages after the last one may be prefetched but never more than prefetch depth
+            assertTrue(fetches.get() >= 3 && fetches.get() <= 3 + prefetchDepth);
+        }
+    }
+
+    @Test
+    public void testIterateExactPages() {
+        QueryResultIterator<Integer> iterator = QueryResultIterator.ofPages((page, pageSize) ->
+                page < 2 ? range(page * pageSize, (page + 1) * pageSize) : Collections.<Integer>emptyList(), 5, 1);
+
+        List<Integer> result = new ArrayList<Integer>();
+        iterator.forEachRemaining(result::add);
+        assertEquals(range(0, 10), result);
+    }
+
+    @Test
+    public void testIterateWithCursor() {
+        QueryResultIterator<Integer> iterator = QueryResultIterator.ofCursor((cursor, pageSize) -> {
+            int start = cursor == null ? 0 : Integer.parseInt(cursor);
+            int end = Math.min(23, start + pageSize);
+            return new QueryCursorPage<Integer>(range(start, end), end < 23 ? String.valueOf(end) : null);
+        }, 10, 2);
+
+        assertEquals(range(0, 23), iterator.stream().collect(Collectors.toList()));
+    }
+
+    @Test(timeout = 10000)
+    public void testPrefetchWhileConsuming() throws Exception {
+        CountDownLatch secondPageRequested = new CountDownLatch(1);
+        QueryResultIterator<Integer> iterator = QueryResultIterator.ofPages((page, pageSize) -> {
+            if (page == 1) {
+                secondPageRequested.countDown();
+            }
+            return range(page * pageSize, (page + 1) * pageSize);
+        }, 10, 1);
+
+        assertEquals(Integer.valueOf(0), iterator.next());
+        assertTrue(secondPageRequested.await(5, TimeUnit.SECONDS));
+
+        iterator.close();
+        assertTrue(iterator.isClosed());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testFailureIsPropagated() {
+        QueryResultIterator<Integer> iterator = QueryResultIterator.ofPages((page, pageSize) -> {
+            if (page == 1) {
+                throw new KieServicesException("Page not available");
+            }
+            return range(page * pageSize, (page + 1) * pageSize);
+        }, 10, 2);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), iterator.next());
+        }
+        try {
+            iterator.hasNext();
+            fail("Failure of page fetch should be propagated");
+        } catch (KieServicesException e) {
+            assertEquals("Page not available", e.getMessage());
+        }
+        assertTrue(iterator.isClosed());
+    }
+
+    private static List<Integer> range(int start, int end) {
+        return IntStream.range(start, end).boxed().collect(Collectors.toList());
+    }
+}
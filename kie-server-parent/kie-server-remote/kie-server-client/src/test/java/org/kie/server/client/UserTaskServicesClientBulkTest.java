@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.model.instance.TaskOperationResult;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.Assert.*;
+
+public class UserTaskServicesClientBulkTest extends BaseKieServicesClientTest {
+
+    private static final String CONTAINER_ID = "mycontainer";
+    private static final String TASKS_URI = "/containers/" + CONTAINER_ID + "/tasks/bulk/states/";
+    private static final List<Long> TASK_IDS = Arrays.asList(1L, 2L);
+
+    private static final String RESULTS = "<task-operation-result-list>\n" +
+            "  <task-operation-result>\n" +
+            "    <task-id>1</task-id>\n" +
+            "    <successful>true</successful>\n" +
+            "  </task-operation-result>\n" +
+            "  <task-operation-result>\n" +
+            "    <task-id>2</task-id>\n" +
+            "    <successful>false</successful>\n" +
+            "    <error-message>Task 2 not found</error-message>\n" +
+            "  </task-operation-result>\n" +
+            "</task-operation-result-list>";
+
+    private UserTaskServicesClient taskClient;
+
+    @Before
+    public void createClient() {
+        config.setCapabilities(Collections.singletonList("BPM"));
+        taskClient = KieServicesFactory.newKieServicesClient(config).getServicesClient(UserTaskServicesClient.class);
+    }
+
+    @Test
+    public void testClaimTasks() {
+        stubBulkOperation("claimed?taskId=1&taskId=2");
+        assertResults(taskClient.claimTasks(CONTAINER_ID, TASK_IDS, "john"));
+    }
+
+    @Test
+    public void testStartTasks() {
+        stubBulkOperation("started?taskId=1&taskId=2");
+        assertResults(taskClient.startTasks(CONTAINER_ID, TASK_IDS, "john"));
+    }
+
+    @Test
+    public void testClaimAndStartTasks() {
+        stubBulkOperation("claimed-started?taskId=1&taskId=2");
+        assertResults(taskClient.claimAndStartTasks(CONTAINER_ID, TASK_IDS, "john"));
+    }
+
+    @Test
+    public void testReleaseTasks() {
+        stubBulkOperation("released?taskId=1&taskId=2");
+        assertResults(taskClient.releaseTasks(CONTAINER_ID, TASK_IDS, "john"));
+    }
+
+    @Test
+    public void testCompleteTasks() {
+        stubBulkOperation("completed");
+        Map<Long, Map<String, Object>> params = new HashMap<Long, Map<String, Object>>();
+        params.put(1L, Collections.<String, Object>singletonMap("approved", true));
+        params.put(2L, null);
+
+        assertResults(taskClient.completeTasks(CONTAINER_ID, "john", params));
+        verify(putRequestedFor(urlEqualTo(TASKS_URI + "completed")).withRequestBody(containing("approved")));
+    }
+
+    private void stubBulkOperation(String operation) {
+        stubFor(put(urlEqualTo(TASKS_URI + operation))
+                .withHeader("Accept", equalTo("application/xml"))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader("Content-Type", "application/xml")
+                        .withBody(RESULTS)));
+    }
+
+    private static void assertResults(List<TaskOperationResult> results) {
+        assertEquals(2, results.size());
+        assertEquals(Long.valueOf(1), results.get(0).getTaskId());
+        assertTrue(results.get(0).isSuccessful());
+        assertEquals(Long.valueOf(2), results.get(1).getTaskId());
+        assertFalse(results.get(1).isSuccessful());
+        assertEquals("Task 2 not found", results.get(1).getErrorMessage());
+    }
+}
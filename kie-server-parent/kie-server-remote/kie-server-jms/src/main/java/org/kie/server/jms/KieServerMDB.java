@@ -15,7 +15,10 @@
 
 package org.kie.server.jms;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.PostConstruct;
@@ -37,6 +40,7 @@ import javax.jms.TextMessage;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
 import org.kie.server.api.ConversationId;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.KieServerEnvironment;
@@ -45,12 +49,17 @@ import org.kie.server.api.marshalling.Marshaller;
 import org.kie.server.api.marshalling.MarshallerFactory;
 import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.ReleaseId;
+import org.kie.server.api.model.ServiceResponse;
 import org.kie.server.api.model.ServiceResponsesList;
 import org.kie.server.services.api.KieContainerCommandService;
 import org.kie.server.services.api.KieContainerInstance;
 import org.kie.server.services.api.KieServerExtension;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
 import org.kie.server.services.impl.KieServerImpl;
 import org.kie.server.services.impl.KieServerLocator;
+import org.kie.server.services.impl.admission.ContainerBulkhead;
+import org.kie.server.services.impl.admission.ContainerOverloadedException;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
 import org.kie.server.services.impl.security.adapters.JMSSecurityAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,6 +97,26 @@ public class KieServerMDB
 
     private Map<MarshallingFormat, Marshaller> marshallers;
 
+    // target capability (lower case) -> extension providing the command executor
+    private Map<String, KieServerExtension> executorExtensions = new ConcurrentHashMap<String, KieServerExtension>();
+    // container id -> conversation id built for the container's release
+    private Map<String, CachedConversationId> conversationIds = new ConcurrentHashMap<String, CachedConversationId>();
+
+    private boolean containerUpgradeSwap = Boolean.getBoolean(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP);
+
+    // reused for all responses sent by this instance
+    private Queue responseQueue;
+    private MessageProducer responseProducer;
+
+    public KieServerMDB() {
+    }
+
+    // without JMS resources, for tests
+    KieServerMDB(KieServerImpl kieServer) {
+        this.kieServer = kieServer;
+        initMarshallers();
+    }
+
     @PostConstruct
     public void init() {
         RESPONSE_QUEUE_NAME = System.getProperty( KieServerConstants.CFG_KIE_SERVER_RESPONSE_QUEUE, DEFAULT_RESPONSE_QUEUE_NAME );
@@ -107,6 +136,10 @@ public class KieServerMDB
 
         kieServer = KieServerLocator.getInstance();
 
+        initMarshallers();
+    }
+
+    protected void initMarshallers() {
         marshallers = new ConcurrentHashMap<MarshallingFormat, Marshaller>(  );
         // the commands classloader -- not sure if there is a better way to get a reference to it
         ClassLoader classLoader = CommandScript.class.getClassLoader();
@@ -117,6 +150,7 @@ public class KieServerMDB
 
     @PreDestroy
     public void cleanup() {
+        closeResponseProducer();
         try {
             if ( connection != null ) {
                 connection.close();
@@ -188,64 +222,60 @@ public class KieServerMDB
                 throw new JMSRuntimeException(errMsg, jmse);
             }
 
-            // 2. get marshaller
-            Marshaller marshaller = getMarshaller(containerId, format);
-            logger.debug("Selected marshaller is " + marshaller);
-
-            // 3. deserialize request
-            CommandScript script = unmarshallRequest(message, msgCorrId, marshaller, format);
+            long start = KieServerMetrics.get().start();
+            boolean success = false;
+            // replaced containers are disposed once requests using them are done, management commands replace them
+            KieContainerInstanceImpl container = !containerUpgradeSwap || containerId == null || "KieServer".equalsIgnoreCase(targetCapability) ? null : kieServer.getServerRegistry().getContainer(containerId);
+            InternalKieContainer kieContainer = container == null ? null : container.acquireKieContainer();
+            try {
+                // 2. get marshaller
+                Marshaller marshaller = getMarshaller(containerId, format);
+                logger.debug("Selected marshaller is " + marshaller);
 
-            logger.debug("Target capability is {}", targetCapability);
-            for (KieServerExtension extension : kieServer.getServerExtensions()) {
-                KieContainerCommandService tmp = extension.getAppComponents(KieContainerCommandService.class);
+                // 3. deserialize request
+                CommandScript script = unmarshallRequest(message, msgCorrId, marshaller, format);
 
-                if (tmp != null && extension.getImplementedCapability().equalsIgnoreCase(targetCapability)) {
-                    executor = tmp;
-                    logger.debug("Extension {} returned command executor {} with capability {}", extension, executor, extension.getImplementedCapability());
-                    break;
+                logger.debug("Target capability is {}", targetCapability);
+                executor = getExecutor(targetCapability);
+                if (executor == null) {
+                    throw new IllegalStateException("No executor found for script execution");
                 }
-            }
-            if (executor == null) {
-                throw new IllegalStateException("No executor found for script execution");
-            }
-
-            // 4. process request
-            ServiceResponsesList response = executor.executeScript(script, format, classType);
 
-            if (interactionPattern < UPPER_LIMIT_REPLY_INTERACTION_PATTERNS) {
-                logger.debug("Response message is about to be sent according to selected interaction pattern {}", interactionPattern);
-                // 5. serialize response
-                Message msg = marshallResponse(session, msgCorrId, format, marshaller, response);
-                // set conversation id for routing
-                if (containerId != null && (conversationId == null || conversationId.trim().isEmpty())) {
+                // 4. process request, within request limits of the container
+                ServiceResponsesList response = executeScript(executor, script, containerId, format, classType);
+
+                if (interactionPattern < UPPER_LIMIT_REPLY_INTERACTION_PATTERNS) {
+                    logger.debug("Response message is about to be sent according to selected interaction pattern {}", interactionPattern);
+                    // 5. serialize response
+                    Message msg = marshallResponse(session, msgCorrId, format, marshaller, response);
+                    // set conversation id for routing
+                    if (containerId != null && (conversationId == null || conversationId.trim().isEmpty())) {
+                        try {
+                            conversationId = getConversationId(containerId);
+                        } catch (Exception e) {
+                            logger.warn("Unable to build conversation id due to {}", e.getMessage(), e);
+                        }
+                    }
                     try {
-                        KieContainerInstance containerInstance = kieServer.getServerRegistry().getContainer(containerId);
-                        if (containerInstance != null) {
-                            ReleaseId releaseId = containerInstance.getResource().getResolvedReleaseId();
-                            if (releaseId == null) {
-                                releaseId = containerInstance.getResource().getReleaseId();
-                            }
-
-                            conversationId = ConversationId.from(KieServerEnvironment.getServerId(), containerId, releaseId).toString();
+                        if (conversationId != null) {
+                            msg.setStringProperty(CONVERSATION_ID_PROPERTY_NAME, conversationId);
                         }
-                    } catch (Exception e) {
-                        logger.warn("Unable to build conversation id due to {}", e.getMessage(), e);
+                    } catch (JMSException e) {
+                        logger.debug("Unable to set conversation id on response message due to {}", e.getMessage());
                     }
+
+                    // 6. send response
+                    sendResponse(msgCorrId, format, msg);
+                } else {
+                    logger.debug("Response message is skipped according to selected interaction pattern {}", FIRE_AND_FORGET_PATTERN);
                 }
-                try {
-                    if (conversationId != null) {
-                        msg.setStringProperty(CONVERSATION_ID_PROPERTY_NAME, conversationId);
-                    }
-                } catch (JMSException e) {
-                    logger.debug("Unable to set conversation id on response message due to {}", e.getMessage());
+                success = true;
+            } finally {
+                if (kieContainer != null) {
+                    container.releaseKieContainer(kieContainer);
                 }
-
-                // 6. send response
-                sendResponse(msgCorrId, format, msg);
-            } else {
-                logger.debug("Response message is skipped according to selected interaction pattern {}", FIRE_AND_FORGET_PATTERN);
+                KieServerMetrics.get().record(KieServerMetrics.JMS, targetCapability, containerId, format.name(), start, success);
             }
-
         } finally {
 
             JMSSecurityAdapter.logout();
@@ -253,6 +283,30 @@ public class KieServerMDB
 
     }
 
+    protected ServiceResponsesList executeScript(KieContainerCommandService executor, CommandScript script, String containerId, MarshallingFormat format, String classType) {
+        KieContainerInstanceImpl container = containerId == null ? null : kieServer.getServerRegistry().getContainer(containerId);
+        ContainerBulkhead bulkhead = container == null ? null : container.getBulkhead();
+        if (bulkhead == null) {
+            return executor.executeScript(script, format, classType);
+        }
+        try {
+            bulkhead.acquire();
+        } catch (ContainerOverloadedException e) {
+            logger.debug("Request for container {} rejected: {}", containerId, e.getMessage());
+            // fail every command right away so the client does not wait for its timeout
+            List<ServiceResponse<? extends Object>> responses = new ArrayList<ServiceResponse<? extends Object>>();
+            for (int i = 0; i < script.getCommands().size(); i++) {
+                responses.add(new ServiceResponse<Void>(ServiceResponse.ResponseType.FAILURE, e.getMessage()));
+            }
+            return new ServiceResponsesList(responses);
+        }
+        try {
+            return executor.executeScript(script, format, classType);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
     private static CommandScript unmarshallRequest(Message message, String msgId, Marshaller serializationProvider, MarshallingFormat format) {
         CommandScript cmdMsg = null;
         try {
@@ -297,11 +351,8 @@ public class KieServerMDB
         }
 
         // send response message
-        MessageProducer producer = null;
         try {
-            Queue responseQueue = (Queue) (new InitialContext()).lookup(RESPONSE_QUEUE_NAME);
-            producer = session.createProducer(responseQueue);
-            producer.send(msg);
+            getResponseProducer().send(msg);
         } catch (NamingException ne) {
             String errMsg = "Unable to lookup response queue " + RESPONSE_QUEUE_NAME + " to send msg " + msgCorrId
                             + " (Is " + KieServerConstants.CFG_KIE_SERVER_RESPONSE_QUEUE + " incorrect?).";
@@ -309,15 +360,76 @@ public class KieServerMDB
         } catch (JMSException jmse) {
             String errMsg = "Unable to send msg " + msgCorrId + " to " + RESPONSE_QUEUE_NAME;
             logger.error(errMsg, jmse);
-        } finally {
-            if( producer != null ) {
-                try {
-                    producer.close();
-                } catch( JMSException e ) {
-                    logger.debug("Closing the producer resulted in an exception: "  + e.getMessage(), e);
-                }
+            // producer might be broken, create new one for next response
+            closeResponseProducer();
+        }
+    }
+
+    protected MessageProducer getResponseProducer() throws NamingException, JMSException {
+        if (responseProducer == null) {
+            if (responseQueue == null) {
+                responseQueue = (Queue) (new InitialContext()).lookup(RESPONSE_QUEUE_NAME);
+            }
+            responseProducer = session.createProducer(responseQueue);
+        }
+        return responseProducer;
+    }
+
+    protected void closeResponseProducer() {
+        if (responseProducer != null) {
+            try {
+                responseProducer.close();
+            } catch (JMSException e) {
+                logger.debug("Closing the producer resulted in an exception: " + e.getMessage(), e);
+            } finally {
+                responseProducer = null;
+            }
+        }
+    }
+
+    protected KieContainerCommandService getExecutor(String targetCapability) {
+        String capability = targetCapability.toLowerCase();
+        KieServerExtension cached = executorExtensions.get(capability);
+        // cached extension is valid as long as it is still registered
+        if (cached != null && cached == kieServer.getServerRegistry().getServerExtension(cached.getExtensionName())) {
+            KieContainerCommandService executor = cached.getAppComponents(KieContainerCommandService.class);
+            if (executor != null) {
+                return executor;
+            }
+        }
+        executorExtensions.remove(capability);
+
+        for (KieServerExtension extension : kieServer.getServerExtensions()) {
+            KieContainerCommandService executor = extension.getAppComponents(KieContainerCommandService.class);
+
+            if (executor != null && extension.getImplementedCapability().equalsIgnoreCase(targetCapability)) {
+                logger.debug("Extension {} returned command executor {} with capability {}", extension, executor, extension.getImplementedCapability());
+                executorExtensions.put(capability, extension);
+                return executor;
             }
         }
+        return null;
+    }
+
+    protected String getConversationId(String containerId) {
+        KieContainerInstance containerInstance = kieServer.getServerRegistry().getContainer(containerId);
+        if (containerInstance == null) {
+            conversationIds.remove(containerId);
+            return null;
+        }
+        ReleaseId releaseId = containerInstance.getResource().getResolvedReleaseId();
+        if (releaseId == null) {
+            releaseId = containerInstance.getResource().getReleaseId();
+        }
+
+        CachedConversationId cached = conversationIds.get(containerId);
+        if (cached != null && cached.matches(containerInstance, releaseId)) {
+            return cached.conversationId;
+        }
+        String conversationId = ConversationId.from(KieServerEnvironment.getServerId(), containerId, releaseId).toString();
+        conversationIds.put(containerId, new CachedConversationId(containerInstance, releaseId, conversationId));
+
+        return conversationId;
     }
 
     protected Marshaller getMarshaller(String containerId, MarshallingFormat format) {
@@ -346,6 +458,22 @@ public class KieServerMDB
         return defaultValue;
     }
 
+    private static class CachedConversationId {
+        private final KieContainerInstance containerInstance;
+        private final ReleaseId releaseId;
+        private final String conversationId;
+
+        CachedConversationId(KieContainerInstance containerInstance, ReleaseId releaseId, String conversationId) {
+            this.containerInstance = containerInstance;
+            this.releaseId = releaseId;
+            this.conversationId = conversationId;
+        }
+
+        boolean matches(KieContainerInstance containerInstance, ReleaseId releaseId) {
+            return this.containerInstance == containerInstance && Objects.equals(this.releaseId, releaseId);
+        }
+    }
+
     protected int getIntProperty(Message message, String name, int defaultValue) {
         try {
             if (message.propertyExists(name)) {
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.jms;
+
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.ConversationId;
+import org.kie.server.api.KieServerEnvironment;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.KieContainerResource;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.KieServerImpl;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class KieServerMDBTest {
+
+    private static final String CONTAINER_ID = "container1";
+    private static final ReleaseId RELEASE_ID = new ReleaseId("org.kie.server.test", "test-kjar", "1.0.0");
+
+    private String serverId;
+    private KieServerRegistry registry;
+    private KieServerMDB mdb;
+
+    @Before
+    public void setup() {
+        serverId = KieServerEnvironment.getServerId();
+        KieServerEnvironment.setServerId("mdb-test-server");
+
+        registry = mock(KieServerRegistry.class);
+        KieServerImpl kieServer = mock(KieServerImpl.class);
+        when(kieServer.getServerRegistry()).thenReturn(registry);
+        mdb = new KieServerMDB(kieServer);
+    }
+
+    @After
+    public void cleanup() {
+        KieServerEnvironment.setServerId(serverId);
+    }
+
+    @Test
+    public void testMarshallerWithoutContainer() {
+        Marshaller marshaller = mdb.getMarshaller(null, MarshallingFormat.JSON);
+        assertNotNull(marshaller);
+        assertSame(marshaller, mdb.getMarshaller(null, MarshallingFormat.JSON));
+        // unknown container falls back to the default marshallers
+        assertSame(marshaller, mdb.getMarshaller("unknown", MarshallingFormat.JSON));
+        assertNotSame(marshaller, mdb.getMarshaller(null, MarshallingFormat.XSTREAM));
+    }
+
+    @Test
+    public void testMarshallerOfContainer() {
+        Marshaller marshaller = mock(Marshaller.class);
+        KieContainerInstanceImpl container = container(RELEASE_ID);
+        when(container.getMarshaller(MarshallingFormat.JAXB)).thenReturn(marshaller);
+
+        assertSame(marshaller, mdb.getMarshaller(CONTAINER_ID, MarshallingFormat.JAXB));
+        assertSame(marshaller, mdb.getMarshaller(CONTAINER_ID, MarshallingFormat.JAXB));
+    }
+
+    @Test
+    public void testConversationIdCached() {
+        container(RELEASE_ID);
+
+        String conversationId = mdb.getConversationId(CONTAINER_ID);
+        assertNotNull(conversationId);
+        assertEquals(CONTAINER_ID, ConversationId.fromString(conversationId).getContainerId());
+        assertSame(conversationId, mdb.getConversationId(CONTAINER_ID));
+    }
+
+    @Test
+    public void testConversationIdRebuiltOnReleaseIdChange() {
+        KieContainerInstanceImpl container = container(RELEASE_ID);
+        String conversationId = mdb.getConversationId(CONTAINER_ID);
+
+        ReleaseId upgraded = new ReleaseId("org.kie.server.test", "test-kjar", "1.0.1");
+        container.getResource().setResolvedReleaseId(upgraded);
+
+        String upgradedConversationId = mdb.getConversationId(CONTAINER_ID);
+        assertNotEquals(conversationId, upgradedConversationId);
+        assertEquals(upgraded, ConversationId.fromString(upgradedConversationId).getReleaseId());
+    }
+
+    @Test
+    public void testConversationIdRebuiltForNewContainerInstance() {
+        container(RELEASE_ID);
+        String conversationId = mdb.getConversationId(CONTAINER_ID);
+
+        // container disposed and created again with the same id and release id
+        container(RELEASE_ID);
+        assertNotEquals(conversationId, mdb.getConversationId(CONTAINER_ID));
+    }
+
+    @Test
+    public void testConversationIdOfRemovedContainer() {
+        container(RELEASE_ID);
+        assertNotNull(mdb.getConversationId(CONTAINER_ID));
+
+        when(registry.getContainer(CONTAINER_ID)).thenReturn(null);
+        assertNull(mdb.getConversationId(CONTAINER_ID));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConversationIdWithoutReleaseId() {
+        KieContainerInstanceImpl container = container(RELEASE_ID);
+        mdb.getConversationId(CONTAINER_ID);
+
+        container.getResource().setReleaseId(null);
+        container.getResource().setResolvedReleaseId(null);
+        // no conversation id without release id, cached one must not be returned
+        mdb.getConversationId(CONTAINER_ID);
+    }
+
+    private KieContainerInstanceImpl container(ReleaseId releaseId) {
+        KieContainerResource resource = new KieContainerResource(CONTAINER_ID, releaseId);
+        resource.setResolvedReleaseId(releaseId);
+        KieContainerInstanceImpl container = mock(KieContainerInstanceImpl.class);
+        when(container.getResource()).thenReturn(resource);
+        when(container.getKieContainer()).thenReturn(mock(InternalKieContainer.class));
+        when(registry.getContainer(CONTAINER_ID)).thenReturn(container);
+        return container;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common;
+
+import java.io.IOException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+
+import org.kie.server.api.rest.RestURI;
+import org.kie.server.remote.rest.common.resource.KieServerRestImpl;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.admission.ContainerBulkhead;
+import org.kie.server.services.impl.admission.ContainerOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies request limits of containers ({@link ContainerBulkhead}) to REST requests addressing a container.
+ * Rejected requests - whether the container's queue is full or they timed out waiting in the queue - get
+ * 429 (Too Many Requests) with Retry-After header. 503 is not used as the router counts it as a failure of
+ * the kie server and would open its circuit breaker for the whole server when a single container is overloaded.
+ * <p>
+ * Container management requests (create, dispose, update of the container itself) are never limited.
+ * Permit is released by the response filter, resources are expected to map their exceptions to responses
+ * (as all kie server resources do) so the response filter is always invoked.
+ */
+@Provider
+public class ContainerBulkheadFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerBulkheadFilter.class);
+
+    static final String BULKHEAD_PROPERTY = ContainerBulkheadFilter.class.getName() + ".bulkhead";
+    static final int TOO_MANY_REQUESTS = 429;
+
+    private final KieServerRegistry registry;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    public ContainerBulkheadFilter(KieServerRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        String containerId = requestContext.getUriInfo().getPathParameters().getFirst(RestURI.CONTAINER_ID);
+        if (containerId == null || isContainerManagement()) {
+            return;
+        }
+        KieContainerInstanceImpl container = registry.getContainer(containerId);
+        ContainerBulkhead bulkhead = container == null ? null : container.getBulkhead();
+        if (bulkhead == null) {
+            return;
+        }
+        try {
+            bulkhead.acquire();
+            requestContext.setProperty(BULKHEAD_PROPERTY, bulkhead);
+        } catch (ContainerOverloadedException e) {
+            logger.debug("Request {} {} rejected: {}", requestContext.getMethod(), requestContext.getUriInfo().getPath(), e.getMessage());
+            requestContext.abortWith(Response.status(TOO_MANY_REQUESTS)
+                                             .header("Retry-After", retryAfter(bulkhead))
+                                             .type(MediaType.TEXT_PLAIN_TYPE)
+                                             .entity(e.getMessage())
+                                             .build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Object bulkhead = requestContext.getProperty(BULKHEAD_PROPERTY);
+        if (bulkhead != null) {
+            requestContext.removeProperty(BULKHEAD_PROPERTY);
+            ((ContainerBulkhead) bulkhead).release();
+        }
+    }
+
+    protected boolean isContainerManagement() {
+        return resourceInfo != null && resourceInfo.getResourceClass() != null
+                && KieServerRestImpl.class.isAssignableFrom(resourceInfo.getResourceClass());
+    }
+
+    protected static long retryAfter(ContainerBulkhead bulkhead) {
+        // seconds, at least one
+        return Math.max(1, (bulkhead.getMaxQueueWait() + 999) / 1000);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.common.rest.ContentCompression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Handles compressed request bodies (based on 'Content-Encoding' header) and compresses responses
+ * of at least configured size when client accepts it (based on 'Accept-Encoding' header).
+ * Supports gzip and deflate content codings.
+ */
+@Provider
+public class ContentCompressionInterceptor implements ContainerRequestFilter, ReaderInterceptor, WriterInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentCompressionInterceptor.class);
+
+    static final String ACCEPTED_COMPRESSION_PROPERTY = ContentCompressionInterceptor.class.getName() + ".accepted";
+
+    private final int threshold;
+
+    public ContentCompressionInterceptor() {
+        this(Integer.parseInt(System.getProperty(KieServerConstants.CFG_REST_COMPRESSION_THRESHOLD,
+                                                 String.valueOf(ContentCompression.DEFAULT_THRESHOLD))));
+    }
+
+    public ContentCompressionInterceptor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        ContentCompression accepted = ContentCompression.fromAcceptEncoding(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (accepted != ContentCompression.NONE) {
+            requestContext.setProperty(ACCEPTED_COMPRESSION_PROPERTY, accepted);
+        }
+    }
+
+    @Override
+    public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException {
+        String encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        ContentCompression compression = ContentCompression.fromEncoding(encoding);
+        if (compression == null) {
+            throw new WebApplicationException("Unsupported content encoding " + encoding, Response.Status.UNSUPPORTED_MEDIA_TYPE);
+        }
+        if (compression != ContentCompression.NONE) {
+            logger.debug("Decompressing {} request body", encoding);
+            context.setInputStream(compression.decompress(context.getInputStream()));
+            context.getHeaders().remove(HttpHeaders.CONTENT_ENCODING);
+        }
+        return context.proceed();
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        ContentCompression compression = (ContentCompression) context.getProperty(ACCEPTED_COMPRESSION_PROPERTY);
+        MultivaluedMap<String, Object> headers = context.getHeaders();
+        if (compression == null || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        OutputStream original = context.getOutputStream();
+        ThresholdCompressingOutputStream output = new ThresholdCompressingOutputStream(original, compression, threshold, headers);
+        context.setOutputStream(output);
+        try {
+            context.proceed();
+        } finally {
+            output.finish();
+            context.setOutputStream(original);
+        }
+    }
+
+    /*
+     * Buffers the response until it reaches the threshold and only then switches to compressed output,
+     * so small responses are sent as they are; headers are updated before anything reaches the original stream
+     */
+    static class ThresholdCompressingOutputStream extends OutputStream {
+
+        private final OutputStream original;
+        private final ContentCompression compression;
+        private final int threshold;
+        private final MultivaluedMap<String, Object> headers;
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream compressed;
+        private boolean finished;
+
+        ThresholdCompressingOutputStream(OutputStream original, ContentCompression compression, int threshold, MultivaluedMap<String, Object> headers) {
+            this.original = original;
+            this.compression = compression;
+            this.threshold = threshold;
+            this.headers = headers;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (compressed != null) {
+                compressed.write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() >= threshold) {
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                headers.putSingle(HttpHeaders.CONTENT_ENCODING, compression.getEncoding());
+                compressed = compression.compress(new UnclosableOutputStream(original));
+                buffer.writeTo(compressed);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // keep small responses buffered until it is known whether they are going to be compressed
+            if (compressed != null) {
+                compressed.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (compressed != null) {
+                // closes compression stream only, original stream is managed by the container
+                compressed.close();
+            } else {
+                buffer.writeTo(original);
+            }
+            original.flush();
+        }
+    }
+
+    private static class UnclosableOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+
+        UnclosableOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
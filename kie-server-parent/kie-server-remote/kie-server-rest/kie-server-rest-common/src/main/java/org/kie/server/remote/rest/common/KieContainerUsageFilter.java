@@ -0,0 +1,114 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common;
+
+import java.io.IOException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.InterceptorContext;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
+import org.kie.server.api.rest.RestURI;
+import org.kie.server.remote.rest.common.resource.KieServerRestImpl;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+
+/**
+ * Registers REST requests addressing a container with the KieContainer it uses at the time the request starts,
+ * so a KieContainer replaced by a release id update (in swap mode) is disposed only after such requests are done,
+ * whatever extension (rules, DMN, processes, ...) serves them.
+ * <p>
+ * Container management requests (create, dispose, update of the container itself) are not registered.
+ * Request is done once its response body is written (which is when streamed bodies are produced), responses
+ * without body are done in the response filter. Resources are expected to map their exceptions to responses
+ * (as all kie server resources do) - a request failing with an unmapped exception reaches neither the response
+ * filter nor the writer interceptor and holds the replaced KieContainer until the upgrade drain timeout elapses.
+ */
+@Provider
+public class KieContainerUsageFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    static final String CONTAINER_INSTANCE_PROPERTY = KieContainerUsageFilter.class.getName() + ".containerInstance";
+    static final String KIE_CONTAINER_PROPERTY = KieContainerUsageFilter.class.getName() + ".kieContainer";
+
+    private final KieServerRegistry registry;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    public KieContainerUsageFilter(KieServerRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        String containerId = requestContext.getUriInfo().getPathParameters().getFirst(RestURI.CONTAINER_ID);
+        if (containerId == null || isContainerManagement()) {
+            return;
+        }
+        KieContainerInstanceImpl container = registry.getContainer(containerId);
+        if (container == null) {
+            return;
+        }
+        InternalKieContainer kieContainer = container.acquireKieContainer();
+        if (kieContainer != null) {
+            requestContext.setProperty(CONTAINER_INSTANCE_PROPERTY, container);
+            requestContext.setProperty(KIE_CONTAINER_PROPERTY, kieContainer);
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        if (!responseContext.hasEntity()) {
+            release(requestContext.getProperty(CONTAINER_INSTANCE_PROPERTY), requestContext.getProperty(KIE_CONTAINER_PROPERTY));
+            requestContext.removeProperty(CONTAINER_INSTANCE_PROPERTY);
+            requestContext.removeProperty(KIE_CONTAINER_PROPERTY);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        try {
+            context.proceed();
+        } finally {
+            release(context);
+        }
+    }
+
+    protected void release(InterceptorContext context) {
+        release(context.getProperty(CONTAINER_INSTANCE_PROPERTY), context.getProperty(KIE_CONTAINER_PROPERTY));
+        context.removeProperty(CONTAINER_INSTANCE_PROPERTY);
+        context.removeProperty(KIE_CONTAINER_PROPERTY);
+    }
+
+    protected void release(Object container, Object kieContainer) {
+        if (container != null) {
+            ((KieContainerInstanceImpl) container).releaseKieContainer((InternalKieContainer) kieContainer);
+        }
+    }
+
+    protected boolean isContainerManagement() {
+        return resourceInfo != null && resourceInfo.getResourceClass() != null
+                && KieServerRestImpl.class.isAssignableFrom(resourceInfo.getResourceClass());
+    }
+}
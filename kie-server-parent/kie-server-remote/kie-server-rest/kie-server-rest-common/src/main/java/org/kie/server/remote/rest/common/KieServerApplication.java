@@ -22,6 +22,7 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import javax.ws.rs.ApplicationPath;
 import javax.ws.rs.core.Application;
 
+import org.kie.server.api.KieServerConstants;
 import org.kie.server.remote.rest.common.resource.KieServerRestImpl;
 import org.kie.server.services.api.KieServerExtension;
 import org.kie.server.services.api.SupportedTransports;
@@ -38,6 +39,19 @@ public class KieServerApplication extends Application {
 
             add(new KieServerRestImpl(server));
 
+            // transparent gzip/deflate compression of request and response bodies
+            if (!Boolean.getBoolean(KieServerConstants.CFG_REST_COMPRESSION_DISABLED)) {
+                add(new ContentCompressionInterceptor());
+            }
+
+            // per container request limits, applied only to containers that configure them
+            add(new ContainerBulkheadFilter(server.getServerRegistry()));
+
+            // replaced containers are disposed once requests using them are done
+            if (Boolean.getBoolean(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP)) {
+                add(new KieContainerUsageFilter(server.getServerRegistry()));
+            }
+
             // next add any resources from server extensions
             List<KieServerExtension> extensions = server.getServerExtensions();
 
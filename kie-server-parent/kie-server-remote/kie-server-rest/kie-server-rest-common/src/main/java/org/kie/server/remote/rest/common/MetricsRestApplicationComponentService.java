@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.kie.server.remote.rest.common.resource.MetricsResource;
+import org.kie.server.services.api.KieServerApplicationComponentsService;
+import org.kie.server.services.api.SupportedTransports;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
+
+public class MetricsRestApplicationComponentService implements KieServerApplicationComponentsService {
+
+    private static final String OWNER_EXTENSION = "Metrics";
+
+    @Override
+    public Collection<Object> getAppComponents( String extension, SupportedTransports type, Object... services ) {
+        // skip calls from other than owning extension
+        if ( !OWNER_EXTENSION.equals(extension) ) {
+            return Collections.emptyList();
+        }
+
+        KieServerMetrics metrics = null;
+
+        for( Object object : services ) {
+            if( KieServerMetrics.class.isAssignableFrom(object.getClass()) ) {
+                metrics = (KieServerMetrics) object;
+                break;
+            }
+        }
+
+        List<Object> components = new ArrayList<Object>(2);
+        if( SupportedTransports.REST.equals(type) ) {
+            components.add(new MetricsResource(metrics));
+            components.add(new RequestMetricsFilter(metrics));
+        }
+
+        return components;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.Provider;
+
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.rest.RestURI;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
+
+/**
+ * Records latency of every REST request in {@link KieServerMetrics}, tagged by the resource method,
+ * container id (when the path has one) and marshalling format. Responses with 5xx status are counted as errors.
+ */
+@Provider
+public class RequestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String START_PROPERTY = RequestMetricsFilter.class.getName() + ".start";
+
+    private final KieServerMetrics metrics;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    public RequestMetricsFilter(KieServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        requestContext.setProperty(START_PROPERTY, metrics.start());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        Method method = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        if (start == null || method == null) {
+            // request that did not match any resource
+            return;
+        }
+        String operation = resourceInfo.getResourceClass().getSimpleName() + "." + method.getName();
+        String containerId = requestContext.getUriInfo().getPathParameters().getFirst(RestURI.CONTAINER_ID);
+
+        metrics.record(KieServerMetrics.REST, operation, containerId, getFormat(requestContext, responseContext),
+                       (Long) start, responseContext.getStatus() < 500);
+    }
+
+    protected String getFormat(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        String contentType = requestContext.getHeaderString(KieServerConstants.KIE_CONTENT_TYPE_HEADER);
+        if (contentType == null) {
+            contentType = requestContext.getHeaderString(HttpHeaders.CONTENT_TYPE);
+        }
+        if (contentType == null) {
+            MediaType mediaType = responseContext.getMediaType();
+            if (mediaType == null) {
+                return null;
+            }
+            contentType = mediaType.getType() + "/" + mediaType.getSubtype();
+        }
+        try {
+            return MarshallingFormat.fromType(contentType).name();
+        } catch (RuntimeException e) {
+            // not a marshalled payload (e.g. octet stream)
+            return null;
+        }
+    }
+}
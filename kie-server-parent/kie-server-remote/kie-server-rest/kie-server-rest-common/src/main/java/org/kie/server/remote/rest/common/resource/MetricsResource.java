@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common.resource;
+
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.kie.server.services.impl.metrics.KieServerMetrics;
+
+@Path("server/metrics")
+public class MetricsResource {
+
+    public static final String TEXT_FORMAT = "text/plain; version=0.0.4";
+
+    private KieServerMetrics metrics;
+
+    public MetricsResource() {
+
+    }
+
+    public MetricsResource(KieServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns metrics of all requests in Prometheus text format.
+     */
+    @GET
+    @Produces(TEXT_FORMAT)
+    public Response getMetrics() {
+        StreamingOutput output = stream -> metrics.writeText(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+
+        return Response.ok(output, TEXT_FORMAT + "; charset=utf-8").build();
+    }
+}
@@ -184,6 +184,17 @@ public class RestUtils {
         }
     }
 
+    /*
+     * token of the next page of cursor paged queries is returned as header so the result keeps the same format
+     * as with page based paging, no header means there are no more results
+     */
+    public static Header buildQueryCursorHeader(String nextCursor) {
+        if (nextCursor == null) {
+            return null;
+        }
+        return new Header(KieServerConstants.KIE_QUERY_CURSOR_HEADER, nextCursor);
+    }
+
     public static Header buildConversationIdHeader(String containerId, KieServerRegistry registry, HttpHeaders headers) {
         List<String> conversationIdHeader = headers.getRequestHeader(KieServerConstants.KIE_CONVERSATION_ID_TYPE_HEADER);
         if (conversationIdHeader != null && !conversationIdHeader.isEmpty()) {
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.junit.Test;
+import org.kie.server.common.rest.ContentCompression;
+
+public class ContentCompressionInterceptorTest {
+
+    private static final int THRESHOLD = 100;
+
+    private ContentCompressionInterceptor interceptor = new ContentCompressionInterceptor(THRESHOLD);
+
+    @Test
+    public void testAcceptedCompressionSelected() throws IOException {
+        ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("gzip;q=0.5, deflate");
+
+        interceptor.filter(requestContext);
+        verify(requestContext).setProperty(ContentCompressionInterceptor.ACCEPTED_COMPRESSION_PROPERTY, ContentCompression.DEFLATE);
+    }
+
+    @Test
+    public void testNoCompressionAccepted() throws IOException {
+        ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING)).thenReturn("identity");
+
+        interceptor.filter(requestContext);
+        verify(requestContext, never()).setProperty(anyString(), any());
+    }
+
+    @Test
+    public void testResponseBelowThresholdNotCompressed() throws IOException {
+        byte[] body = body(THRESHOLD - 1);
+        MultivaluedMap<String, Object> headers = responseHeaders(body.length);
+
+        byte[] response = write(ContentCompression.GZIP, headers, body);
+
+        assertArrayEquals(body, response);
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body.length, headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    public void testResponseAboveThresholdCompressed() throws IOException {
+        byte[] body = body(THRESHOLD * 10);
+        MultivaluedMap<String, Object> headers = responseHeaders(body.length);
+
+        byte[] response = write(ContentCompression.GZIP, headers, body);
+
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, headers.getFirst(HttpHeaders.VARY));
+        assertTrue(response.length < body.length);
+        assertArrayEquals(body, decompress(ContentCompression.GZIP, response));
+    }
+
+    @Test
+    public void testResponseCompressedWithDeflate() throws IOException {
+        byte[] body = body(THRESHOLD);
+        MultivaluedMap<String, Object> headers = responseHeaders(body.length);
+
+        byte[] response = write(ContentCompression.DEFLATE, headers, body);
+
+        assertEquals("deflate", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(body, decompress(ContentCompression.DEFLATE, response));
+    }
+
+    @Test
+    public void testResponseNotCompressedWhenNotAccepted() throws IOException {
+        byte[] body = body(THRESHOLD * 10);
+        MultivaluedMap<String, Object> headers = responseHeaders(body.length);
+
+        byte[] response = write(null, headers, body);
+
+        assertArrayEquals(body, response);
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+        assertFalse(headers.containsKey(HttpHeaders.VARY));
+        assertEquals(body.length, headers.getFirst(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    @Test
+    public void testEncodedResponseNotCompressedAgain() throws IOException {
+        byte[] body = body(THRESHOLD * 10);
+        MultivaluedMap<String, Object> headers = responseHeaders(body.length);
+        headers.putSingle(HttpHeaders.CONTENT_ENCODING, "br");
+
+        byte[] response = write(ContentCompression.GZIP, headers, body);
+
+        assertArrayEquals(body, response);
+        assertEquals("br", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testGzipRequestDecoded() throws IOException {
+        byte[] body = body(THRESHOLD * 10);
+
+        assertArrayEquals(body, read("gzip", ContentCompression.GZIP.compress(body)));
+    }
+
+    @Test
+    public void testDeflateRequestDecoded() throws IOException {
+        byte[] body = body(THRESHOLD * 10);
+
+        assertArrayEquals(body, read("deflate", ContentCompression.DEFLATE.compress(body)));
+    }
+
+    @Test
+    public void testIdentityRequestNotDecoded() throws IOException {
+        byte[] body = body(10);
+
+        assertArrayEquals(body, read(null, body));
+        assertArrayEquals(body, read("identity", body));
+    }
+
+    @Test
+    public void testUnknownRequestEncodingRejected() throws IOException {
+        try {
+            read("br", body(10));
+            fail("Unsupported content encoding must be rejected");
+        } catch (WebApplicationException e) {
+            assertEquals(Response.Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode(), e.getResponse().getStatus());
+        }
+    }
+
+    private byte[] write(ContentCompression accepted, MultivaluedMap<String, Object> headers, byte[] body) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        OutputStream[] stream = {response};
+
+        WriterInterceptorContext context = mock(WriterInterceptorContext.class);
+        when(context.getProperty(ContentCompressionInterceptor.ACCEPTED_COMPRESSION_PROPERTY)).thenReturn(accepted);
+        when(context.getHeaders()).thenReturn(headers);
+        when(context.getOutputStream()).thenAnswer(invocation -> stream[0]);
+        doAnswer(invocation -> stream[0] = (OutputStream) invocation.getArguments()[0]).when(context).setOutputStream(any(OutputStream.class));
+        doAnswer(invocation -> {
+            // written in pieces as message body writers do, so the threshold is crossed in the middle of a write
+            for (int from = 0; from < body.length; from += 30) {
+                stream[0].write(body, from, Math.min(30, body.length - from));
+            }
+            stream[0].flush();
+            return null;
+        }).when(context).proceed();
+
+        interceptor.aroundWriteTo(context);
+        assertSame(response, stream[0]);
+        return response.toByteArray();
+    }
+
+    private byte[] read(String encoding, byte[] body) throws IOException {
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<String, String>();
+        if (encoding != null) {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        InputStream[] stream = {new ByteArrayInputStream(body)};
+
+        ReaderInterceptorContext context = mock(ReaderInterceptorContext.class);
+        when(context.getHeaders()).thenReturn(headers);
+        when(context.getInputStream()).thenAnswer(invocation -> stream[0]);
+        doAnswer(invocation -> stream[0] = (InputStream) invocation.getArguments()[0]).when(context).setInputStream(any(InputStream.class));
+        when(context.proceed()).thenAnswer(invocation -> readFully(stream[0]));
+
+        byte[] read = (byte[]) interceptor.aroundReadFrom(context);
+        if (encoding != null && !"identity".equals(encoding)) {
+            // body is not compressed any more for the message body readers
+            assertFalse(headers.containsKey(HttpHeaders.CONTENT_ENCODING));
+        }
+        return read;
+    }
+
+    private static MultivaluedMap<String, Object> responseHeaders(int contentLength) {
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<String, Object>();
+        headers.putSingle(HttpHeaders.CONTENT_LENGTH, contentLength);
+        return headers;
+    }
+
+    private static byte[] body(int size) {
+        byte[] pattern = "<task-instance-list/>".getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = pattern[i % pattern.length];
+        }
+        return body;
+    }
+
+    private static byte[] decompress(ContentCompression compression, byte[] data) throws IOException {
+        return readFully(compression.decompress(new ByteArrayInputStream(data)));
+    }
+
+    private static byte[] readFully(InputStream stream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}
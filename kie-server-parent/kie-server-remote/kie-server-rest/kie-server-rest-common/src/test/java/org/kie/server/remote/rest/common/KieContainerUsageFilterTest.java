@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.common;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.rest.RestURI;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.mockito.InOrder;
+
+public class KieContainerUsageFilterTest {
+
+    private static final String CONTAINER_ID = "container";
+
+    private KieContainerInstanceImpl container;
+    private InternalKieContainer kieContainer;
+    private KieContainerUsageFilter filter;
+
+    private Map<String, Object> properties = new HashMap<String, Object>();
+    private ContainerRequestContext requestContext;
+
+    @Before
+    public void setup() {
+        container = mock(KieContainerInstanceImpl.class);
+        kieContainer = mock(InternalKieContainer.class);
+        when(container.acquireKieContainer()).thenReturn(kieContainer);
+        KieServerRegistry registry = mock(KieServerRegistry.class);
+        when(registry.getContainer(CONTAINER_ID)).thenReturn(container);
+        filter = new KieContainerUsageFilter(registry);
+
+        MultivaluedMap<String, String> pathParameters = new MultivaluedHashMap<String, String>();
+        pathParameters.putSingle(RestURI.CONTAINER_ID, CONTAINER_ID);
+        UriInfo uriInfo = mock(UriInfo.class);
+        when(uriInfo.getPathParameters()).thenReturn(pathParameters);
+
+        requestContext = mock(ContainerRequestContext.class);
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        withProperties(requestContext);
+    }
+
+    @Test
+    public void testReleasedAfterBodyWritten() throws IOException {
+        filter.filter(requestContext);
+        verify(container).acquireKieContainer();
+
+        filter.filter(requestContext, response(true));
+        verify(container, never()).releaseKieContainer(any(InternalKieContainer.class));
+
+        WriterInterceptorContext writerContext = writerContext();
+        filter.aroundWriteTo(writerContext);
+
+        // streamed bodies are produced while written, so the container is released only after that
+        InOrder inOrder = inOrder(writerContext, container);
+        inOrder.verify(writerContext).proceed();
+        inOrder.verify(container).releaseKieContainer(kieContainer);
+        assertTrue(properties.isEmpty());
+    }
+
+    @Test
+    public void testReleasedWhenWritingFails() throws IOException {
+        filter.filter(requestContext);
+        filter.filter(requestContext, response(true));
+
+        WriterInterceptorContext writerContext = writerContext();
+        doThrow(new IOException("Connection reset")).when(writerContext).proceed();
+        try {
+            filter.aroundWriteTo(writerContext);
+            fail("Write failure must be propagated");
+        } catch (IOException e) {
+            assertEquals("Connection reset", e.getMessage());
+        }
+        verify(container).releaseKieContainer(kieContainer);
+    }
+
+    @Test
+    public void testReleasedWithoutBody() throws IOException {
+        filter.filter(requestContext);
+        filter.filter(requestContext, response(false));
+
+        verify(container).releaseKieContainer(kieContainer);
+        assertTrue(properties.isEmpty());
+    }
+
+    @Test
+    public void testReleasedOnce() throws IOException {
+        filter.filter(requestContext);
+        filter.filter(requestContext, response(false));
+        // nothing is left to release when a body is written afterwards
+        filter.aroundWriteTo(writerContext());
+
+        verify(container, times(1)).releaseKieContainer(kieContainer);
+    }
+
+    @Test
+    public void testUnknownContainerNotRegistered() throws IOException {
+        requestContext.getUriInfo().getPathParameters().putSingle(RestURI.CONTAINER_ID, "unknown");
+        filter.filter(requestContext);
+        filter.aroundWriteTo(writerContext());
+
+        verify(container, never()).acquireKieContainer();
+        verify(container, never()).releaseKieContainer(any(InternalKieContainer.class));
+        assertTrue(properties.isEmpty());
+    }
+
+    private ContainerResponseContext response(boolean hasEntity) {
+        ContainerResponseContext responseContext = mock(ContainerResponseContext.class);
+        when(responseContext.hasEntity()).thenReturn(hasEntity);
+        return responseContext;
+    }
+
+    private WriterInterceptorContext writerContext() {
+        // interceptor context shares properties with the request context
+        WriterInterceptorContext writerContext = mock(WriterInterceptorContext.class);
+        when(writerContext.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArguments()[0]));
+        doAnswer(invocation -> properties.remove(invocation.getArguments()[0])).when(writerContext).removeProperty(anyString());
+        return writerContext;
+    }
+
+    private void withProperties(ContainerRequestContext context) {
+        when(context.getProperty(anyString())).thenAnswer(invocation -> properties.get(invocation.getArguments()[0]));
+        doAnswer(invocation -> properties.put((String) invocation.getArguments()[0], invocation.getArguments()[1])).when(context).setProperty(anyString(), any());
+        doAnswer(invocation -> properties.remove(invocation.getArguments()[0])).when(context).removeProperty(anyString());
+    }
+}
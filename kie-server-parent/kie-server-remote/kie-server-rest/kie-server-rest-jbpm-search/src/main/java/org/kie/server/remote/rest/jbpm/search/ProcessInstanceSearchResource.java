@@ -16,9 +16,12 @@
 package org.kie.server.remote.rest.jbpm.search;
 
 import static org.kie.server.api.rest.RestURI.PROCESS_INSTANCES_GET_FILTERED_URI;
+import static org.kie.server.remote.rest.common.util.RestUtils.badRequest;
 import static org.kie.server.remote.rest.common.util.RestUtils.buildConversationIdHeader;
+import static org.kie.server.remote.rest.common.util.RestUtils.buildQueryCursorHeader;
 import static org.kie.server.remote.rest.common.util.RestUtils.createCorrectVariant;
 import static org.kie.server.remote.rest.common.util.RestUtils.getContentType;
+import static org.kie.server.remote.rest.common.util.RestUtils.getVariant;
 
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
@@ -33,6 +36,7 @@ import javax.ws.rs.core.Response;
 import org.kie.server.api.model.instance.ProcessInstanceList;
 import org.kie.server.remote.rest.common.Header;
 import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.jbpm.QueryCursor;
 import org.kie.server.services.jbpm.search.ProcessInstanceSearchServiceBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,12 +64,23 @@ private static final Logger logger = LoggerFactory.getLogger(TaskSearchResource.
 	@Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
 	public Response getProcessInstancesWithFilters(@Context HttpHeaders headers,
 			@QueryParam("page") @DefaultValue("0") Integer page, @QueryParam("pageSize") @DefaultValue("10") Integer pageSize,
-			String payload) {
+			@QueryParam("cursor") String cursor, String payload) {
 
 		String type = getContentType(headers);
 		// no container id available so only  used to transfer conversation id if given by client.
 		Header conversationIdHeader = buildConversationIdHeader("", context, headers);
 
+		if (cursor != null) {
+			try {
+				QueryCursor.Page resultPage = processInstanceQueryServiceBase.getProcessInstancesWithFiltersAndCursor(cursor, pageSize, payload, type);
+				logger.debug("Returning result of process instance search: {}", resultPage.getResult());
+
+				return createCorrectVariant(resultPage.getResult(), headers, Response.Status.OK, conversationIdHeader, buildQueryCursorHeader(resultPage.getNextCursor()));
+			} catch (IllegalArgumentException e) {
+				return badRequest(e.getMessage(), getVariant(headers), conversationIdHeader);
+			}
+		}
+
 		ProcessInstanceList result = processInstanceQueryServiceBase.getProcessInstancesWithFilters(page, pageSize, payload, type);
 
 		logger.debug("Returning result of process instance search: {}", result);
@@ -31,6 +31,7 @@ import javax.ws.rs.core.Response;
 import org.kie.server.api.model.instance.TaskInstanceList;
 import org.kie.server.remote.rest.common.Header;
 import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.jbpm.QueryCursor;
 import org.kie.server.services.jbpm.search.TaskSearchServiceBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,12 +59,23 @@ public class TaskSearchResource {
 	@Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
 	public Response getHumanTasksWithFilters(@Context HttpHeaders headers, 
 			@QueryParam("page") @DefaultValue("0") Integer page, @QueryParam("pageSize") @DefaultValue("10") Integer pageSize, 
-			String payload) {
+			@QueryParam("cursor") String cursor, String payload) {
 		
 		String type = getContentType(headers);
 		// no container id available so only  used to transfer conversation id if given by client.
 		Header conversationIdHeader = buildConversationIdHeader("", context, headers);
 		
+		if (cursor != null) {
+			try {
+				QueryCursor.Page resultPage = taskQueryServiceBase.getHumanTasksWithFiltersAndCursor(cursor, pageSize, payload, type);
+				logger.debug("Returning result of task instance search: {}", resultPage.getResult());
+
+				return createCorrectVariant(resultPage.getResult(), headers, Response.Status.OK, conversationIdHeader, buildQueryCursorHeader(resultPage.getNextCursor()));
+			} catch (IllegalArgumentException e) {
+				return badRequest(e.getMessage(), getVariant(headers), conversationIdHeader);
+			}
+		}
+		
 		TaskInstanceList result = taskQueryServiceBase.getHumanTasksWithFilters(page, pageSize, payload, type);
 				
 		logger.debug("Returning result of task instance search: {}", result);
@@ -64,7 +64,7 @@ public class TaskSearchResourceTest {
 		
 		HttpHeaders httpHeaders = new ResteasyHttpHeaders(headers);
 		
-		Response response = tqr.getHumanTasksWithFilters(httpHeaders, 0, 10, getPayload());
+		Response response = tqr.getHumanTasksWithFilters(httpHeaders, 0, 10, null, getPayload());
 		String responseEntity = (String) response.getEntity();
 		
 		String expectedResponseEntity = "<task-instance-list/>";
@@ -94,7 +94,7 @@ public class TaskSearchResourceTest {
 		
 		HttpHeaders httpHeaders = new ResteasyHttpHeaders(headers);
 		
-		Response response = tqr.getHumanTasksWithFilters(httpHeaders, 0, 10, getPayload());
+		Response response = tqr.getHumanTasksWithFilters(httpHeaders, 0, 10, null, getPayload());
 		String responseEntity = (String) response.getEntity();
 		
 		String expectedResponseEntity = new StringBuilder().append("{").append("\"task-instance\" : null").append("}").toString();
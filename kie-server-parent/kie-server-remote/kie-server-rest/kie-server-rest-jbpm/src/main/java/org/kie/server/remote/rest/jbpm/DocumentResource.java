@@ -16,9 +16,11 @@
 package org.kie.server.remote.rest.jbpm;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.text.MessageFormat;
+import java.util.Date;
 import javax.mail.internet.MimeUtility;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -55,6 +57,8 @@ public class DocumentResource {
 
     public static final Logger logger = LoggerFactory.getLogger(DocumentResource.class);
 
+    private static final int BUFFER_SIZE = 8192;
+
     private DocumentServiceBase documentServiceBase;
     private KieServerRegistry context;
 
@@ -70,33 +74,48 @@ public class DocumentResource {
     @GET
     @Path(DOCUMENT_INSTANCE_CONTENT_GET_URI)
     @Produces({MediaType.APPLICATION_OCTET_STREAM})
-    public Response getDocumentContent(@javax.ws.rs.core.Context HttpHeaders headers, @PathParam("documentId") String documentId) {
+    public Response getDocumentContent(@javax.ws.rs.core.Context HttpHeaders headers, @PathParam("documentId") final String documentId) {
         Variant v = getVariant(headers);
         // no container id available so only used to transfer conversation id if given by client
         Header conversationIdHeader = buildConversationIdHeader("", context, headers);
         try {
 
-            final DocumentInstance document = documentServiceBase.getDocument(documentId);
+            final DocumentInstance document = documentServiceBase.getDocumentInfo(documentId);
 
             if (document == null) {
                 return notFound("Document with id " + documentId + " not found", v, conversationIdHeader);
             }
             String fileName = MimeUtility.encodeWord(document.getName(), "utf-8", "Q");
+            // content is copied from the storage while the response is written, it is never loaded as a whole
             StreamingOutput entity = new StreamingOutput() {
 
                 @Override
                 public void write(OutputStream output) throws IOException, WebApplicationException {
-                    output.write(document.getContent());
+                    InputStream content = documentServiceBase.getDocumentContent(documentId);
+                    try {
+                        byte[] buffer = new byte[BUFFER_SIZE];
+                        int read;
+                        while ((read = content.read(buffer)) != -1) {
+                            output.write(buffer, 0, read);
+                        }
+                    } finally {
+                        content.close();
+                    }
                 }
             };
+            Response.ResponseBuilder builder = Response.ok().entity(entity)
+                    .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+            if (document.getSize() > 0) {
+                builder.header(HttpHeaders.CONTENT_LENGTH, document.getSize());
+            }
             if (conversationIdHeader != null) {
-                return Response.ok().entity(entity)
-                        .header(conversationIdHeader.getName(), conversationIdHeader.getValue())
-                        .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"").build();
+                builder.header(conversationIdHeader.getName(), conversationIdHeader.getValue());
             }
 
-            return Response.ok().entity(entity).header("Content-Disposition", "attachment; filename=\"" + fileName + "\"").build();
-        }  catch (Exception e) {
+            return builder.build();
+        } catch (KieServerRuntimeException e){
+            return notFound("Document with id " + documentId + " not found", v, conversationIdHeader);
+        } catch (Exception e) {
             logger.error("Unexpected error during processing {}", e.getMessage(), e);
             return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
         }
@@ -158,6 +177,50 @@ public class DocumentResource {
         }
     }
 
+    @POST
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Consumes({MediaType.APPLICATION_OCTET_STREAM})
+    public Response createDocumentFromStream(@javax.ws.rs.core.Context HttpHeaders headers, @QueryParam("name") String name, @QueryParam("lastModified") Long lastModified, InputStream content) {
+        Variant v = getVariant(headers);
+        // no container id available so only used to transfer conversation id if given by client
+        Header conversationIdHeader = buildConversationIdHeader("", context, headers);
+        if (name == null || name.trim().isEmpty()) {
+            return badRequest("Document name must be given as 'name' query parameter", v, conversationIdHeader);
+        }
+        try {
+
+            String identifier = documentServiceBase.storeDocument(name, lastModified == null ? null : new Date(lastModified), content);
+
+            return createCorrectVariant(identifier, headers, Response.Status.CREATED, conversationIdHeader);
+        } catch (IllegalArgumentException e) {
+            return badRequest(e.getMessage(), v, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+
+    @PUT
+    @Path(DOCUMENT_INSTANCE_PUT_URI)
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Consumes({MediaType.APPLICATION_OCTET_STREAM})
+    public Response updateDocumentFromStream(@javax.ws.rs.core.Context HttpHeaders headers, @PathParam("documentId") String documentId, InputStream content) {
+        Variant v = getVariant(headers);
+        // no container id available so only used to transfer conversation id if given by client
+        Header conversationIdHeader = buildConversationIdHeader("", context, headers);
+        try {
+
+            documentServiceBase.updateDocument(documentId, content);
+
+            return createCorrectVariant("", headers, Response.Status.CREATED, conversationIdHeader);
+        } catch (KieServerRuntimeException e){
+            return notFound("Document with id " + documentId + " not found", v, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+
     @PUT
     @Path(DOCUMENT_INSTANCE_PUT_URI)
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
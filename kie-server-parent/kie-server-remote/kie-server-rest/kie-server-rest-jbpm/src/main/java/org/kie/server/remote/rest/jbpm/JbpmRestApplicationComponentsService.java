@@ -29,11 +29,13 @@ import org.jbpm.services.api.admin.ProcessInstanceMigrationService;
 import org.jbpm.services.api.admin.UserTaskAdminService;
 import org.jbpm.services.api.query.QueryService;
 import org.kie.api.executor.ExecutorService;
+import org.kie.server.remote.rest.jbpm.admin.ExecutorAdminResource;
 import org.kie.server.remote.rest.jbpm.admin.ProcessAdminResource;
 import org.kie.server.remote.rest.jbpm.admin.UserTaskAdminResource;
 import org.kie.server.services.api.KieServerApplicationComponentsService;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.api.SupportedTransports;
+import org.kie.server.services.jbpm.AdaptiveExecutorController;
 import org.kie.server.services.jbpm.DefinitionServiceBase;
 import org.kie.server.services.jbpm.DocumentServiceBase;
 import org.kie.server.services.jbpm.ExecutorServiceBase;
@@ -42,6 +44,7 @@ import org.kie.server.services.jbpm.ProcessServiceBase;
 import org.kie.server.services.jbpm.QueryDataServiceBase;
 import org.kie.server.services.jbpm.RuntimeDataServiceBase;
 import org.kie.server.services.jbpm.UserTaskServiceBase;
+import org.kie.server.services.jbpm.admin.ExecutorAdminServiceBase;
 import org.kie.server.services.jbpm.admin.ProcessAdminServiceBase;
 import org.kie.server.services.jbpm.admin.UserTaskAdminServiceBase;
 
@@ -65,6 +68,7 @@ public class JbpmRestApplicationComponentsService implements KieServerApplicatio
         ProcessInstanceMigrationService processInstanceMigrationService = null;
         ProcessInstanceAdminService processInstanceAdminService = null;
         UserTaskAdminService userTaskAdminService = null;
+        AdaptiveExecutorController executorController = null;
         KieServerRegistry context = null;
 
         for( Object object : services ) {
@@ -99,6 +103,9 @@ public class JbpmRestApplicationComponentsService implements KieServerApplicatio
             } else if( UserTaskAdminService.class.isAssignableFrom(object.getClass()) ) {
                 userTaskAdminService = (UserTaskAdminService) object;
                 continue;
+            } else if( AdaptiveExecutorController.class.isAssignableFrom(object.getClass()) ) {
+                executorController = (AdaptiveExecutorController) object;
+                continue;
             } else if( KieServerRegistry.class.isAssignableFrom(object.getClass()) ) {
                 context = (KieServerRegistry) object;
                 continue;
@@ -115,6 +122,7 @@ public class JbpmRestApplicationComponentsService implements KieServerApplicatio
         DocumentServiceBase documentServiceBase = new DocumentServiceBase(context);
         ProcessAdminServiceBase processAdminServiceBase = new ProcessAdminServiceBase(processInstanceMigrationService, processInstanceAdminService, context);
         UserTaskAdminServiceBase userTaskAdminServiceBase = new UserTaskAdminServiceBase(userTaskAdminService, context);
+        ExecutorAdminServiceBase executorAdminServiceBase = new ExecutorAdminServiceBase(executorController, context);
 
         components.add(new ProcessResource(processServiceBase, runtimeDataServiceBase, context));
         components.add(new RuntimeDataResource(runtimeDataServiceBase, context));
@@ -125,6 +133,7 @@ public class JbpmRestApplicationComponentsService implements KieServerApplicatio
         components.add(new DocumentResource(documentServiceBase, context));
         components.add(new ProcessAdminResource(processAdminServiceBase, context));
         components.add(new UserTaskAdminResource(userTaskAdminServiceBase, context));
+        components.add(new ExecutorAdminResource(executorAdminServiceBase, context));
 
         return components;
     }
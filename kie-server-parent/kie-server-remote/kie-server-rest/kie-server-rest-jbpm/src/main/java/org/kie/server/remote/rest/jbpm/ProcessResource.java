@@ -138,6 +138,35 @@ public class ProcessResource  {
     }
 
 
+    @POST
+    @Path(START_PROCESSES_POST_URI)
+    @Consumes({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response startProcesses(@javax.ws.rs.core.Context HttpHeaders headers, @PathParam("id") String containerId, @PathParam("pId") String processId,
+            @QueryParam("chunkSize") Integer chunkSize, String payload) {
+        Variant v = getVariant(headers);
+        String type = getContentType(headers);
+
+        try {
+            String response = processServiceBase.startProcesses(containerId, processId, chunkSize, payload, type);
+
+            logger.debug("Returning CREATED response with content '{}'", response);
+            Header conversationIdHeader = buildConversationIdHeader(containerId, context, headers);
+            return createResponse(response, v, Response.Status.CREATED, conversationIdHeader);
+        } catch (DeploymentNotFoundException e) {
+            return notFound(
+                    MessageFormat.format(CONTAINER_NOT_FOUND, containerId), v);
+        } catch (ProcessDefinitionNotFoundException e) {
+            return notFound(
+                    MessageFormat.format(PROCESS_DEFINITION_NOT_FOUND, processId, containerId), v);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(
+                    MessageFormat.format(CREATE_RESPONSE_ERROR, e.getMessage()), v);
+        }
+    }
+
+
     @DELETE
     @Path(ABORT_PROCESS_INST_DEL_URI)
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
@@ -23,7 +23,9 @@ import static org.kie.server.api.rest.RestURI.REPLACE_QUERY_DEF_PUT_URI;
 import static org.kie.server.api.rest.RestURI.RUN_FILTERED_QUERY_DEF_POST_URI;
 import static org.kie.server.api.rest.RestURI.RUN_QUERY_DEF_GET_URI;
 import static org.kie.server.remote.rest.common.util.RestUtils.alreadyExists;
+import static org.kie.server.remote.rest.common.util.RestUtils.badRequest;
 import static org.kie.server.remote.rest.common.util.RestUtils.buildConversationIdHeader;
+import static org.kie.server.remote.rest.common.util.RestUtils.buildQueryCursorHeader;
 import static org.kie.server.remote.rest.common.util.RestUtils.createCorrectVariant;
 import static org.kie.server.remote.rest.common.util.RestUtils.createResponse;
 import static org.kie.server.remote.rest.common.util.RestUtils.getContentType;
@@ -58,6 +60,7 @@ import org.kie.server.api.model.definition.QueryDefinition;
 import org.kie.server.api.model.definition.QueryDefinitionList;
 import org.kie.server.remote.rest.common.Header;
 import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.jbpm.QueryCursor;
 import org.kie.server.services.jbpm.QueryDataServiceBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -170,11 +173,22 @@ public class QueryDataResource {
     @GET
     @Path(RUN_QUERY_DEF_GET_URI)
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    public Response runQuery(@Context HttpHeaders headers, @PathParam("queryName") String queryName, @QueryParam("mapper") String mapper, @QueryParam("orderBy") String orderBy, @QueryParam("page") @DefaultValue("0") Integer page, @QueryParam("pageSize") @DefaultValue("10") Integer pageSize) {
+    public Response runQuery(@Context HttpHeaders headers, @PathParam("queryName") String queryName, @QueryParam("mapper") String mapper, @QueryParam("orderBy") String orderBy, @QueryParam("page") @DefaultValue("0") Integer page, @QueryParam("pageSize") @DefaultValue("10") Integer pageSize, @QueryParam("cursor") String cursor) {
 
         // no container id available so only used to transfer conversation id if given by client
         Header conversationIdHeader = buildConversationIdHeader("", context, headers);
 
+        if (cursor != null) {
+            try {
+                QueryCursor.Page resultPage = queryDataServiceBase.queryWithCursor(queryName, mapper, orderBy, cursor, pageSize);
+                logger.debug("Returning result of process instance search: {}", resultPage.getResult());
+
+                return createCorrectVariant(resultPage.getResult(), headers, Response.Status.OK, conversationIdHeader, buildQueryCursorHeader(resultPage.getNextCursor()));
+            } catch (IllegalArgumentException e) {
+                return badRequest(e.getMessage(), getVariant(headers), conversationIdHeader);
+            }
+        }
+
         Object result = queryDataServiceBase.query(queryName, mapper, orderBy, page, pageSize);
         logger.debug("Returning result of process instance search: {}", result);
 
@@ -184,13 +198,27 @@ public class QueryDataResource {
     @POST
     @Path(RUN_FILTERED_QUERY_DEF_POST_URI)
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
-    public Response runQueryFiltered(@Context HttpHeaders headers, @PathParam("queryName") String queryName, @QueryParam("mapper") String mapper, @QueryParam("builder") String builder, @QueryParam("page") @DefaultValue("0") Integer page, @QueryParam("pageSize") @DefaultValue("10") Integer pageSize, String payload) {
+    public Response runQueryFiltered(@Context HttpHeaders headers, @PathParam("queryName") String queryName, @QueryParam("mapper") String mapper, @QueryParam("builder") String builder, @QueryParam("page") @DefaultValue("0") Integer page, @QueryParam("pageSize") @DefaultValue("10") Integer pageSize, @QueryParam("cursor") String cursor, String payload) {
 
         String type = getContentType(headers);
         // no container id available so only used to transfer conversation id if given by client
         Header conversationIdHeader = buildConversationIdHeader("", context, headers);
         Object result = null;
 
+        if (cursor != null) {
+            if (builder != null && !builder.isEmpty()) {
+                return badRequest("Query param builders are not supported with cursor paging", getVariant(headers), conversationIdHeader);
+            }
+            try {
+                QueryCursor.Page resultPage = queryDataServiceBase.queryFilteredWithCursor(queryName, mapper, cursor, pageSize, payload, type);
+                logger.debug("Returning result of process instance search: {}", resultPage.getResult());
+
+                return createCorrectVariant(resultPage.getResult(), headers, Response.Status.OK, conversationIdHeader, buildQueryCursorHeader(resultPage.getNextCursor()));
+            } catch (IllegalArgumentException e) {
+                return badRequest(e.getMessage(), getVariant(headers), conversationIdHeader);
+            }
+        }
+
         if (builder != null && !builder.isEmpty()) {
             result = queryDataServiceBase.queryFilteredWithBuilder(queryName, mapper, builder, page, pageSize, payload, type);
         } else {
@@ -131,6 +131,106 @@ public class UserTaskResource {
         }
     }
 
+    @PUT
+    @Path(TASK_INSTANCES_CLAIM_PUT_URI)
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response claimTasks(@Context HttpHeaders headers, @PathParam("id") String containerId,
+            @QueryParam("taskId") List<Long> taskIds, @QueryParam("user") String userId) {
+        Variant v = getVariant(headers);
+        String type = getContentType(headers);
+        Header conversationIdHeader = buildConversationIdHeader(containerId, context, headers);
+        try {
+
+            String response = userTaskServiceBase.claimTasks(containerId, taskIds, userId, type);
+
+            logger.debug("Returning CREATED response with content '{}'", response);
+            return createResponse(response, v, Response.Status.CREATED, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+
+    @PUT
+    @Path(TASK_INSTANCES_START_PUT_URI)
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response startTasks(@Context HttpHeaders headers, @PathParam("id") String containerId,
+            @QueryParam("taskId") List<Long> taskIds, @QueryParam("user") String userId) {
+        Variant v = getVariant(headers);
+        String type = getContentType(headers);
+        Header conversationIdHeader = buildConversationIdHeader(containerId, context, headers);
+        try {
+
+            String response = userTaskServiceBase.startTasks(containerId, taskIds, userId, type);
+
+            logger.debug("Returning CREATED response with content '{}'", response);
+            return createResponse(response, v, Response.Status.CREATED, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+
+    @PUT
+    @Path(TASK_INSTANCES_CLAIM_START_PUT_URI)
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response claimAndStartTasks(@Context HttpHeaders headers, @PathParam("id") String containerId,
+            @QueryParam("taskId") List<Long> taskIds, @QueryParam("user") String userId) {
+        Variant v = getVariant(headers);
+        String type = getContentType(headers);
+        Header conversationIdHeader = buildConversationIdHeader(containerId, context, headers);
+        try {
+
+            String response = userTaskServiceBase.claimAndStartTasks(containerId, taskIds, userId, type);
+
+            logger.debug("Returning CREATED response with content '{}'", response);
+            return createResponse(response, v, Response.Status.CREATED, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+
+    @PUT
+    @Path(TASK_INSTANCES_RELEASE_PUT_URI)
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response releaseTasks(@Context HttpHeaders headers, @PathParam("id") String containerId,
+            @QueryParam("taskId") List<Long> taskIds, @QueryParam("user") String userId) {
+        Variant v = getVariant(headers);
+        String type = getContentType(headers);
+        Header conversationIdHeader = buildConversationIdHeader(containerId, context, headers);
+        try {
+
+            String response = userTaskServiceBase.releaseTasks(containerId, taskIds, userId, type);
+
+            logger.debug("Returning CREATED response with content '{}'", response);
+            return createResponse(response, v, Response.Status.CREATED, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+
+    @PUT
+    @Path(TASK_INSTANCES_COMPLETE_PUT_URI)
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response completeTasks(@Context HttpHeaders headers, @PathParam("id") String containerId,
+            @QueryParam("user") String userId, String payload) {
+        Variant v = getVariant(headers);
+        String type = getContentType(headers);
+        Header conversationIdHeader = buildConversationIdHeader(containerId, context, headers);
+        try {
+
+            String response = userTaskServiceBase.completeTasks(containerId, userId, payload, type);
+
+            logger.debug("Returning CREATED response with content '{}'", response);
+            return createResponse(response, v, Response.Status.CREATED, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+
     @PUT
     @Path(TASK_INSTANCE_DELEGATE_PUT_URI)
     @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
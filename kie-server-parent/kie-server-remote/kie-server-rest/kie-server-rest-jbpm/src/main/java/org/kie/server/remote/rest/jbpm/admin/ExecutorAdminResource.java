@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.jbpm.admin;
+
+import java.text.MessageFormat;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+
+import org.kie.server.api.model.admin.ExecutorConcurrency;
+import org.kie.server.remote.rest.common.Header;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.jbpm.admin.ExecutorAdminServiceBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.kie.server.api.rest.RestURI.*;
+import static org.kie.server.remote.rest.common.util.RestUtils.*;
+import static org.kie.server.remote.rest.jbpm.resources.Messages.*;
+
+@Path("server/" + ADMIN_JOB_URI)
+public class ExecutorAdminResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorAdminResource.class);
+
+    private ExecutorAdminServiceBase executorAdminServiceBase;
+    private KieServerRegistry context;
+
+    public ExecutorAdminResource() {
+
+    }
+
+    public ExecutorAdminResource(ExecutorAdminServiceBase executorAdminServiceBase, KieServerRegistry context) {
+        this.executorAdminServiceBase = executorAdminServiceBase;
+        this.context = context;
+    }
+
+    @GET
+    @Path(JOB_EXECUTOR_CONCURRENCY_GET_URI)
+    @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+    public Response getExecutorConcurrency(@javax.ws.rs.core.Context HttpHeaders headers) {
+        Variant v = getVariant(headers);
+        Header conversationIdHeader = buildConversationIdHeader("", context, headers);
+        if (!executorAdminServiceBase.isExecutorAvailable()) {
+            return notFound(EXECUTOR_DISABLED, v, conversationIdHeader);
+        }
+        try {
+            ExecutorConcurrency concurrency = executorAdminServiceBase.getExecutorConcurrency();
+
+            return createCorrectVariant(concurrency, headers, Response.Status.OK, conversationIdHeader);
+        } catch (Exception e) {
+            logger.error("Unexpected error during processing {}", e.getMessage(), e);
+            return internalServerError(MessageFormat.format(UNEXPECTED_ERROR, e.getMessage()), v, conversationIdHeader);
+        }
+    }
+}
@@ -48,4 +48,6 @@ public class Messages {
 
     public static final String QUERY_NOT_FOUND = "Could not find query definition with name \"{0}\"";
     public static final String QUERY_ALREADY_EXISTS = "Query definition with name \"{0}\" already exists";
+
+    public static final String EXECUTOR_DISABLED = "Job executor is disabled";
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.remote.rest.jbpm;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import org.jboss.resteasy.specimpl.MultivaluedMapImpl;
+import org.jboss.resteasy.specimpl.ResteasyHttpHeaders;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.jbpm.RuntimeDataServiceBase;
+import org.kie.server.services.jbpm.UserTaskServiceBase;
+
+public class UserTaskResourceBulkTest {
+
+    private static final String CONTAINER_ID = "container";
+    private static final String USER = "john";
+    private static final String RESULTS = "{\"task-operation-result\" : []}";
+    private static final List<Long> TASK_IDS = Arrays.asList(1L, 2L);
+
+    private UserTaskServiceBase userTaskServiceBase;
+    private UserTaskResource resource;
+    private HttpHeaders httpHeaders;
+
+    @Before
+    public void setup() {
+        userTaskServiceBase = mock(UserTaskServiceBase.class);
+        resource = new UserTaskResource(userTaskServiceBase, mock(RuntimeDataServiceBase.class), mock(KieServerRegistry.class));
+
+        MultivaluedMap<String, String> headers = new MultivaluedMapImpl<>();
+        headers.put(KieServerConstants.KIE_CONTENT_TYPE_HEADER, Collections.singletonList("JSON"));
+        headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(MediaType.APPLICATION_JSON));
+        headers.put(HttpHeaders.ACCEPT, Collections.singletonList(MediaType.APPLICATION_JSON));
+        httpHeaders = new ResteasyHttpHeaders(headers);
+    }
+
+    @Test
+    public void testClaimTasks() {
+        when(userTaskServiceBase.claimTasks(CONTAINER_ID, TASK_IDS, USER, "JSON")).thenReturn(RESULTS);
+
+        assertResults(resource.claimTasks(httpHeaders, CONTAINER_ID, TASK_IDS, USER));
+    }
+
+    @Test
+    public void testStartTasks() {
+        when(userTaskServiceBase.startTasks(CONTAINER_ID, TASK_IDS, USER, "JSON")).thenReturn(RESULTS);
+
+        assertResults(resource.startTasks(httpHeaders, CONTAINER_ID, TASK_IDS, USER));
+    }
+
+    @Test
+    public void testClaimAndStartTasks() {
+        when(userTaskServiceBase.claimAndStartTasks(CONTAINER_ID, TASK_IDS, USER, "JSON")).thenReturn(RESULTS);
+
+        assertResults(resource.claimAndStartTasks(httpHeaders, CONTAINER_ID, TASK_IDS, USER));
+    }
+
+    @Test
+    public void testReleaseTasks() {
+        when(userTaskServiceBase.releaseTasks(CONTAINER_ID, TASK_IDS, USER, "JSON")).thenReturn(RESULTS);
+
+        assertResults(resource.releaseTasks(httpHeaders, CONTAINER_ID, TASK_IDS, USER));
+    }
+
+    @Test
+    public void testCompleteTasks() {
+        String payload = "{\"1\" : {}, \"2\" : {}}";
+        when(userTaskServiceBase.completeTasks(CONTAINER_ID, USER, payload, "JSON")).thenReturn(RESULTS);
+
+        assertResults(resource.completeTasks(httpHeaders, CONTAINER_ID, USER, payload));
+    }
+
+    @Test
+    public void testBulkOperationError() {
+        when(userTaskServiceBase.claimTasks(anyString(), anyListOf(Long.class), anyString(), anyString())).thenThrow(new IllegalArgumentException("No container found"));
+
+        Response response = resource.claimTasks(httpHeaders, CONTAINER_ID, TASK_IDS, USER);
+        assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+        assertTrue(((String) response.getEntity()).contains("No container found"));
+    }
+
+    private static void assertResults(Response response) {
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        assertEquals(RESULTS, response.getEntity());
+    }
+}
@@ -29,4 +29,12 @@ public class KieServerRouterConstants {
     public static final String KIE_CONTROLLER_USER = "org.kie.server.controller.user";
     public static final String KIE_CONTROLLER_PASSWORD = "org.kie.server.controller.pwd";
     public static final String KIE_CONTROLLER_TOKEN = "org.kie.server.controller.token";
+
+    public static final String BREAKER_FAILURE_RATE = "org.kie.server.router.breaker.failure.rate";
+    public static final String BREAKER_WINDOW_SIZE = "org.kie.server.router.breaker.window";
+    public static final String BREAKER_MIN_REQUESTS = "org.kie.server.router.breaker.min.requests";
+    public static final String BREAKER_OPEN_TIME = "org.kie.server.router.breaker.open.time";
+    public static final String BREAKER_HALF_OPEN_TRIALS = "org.kie.server.router.breaker.halfopen.trials";
+    public static final String BREAKER_EJECT_AFTER = "org.kie.server.router.breaker.eject.after";
+    public static final String BACKEND_SLOW_FACTOR = "org.kie.server.router.backend.slow.factor";
 }
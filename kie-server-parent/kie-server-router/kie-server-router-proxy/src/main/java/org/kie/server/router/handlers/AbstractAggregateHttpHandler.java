@@ -100,8 +100,13 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
         final Map<String,List<String>> responseHeaders = new ConcurrentHashMap<>();
         List<String> returnResponses = getServerHosts().parallelStream().map(url -> {
             String response = null;
+            if (!adminHandler.getCircuitBreakers().allowRequest(url)) {
+                return response;
+            }
             try {
+                long start = System.currentTimeMillis();
                 response = sendRequest(url, exchange, responseHeaders, routerPage, routerPageSize);
+                adminHandler.getCircuitBreakers().recordSuccess(url, System.currentTimeMillis() - start);
             } catch (Exception e) {
                 log.error("Error when forwarding request to server", e);
 
@@ -179,15 +184,21 @@ public abstract class AbstractAggregateHttpHandler implements HttpHandler {
     protected Set<String> getServerHosts() {
 
         return adminHandler.getHostsPerServer().values().stream().map(hosts -> {
-            return selector.selectHost(hosts.toArray(new String[hosts.size()]));
+            String[] availableHosts = hosts.stream()
+                    .filter(host -> adminHandler.getCircuitBreakers().isAvailable(host))
+                    .toArray(String[]::new);
+            return selector.selectHost(availableHosts);
         }).filter(host -> host != null)
          .collect(Collectors.toSet());
     }
 
     protected void removeHostOnException(String url, Exception e) {
         if (e instanceof SocketException || e instanceof UnknownHostException) {
-            adminHandler.removeUnavailableServer(url);
-            log.warn("Removed host '" + url + "' due to its unavailability (cause " + e.getMessage() + ")");
+            log.warn("Host '" + url + "' is unavailable (cause " + e.getMessage() + ")");
+            adminHandler.backendFailed(url);
+        } else {
+            // server responded, just not with data
+            adminHandler.getCircuitBreakers().recordSuccess(url, -1);
         }
     }
 
@@ -30,6 +30,7 @@ import org.json.JSONObject;
 import org.kie.server.router.Configuration;
 import org.kie.server.router.ContainerInfo;
 import org.kie.server.router.KieServerRouterConstants;
+import org.kie.server.router.proxy.CircuitBreakerRegistry;
 import org.kie.server.router.proxy.KieServerProxyClient;
 import org.kie.server.router.proxy.aggragate.JSONResponseAggregator;
 import org.kie.server.router.proxy.aggragate.JaxbXMLResponseAggregator;
@@ -60,6 +61,8 @@ public class AdminHttpHandler implements HttpHandler {
 
     private Set<String> controllerContainers = new HashSet<>();
 
+    private CircuitBreakerRegistry circuitBreakers = new CircuitBreakerRegistry();
+
 
     private static final String CONTAINER_SPEC_JSON = "{\n" +
             "    \"container-id\" : \"#1@\",\n" +
@@ -207,4 +210,20 @@ public class AdminHttpHandler implements HttpHandler {
             repository.persist(configuration);
         }
     }
+
+    public CircuitBreakerRegistry getCircuitBreakers() {
+        return circuitBreakers;
+    }
+
+    /**
+     * Records failed request to given server - the server is removed only when its circuit breaker
+     * reports that it keeps failing, otherwise it is just not used until the breaker lets requests through again.
+     */
+    public void backendFailed(String url) {
+        if (circuitBreakers.recordFailure(url)) {
+            removeUnavailableServer(url);
+            circuitBreakers.remove(url);
+            log.warn("Removed host '" + url + "' as it kept failing");
+        }
+    }
 }
@@ -15,27 +15,98 @@
 
 package org.kie.server.router.proxy;
 
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import io.undertow.util.AttachmentKey;
 
+/**
+ * Load balancing client that captures the selected host and skips hosts whose circuit breaker is open or which
+ * are weighted down for being much slower than the others.
+ */
 public class CaptureHostLoadBalancingProxyClient extends LoadBalancingProxyClient {
-    private String uri = null;
+
+    /**
+     * Url of the host selected for the exchange
+     */
+    public static final AttachmentKey<String> SELECTED_HOST = AttachmentKey.create(String.class);
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final Set<String> hostUris = new CopyOnWriteArraySet<>();
+
+    public CaptureHostLoadBalancingProxyClient() {
+        this(new CircuitBreakerRegistry());
+    }
+
+    public CaptureHostLoadBalancingProxyClient(CircuitBreakerRegistry circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+    }
+
     @Override
-    protected Host selectHost(HttpServerExchange exchange) {
-        Host host = super.selectHost(exchange);
+    public synchronized LoadBalancingProxyClient addHost(URI host) {
+        hostUris.add(host.toString());
+        return super.addHost(host);
+    }
 
-        if (host != null) {
-            uri = host.getUri().toString();
+    @Override
+    public synchronized LoadBalancingProxyClient removeHost(URI host) {
+        hostUris.remove(host.toString());
+        return super.removeHost(host);
+    }
+
+    @Override
+    protected Host selectHost(HttpServerExchange exchange) {
+        double fastestLatency = fastestLatency();
+        Host fallback = null;
+        // every call to super advances the round robin so each host is offered at most once
+        int attempts = Math.max(1, hostUris.size());
+        for (int i = 0; i < attempts; i++) {
+            Host host = super.selectHost(exchange);
+            if (host == null) {
+                break;
+            }
+            String hostUri = host.getUri().toString();
+            if (!circuitBreakers.isAvailable(hostUri)) {
+                continue;
+            }
+            if (circuitBreakers.isWeightedDown(hostUri, fastestLatency)) {
+                if (fallback == null) {
+                    fallback = host;
+                }
+                continue;
+            }
+            if (circuitBreakers.allowRequest(hostUri)) {
+                return capture(exchange, host);
+            }
+        }
+        if (fallback != null && circuitBreakers.allowRequest(fallback.getUri().toString())) {
+            return capture(exchange, fallback);
         }
 
-        return host;
+        return null;
     }
 
-    public String getUri() {
-        return uri;
+    public String getUri(HttpServerExchange exchange) {
+        return exchange.getAttachment(SELECTED_HOST);
     }
 
-    public void clear() {
-       uri = null;
+    private Host capture(HttpServerExchange exchange, Host host) {
+        String hostUri = host.getUri().toString();
+        exchange.putAttachment(SELECTED_HOST, hostUri);
+        return host;
+    }
+
+    private double fastestLatency() {
+        double fastest = -1;
+        for (String hostUri : hostUris) {
+            double latency = circuitBreakers.getAverageLatency(hostUri);
+            if (latency > 0 && (fastest < 0 || latency < fastest) && circuitBreakers.isAvailable(hostUri)) {
+                fastest = latency;
+            }
+        }
+        return fastest;
     }
 }
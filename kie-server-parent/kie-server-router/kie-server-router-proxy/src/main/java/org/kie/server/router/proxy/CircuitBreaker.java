@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+/**
+ * Circuit breaker of a single backend (kie server) url. Outcomes of the last requests are kept in a fixed size
+ * window; once the failure rate in the window reaches the threshold the breaker opens and no requests are routed
+ * to the backend. After the open time elapses a limited number of trial requests is let through (half open) -
+ * a successful trial closes the breaker again, a failed one opens it for another period.
+ * It also keeps moving average of the backend latency.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final String url;
+    private final CircuitBreakerRegistry.Settings settings;
+
+    // ring buffer of request outcomes, true means failure
+    private final boolean[] outcomes;
+    private int outcomeIndex;
+    private int outcomeCount;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsInFlight;
+    private int consecutiveOpenings;
+
+    private volatile double averageLatency = -1;
+
+    CircuitBreaker(String url, CircuitBreakerRegistry.Settings settings) {
+        this.url = url;
+        this.settings = settings;
+        this.outcomes = new boolean[settings.windowSize];
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns average latency of the backend in milliseconds or -1 if not known yet.
+     */
+    public double getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * Checks if request can be sent to the backend without acquiring a trial permit.
+     */
+    public synchronized boolean isAvailable(long now) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return now - openedAt >= settings.openTime;
+            default:
+                return trialsInFlight < settings.halfOpenTrials || now - openedAt >= settings.openTime;
+        }
+    }
+
+    /**
+     * Acquires permission to send a request to the backend - in half open state at most configured number of
+     * trial requests is allowed at the same time.
+     */
+    public synchronized boolean allowRequest(long now) {
+        // trials that never reported back are given up after another open time
+        if (state != State.CLOSED && now - openedAt >= settings.openTime) {
+            state = State.HALF_OPEN;
+            openedAt = now;
+            trialsInFlight = 0;
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (trialsInFlight < settings.halfOpenTrials) {
+                    trialsInFlight++;
+                    return true;
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records successful request.
+     * @param latency time the request took in milliseconds, negative if not known
+     */
+    public synchronized void recordSuccess(long latency) {
+        if (latency >= 0) {
+            recordLatency(latency);
+        }
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * Records failed request.
+     * @return true when the backend failed so many times in a row it should be removed
+     */
+    public synchronized boolean recordFailure(long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (outcomeCount >= settings.minRequests && failureCount * 100 >= settings.failureRate * outcomeCount) {
+                open(now);
+            }
+        }
+        return settings.ejectAfter > 0 && consecutiveOpenings >= settings.ejectAfter;
+    }
+
+    private void recordLatency(long latency) {
+        double current = averageLatency;
+        averageLatency = current < 0 ? latency : current + LATENCY_SMOOTHING * (latency - current);
+    }
+
+    private void record(boolean failure) {
+        if (outcomeCount == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = failure;
+        if (failure) {
+            failureCount++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        trialsInFlight = 0;
+        consecutiveOpenings++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        trialsInFlight = 0;
+        consecutiveOpenings = 0;
+        outcomeCount = 0;
+        outcomeIndex = 0;
+        failureCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker{url=" + url + ", state=" + state + ", failures=" + failureCount + "/" + outcomeCount
+                + ", latency=" + averageLatency + "}";
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.jboss.logging.Logger;
+import org.kie.server.router.KieServerRouterConstants;
+
+/**
+ * Keeps circuit breakers and latency of all backends (kie servers) the router forwards requests to. A backend
+ * that fails is not removed right away - its circuit breaker opens and it is retried after a while, only backends
+ * that keep failing are reported to be removed. Backends that are much slower than the fastest one are weighted
+ * down when selecting a host.
+ */
+public class CircuitBreakerRegistry {
+
+    private static final Logger log = Logger.getLogger(CircuitBreakerRegistry.class);
+
+    static class Settings {
+        final int failureRate;
+        final int windowSize;
+        final int minRequests;
+        final long openTime;
+        final int halfOpenTrials;
+        final int ejectAfter;
+        final double slowFactor;
+
+        Settings(int failureRate, int windowSize, int minRequests, long openTime, int halfOpenTrials, int ejectAfter, double slowFactor) {
+            this.failureRate = failureRate;
+            this.windowSize = Math.max(1, windowSize);
+            this.minRequests = Math.max(1, Math.min(minRequests, this.windowSize));
+            this.openTime = openTime;
+            this.halfOpenTrials = Math.max(1, halfOpenTrials);
+            this.ejectAfter = ejectAfter;
+            this.slowFactor = slowFactor;
+        }
+
+        static Settings fromSystemProperties() {
+            return new Settings(Integer.parseInt(System.getProperty(KieServerRouterConstants.BREAKER_FAILURE_RATE, "50")),
+                                Integer.parseInt(System.getProperty(KieServerRouterConstants.BREAKER_WINDOW_SIZE, "20")),
+                                Integer.parseInt(System.getProperty(KieServerRouterConstants.BREAKER_MIN_REQUESTS, "5")),
+                                Long.parseLong(System.getProperty(KieServerRouterConstants.BREAKER_OPEN_TIME, "30000")),
+                                Integer.parseInt(System.getProperty(KieServerRouterConstants.BREAKER_HALF_OPEN_TRIALS, "1")),
+                                Integer.parseInt(System.getProperty(KieServerRouterConstants.BREAKER_EJECT_AFTER, "10")),
+                                Double.parseDouble(System.getProperty(KieServerRouterConstants.BACKEND_SLOW_FACTOR, "2.0")));
+        }
+    }
+
+    private final Settings settings;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry() {
+        this(Settings.fromSystemProperties());
+    }
+
+    CircuitBreakerRegistry(Settings settings) {
+        this.settings = settings;
+    }
+
+    public CircuitBreaker getCircuitBreaker(String url) {
+        return breakers.computeIfAbsent(normalize(url), u -> new CircuitBreaker(u, settings));
+    }
+
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return breakers.values();
+    }
+
+    public void remove(String url) {
+        breakers.remove(normalize(url));
+    }
+
+    public boolean isAvailable(String url) {
+        return getCircuitBreaker(url).isAvailable(currentTime());
+    }
+
+    public boolean allowRequest(String url) {
+        return getCircuitBreaker(url).allowRequest(currentTime());
+    }
+
+    public void recordSuccess(String url, long latency) {
+        getCircuitBreaker(url).recordSuccess(latency);
+    }
+
+    /**
+     * Records failed request to given backend.
+     * @return true if the backend should be removed as it keeps failing
+     */
+    public boolean recordFailure(String url) {
+        CircuitBreaker breaker = getCircuitBreaker(url);
+        boolean eject = breaker.recordFailure(currentTime());
+        log.debugf("Recorded failure of %s", breaker);
+        return eject;
+    }
+
+    /**
+     * Decides if given backend should be skipped in favour of a faster one - backends slower than the configured
+     * factor of the fastest latency are accepted with probability proportional to their speed.
+     * @param url backend to check
+     * @param fastestLatency average latency of the fastest available backend
+     */
+    public boolean isWeightedDown(String url, double fastestLatency) {
+        double latency = getCircuitBreaker(url).getAverageLatency();
+        if (settings.slowFactor <= 0 || latency <= 0 || fastestLatency <= 0 || latency < fastestLatency * settings.slowFactor) {
+            return false;
+        }
+        return ThreadLocalRandom.current().nextDouble() >= fastestLatency / latency;
+    }
+
+    public double getAverageLatency(String url) {
+        return getCircuitBreaker(url).getAverageLatency();
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    // URI.toString of a host and server urls from configuration may differ in trailing slash
+    private static String normalize(String url) {
+        if (url.endsWith("/")) {
+            return url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+}
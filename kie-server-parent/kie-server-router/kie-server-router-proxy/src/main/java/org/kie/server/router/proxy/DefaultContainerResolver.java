@@ -17,35 +17,76 @@ package org.kie.server.router.proxy;
 
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import io.undertow.server.HttpServerExchange;
 import org.kie.server.router.ContainerInfo;
 import org.kie.server.router.spi.ContainerResolver;
 
+/**
+ * Resolves container id from the request path - uses the segment that follows the last <code>/containers/</code>
+ * segment if that is a known container, otherwise the segment that follows the last
+ * <code>/containers/instances/</code>. The path is scanned once, segment by segment, and only the candidate
+ * container ids are extracted from it.
+ */
 public class DefaultContainerResolver implements ContainerResolver {
 
-    private Pattern p = Pattern.compile(".*/containers/([^/]+).*");
-    private Pattern p2 = Pattern.compile(".*/containers/instances/([^/]+).*");
+    private static final String CONTAINERS = "containers";
+    private static final String INSTANCES = "instances";
 
     @Override
     public String resolveContainerId(HttpServerExchange exchange, Map<String, Set<ContainerInfo>> containerInfoPerContainer) {
-        String relativePath = exchange.getRelativePath();
-        Matcher matcher = p.matcher(relativePath);
+        return resolveContainerId(exchange.getRelativePath(), containerInfoPerContainer.keySet());
+    }
+
+    protected String resolveContainerId(String relativePath, Set<String> knownContainers) {
+        // boundaries of the segments following the last "/containers/" and "/containers/instances/"
+        int containerStart = -1;
+        int containerEnd = -1;
+        int instanceStart = -1;
+        int instanceEnd = -1;
 
-        Set<String> knownContainers = containerInfoPerContainer.keySet();
+        // state of the previous two segments, so the scan never has to look back
+        boolean previousIsContainers = false;
+        boolean previousIsContainersInstances = false;
 
-        if (matcher.find()) {
-            String containerId = matcher.group(1);
+        int length = relativePath.length();
+        int segmentStart = relativePath.indexOf('/');
+        while (segmentStart != -1) {
+            segmentStart++;
+            int segmentEnd = relativePath.indexOf('/', segmentStart);
+            if (segmentEnd == -1) {
+                segmentEnd = length;
+            }
+            int segmentLength = segmentEnd - segmentStart;
+
+            if (segmentLength > 0) {
+                if (previousIsContainers) {
+                    containerStart = segmentStart;
+                    containerEnd = segmentEnd;
+                }
+                if (previousIsContainersInstances) {
+                    instanceStart = segmentStart;
+                    instanceEnd = segmentEnd;
+                }
+            }
+            // "containers" as the last segment only matches when followed by a slash
+            boolean followedBySlash = segmentEnd < length;
+            previousIsContainersInstances = previousIsContainers && followedBySlash && segmentLength == INSTANCES.length()
+                    && relativePath.regionMatches(segmentStart, INSTANCES, 0, segmentLength);
+            previousIsContainers = followedBySlash && segmentLength == CONTAINERS.length()
+                    && relativePath.regionMatches(segmentStart, CONTAINERS, 0, segmentLength);
+
+            segmentStart = followedBySlash ? segmentEnd : -1;
+        }
+
+        if (containerStart != -1) {
+            String containerId = relativePath.substring(containerStart, containerEnd);
             if (knownContainers.contains(containerId)) {
                 return containerId;
             }
         }
-        matcher = p2.matcher(relativePath);
-
-        if (matcher.find()) {
-            return matcher.group(1);
+        if (instanceStart != -1) {
+            return relativePath.substring(instanceStart, instanceEnd);
         }
         return NOT_FOUND;
     }
@@ -27,6 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
 import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
 import io.undertow.server.handlers.proxy.ProxyCallback;
 import io.undertow.server.handlers.proxy.ProxyClient;
@@ -42,6 +43,11 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
 
     private static final Logger log = Logger.getLogger(KieServerProxyClient.class);
 
+    /**
+     * Container id resolved for the exchange, so it is resolved only once per request
+     */
+    public static final AttachmentKey<String> CONTAINER_ID = AttachmentKey.create(String.class);
+
     private ServiceLoader<ContainerResolver> containerResolverServiceLoader = ServiceLoader.load(ContainerResolver.class);
     private ServiceLoader<RestrictionPolicy> restrictionPolicyServiceLoader = ServiceLoader.load(RestrictionPolicy.class);
     
@@ -80,7 +86,7 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
 
         CaptureHostLoadBalancingProxyClient client = containerClients.get(containerId);
         if (client == null) {
-            client = new CaptureHostLoadBalancingProxyClient();
+            client = new CaptureHostLoadBalancingProxyClient(adminHandler.getCircuitBreakers());
             containerClients.put(containerId, client);
         }
         client.addHost(serverURI);
@@ -99,7 +105,7 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
     @Override
     public ProxyTarget findTarget(HttpServerExchange exchange) {
         
-        String containerId = containerResolver.resolveContainerId(exchange, configuration.getContainerInfosPerContainer());
+        String containerId = resolveContainerId(exchange);
         if (restrictionPolicy.restrictedEndpoint(exchange, containerId)) {
             log.debugf("URL %s is restricted according to policy %s", exchange.getRelativePath(), restrictionPolicy.toString());
             return null;
@@ -115,22 +121,35 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
 
     @Override
     public void getConnection(ProxyTarget target, HttpServerExchange exchange, final ProxyCallback<ProxyConnection> callback, long timeout, TimeUnit timeUnit) {
-        String containerId = containerResolver.resolveContainerId(exchange, configuration.getContainerInfosPerContainer());
+        String containerId = resolveContainerId(exchange);
         CaptureHostLoadBalancingProxyClient client = containerClients.get(containerId);
+        final long start = System.currentTimeMillis();
         try {
             client.getConnection(target, exchange, new ProxyCallback<ProxyConnection>() {
                 @Override
                 public void completed(HttpServerExchange exchange, ProxyConnection result) {
+                    String hostUri = client.getUri(exchange);
+                    if (hostUri != null) {
+                        exchange.addExchangeCompleteListener((completedExchange, nextListener) -> {
+                            try {
+                                recordResponse(hostUri, completedExchange.getStatusCode(), System.currentTimeMillis() - start);
+                            } finally {
+                                nextListener.proceed();
+                            }
+                        });
+                    }
                     callback.completed(exchange, result);
                 }
 
                 @Override
                 public void failed(HttpServerExchange httpServerExchange) {
                     try {
-                        adminHandler.removeUnavailableServer(client.getUri());
+                        String hostUri = client.getUri(exchange);
+                        if (hostUri != null) {
+                            adminHandler.backendFailed(hostUri);
+                        }
                     } finally {
                         callback.failed(exchange);
-                        client.clear();
                     }
                 }
 
@@ -145,14 +164,33 @@ public class KieServerProxyClient implements ProxyClient, ConfigurationListener
                 }
             }, timeout, timeUnit);
         } catch (Exception e) {
-            if (e instanceof SocketException || e instanceof UnknownHostException || e instanceof UnresolvedAddressException ) {
-                adminHandler.removeUnavailableServer(client.getUri());
+            String hostUri = client.getUri(exchange);
+            if (hostUri != null && (e instanceof SocketException || e instanceof UnknownHostException || e instanceof UnresolvedAddressException)) {
+                adminHandler.backendFailed(hostUri);
             }
 
             throw new RuntimeException(e);
         }
     }
 
+    protected void recordResponse(String hostUri, int statusCode, long latency) {
+        // gateway errors mean the server did not respond in time or is not able to handle requests
+        if (statusCode >= 502 && statusCode <= 504) {
+            adminHandler.backendFailed(hostUri);
+        } else {
+            adminHandler.getCircuitBreakers().recordSuccess(hostUri, latency);
+        }
+    }
+
+    protected String resolveContainerId(HttpServerExchange exchange) {
+        String containerId = exchange.getAttachment(CONTAINER_ID);
+        if (containerId == null) {
+            containerId = containerResolver.resolveContainerId(exchange, configuration.getContainerInfosPerContainer());
+            exchange.putAttachment(CONTAINER_ID, containerId);
+        }
+        return containerId;
+    }
+
     @Override
     public void onContainerAdded(String container, String serverUrl) {
         addContainer(container, URI.create(serverUrl));
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CircuitBreakerRegistryTest {
+
+    private static final String URL = "http://localhost:8080/kie-server/services/rest/server";
+
+    private long now = 1000;
+
+    private CircuitBreakerRegistry registry = new CircuitBreakerRegistry(new CircuitBreakerRegistry.Settings(50, 10, 4, 5000, 1, 3, 2.0)) {
+        @Override
+        protected long currentTime() {
+            return now;
+        }
+    };
+
+    @Test
+    public void testSingleFailureDoesNotOpenBreaker() {
+        assertFalse(registry.recordFailure(URL));
+        assertTrue(registry.isAvailable(URL));
+        assertEquals(CircuitBreaker.State.CLOSED, registry.getCircuitBreaker(URL).getState());
+    }
+
+    @Test
+    public void testBreakerOpensOnFailureRate() {
+        registry.recordSuccess(URL, 10);
+        registry.recordSuccess(URL, 10);
+        registry.recordFailure(URL);
+        assertTrue(registry.isAvailable(URL));
+        registry.recordFailure(URL);
+
+        assertEquals(CircuitBreaker.State.OPEN, registry.getCircuitBreaker(URL).getState());
+        assertFalse(registry.isAvailable(URL));
+        assertFalse(registry.allowRequest(URL));
+    }
+
+    @Test
+    public void testHalfOpenTrialClosesBreaker() {
+        openBreaker();
+
+        now += 5000;
+        assertTrue(registry.isAvailable(URL));
+        assertTrue(registry.allowRequest(URL));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, registry.getCircuitBreaker(URL).getState());
+        // only one trial at a time
+        assertFalse(registry.allowRequest(URL));
+
+        registry.recordSuccess(URL, 10);
+        assertEquals(CircuitBreaker.State.CLOSED, registry.getCircuitBreaker(URL).getState());
+        assertTrue(registry.allowRequest(URL));
+    }
+
+    @Test
+    public void testFailedTrialReopensBreakerAndEjectsAfterRepeatedOpenings() {
+        openBreaker();
+
+        now += 5000;
+        assertTrue(registry.allowRequest(URL));
+        assertFalse(registry.recordFailure(URL));
+        assertEquals(CircuitBreaker.State.OPEN, registry.getCircuitBreaker(URL).getState());
+
+        now += 5000;
+        assertTrue(registry.allowRequest(URL));
+        // third opening in a row means the server should be removed
+        assertTrue(registry.recordFailure(URL));
+    }
+
+    @Test
+    public void testTrialWithoutOutcomeIsGivenUp() {
+        openBreaker();
+
+        now += 5000;
+        assertTrue(registry.allowRequest(URL));
+        assertFalse(registry.allowRequest(URL));
+
+        now += 5000;
+        assertTrue(registry.allowRequest(URL));
+    }
+
+    @Test
+    public void testSlowBackendIsWeightedDown() {
+        String slow = "http://slow:8080/kie-server/services/rest/server";
+        registry.recordSuccess(URL, 10);
+        registry.recordSuccess(slow, 1000);
+
+        assertFalse(registry.isWeightedDown(URL, 10));
+
+        int weightedDown = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (registry.isWeightedDown(slow, 10)) {
+                weightedDown++;
+            }
+        }
+        // accepted with ~1% probability
+        assertTrue(weightedDown > 950);
+        assertTrue(registry.isAvailable(slow));
+    }
+
+    @Test
+    public void testTrailingSlashIsIgnored() {
+        openBreaker();
+        assertFalse(registry.isAvailable(URL + "/"));
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            registry.recordFailure(URL);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, registry.getCircuitBreaker(URL).getState());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.router.proxy;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.undertow.server.HttpServerExchange;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.server.router.ContainerInfo;
+import org.kie.server.router.spi.ContainerResolver;
+
+public class DefaultContainerResolverTest {
+
+    private DefaultContainerResolver resolver = new DefaultContainerResolver();
+    private Map<String, Set<ContainerInfo>> containers = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        containers.put("evaluation", new HashSet<>());
+        containers.put("evaluation_1.0", new HashSet<>());
+    }
+
+    @Test
+    public void testResolveKnownContainer() {
+        assertEquals("evaluation", resolve("/containers/evaluation"));
+        assertEquals("evaluation", resolve("/server/containers/evaluation/processes/evaluation/instances"));
+        assertEquals("evaluation_1.0", resolve("/kie-server/services/rest/server/containers/evaluation_1.0/tasks"));
+    }
+
+    @Test
+    public void testResolveProcessInstanceContainer() {
+        assertEquals("unknown", resolve("/server/containers/instances/unknown"));
+        assertEquals("unknown", resolve("/server/containers/instances/unknown/variables"));
+        // "instances" is a valid container id too
+        containers.put("instances", new HashSet<>());
+        assertEquals("instances", resolve("/server/containers/instances/unknown"));
+    }
+
+    @Test
+    public void testResolveUsesLastContainersSegment() {
+        assertEquals("evaluation", resolve("/containers/other/containers/evaluation"));
+        assertEquals("evaluation", resolve("/containers/evaluation/containers/"));
+        assertEquals("second", resolve("/containers/instances/first/containers/instances/second"));
+    }
+
+    @Test
+    public void testResolveNotFound() {
+        assertEquals(ContainerResolver.NOT_FOUND, resolve(""));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("/"));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("/server/queries/processes/instances"));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("/containers/unknown"));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("/containers"));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("/containers//evaluation"));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("containers/evaluation"));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("/mycontainers/evaluation"));
+        assertEquals(ContainerResolver.NOT_FOUND, resolve("/containers/instances"));
+    }
+
+    private String resolve(String relativePath) {
+        HttpServerExchange exchange = new HttpServerExchange(null);
+        exchange.setRelativePath(relativePath);
+        return resolver.resolveContainerId(exchange, containers);
+    }
+}
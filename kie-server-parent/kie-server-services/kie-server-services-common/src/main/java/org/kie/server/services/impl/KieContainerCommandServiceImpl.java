@@ -15,6 +15,7 @@
 
 package org.kie.server.services.impl;
 
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
 import org.drools.core.command.impl.ExecutableCommand;
 import org.drools.core.command.runtime.BatchExecutionCommandImpl;
 import org.kie.api.command.Command;
@@ -40,6 +41,7 @@ import org.kie.server.api.model.ServiceResponsesList;
 import org.kie.server.services.api.KieContainerCommandService;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.locator.ContainerLocatorProvider;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,8 +72,14 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
         if( payload == null ) {
             return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.FAILURE, "Error calling container " + containerId + ". Empty payload. ");
         }
+        KieContainerInstanceImpl kci = null;
+        InternalKieContainer kieContainer = null;
         try {
-            KieContainerInstanceImpl kci = (KieContainerInstanceImpl) context.getContainer( containerId, ContainerLocatorProvider.get().getLocator() );
+            kci = (KieContainerInstanceImpl) context.getContainer( containerId, ContainerLocatorProvider.get().getLocator() );
+            if (kci != null) {
+                // keeps the container from being disposed when it is replaced during the call
+                kieContainer = kci.acquireKieContainer();
+            }
             // the following code is subject to a concurrent call to dispose(), but the cost of synchronizing it
             // would likely not be worth it. At this point a decision was made to fail the execution if a concurrent
             // call do dispose() is executed.
@@ -106,7 +114,15 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
                         cmd = new BatchExecutionCommandImpl(Arrays.asList(new ExecutableCommand<?>[]{(ExecutableCommand<?>) cmd} ));
                     }
 
-                    ExecutionResults results = ks.execute((BatchExecutionCommandImpl) cmd);
+                    long start = KieServerMetrics.get().start();
+                    boolean success = false;
+                    ExecutionResults results;
+                    try {
+                        results = ks.execute((BatchExecutionCommandImpl) cmd);
+                        success = true;
+                    } finally {
+                        KieServerMetrics.get().record(KieServerMetrics.RULES, "batch", containerId, marshallingFormat.name(), start, success);
+                    }
                     if (marshallResponse) {
                         Marshaller marshaller = kci.getMarshaller(marshallingFormat);
                         String result = marshaller.marshall(results);
@@ -126,6 +142,10 @@ public class KieContainerCommandServiceImpl implements KieContainerCommandServic
             logger.error("Error calling container '" + containerId + "'", e);
             return new ServiceResponse<ExecutionResults>(ServiceResponse.ResponseType.FAILURE, "Error calling container " + containerId + ": " +
                     e.getClass().getName() + ": " + e.getMessage());
+        } finally {
+            if (kci != null) {
+                kci.releaseKieContainer(kieContainer);
+            }
         }
     }
 
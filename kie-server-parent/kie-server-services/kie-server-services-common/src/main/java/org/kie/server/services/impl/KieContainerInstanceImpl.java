@@ -27,23 +27,39 @@ import org.kie.server.api.model.KieScannerResource;
 import org.kie.server.api.model.KieScannerStatus;
 import org.kie.server.api.model.ReleaseId;
 import org.kie.server.services.api.KieContainerInstance;
+import org.kie.server.services.impl.admission.ContainerBulkhead;
 
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class KieContainerInstanceImpl implements KieContainerInstance {
 
     private KieContainerResource               resource;
-    private InternalKieContainer               kieContainer;
+    private volatile InternalKieContainer      kieContainer;
     private InternalKieScanner                 scanner;
-    private transient Map<MarshallingFormat, Marshaller> marshallers;
+    // marshallers indexed by format ordinal, lookups are lock free, creation and dispose are guarded by marshallersLock
+    private transient AtomicReferenceArray<Marshaller> marshallers;
+    private final Object marshallersLock = new Object();
+
+    // KieContainer state the resource's release ids were built from, compared by identity to skip needless updates
+    private transient volatile InternalKieContainer releaseIdsContainer;
+    private transient org.kie.api.builder.ReleaseId releaseIdsContainerReleaseId;
+    private transient org.kie.api.builder.ReleaseId releaseIdsResolvedReleaseId;
 
     private transient Map<String, Object> serviceContainer;
 
     private transient Set<Class<?>> extraClasses = new HashSet<Class<?>>();
 
+    // number of requests currently executed per KieContainer, so a replaced container can be drained before dispose
+    private transient ConcurrentMap<InternalKieContainer, Integer> activeRequests = new ConcurrentHashMap<InternalKieContainer, Integer>();
+
+    // limits concurrent requests to this container, null when not configured
+    private transient volatile ContainerBulkhead bulkhead;
+
     public KieContainerInstanceImpl(String containerId, KieContainerStatus status) {
         this(containerId, status, null);
     }
@@ -59,7 +75,7 @@ public class KieContainerInstanceImpl implements KieContainerInstance {
         // set the default scanner state to DISPOSED (which is the actual default state)
         // this way we don't need to do null checks all around for the scanner resource
         this.resource.setScanner(new KieScannerResource(KieScannerStatus.DISPOSED));
-        this.marshallers = new ConcurrentHashMap<MarshallingFormat, Marshaller>();
+        this.marshallers = new AtomicReferenceArray<Marshaller>(MarshallingFormat.values().length);
         this.serviceContainer = new ConcurrentHashMap<String, Object>();
         updateReleaseId();
     }
@@ -106,6 +122,82 @@ public class KieContainerInstanceImpl implements KieContainerInstance {
         updateReleaseId();
     }
 
+    /**
+     * Replaces the KieContainer of this instance with the given, already built one. Marshallers and extra classes
+     * belong to the replaced container so they are dropped and must be set up again for the new one.
+     *
+     * @param kieContainer new KieContainer to be used by this instance
+     *
+     * @return replaced KieContainer, which is not disposed - it might still be used by requests in flight
+     */
+    public InternalKieContainer swapKieContainer(InternalKieContainer kieContainer) {
+        InternalKieContainer previous;
+        synchronized ( marshallersLock ) {
+            previous = this.kieContainer;
+            this.kieContainer = kieContainer;
+            disposeMarshallers();
+        }
+        clearExtraClasses();
+        updateReleaseId();
+        return previous;
+    }
+
+    /**
+     * Returns the current KieContainer and registers a request using it, each call must be followed
+     * by {@link #releaseKieContainer(InternalKieContainer)} once the request is done.
+     *
+     * @return KieContainer to be used by the request or null if there is none
+     */
+    public InternalKieContainer acquireKieContainer() {
+        while (true) {
+            InternalKieContainer container = this.kieContainer;
+            if (container == null) {
+                return null;
+            }
+            activeRequests.merge(container, 1, Integer::sum);
+            if (container == this.kieContainer) {
+                return container;
+            }
+            // container was swapped in the meantime, retry with the new one
+            releaseKieContainer(container);
+        }
+    }
+
+    public void releaseKieContainer(InternalKieContainer container) {
+        if (container == null) {
+            return;
+        }
+        activeRequests.computeIfPresent(container, (c, count) -> count > 1 || c == this.kieContainer ? count - 1 : null);
+    }
+
+    /**
+     * Waits until there are no requests using given (no longer current) KieContainer.
+     *
+     * @param container replaced KieContainer
+     * @param timeout maximum time to wait in milliseconds
+     *
+     * @return true if all requests are done, false if the timeout elapsed first
+     */
+    public boolean awaitRequests(InternalKieContainer container, long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        while (activeRequests.getOrDefault(container, 0) > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        activeRequests.remove(container);
+        return true;
+    }
+
+    public ContainerBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public void setBulkhead(ContainerBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
     public KieContainerStatus getStatus() {
         return resource.getStatus();
     }
@@ -122,6 +214,7 @@ public class KieContainerInstanceImpl implements KieContainerInstance {
 
     public void setResource(KieContainerResource resource) {
         this.resource = resource;
+        this.releaseIdsContainer = null;
     }
 
     public InternalKieScanner getScanner() {
@@ -169,22 +262,41 @@ public class KieContainerInstanceImpl implements KieContainerInstance {
     }
 
     public Marshaller getMarshaller(MarshallingFormat format) {
-        synchronized ( marshallers ) {
-            Marshaller marshaller = marshallers.get( format );
+        Marshaller marshaller = marshallers.get( format.ordinal() );
+        if ( marshaller != null ) {
+            return marshaller;
+        }
+        synchronized ( marshallersLock ) {
+            marshaller = marshallers.get( format.ordinal() );
             if ( marshaller == null ) {
                 marshaller = MarshallerFactory.getMarshaller( getExtraClasses(), format, this.kieContainer.getClassLoader() );
-                this.marshallers.put( format, marshaller );
+                this.marshallers.set( format.ordinal(), marshaller );
             }
             return marshaller;
         }
     }
 
+    /**
+     * Returns formats of the marshallers created so far.
+     */
+    public Set<MarshallingFormat> getMarshallingFormats() {
+        Set<MarshallingFormat> formats = new HashSet<MarshallingFormat>();
+        for ( MarshallingFormat format : MarshallingFormat.values() ) {
+            if ( marshallers.get( format.ordinal() ) != null ) {
+                formats.add( format );
+            }
+        }
+        return formats;
+    }
+
     public void disposeMarshallers() {
-        synchronized ( marshallers ) {
-            for ( Marshaller marshaller : this.marshallers.values() ) {
-                marshaller.dispose();
+        synchronized ( marshallersLock ) {
+            for ( int i = 0; i < this.marshallers.length(); i++ ) {
+                Marshaller marshaller = this.marshallers.getAndSet( i, null );
+                if ( marshaller != null ) {
+                    marshaller.dispose();
+                }
             }
-            this.marshallers.clear();
         }
     }
 
@@ -230,12 +342,27 @@ public class KieContainerInstanceImpl implements KieContainerInstance {
     }
 
     protected void updateReleaseId() {
+        InternalKieContainer container = this.kieContainer;
+        if ( container == null ) {
+            return;
+        }
+        // release ids of the KieContainer only change when it is replaced or updated to another version,
+        // which gives them new instances, so the common case is answered without any allocation
+        if ( container == releaseIdsContainer
+                && container.getContainerReleaseId() == releaseIdsContainerReleaseId
+                && container.getReleaseId() == releaseIdsResolvedReleaseId ) {
+            return;
+        }
+        updateReleaseId( container );
+    }
+
+    private synchronized void updateReleaseId(InternalKieContainer kieContainer) {
+        org.kie.api.builder.ReleaseId containerReleaseId = kieContainer.getContainerReleaseId();
+        org.kie.api.builder.ReleaseId resolvedReleaseId = kieContainer.getReleaseId();
         ReleaseId oldReleaseId = this.resource.getReleaseId();
         ReleaseId oldResolvedReleaseId = this.resource.getResolvedReleaseId();
-        if ( kieContainer != null ) {
-            this.resource.setReleaseId( new ReleaseId( kieContainer.getContainerReleaseId() ) );
-            this.resource.setResolvedReleaseId( new ReleaseId( kieContainer.getReleaseId() ) );
-        }
+        this.resource.setReleaseId( new ReleaseId( containerReleaseId ) );
+        this.resource.setResolvedReleaseId( new ReleaseId( resolvedReleaseId ) );
         // marshallers need to disposed in case the container was updated with different releaseId
         // proper solution is to attach listener directly to the KieScanner and dispose the marshallers,
         // but those listeners are not (yet) available, so this is a temporary hackish "solution"
@@ -243,6 +370,9 @@ public class KieContainerInstanceImpl implements KieContainerInstance {
                 || releaseIdUpdated(oldResolvedReleaseId, this.resource.getResolvedReleaseId())) {
             disposeMarshallers();
         }
+        this.releaseIdsContainerReleaseId = containerReleaseId;
+        this.releaseIdsResolvedReleaseId = resolvedReleaseId;
+        this.releaseIdsContainer = kieContainer;
     }
 
     /**
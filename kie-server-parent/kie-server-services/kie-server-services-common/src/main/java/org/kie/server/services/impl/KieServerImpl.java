@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -40,6 +41,7 @@ import org.kie.scanner.KieModuleMetaData;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.KieServerEnvironment;
 import org.kie.server.api.Version;
+import org.kie.server.api.marshalling.MarshallingFormat;
 import org.kie.server.api.model.KieContainerResource;
 import org.kie.server.api.model.KieContainerResourceFilter;
 import org.kie.server.api.model.KieContainerResourceList;
@@ -60,6 +62,8 @@ import org.kie.server.services.api.KieControllerNotDefinedException;
 import org.kie.server.services.api.KieServer;
 import org.kie.server.services.api.KieServerExtension;
 import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.admission.ContainerBulkhead;
+import org.kie.server.services.impl.cache.CompiledKieModuleCache;
 import org.kie.server.services.impl.controller.ControllerConnectRunnable;
 import org.kie.server.services.impl.controller.DefaultRestControllerImpl;
 import org.kie.server.services.impl.locator.ContainerLocatorProvider;
@@ -92,6 +96,9 @@ public class KieServerImpl implements KieServer {
 
     private KieServerEventSupport eventSupport = new KieServerEventSupport();
 
+    // null unless caching of compiled kjars is enabled
+    private final CompiledKieModuleCache moduleCache = CompiledKieModuleCache.fromSystemProperties();
+
     public KieServerImpl() {
         this(new KieServerStateFileRepository());
     }
@@ -210,6 +217,9 @@ public class KieServerImpl implements KieServer {
                 logger.error("Error when destroying server extension of type {}", extension, e);
             }
         }
+        if (repository instanceof KieServerStateFileRepository) {
+            ((KieServerStateFileRepository) repository).close();
+        }
         eventSupport.fireAfterServerStopped(this);
     }
 
@@ -265,11 +275,11 @@ public class KieServerImpl implements KieServer {
                 if (previous == null) {
                     try {
                         eventSupport.fireBeforeContainerStarted(this, ci);
-                        KieServices ks = KieServices.Factory.get();
-                        InternalKieContainer kieContainer = (InternalKieContainer) ks.newKieContainer(containerId, releaseId);
+                        InternalKieContainer kieContainer = newKieContainer(containerId, releaseId);
                         if (kieContainer != null) {
                             ci.setKieContainer(kieContainer);
                             ci.getResource().setConfigItems(container.getConfigItems());
+                            ci.setBulkhead(ContainerBulkhead.fromConfig(containerId, container.getConfigItems()));
                             logger.debug("Container {} (for release id {}) general initialization: DONE", containerId, releaseId);
 
                             Map<String, Object> parameters = getCreateContainerParameters(releaseId);
@@ -723,6 +733,10 @@ public class KieServerImpl implements KieServer {
                     }
                     logger.debug("Container {} (for release id {}) on {} ready to be updated", id, releaseId, extension);
                 }
+                // scanner is bound to the KieContainer it was created for so such containers are always updated in place
+                if (isContainerUpgradeSwap() && kci.getScanner() == null) {
+                    return swapContainerReleaseId(id, kci, releaseId, parameters, messages);
+                }
                 kci.clearExtraClasses();
                 kci.disposeMarshallers();
                 Results results = kci.getKieContainer().updateToVersion(releaseId);
@@ -742,20 +756,7 @@ public class KieServerImpl implements KieServer {
                         extension.updateContainer(id, kci, parameters);
                         logger.debug("Container {} (for release id {}) on {} updated successfully", id, releaseId, extension);
                     }
-                    // store the current state of the server
-                    KieServerState currentState = repository.load(KieServerEnvironment.getServerId());
-
-                    List<KieContainerResource> containers = new ArrayList<KieContainerResource>();
-                    for (KieContainerResource containerResource : currentState.getContainers()) {
-                        if ( id.equals(containerResource.getContainerId()) ) {
-                            containerResource.setReleaseId(releaseId);
-                            containerResource.setResolvedReleaseId(new ReleaseId(kci.getKieContainer().getContainerReleaseId()));
-                        }
-                        containers.add(containerResource);
-                    }
-
-                    currentState.setContainers(new HashSet<KieContainerResource>(containers));
-                    repository.store(KieServerEnvironment.getServerId(), currentState);
+                    storeContainerReleaseId(id, releaseId, kci);
 
                     logger.info("Container {} successfully updated to release id {}", id, releaseId);
 
@@ -784,6 +785,108 @@ public class KieServerImpl implements KieServer {
         }
     }
 
+    protected InternalKieContainer newKieContainer(String containerId, ReleaseId releaseId) {
+        if (moduleCache != null) {
+            return moduleCache.newKieContainer(containerId, releaseId);
+        }
+        return (InternalKieContainer) KieServices.Factory.get().newKieContainer(containerId, releaseId);
+    }
+
+    /**
+     * Upgrades the container by building a new KieContainer aside while the current one keeps serving requests.
+     * Once the new one is verified and its kie bases are created it replaces the current one, extensions are updated
+     * and marshallers in use are created again. The replaced KieContainer is disposed after requests still using it
+     * are done - REST and JMS requests addressing the container and rule executions register the KieContainer they use,
+     * work not bound to a request (e.g. jBPM timers and async jobs) does not and relies on extensions' updateContainer.
+     * When the new KieContainer cannot be built or verified the server is left as it was.
+     */
+    protected ServiceResponse<ReleaseId> swapContainerReleaseId(String id, KieContainerInstanceImpl kci, ReleaseId releaseId, Map<String, Object> parameters, List<Message> messages) {
+        // container id is unique in KieServices and stays registered to the current KieContainer until it is disposed,
+        // so the new one is built under an id of its own
+        InternalKieContainer kieContainer = newKieContainer(id + "-" + UUID.randomUUID(), releaseId);
+        try {
+            Results results = kieContainer.verify();
+            if (results.hasMessages(Level.ERROR)) {
+                kieContainer.dispose();
+
+                Message error = new Message(Severity.WARN, "Error updating releaseId for container " + id + " to version " + releaseId);
+                for (org.kie.api.builder.Message builderMsg : results.getMessages()) {
+                    error.addMessage(builderMsg.getText());
+                }
+                messages.add(error);
+                logger.error("Error updating releaseId for container " + id + " to version " + releaseId + "\nMessages: " + results.getMessages());
+                return new ServiceResponse<ReleaseId>(ServiceResponse.ResponseType.FAILURE, "Error updating release id on container " + id + " to " + releaseId, kci.getResource().getReleaseId());
+            }
+            for (String kbase : kieContainer.getKieBaseNames()) {
+                kieContainer.getKieBase(kbase);
+            }
+        } catch (RuntimeException e) {
+            kieContainer.dispose();
+            throw e;
+        }
+        logger.debug("Container {} (for release id {}) built and verified, swapping it in", id, releaseId);
+
+        Set<MarshallingFormat> formats = kci.getMarshallingFormats();
+        InternalKieContainer previous = null;
+        try {
+            synchronized (kci) {
+                previous = kci.swapKieContainer(kieContainer);
+                // once the upgrade was successful, notify all extensions so they can be upgraded (if needed)
+                for (KieServerExtension extension : context.getServerExtensions()) {
+                    extension.updateContainer(id, kci, parameters);
+                    logger.debug("Container {} (for release id {}) on {} updated successfully", id, releaseId, extension);
+                }
+            }
+            for (MarshallingFormat format : formats) {
+                kci.getMarshaller(format);
+            }
+        } finally {
+            disposeReplacedContainer(id, kci, previous);
+        }
+        storeContainerReleaseId(id, releaseId, kci);
+
+        logger.info("Container {} successfully updated to release id {}", id, releaseId);
+
+        messages.add(new Message(Severity.INFO, "Release id successfully updated for container " + id));
+        return new ServiceResponse<ReleaseId>(ServiceResponse.ResponseType.SUCCESS, "Release id successfully updated.", kci.getResource().getReleaseId());
+    }
+
+    private void disposeReplacedContainer(String id, KieContainerInstanceImpl kci, InternalKieContainer previous) {
+        if (previous == null) {
+            return;
+        }
+        long timeout = Long.parseLong(System.getProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_DRAIN_TIMEOUT, "30000"));
+        try {
+            if (!kci.awaitRequests(previous, timeout)) {
+                logger.warn("Requests on container {} (for release id {}) did not finish within {} ms, disposing it anyway", id, previous.getReleaseId(), timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        previous.dispose();
+    }
+
+    private void storeContainerReleaseId(String id, ReleaseId releaseId, KieContainerInstanceImpl kci) {
+        // store the current state of the server
+        KieServerState currentState = repository.load(KieServerEnvironment.getServerId());
+
+        List<KieContainerResource> containers = new ArrayList<KieContainerResource>();
+        for (KieContainerResource containerResource : currentState.getContainers()) {
+            if ( id.equals(containerResource.getContainerId()) ) {
+                containerResource.setReleaseId(releaseId);
+                containerResource.setResolvedReleaseId(new ReleaseId(kci.getKieContainer().getContainerReleaseId()));
+            }
+            containers.add(containerResource);
+        }
+
+        currentState.setContainers(new HashSet<KieContainerResource>(containers));
+        repository.store(KieServerEnvironment.getServerId(), currentState);
+    }
+
+    protected boolean isContainerUpgradeSwap() {
+        return Boolean.parseBoolean(System.getProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP, "false"));
+    }
+
     public ServiceResponse<KieServerStateInfo> getServerState() {
         try {
             KieServerState currentState = repository.load(KieServerEnvironment.getServerId());
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.admission;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieServerConfig;
+import org.kie.server.api.model.KieServerConfigItem;
+
+/**
+ * Limits number of requests executed concurrently for single container so one container cannot take all
+ * request threads of the server. Requests over the limit wait in a bounded queue for at most given time,
+ * once the queue is full they are rejected right away.
+ * <p>
+ * Limits are configured with container config items:
+ * <ul>
+ *     <li>{@link KieServerConstants#CCFG_MAX_CONCURRENT_REQUESTS} - requests executed at the same time, no limit when not set</li>
+ *     <li>{@link KieServerConstants#CCFG_MAX_QUEUED_REQUESTS} - requests waiting for execution, defaults to 0</li>
+ *     <li>{@link KieServerConstants#CCFG_MAX_QUEUE_WAIT} - time in milliseconds request may wait, defaults to 1000</li>
+ * </ul>
+ * Every successful {@link #acquire()} must be followed by {@link #release()}.
+ */
+public class ContainerBulkhead implements ContainerBulkheadMBean {
+
+    private final String containerId;
+    private final int maxConcurrentRequests;
+    private final int maxQueuedRequests;
+    private final long maxQueueWait;
+
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public ContainerBulkhead(String containerId, int maxConcurrentRequests, int maxQueuedRequests, long maxQueueWait) {
+        this.containerId = containerId;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxQueuedRequests = Math.max(0, maxQueuedRequests);
+        this.maxQueueWait = Math.max(0, maxQueueWait);
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    /**
+     * Creates bulkhead based on container config items, returns null when the container has no limit configured.
+     */
+    public static ContainerBulkhead fromConfig(String containerId, List<KieServerConfigItem> configItems) {
+        KieServerConfig config = new KieServerConfig(configItems);
+        String maxConcurrent = config.getConfigItemValue(KieServerConstants.CCFG_MAX_CONCURRENT_REQUESTS);
+        if (maxConcurrent == null || maxConcurrent.trim().isEmpty() || Integer.parseInt(maxConcurrent.trim()) <= 0) {
+            return null;
+        }
+        return new ContainerBulkhead(containerId,
+                                     Integer.parseInt(maxConcurrent.trim()),
+                                     Integer.parseInt(config.getConfigItemValue(KieServerConstants.CCFG_MAX_QUEUED_REQUESTS, "0").trim()),
+                                     Long.parseLong(config.getConfigItemValue(KieServerConstants.CCFG_MAX_QUEUE_WAIT, "1000").trim()));
+    }
+
+    /**
+     * Admits request for execution, waiting in the queue when needed.
+     * @throws ContainerOverloadedException when the queue is full or the request waited too long
+     */
+    public void acquire() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueuedRequests) {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new ContainerOverloadedException(containerId, true);
+        }
+        try {
+            if (permits.tryAcquire(maxQueueWait, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.decrementAndGet();
+        }
+        timedOut.increment();
+        throw new ContainerOverloadedException(containerId, false);
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    @Override
+    public String getContainerId() {
+        return containerId;
+    }
+
+    @Override
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    @Override
+    public int getMaxQueuedRequests() {
+        return maxQueuedRequests;
+    }
+
+    @Override
+    public long getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    @Override
+    public int getActiveRequests() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    @Override
+    public int getQueuedRequests() {
+        return queued.get();
+    }
+
+    @Override
+    public long getRejectedRequests() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getTimedOutRequests() {
+        return timedOut.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ContainerBulkhead{" +
+                "containerId='" + containerId + '\'' +
+                ", maxConcurrentRequests=" + maxConcurrentRequests +
+                ", maxQueuedRequests=" + maxQueuedRequests +
+                ", maxQueueWait=" + maxQueueWait +
+                '}';
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.admission;
+
+import org.kie.server.services.api.KieServerRuntimeException;
+
+/**
+ * Thrown when request to a container cannot be admitted, either because the container's wait queue is full
+ * or because the request waited in the queue longer than allowed.
+ */
+public class ContainerOverloadedException extends KieServerRuntimeException {
+
+    private final String containerId;
+    private final boolean queueFull;
+
+    public ContainerOverloadedException(String containerId, boolean queueFull) {
+        super(queueFull ? "Too many requests for container '" + containerId + "', try again later"
+                      : "Container '" + containerId + "' is busy, request timed out waiting for execution");
+        this.containerId = containerId;
+        this.queueFull = queueFull;
+    }
+
+    public String getContainerId() {
+        return containerId;
+    }
+
+    /**
+     * True when request was rejected right away as the queue was full, false when it timed out in the queue.
+     */
+    public boolean isQueueFull() {
+        return queueFull;
+    }
+}
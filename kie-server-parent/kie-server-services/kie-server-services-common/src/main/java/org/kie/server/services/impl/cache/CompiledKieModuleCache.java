@@ -0,0 +1,291 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.drools.compiler.commons.jci.stores.ResourceStore;
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieMetaInfoBuilder;
+import org.eclipse.aether.artifact.Artifact;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieModule;
+import org.kie.api.builder.KieRepository;
+import org.kie.api.builder.Message.Level;
+import org.kie.api.builder.ReleaseId;
+import org.kie.scanner.KieMavenRepository;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.KieServerEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of kjars enriched with the compiled form of their kie bases, so containers created again after
+ * restart do not compile rules that did not change.
+ * <p>
+ * The first time a kjar is loaded, it is compiled as usual and a copy of it extended with the compilation cache of
+ * every kie base (the same <code>kbase.cache</code> entries the kie-maven-plugin produces) is stored. Entries are keyed by
+ * the resolved release id and a checksum of the kjar (and of the server version, as compiled code is specific to it),
+ * so a redeployed snapshot or a server upgrade gets a new entry. Containers with an entry are created from it and
+ * skip compilation of rule consequences and other generated code; an entry that cannot be loaded is removed and
+ * built again.
+ * <p>
+ * Kjars depending on other kjars are not cached, the cached copy is loaded outside of Maven and would miss them.
+ */
+public class CompiledKieModuleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledKieModuleCache.class);
+
+    static final String ENTRY_SUFFIX = ".jar";
+
+    private final File cacheDir;
+
+    public CompiledKieModuleCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Creates the cache when enabled by system properties, returns null otherwise.
+     */
+    public static CompiledKieModuleCache fromSystemProperties() {
+        if (!Boolean.getBoolean(KieServerConstants.CFG_CONTAINER_CACHE)) {
+            return null;
+        }
+        String defaultDir = new File(System.getProperty(KieServerConstants.KIE_SERVER_STATE_REPO, "."), "container-cache").getPath();
+        File cacheDir = new File(System.getProperty(KieServerConstants.CFG_CONTAINER_CACHE_DIR, defaultDir));
+        logger.info("Compiled kjars are cached in {}", cacheDir.getAbsolutePath());
+        return new CompiledKieModuleCache(cacheDir);
+    }
+
+    public File getCacheDir() {
+        return cacheDir;
+    }
+
+    /**
+     * Creates KieContainer for given release id, from the cache entry when there is a valid one.
+     */
+    public InternalKieContainer newKieContainer(String containerId, ReleaseId releaseId) {
+        KieServices ks = KieServices.Factory.get();
+        Artifact artifact = resolveArtifact(releaseId);
+        if (artifact == null) {
+            return (InternalKieContainer) ks.newKieContainer(containerId, releaseId);
+        }
+
+        File entry;
+        try {
+            entry = getEntry(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), checksum(artifact.getFile()));
+        } catch (IOException e) {
+            logger.warn("Unable to compute checksum of {} due to {}", artifact.getFile(), e.getMessage());
+            return (InternalKieContainer) ks.newKieContainer(containerId, releaseId);
+        }
+
+        if (entry.isFile()) {
+            InternalKieContainer kieContainer = loadEntry(ks, containerId, releaseId, entry);
+            if (kieContainer != null) {
+                return kieContainer;
+            }
+        }
+
+        InternalKieContainer kieContainer = (InternalKieContainer) ks.newKieContainer(containerId, releaseId);
+        storeEntry(ks, kieContainer, artifact.getFile(), entry);
+        return kieContainer;
+    }
+
+    protected Artifact resolveArtifact(ReleaseId releaseId) {
+        try {
+            Artifact artifact = KieMavenRepository.getKieMavenRepository().resolveArtifact(releaseId);
+            if (artifact != null && artifact.getFile() != null && artifact.getFile().isFile()) {
+                return artifact;
+            }
+        } catch (Exception e) {
+            logger.debug("Unable to resolve {} for the compiled kjar cache due to {}", releaseId, e.getMessage());
+        }
+        return null;
+    }
+
+    protected InternalKieContainer loadEntry(KieServices ks, String containerId, ReleaseId releaseId, File entry) {
+        KieRepository repository = ks.getRepository();
+        KieModule kieModule = null;
+        try {
+            long start = System.currentTimeMillis();
+            kieModule = repository.addKieModule(ks.getResources().newFileSystemResource(entry));
+            InternalKieContainer kieContainer = (InternalKieContainer) ks.newKieContainer(containerId, releaseId);
+            if (kieContainer.verify().hasMessages(Level.ERROR)) {
+                kieContainer.dispose();
+                throw new IllegalStateException("compiled kjar does not verify");
+            }
+            logger.info("Container {} (for release id {}) loaded from compiled kjar cache in {} ms", containerId, releaseId, System.currentTimeMillis() - start);
+            return kieContainer;
+        } catch (Exception e) {
+            logger.warn("Invalid compiled kjar cache entry {} for release id {}, building it again: {}", entry, releaseId, e.getMessage());
+            if (kieModule != null) {
+                repository.removeKieModule(kieModule.getReleaseId());
+            }
+            if (!entry.delete()) {
+                logger.debug("Unable to delete compiled kjar cache entry {}", entry);
+            }
+            return null;
+        }
+    }
+
+    protected void storeEntry(KieServices ks, InternalKieContainer kieContainer, File kjar, File entry) {
+        try {
+            InternalKieModule kieModule = (InternalKieModule) ks.getRepository().getKieModule(kieContainer.getReleaseId());
+            if (kieModule == null || !kieModule.getKieDependencies().isEmpty()) {
+                logger.debug("Kjar {} is not cached as it depends on other kjars", kieContainer.getReleaseId());
+                return;
+            }
+            // builds kie bases not built yet, so the compilation cache is complete
+            if (kieContainer.verify().hasMessages(Level.ERROR)) {
+                return;
+            }
+            MemoryResourceStore compiled = new MemoryResourceStore();
+            new KieMetaInfoBuilder(kieModule).writeKieModuleMetaInfo(compiled);
+
+            File dir = entry.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Unable to create directory " + dir);
+            }
+            // unique name as the same kjar may be stored by containers created concurrently
+            File tmpFile = File.createTempFile(entry.getName(), ".tmp", dir);
+            writeEntry(kjar, compiled.getResources(), tmpFile);
+            try {
+                Files.move(tmpFile.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            removeStaleEntries(entry);
+            logger.debug("Compiled kjar {} stored in cache as {}", kieContainer.getReleaseId(), entry);
+        } catch (Exception e) {
+            logger.warn("Unable to store compiled kjar {} in cache due to {}", kieContainer.getReleaseId(), e.getMessage());
+            logger.debug("Complete stack trace of compiled kjar cache store", e);
+        }
+    }
+
+    /*
+     * Copies the kjar, replacing or adding the given resources
+     */
+    protected void writeEntry(File kjar, Map<String, byte[]> resources, File target) throws IOException {
+        try (ZipInputStream in = new ZipInputStream(new FileInputStream(kjar));
+             ZipOutputStream out = new ZipOutputStream(new FileOutputStream(target))) {
+            byte[] buffer = new byte[8192];
+            ZipEntry zipEntry;
+            while ((zipEntry = in.getNextEntry()) != null) {
+                if (resources.containsKey(zipEntry.getName())) {
+                    continue;
+                }
+                out.putNextEntry(new ZipEntry(zipEntry.getName()));
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                out.closeEntry();
+            }
+            for (Map.Entry<String, byte[]> resource : resources.entrySet()) {
+                out.putNextEntry(new ZipEntry(resource.getKey()));
+                out.write(resource.getValue());
+                out.closeEntry();
+            }
+        }
+    }
+
+    protected File getEntry(String groupId, String artifactId, String version, String checksum) {
+        return new File(cacheDir, groupId + File.separator + artifactId + File.separator + version + File.separator + checksum + ENTRY_SUFFIX);
+    }
+
+    /*
+     * Removes entries of previous builds of the same version, e.g. a redeployed snapshot
+     */
+    protected void removeStaleEntries(File entry) {
+        File[] entries = entry.getParentFile().listFiles((dir, name) -> name.endsWith(ENTRY_SUFFIX) && !name.equals(entry.getName()));
+        if (entries != null) {
+            for (File stale : entries) {
+                if (!stale.delete()) {
+                    logger.debug("Unable to delete stale compiled kjar cache entry {}", stale);
+                }
+            }
+        }
+    }
+
+    protected static String checksum(File kjar) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        // compiled code is specific to the version of the engine
+        digest.update(String.valueOf(KieServerEnvironment.getVersion()).getBytes(StandardCharsets.UTF_8));
+        try (InputStream in = new FileInputStream(kjar)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder checksum = new StringBuilder();
+        for (byte b : digest.digest()) {
+            checksum.append(String.format("%02x", b));
+        }
+        return checksum.toString();
+    }
+
+    static class MemoryResourceStore implements ResourceStore {
+
+        private final Map<String, byte[]> resources = new LinkedHashMap<String, byte[]>();
+
+        @Override
+        public void write(String pResourceName, byte[] pResourceData) {
+            resources.put(pResourceName, pResourceData);
+        }
+
+        @Override
+        public void write(String pResourceName, byte[] pResourceData, boolean createFolder) {
+            resources.put(pResourceName, pResourceData);
+        }
+
+        @Override
+        public byte[] read(String pResourceName) {
+            return resources.get(pResourceName);
+        }
+
+        @Override
+        public void remove(String pResourceName) {
+            resources.remove(pResourceName);
+        }
+
+        Map<String, byte[]> getResources() {
+            return resources;
+        }
+    }
+}
@@ -31,6 +31,10 @@ import org.kie.server.services.impl.locator.ContainerLocatorProvider;
 
 public class MarshallerHelper {
 
+    // format descriptors come from request headers, so only a bounded number of them is remembered
+    private static final int MAX_CACHED_FORMATS = 100;
+    private static final Map<String, MarshallingFormat> formats = new ConcurrentHashMap<String, MarshallingFormat>();
+
     private KieServerRegistry registry;
 
     private Map<MarshallingFormat, Marshaller> serverMarshallers = new ConcurrentHashMap<MarshallingFormat, Marshaller>();
@@ -135,10 +139,17 @@ public class MarshallerHelper {
     }
 
     public static MarshallingFormat getFormat(String descriptor) {
-        MarshallingFormat format = MarshallingFormat.fromType(descriptor);
+        MarshallingFormat format = descriptor == null ? null : formats.get(descriptor);
+        if (format != null) {
+            return format;
+        }
+        format = MarshallingFormat.fromType(descriptor);
         if (format == null) {
             format = MarshallingFormat.valueOf(descriptor);
         }
+        if (descriptor != null && formats.size() < MAX_CACHED_FORMATS) {
+            formats.put(descriptor, format);
+        }
 
         return format;
     }
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.admission.ContainerBulkhead;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of request metrics of the server, metrics are kept per kind of request, operation, container and
+ * marshalling format. Recording is no-op unless enabled by {@link KieServerMetricsExtension}.
+ * Request limits of containers ({@link ContainerBulkhead}) are exposed as well.
+ * <p>
+ * When enabled with a {@link KieServerRegistry} requests of ids that are neither id nor alias of a deployed container
+ * are all recorded under {@link #UNKNOWN_CONTAINER}, so requests of arbitrary ids do not add metrics (and MBeans) without limit.
+ * <p>
+ * Typical use:
+ * <pre>
+ * Long processInstanceId = KieServerMetrics.get().time(KieServerMetrics.PROCESS, processId, containerId, marshallingType,
+ *                                                      () -&gt; processService.startProcess(containerId, processId));
+ * </pre>
+ * or when the request does not complete within single method:
+ * <pre>
+ * long start = KieServerMetrics.get().start();
+ * boolean success = false;
+ * try {
+ *     ...
+ *     success = true;
+ * } finally {
+ *     KieServerMetrics.get().record(KieServerMetrics.RULES, "batch", containerId, null, start, success);
+ * }
+ * </pre>
+ */
+public class KieServerMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(KieServerMetrics.class);
+
+    public static final String REST = "rest";
+    public static final String JMS = "jms";
+    public static final String RULES = "rules";
+    public static final String DMN = "dmn";
+    public static final String PROCESS = "process";
+
+    public static final String UNKNOWN_CONTAINER = "unknown";
+
+    static final String JMX_DOMAIN = "org.kie.server";
+
+    private static final String REQUEST_SECONDS = "kie_server_request_seconds";
+    private static final String REQUEST_ERRORS = "kie_server_request_errors_total";
+    private static final String CONTAINER_ACTIVE = "kie_server_container_active_requests";
+    private static final String CONTAINER_QUEUED = "kie_server_container_queued_requests";
+    private static final String CONTAINER_REJECTED = "kie_server_container_rejected_requests_total";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final KieServerMetrics INSTANCE = new KieServerMetrics();
+
+    private final ConcurrentMap<Key, RequestMetrics> metrics = new ConcurrentHashMap<Key, RequestMetrics>();
+    private final ConcurrentMap<String, ContainerBulkhead> bulkheads = new ConcurrentHashMap<String, ContainerBulkhead>();
+
+    private volatile boolean enabled;
+    private volatile MBeanServer mbeanServer;
+    private volatile KieServerRegistry registry;
+
+    public static KieServerMetrics get() {
+        return INSTANCE;
+    }
+
+    public void enable(boolean jmx) {
+        enable(jmx, null);
+    }
+
+    /**
+     * Enables recording, container ids are checked against given registry unless it is null.
+     */
+    public void enable(boolean jmx, KieServerRegistry registry) {
+        this.registry = registry;
+        if (jmx) {
+            mbeanServer = ManagementFactory.getPlatformMBeanServer();
+            for (RequestMetrics requestMetrics : metrics.values()) {
+                registerMBean(requestMetrics);
+            }
+            for (ContainerBulkhead bulkhead : bulkheads.values()) {
+                registerMBean(bulkhead);
+            }
+        }
+        enabled = true;
+    }
+
+    public void disable() {
+        enabled = false;
+        registry = null;
+        if (mbeanServer != null) {
+            for (RequestMetrics requestMetrics : metrics.values()) {
+                unregisterMBean(requestMetrics);
+            }
+            for (ContainerBulkhead bulkhead : bulkheads.values()) {
+                unregisterMBean(bulkhead);
+            }
+            mbeanServer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the start time to be passed to {@link #record(String, String, String, String, long, boolean)}.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records single request that started at given time (as returned by {@link #start()}).
+     * @param kind kind of request, one of the constants of this class
+     * @param operation operation within the kind, e.g. resource method or process id
+     * @param containerId id or alias of the container or null when not bound to any
+     * @param format marshalling format or null when not known
+     * @param start start time of the request
+     * @param success false if the request failed
+     */
+    public void record(String kind, String operation, String containerId, String format, long start, boolean success) {
+        if (!enabled) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        Key key = new Key(kind, operation, containerLabel(containerId), normalizeFormat(format));
+        RequestMetrics requestMetrics = metrics.get(key);
+        if (requestMetrics == null) {
+            requestMetrics = new RequestMetrics(key.kind, key.operation, key.containerId, key.format);
+            RequestMetrics existing = metrics.putIfAbsent(key, requestMetrics);
+            if (existing == null) {
+                registerMBean(requestMetrics);
+            } else {
+                requestMetrics = existing;
+            }
+        }
+        requestMetrics.record(elapsed, success);
+    }
+
+    /**
+     * Runs given work and records it as single request, failed when the work throws an exception.
+     * @return result of the work
+     */
+    public <T> T time(String kind, String operation, String containerId, String format, Supplier<T> work) {
+        long start = start();
+        boolean success = false;
+        try {
+            T result = work.get();
+            success = true;
+            return result;
+        } finally {
+            record(kind, operation, containerId, format, start, success);
+        }
+    }
+
+    public List<RequestMetrics> getMetrics() {
+        List<RequestMetrics> result = new ArrayList<RequestMetrics>(metrics.values());
+        result.sort(Comparator.comparing(RequestMetrics::getKind)
+                            .thenComparing(RequestMetrics::getOperation)
+                            .thenComparing(RequestMetrics::getContainerId)
+                            .thenComparing(RequestMetrics::getFormat));
+        return result;
+    }
+
+    public void addBulkhead(ContainerBulkhead bulkhead) {
+        ContainerBulkhead previous = bulkheads.put(bulkhead.getContainerId(), bulkhead);
+        if (previous != null) {
+            unregisterMBean(previous);
+        }
+        registerMBean(bulkhead);
+    }
+
+    public List<ContainerBulkhead> getBulkheads() {
+        List<ContainerBulkhead> result = new ArrayList<ContainerBulkhead>(bulkheads.values());
+        result.sort(Comparator.comparing(ContainerBulkhead::getContainerId));
+        return result;
+    }
+
+    /**
+     * Removes all metrics of given container, called once the container is disposed.
+     */
+    public void removeContainer(String containerId) {
+        ContainerBulkhead bulkhead = bulkheads.remove(containerId);
+        if (bulkhead != null) {
+            unregisterMBean(bulkhead);
+        }
+        for (Key key : new ArrayList<Key>(metrics.keySet())) {
+            if (key.containerId.equals(containerId)) {
+                RequestMetrics removed = metrics.remove(key);
+                if (removed != null) {
+                    unregisterMBean(removed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all metrics in Prometheus text exposition format (version 0.0.4).
+     */
+    public void writeText(Writer writer) throws IOException {
+        List<RequestMetrics> all = getMetrics();
+
+        writer.write("# HELP " + REQUEST_SECONDS + " Time spent processing requests.\n");
+        writer.write("# TYPE " + REQUEST_SECONDS + " summary\n");
+        for (RequestMetrics requestMetrics : all) {
+            LatencyHistogram histogram = requestMetrics.getHistogram();
+            String labels = labels(requestMetrics);
+            for (double quantile : QUANTILES) {
+                writer.write(REQUEST_SECONDS + "{" + labels + ",quantile=\"" + quantile + "\"} "
+                        + seconds(histogram.getValueAtPercentile(quantile * 100)) + "\n");
+            }
+            writer.write(REQUEST_SECONDS + "_sum{" + labels + "} " + seconds(histogram.getSum()) + "\n");
+            writer.write(REQUEST_SECONDS + "_count{" + labels + "} " + histogram.getCount() + "\n");
+        }
+
+        writer.write("# HELP " + REQUEST_SECONDS + "_max Longest request processing time.\n");
+        writer.write("# TYPE " + REQUEST_SECONDS + "_max gauge\n");
+        for (RequestMetrics requestMetrics : all) {
+            writer.write(REQUEST_SECONDS + "_max{" + labels(requestMetrics) + "} " + seconds(requestMetrics.getHistogram().getMax()) + "\n");
+        }
+
+        writer.write("# HELP " + REQUEST_ERRORS + " Number of failed requests.\n");
+        writer.write("# TYPE " + REQUEST_ERRORS + " counter\n");
+        for (RequestMetrics requestMetrics : all) {
+            writer.write(REQUEST_ERRORS + "{" + labels(requestMetrics) + "} " + requestMetrics.getErrors() + "\n");
+        }
+
+        List<ContainerBulkhead> containerBulkheads = getBulkheads();
+        if (!containerBulkheads.isEmpty()) {
+            writer.write("# HELP " + CONTAINER_ACTIVE + " Requests currently executed by container with request limits.\n");
+            writer.write("# TYPE " + CONTAINER_ACTIVE + " gauge\n");
+            for (ContainerBulkhead bulkhead : containerBulkheads) {
+                writer.write(CONTAINER_ACTIVE + "{container=\"" + escape(bulkhead.getContainerId()) + "\"} " + bulkhead.getActiveRequests() + "\n");
+            }
+            writer.write("# HELP " + CONTAINER_QUEUED + " Requests waiting for execution by container with request limits.\n");
+            writer.write("# TYPE " + CONTAINER_QUEUED + " gauge\n");
+            for (ContainerBulkhead bulkhead : containerBulkheads) {
+                writer.write(CONTAINER_QUEUED + "{container=\"" + escape(bulkhead.getContainerId()) + "\"} " + bulkhead.getQueuedRequests() + "\n");
+            }
+            writer.write("# HELP " + CONTAINER_REJECTED + " Requests rejected by container request limits.\n");
+            writer.write("# TYPE " + CONTAINER_REJECTED + " counter\n");
+            for (ContainerBulkhead bulkhead : containerBulkheads) {
+                String container = "container=\"" + escape(bulkhead.getContainerId()) + "\"";
+                writer.write(CONTAINER_REJECTED + "{" + container + ",reason=\"queue_full\"} " + bulkhead.getRejectedRequests() + "\n");
+                writer.write(CONTAINER_REJECTED + "{" + container + ",reason=\"timeout\"} " + bulkhead.getTimedOutRequests() + "\n");
+            }
+        }
+        writer.flush();
+    }
+
+    protected void registerMBean(Object mbean) {
+        MBeanServer server = mbeanServer;
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName name = objectName(mbean);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mbean, name);
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to register metrics {} in JMX due to {}", mbean, e.getMessage());
+            logger.debug("Complete stack trace for registration of {}", mbean, e);
+        }
+    }
+
+    protected void unregisterMBean(Object mbean) {
+        MBeanServer server = mbeanServer;
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName name = objectName(mbean);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (Exception e) {
+            logger.debug("Unable to unregister metrics {} from JMX due to {}", mbean, e.getMessage());
+        }
+    }
+
+    static ObjectName objectName(Object mbean) throws Exception {
+        if (mbean instanceof ContainerBulkhead) {
+            return objectName((ContainerBulkhead) mbean);
+        }
+        return objectName((RequestMetrics) mbean);
+    }
+
+    static ObjectName objectName(ContainerBulkhead bulkhead) throws Exception {
+        return new ObjectName(JMX_DOMAIN + ":type=ContainerBulkhead,container=" + ObjectName.quote(bulkhead.getContainerId()));
+    }
+
+    static ObjectName objectName(RequestMetrics requestMetrics) throws Exception {
+        return new ObjectName(JMX_DOMAIN + ":type=RequestMetrics"
+                                      + ",kind=" + ObjectName.quote(requestMetrics.getKind())
+                                      + ",operation=" + ObjectName.quote(requestMetrics.getOperation())
+                                      + ",container=" + ObjectName.quote(requestMetrics.getContainerId())
+                                      + ",format=" + ObjectName.quote(requestMetrics.getFormat()));
+    }
+
+    /*
+     * ids of containers that are not deployed (any more) are reported together
+     */
+    String containerLabel(String containerId) {
+        KieServerRegistry current = registry;
+        if (containerId == null || current == null || current.getContainer(containerId) != null
+                || !current.getContainersForAlias(containerId).isEmpty()) {
+            return containerId;
+        }
+        return UNKNOWN_CONTAINER;
+    }
+
+    /*
+     * formats are given as marshalling format names, their types or media types - all are reported the same way
+     */
+    static String normalizeFormat(String format) {
+        if (format == null || format.isEmpty()) {
+            return "";
+        }
+        try {
+            return MarshallingFormat.fromType(format).name().toLowerCase(Locale.ENGLISH);
+        } catch (RuntimeException e) {
+            return format.toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    private static String labels(RequestMetrics requestMetrics) {
+        return "kind=\"" + escape(requestMetrics.getKind())
+                + "\",operation=\"" + escape(requestMetrics.getOperation())
+                + "\",container=\"" + escape(requestMetrics.getContainerId())
+                + "\",format=\"" + escape(requestMetrics.getFormat()) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1000000d);
+    }
+
+    private static class Key {
+
+        private final String kind;
+        private final String operation;
+        private final String containerId;
+        private final String format;
+
+        Key(String kind, String operation, String containerId, String format) {
+            this.kind = kind;
+            this.operation = operation == null ? "" : operation;
+            this.containerId = containerId == null ? "" : containerId;
+            this.format = format;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return kind.equals(key.kind) && operation.equals(key.operation)
+                    && containerId.equals(key.containerId) && format.equals(key.format);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = kind.hashCode();
+            result = 31 * result + operation.hashCode();
+            result = 31 * result + containerId.hashCode();
+            result = 31 * result + format.hashCode();
+            return result;
+        }
+    }
+}
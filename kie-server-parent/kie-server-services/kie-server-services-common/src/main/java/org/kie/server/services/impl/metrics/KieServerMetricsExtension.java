@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.services.api.KieContainerInstance;
+import org.kie.server.services.api.KieServerApplicationComponentsService;
+import org.kie.server.services.api.KieServerExtension;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.api.SupportedTransports;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.KieServerImpl;
+
+/**
+ * Enables recording of request metrics in {@link KieServerMetrics} and exposes them over JMX
+ * (unless disabled with <code>org.kie.server.metrics.jmx.disabled</code>) and over transports
+ * that provide metrics components (e.g. REST).
+ * <p>
+ * Unlike other extensions this one is not active by default, set <code>org.kie.server.metrics.ext.disabled</code>
+ * to false to activate it.
+ */
+public class KieServerMetricsExtension implements KieServerExtension {
+
+    public static final String EXTENSION_NAME = "Metrics";
+
+    private static final Boolean disabled = Boolean.parseBoolean(System.getProperty(KieServerConstants.KIE_METRICS_SERVER_EXT_DISABLED, "true"));
+    private static final Boolean jmxDisabled = Boolean.parseBoolean(System.getProperty(KieServerConstants.CFG_METRICS_JMX_DISABLED, "false"));
+
+    private KieServerMetrics metrics;
+
+    private List<Object> services = new ArrayList<Object>();
+    private boolean initialized = false;
+
+    @Override
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    @Override
+    public boolean isActive() {
+        return disabled == false;
+    }
+
+    @Override
+    public void init(KieServerImpl kieServer, KieServerRegistry registry) {
+        this.metrics = KieServerMetrics.get();
+        this.metrics.enable(!jmxDisabled, registry);
+
+        services.add(metrics);
+
+        initialized = true;
+    }
+
+    @Override
+    public void destroy(KieServerImpl kieServer, KieServerRegistry registry) {
+        if (metrics != null) {
+            metrics.disable();
+        }
+    }
+
+    @Override
+    public void createContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+        if (kieContainerInstance instanceof KieContainerInstanceImpl && ((KieContainerInstanceImpl) kieContainerInstance).getBulkhead() != null) {
+            metrics.addBulkhead(((KieContainerInstanceImpl) kieContainerInstance).getBulkhead());
+        }
+    }
+
+    @Override
+    public void updateContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+        // no-op
+    }
+
+    @Override
+    public boolean isUpdateContainerAllowed(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+        return true;
+    }
+
+    @Override
+    public void disposeContainer(String id, KieContainerInstance kieContainerInstance, Map<String, Object> parameters) {
+        metrics.removeContainer(id);
+    }
+
+    @Override
+    public List<Object> getAppComponents(SupportedTransports type) {
+        ServiceLoader<KieServerApplicationComponentsService> appComponentsServices = ServiceLoader.load(KieServerApplicationComponentsService.class);
+        List<Object> appComponentsList = new ArrayList<Object>();
+        Object[] services = {
+                metrics
+        };
+        for (KieServerApplicationComponentsService appComponentsService : appComponentsServices) {
+            appComponentsList.addAll(appComponentsService.getAppComponents(EXTENSION_NAME, type, services));
+        }
+        return appComponentsList;
+    }
+
+    @Override
+    public <T> T getAppComponents(Class<T> serviceType) {
+        if (serviceType.isAssignableFrom(metrics.getClass())) {
+            return (T) metrics;
+        }
+
+        return null;
+    }
+
+    @Override
+    public String getImplementedCapability() {
+        return KieServerConstants.CAPABILITY_METRICS;
+    }
+
+    @Override
+    public List<Object> getServices() {
+        return services;
+    }
+
+    @Override
+    public String getExtensionName() {
+        return EXTENSION_NAME;
+    }
+
+    @Override
+    public Integer getStartOrder() {
+        return -2;
+    }
+
+    @Override
+    public String toString() {
+        return EXTENSION_NAME + " KIE Server extension";
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error counter of one kind of request (e.g. REST endpoint) on one container
+ * in one marshalling format.
+ */
+public class RequestMetrics implements RequestMetricsMBean {
+
+    private final String kind;
+    private final String operation;
+    private final String containerId;
+    private final String format;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    public RequestMetrics(String kind, String operation, String containerId, String format) {
+        this.kind = kind;
+        this.operation = operation;
+        this.containerId = containerId;
+        this.format = format;
+    }
+
+    public void record(long nanos, boolean success) {
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    @Override
+    public String getKind() {
+        return kind;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public String getContainerId() {
+        return containerId;
+    }
+
+    @Override
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanTime() {
+        return histogram.getMean() / 1000;
+    }
+
+    @Override
+    public double getMaxTime() {
+        return millis(histogram.getMax());
+    }
+
+    @Override
+    public double getMedianTime() {
+        return millis(histogram.getValueAtPercentile(50));
+    }
+
+    @Override
+    public double get90thPercentileTime() {
+        return millis(histogram.getValueAtPercentile(90));
+    }
+
+    @Override
+    public double get99thPercentileTime() {
+        return millis(histogram.getValueAtPercentile(99));
+    }
+
+    @Override
+    public double get999thPercentileTime() {
+        return millis(histogram.getValueAtPercentile(99.9));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestMetrics{kind=" + kind + ", operation=" + operation + ", containerId=" + containerId +
+                ", format=" + format + ", count=" + getCount() + ", errors=" + getErrors() + "}";
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.metrics;
+
+/**
+ * JMX view of single request metrics, all times are in milliseconds.
+ */
+public interface RequestMetricsMBean {
+
+    String getKind();
+
+    String getOperation();
+
+    String getContainerId();
+
+    String getFormat();
+
+    long getCount();
+
+    long getErrors();
+
+    double getMeanTime();
+
+    double getMaxTime();
+
+    double getMedianTime();
+
+    double get90thPercentileTime();
+
+    double get99thPercentileTime();
+
+    double get999thPercentileTime();
+}
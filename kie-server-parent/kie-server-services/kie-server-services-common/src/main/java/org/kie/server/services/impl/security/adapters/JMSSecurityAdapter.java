@@ -16,6 +16,8 @@
 package org.kie.server.services.impl.security.adapters;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.Principal;
 import java.security.acl.Group;
 import java.util.ArrayList;
@@ -24,6 +26,8 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.security.auth.Subject;
 import javax.security.auth.callback.Callback;
 import javax.security.auth.callback.CallbackHandler;
@@ -46,6 +50,12 @@ public class JMSSecurityAdapter implements SecurityAdapter {
 
     private static ThreadLocal<UserDetails> currentUser = new ThreadLocal<UserDetails>();
 
+    // successfully authenticated users can be kept for configured time (in milliseconds) so JAAS login is not performed
+    // for every message - disabled by default as changes of users and their roles are then seen only after the time passed
+    private static volatile long authCacheTtl = Long.parseLong(System.getProperty(KieServerConstants.CFG_KIE_SERVER_JMS_AUTH_CACHE_TTL, "0"));
+    private static final int AUTH_CACHE_MAX_SIZE = 1000;
+    private static final ConcurrentMap<String, CachedUserDetails> authenticatedUsers = new ConcurrentHashMap<String, CachedUserDetails>();
+
     static  {
         for (SecurityAdapter adapter : securityAdapters) {
             adapters.add(adapter);
@@ -78,6 +88,19 @@ public class JMSSecurityAdapter implements SecurityAdapter {
             logger.debug("Already authenticated with user {}", currentUser.get().getName());
             return;
         }
+        String cacheKey = null;
+        if (authCacheTtl > 0) {
+            cacheKey = cacheKey(user, pass);
+            CachedUserDetails cached = authenticatedUsers.get(cacheKey);
+            if (cached != null) {
+                if (cached.isValid(System.currentTimeMillis()) && user.equals(cached.getUserDetails().getName())) {
+                    logger.debug("Using cached authentication of user {}", user);
+                    currentUser.set(cached.getUserDetails());
+                    return;
+                }
+                authenticatedUsers.remove(cacheKey, cached);
+            }
+        }
         logger.debug("About to login as {} with pass {}", user, pass.length());
         try {
             CallbackHandler handler = new UserPassCallbackHandler(user, pass);
@@ -114,6 +137,9 @@ public class JMSSecurityAdapter implements SecurityAdapter {
             userDetails.setRoles(roles);
             logger.debug("setting user details as {}", userDetails);
             currentUser.set(userDetails);
+            if (cacheKey != null) {
+                cacheUserDetails(cacheKey, userDetails);
+            }
 
         } catch( Exception e ) {
             logger.debug( "Unable to login via JAAS with message supplied user and password", e);
@@ -124,6 +150,65 @@ public class JMSSecurityAdapter implements SecurityAdapter {
         currentUser.set(null);
     }
 
+    /**
+     * Removes all cached authentications so credentials are verified again on next login.
+     */
+    public static void clearAuthenticationCache() {
+        authenticatedUsers.clear();
+    }
+
+    // for tests
+    static void setAuthenticationCacheTtl(long ttl) {
+        authCacheTtl = ttl;
+        authenticatedUsers.clear();
+    }
+
+    private static void cacheUserDetails(String cacheKey, UserDetails userDetails) {
+        long now = System.currentTimeMillis();
+        if (authenticatedUsers.size() >= AUTH_CACHE_MAX_SIZE) {
+            authenticatedUsers.values().removeIf(cached -> !cached.isValid(now));
+            if (authenticatedUsers.size() >= AUTH_CACHE_MAX_SIZE) {
+                authenticatedUsers.clear();
+            }
+        }
+        authenticatedUsers.put(cacheKey, new CachedUserDetails(userDetails, now + authCacheTtl));
+    }
+
+    // password is never kept, only a digest of the credentials
+    private static String cacheKey(String user, String pass) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(user.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            byte[] hash = digest.digest(pass.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to compute authentication cache key", e);
+        }
+    }
+
+    private static class CachedUserDetails {
+        private final UserDetails userDetails;
+        private final long expiresAt;
+
+        CachedUserDetails(UserDetails userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+
+        UserDetails getUserDetails() {
+            return userDetails;
+        }
+
+        boolean isValid(long now) {
+            return now < expiresAt;
+        }
+    }
+
     private static class UserDetails {
         private String name;
 
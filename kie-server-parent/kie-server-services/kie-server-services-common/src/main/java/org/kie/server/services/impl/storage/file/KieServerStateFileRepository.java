@@ -16,13 +16,20 @@
 package org.kie.server.services.impl.storage.file;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.thoughtworks.xstream.XStream;
 import com.thoughtworks.xstream.converters.reflection.PureJavaReflectionProvider;
@@ -32,17 +39,47 @@ import org.kie.server.api.model.KieServerConfig;
 import org.kie.server.api.model.KieServerConfigItem;
 import org.kie.server.services.impl.storage.KieServerState;
 import org.kie.server.services.impl.storage.KieServerStateRepository;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores state of each kie server in a file of its own within the repository directory. By default every
+ * {@link #store(String, KieServerState)} writes the file right away; when write delay is given (as constructor argument or
+ * via <code>org.kie.server.repo.write.delay</code> system property, in milliseconds) the state is written behind -
+ * stores of the same server within the delay are coalesced into single write of the latest state.
+ * In both cases files are replaced atomically and known states remain the source of truth for loads.
+ */
 public class KieServerStateFileRepository implements KieServerStateRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(KieServerStateFileRepository.class);
+
     private final File repositoryDir;
+    private final long writeDelay;
+
+    // latest not yet written state per server id, serialized at the time of the store
+    private final Map<String, String> pendingWrites = new ConcurrentHashMap<String, String>();
+    private final ScheduledExecutorService writer;
 
     private XStream xs = new XStream(new PureJavaReflectionProvider());
 
     private Map<String, KieServerState> knownStates = new ConcurrentHashMap<String, KieServerState>();
 
     public KieServerStateFileRepository(File repositoryDir) {
+        this(repositoryDir, Long.parseLong(System.getProperty(KieServerConstants.KIE_SERVER_STATE_REPO_WRITE_DELAY, "0")));
+    }
+
+    public KieServerStateFileRepository(File repositoryDir, long writeDelay) {
         this.repositoryDir = repositoryDir;
+        this.writeDelay = writeDelay;
+        if (writeDelay > 0) {
+            this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "KieServerStateWriter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.writer = null;
+        }
         xs.alias("kie-server-state", KieServerState.class);
         xs.alias("container", KieContainerResource.class);
         xs.alias("config-item", KieServerConfigItem.class);
@@ -52,25 +89,73 @@ public class KieServerStateFileRepository implements KieServerStateRepository {
         this(new File(System.getProperty(KieServerConstants.KIE_SERVER_STATE_REPO, ".")));
     }
 
-    public synchronized void store(String serverId, KieServerState kieServerState) {
-        FileOutputStream fos = null;
-        try {
-            fos = new FileOutputStream(new File(repositoryDir, serverId + ".xml"));
-
-            xs.toXML(kieServerState, fos);
+    public void store(String serverId, KieServerState kieServerState) {
+        if (writer == null || writer.isShutdown()) {
+            synchronized (this) {
+                write(serverId, xs.toXML(kieServerState));
+                knownStates.put(serverId, kieServerState);
+            }
+            return;
+        }
 
-        } catch (IOException ex) {
-//            logger.warn("Error when persisting known session id", ex);
-        } finally {
-            if (fos != null) {
-                try {
-                    fos.close();
-                } catch (IOException e) {
-                }
+        boolean scheduleWrite;
+        // serialized right away (not behind) so that later changes of the state object do not race with the writer,
+        // yet without waiting for disk
+        synchronized (pendingWrites) {
+            knownStates.put(serverId, kieServerState);
+            // schedule a write only for the first store of a burst, following ones just replace the pending state
+            scheduleWrite = pendingWrites.put(serverId, xs.toXML(kieServerState)) == null;
+        }
+        if (scheduleWrite) {
+            try {
+                writer.schedule(() -> writePending(serverId), writeDelay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // closed in the meantime
+                writePending(serverId);
             }
         }
+    }
+
+    /**
+     * Writes all pending states right away.
+     */
+    public void flush() {
+        for (String serverId : pendingWrites.keySet()) {
+            writePending(serverId);
+        }
+    }
+
+    /**
+     * Writes all pending states and stops writing behind.
+     */
+    public void close() {
+        if (writer != null) {
+            // delayed writes are not needed anymore, flush writes what they would
+            writer.shutdownNow();
+        }
+        flush();
+    }
 
-        knownStates.put(serverId, kieServerState);
+    private synchronized void writePending(String serverId) {
+        String xml = pendingWrites.remove(serverId);
+        if (xml != null) {
+            write(serverId, xml);
+        }
+    }
+
+    private void write(String serverId, String xml) {
+        File stateFile = new File(repositoryDir, serverId + ".xml");
+        File tmpFile = new File(repositoryDir, serverId + ".xml.tmp");
+        try {
+            Files.write(tmpFile.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(tmpFile.toPath(), stateFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            logger.warn("Error when persisting state of kie server {}", serverId, ex);
+        }
     }
 
     public KieServerState load(String serverId) {
@@ -32,6 +32,7 @@ import org.kie.server.api.model.ReleaseId;
 public class KieContainerInstanceImplTest {
 
     private static final String CONTAINER_ID = "my-container";
+    private static final String SWAPPED_CONTAINER_ID = "my-swapped-container";
     private static final String GROUP_ID = "org.kie.server.test";
     private static final String ARTIFACT_ID = "my-test-artifact";
     private static final String VERSION_100 = "1.0.0.Final";
@@ -57,6 +58,9 @@ public class KieContainerInstanceImplTest {
         verifyReleaseId(containerResource.getReleaseId(), RELEASE_ID_100);
         verifyReleaseId(containerResource.getResolvedReleaseId(), RELEASE_ID_100);
 
+        // release ids are not rebuilt while the container does not change
+        Assertions.assertThat(containerInstance.getResource().getReleaseId()).isSameAs(containerResource.getReleaseId());
+
         // Marshaller is same - no change in release id
         Marshaller updatedMarshaller = containerInstance.getMarshaller(MarshallingFormat.JAXB);
         Assertions.assertThat(updatedMarshaller).isEqualTo(marshaller);
@@ -75,6 +79,40 @@ public class KieContainerInstanceImplTest {
         Assertions.assertThat(updatedMarshaller).isNotEqualTo(marshaller);
     }
 
+    @Test
+    public void testSwapKieContainer() throws Exception {
+        createEmptyKjar(GROUP_ID, ARTIFACT_ID, VERSION_100);
+        createEmptyKjar(GROUP_ID, ARTIFACT_ID, VERSION_101);
+
+        KieServices ks = KieServices.Factory.get();
+        InternalKieContainer kieContainer = (InternalKieContainer) ks.newKieContainer(SWAPPED_CONTAINER_ID, RELEASE_ID_100);
+        KieContainerInstanceImpl containerInstance = new KieContainerInstanceImpl(SWAPPED_CONTAINER_ID, KieContainerStatus.STARTED, kieContainer);
+
+        Marshaller marshaller = containerInstance.getMarshaller(MarshallingFormat.JAXB);
+        InternalKieContainer inFlight = containerInstance.acquireKieContainer();
+        Assertions.assertThat(inFlight).isSameAs(kieContainer);
+
+        InternalKieContainer newKieContainer = (InternalKieContainer) ks.newKieContainer(RELEASE_ID_101);
+        InternalKieContainer previous = containerInstance.swapKieContainer(newKieContainer);
+        Assertions.assertThat(previous).isSameAs(kieContainer);
+        Assertions.assertThat(containerInstance.getKieContainer()).isSameAs(newKieContainer);
+        verifyReleaseId(containerInstance.getResource().getReleaseId(), RELEASE_ID_101);
+        Assertions.assertThat(containerInstance.getMarshallingFormats()).isEmpty();
+        Assertions.assertThat(containerInstance.getMarshaller(MarshallingFormat.JAXB)).isNotEqualTo(marshaller);
+
+        // new requests use the new container and do not hold the replaced one
+        InternalKieContainer next = containerInstance.acquireKieContainer();
+        Assertions.assertThat(next).isSameAs(newKieContainer);
+        Assertions.assertThat(containerInstance.awaitRequests(previous, 50)).isFalse();
+
+        containerInstance.releaseKieContainer(inFlight);
+        Assertions.assertThat(containerInstance.awaitRequests(previous, 50)).isTrue();
+
+        containerInstance.releaseKieContainer(next);
+        previous.dispose();
+        newKieContainer.dispose();
+    }
+
     private void verifyReleaseId(ReleaseId actualReleaseId, ReleaseId expectedReleaseId) {
         Assertions.assertThat(actualReleaseId).isNotNull();
         Assertions.assertThat(actualReleaseId.getGroupId()).isEqualTo(expectedReleaseId.getGroupId());
@@ -22,6 +22,8 @@ import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.Assertions;
+import org.drools.compiler.kie.builder.impl.InternalKieBuilder;
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
 import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.junit.After;
 import org.junit.Before;
@@ -142,6 +144,121 @@ public class KieServerImplTest {
         assertReleaseIds(containerId, latestReleaseId, new ReleaseId(GROUP_ID, artifactId, version2), 10000L);
     }
 
+    @Test
+    public void testUpdateContainerReleaseIdSwap() throws Exception {
+        String artifactId = "swap-container-test";
+        String containerId = "swap-container";
+        createEmptyKjar(artifactId, "1.0.0.Final");
+        createEmptyKjar(artifactId, "1.0.1.Final");
+        ReleaseId releaseId1 = new ReleaseId(GROUP_ID, artifactId, "1.0.0.Final");
+        ReleaseId releaseId2 = new ReleaseId(GROUP_ID, artifactId, "1.0.1.Final");
+
+        System.setProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP, "true");
+        try {
+            ServiceResponse<KieContainerResource> createResponse = kieServer.createContainer(containerId, new KieContainerResource(containerId, releaseId1));
+            Assertions.assertThat(createResponse.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+            KieContainerInstanceImpl containerInstance = kieServer.getServerRegistry().getContainer(containerId);
+            InternalKieContainer previous = containerInstance.getKieContainer();
+            // request in flight while the container is updated
+            InternalKieContainer inFlight = containerInstance.acquireKieContainer();
+            new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                containerInstance.releaseKieContainer(inFlight);
+            }).start();
+
+            ServiceResponse<ReleaseId> updateResponse = kieServer.updateContainerReleaseId(containerId, releaseId2);
+            Assertions.assertThat(updateResponse.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+            Assertions.assertThat(updateResponse.getResult()).isEqualTo(releaseId2);
+
+            // same instance with new KieContainer, the replaced one is disposed
+            Assertions.assertThat(kieServer.getServerRegistry().getContainer(containerId)).isSameAs(containerInstance);
+            InternalKieContainer current = containerInstance.getKieContainer();
+            Assertions.assertThat(current).isNotSameAs(previous);
+            Assertions.assertThat(current.getContainerId()).startsWith(containerId);
+            Assertions.assertThat(KieServices.Factory.get().getKieContainer(current.getContainerId())).isSameAs(current);
+            Assertions.assertThat(KieServices.Factory.get().getKieContainer(containerId)).isNull();
+            Assertions.assertThat(containerInstance.getResource().getResolvedReleaseId()).isEqualTo(releaseId2);
+            assertReleaseIds(containerId, releaseId2, releaseId2, 1000L);
+
+            ServiceResponse<Void> disposeResponse = kieServer.disposeContainer(containerId);
+            Assertions.assertThat(disposeResponse.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+            Assertions.assertThat(KieServices.Factory.get().getKieContainer(current.getContainerId())).isNull();
+        } finally {
+            System.clearProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP);
+        }
+    }
+
+    @Test
+    public void testUpdateContainerReleaseIdSwapWithUnreleasedRequest() throws Exception {
+        String artifactId = "swap-container-unreleased-test";
+        String containerId = "swap-container-unreleased";
+        createEmptyKjar(artifactId, "1.0.0.Final");
+        createEmptyKjar(artifactId, "1.0.1.Final");
+        ReleaseId releaseId1 = new ReleaseId(GROUP_ID, artifactId, "1.0.0.Final");
+        ReleaseId releaseId2 = new ReleaseId(GROUP_ID, artifactId, "1.0.1.Final");
+
+        System.setProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP, "true");
+        System.setProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_DRAIN_TIMEOUT, "100");
+        try {
+            ServiceResponse<KieContainerResource> createResponse = kieServer.createContainer(containerId, new KieContainerResource(containerId, releaseId1));
+            Assertions.assertThat(createResponse.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+            KieContainerInstanceImpl containerInstance = kieServer.getServerRegistry().getContainer(containerId);
+            // request that is never released, e.g. one failing with an exception not mapped to a response
+            InternalKieContainer previous = containerInstance.acquireKieContainer();
+
+            ServiceResponse<ReleaseId> updateResponse = kieServer.updateContainerReleaseId(containerId, releaseId2);
+            Assertions.assertThat(updateResponse.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+
+            // replaced KieContainer is disposed once the drain timeout elapsed
+            Assertions.assertThat(containerInstance.getKieContainer()).isNotSameAs(previous);
+            Assertions.assertThat(KieServices.Factory.get().getKieContainer(containerId)).isNull();
+
+            kieServer.disposeContainer(containerId);
+        } finally {
+            System.clearProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP);
+            System.clearProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_DRAIN_TIMEOUT);
+        }
+    }
+
+    @Test
+    public void testUpdateContainerReleaseIdSwapVerifyFailure() throws Exception {
+        String artifactId = "swap-container-failure-test";
+        String containerId = "swap-container-failure";
+        createEmptyKjar(artifactId, "1.0.0.Final");
+        createBrokenKjar(artifactId, "1.0.1.Final");
+        ReleaseId releaseId1 = new ReleaseId(GROUP_ID, artifactId, "1.0.0.Final");
+        ReleaseId releaseId2 = new ReleaseId(GROUP_ID, artifactId, "1.0.1.Final");
+
+        System.setProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP, "true");
+        try {
+            ServiceResponse<KieContainerResource> createResponse = kieServer.createContainer(containerId, new KieContainerResource(containerId, releaseId1));
+            Assertions.assertThat(createResponse.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+            KieContainerInstanceImpl containerInstance = kieServer.getServerRegistry().getContainer(containerId);
+            InternalKieContainer previous = containerInstance.getKieContainer();
+
+            ServiceResponse<ReleaseId> updateResponse = kieServer.updateContainerReleaseId(containerId, releaseId2);
+            Assertions.assertThat(updateResponse.getType()).isEqualTo(ServiceResponse.ResponseType.FAILURE);
+            Assertions.assertThat(updateResponse.getResult()).isEqualTo(releaseId1);
+
+            // server is left as it was, the current KieContainer is still registered under the container id
+            Assertions.assertThat(kieServer.getServerRegistry().getContainer(containerId)).isSameAs(containerInstance);
+            Assertions.assertThat(containerInstance.getKieContainer()).isSameAs(previous);
+            Assertions.assertThat(KieServices.Factory.get().getKieContainer(containerId)).isSameAs(previous);
+            Assertions.assertThat(containerInstance.getResource().getResolvedReleaseId()).isEqualTo(releaseId1);
+            assertReleaseIds(containerId, releaseId1, releaseId1, 1000L);
+
+            ServiceResponse<Void> disposeResponse = kieServer.disposeContainer(containerId);
+            Assertions.assertThat(disposeResponse.getType()).isEqualTo(ServiceResponse.ResponseType.SUCCESS);
+            Assertions.assertThat(KieServices.Factory.get().getKieContainer(containerId)).isNull();
+        } finally {
+            System.clearProperty(KieServerConstants.CFG_CONTAINER_UPGRADE_SWAP);
+        }
+    }
+
     @Test
     public void testExecutorPropertiesInStateRepository() {
         KieServerStateFileRepository stateRepository = new KieServerStateFileRepository(REPOSITORY_DIR);
@@ -235,6 +352,17 @@ public class KieServerImplTest {
         kieServices.getRepository().addKieModule(kieModule);
     }
 
+    private void createBrokenKjar(String artifactId, String version) {
+        // kjar with a rule that does not compile, so the KieContainer created for it does not verify
+        KieServices kieServices = KieServices.Factory.get();
+        KieFileSystem kfs = kieServices.newKieFileSystem();
+        kfs.write("src/main/resources/org/kie/server/test/broken.drl", "package org.kie.server.test\n rule broken when Unknown() then end");
+        releaseId = kieServices.newReleaseId(GROUP_ID, artifactId, version);
+        KieModule kieModule = ((InternalKieBuilder) kieServices.newKieBuilder( kfs ).buildAll()).getKieModuleIgnoringErrors();
+        KieMavenRepository.getKieMavenRepository().installArtifact( releaseId, (InternalKieModule)kieModule, createPomFile( artifactId, version ) );
+        kieServices.getRepository().addKieModule(kieModule);
+    }
+
     private File createPomFile(String artifactId, String version) {
         String pomContent = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
                 "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
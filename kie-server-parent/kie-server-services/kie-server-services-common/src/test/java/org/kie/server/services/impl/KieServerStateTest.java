@@ -25,6 +25,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.model.KieServerConfig;
+import org.kie.server.api.model.KieServerConfigItem;
 import org.kie.server.services.impl.storage.KieServerState;
 import org.kie.server.services.impl.storage.KieServerStateRepository;
 import org.kie.server.services.impl.storage.file.KieServerStateFileRepository;
@@ -100,4 +101,29 @@ public class KieServerStateTest {
         Assert.assertEquals("jdbc/jbpm", config.getConfigItemValue(KieServerConstants.CFG_PERSISTANCE_DS));
         Assert.assertEquals("org.hibernate.service.jta.platform.internal.BitronixJtaPlatform", config.getConfigItemValue(KieServerConstants.CFG_PERSISTANCE_TM));
     }
+
+    @Test
+    public void testWriteBehindKieServerState() {
+        KieServerStateFileRepository repository = new KieServerStateFileRepository(REPOSITORY_DIR, 60000);
+
+        String serverId = UUID.randomUUID().toString();
+        File stateFile = new File(REPOSITORY_DIR, serverId + ".xml");
+
+        KieServerState state = repository.load(serverId);
+        for (int i = 0; i < 10; i++) {
+            state.getConfiguration().addConfigItem(new KieServerConfigItem("test.item." + i, String.valueOf(i), String.class.getName()));
+            repository.store(serverId, state);
+        }
+        // stores are coalesced and not yet written, loads see the latest state
+        Assert.assertFalse(stateFile.exists());
+        Assert.assertSame(state, repository.load(serverId));
+
+        repository.close();
+        Assert.assertTrue(stateFile.exists());
+
+        repository = new KieServerStateFileRepository(REPOSITORY_DIR);
+        state = repository.load(serverId);
+        Assert.assertEquals("9", state.getConfiguration().getConfigItemValue("test.item.9"));
+        Assert.assertEquals(0, REPOSITORY_DIR.listFiles((dir, name) -> name.endsWith(".tmp")).length);
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.admission;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieServerConfigItem;
+
+import static org.junit.Assert.*;
+
+public class ContainerBulkheadTest {
+
+    @Test
+    public void testFromConfig() {
+        assertNull(ContainerBulkhead.fromConfig("container1", Collections.<KieServerConfigItem>emptyList()));
+        assertNull(ContainerBulkhead.fromConfig("container1", Arrays.asList(item(KieServerConstants.CCFG_MAX_CONCURRENT_REQUESTS, "0"))));
+
+        ContainerBulkhead bulkhead = ContainerBulkhead.fromConfig("container1", Arrays.asList(
+                item(KieServerConstants.CCFG_MAX_CONCURRENT_REQUESTS, "4"),
+                item(KieServerConstants.CCFG_MAX_QUEUED_REQUESTS, "10")));
+        assertNotNull(bulkhead);
+        assertEquals("container1", bulkhead.getContainerId());
+        assertEquals(4, bulkhead.getMaxConcurrentRequests());
+        assertEquals(10, bulkhead.getMaxQueuedRequests());
+        assertEquals(1000, bulkhead.getMaxQueueWait());
+    }
+
+    @Test
+    public void testRejectWhenQueueFull() {
+        ContainerBulkhead bulkhead = new ContainerBulkhead("container1", 1, 0, 1000);
+        bulkhead.acquire();
+        assertEquals(1, bulkhead.getActiveRequests());
+        try {
+            bulkhead.acquire();
+            fail("Request over the limit without queue should be rejected");
+        } catch (ContainerOverloadedException e) {
+            assertTrue(e.isQueueFull());
+            assertEquals("container1", e.getContainerId());
+        }
+        assertEquals(1, bulkhead.getRejectedRequests());
+
+        bulkhead.release();
+        bulkhead.acquire();
+        bulkhead.release();
+        assertEquals(0, bulkhead.getActiveRequests());
+    }
+
+    @Test
+    public void testTimeoutInQueue() {
+        ContainerBulkhead bulkhead = new ContainerBulkhead("container1", 1, 1, 50);
+        bulkhead.acquire();
+        try {
+            bulkhead.acquire();
+            fail("Request waiting too long should be rejected");
+        } catch (ContainerOverloadedException e) {
+            assertFalse(e.isQueueFull());
+        }
+        assertEquals(1, bulkhead.getTimedOutRequests());
+        assertEquals(0, bulkhead.getRejectedRequests());
+        assertEquals(0, bulkhead.getQueuedRequests());
+    }
+
+    @Test(timeout = 10000)
+    public void testQueuedRequestAdmittedOnRelease() throws Exception {
+        ContainerBulkhead bulkhead = new ContainerBulkhead("container1", 1, 1, 5000);
+        bulkhead.acquire();
+
+        CountDownLatch admitted = new CountDownLatch(1);
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread waiting = new Thread(() -> {
+            try {
+                bulkhead.acquire();
+                admitted.countDown();
+                bulkhead.release();
+            } catch (Throwable e) {
+                errors.add(e);
+            }
+        });
+        waiting.start();
+
+        while (bulkhead.getQueuedRequests() == 0) {
+            Thread.sleep(10);
+        }
+        // queue holds single request only
+        try {
+            bulkhead.acquire();
+            fail("Request over the queue size should be rejected");
+        } catch (ContainerOverloadedException e) {
+            assertTrue(e.isQueueFull());
+        }
+
+        bulkhead.release();
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        waiting.join();
+        assertTrue(errors.isEmpty());
+        assertEquals(0, bulkhead.getActiveRequests());
+    }
+
+    private static KieServerConfigItem item(String name, String value) {
+        return new KieServerConfigItem(name, value, String.class.getName());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import org.assertj.core.api.Assertions;
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.KieModule;
+import org.kie.api.runtime.KieSession;
+import org.kie.scanner.KieMavenRepository;
+import org.kie.server.api.model.ReleaseId;
+
+public class CompiledKieModuleCacheTest {
+
+    private static final String CONTAINER_ID = "cached-container";
+    private static final ReleaseId RELEASE_ID = new ReleaseId("org.kie.server.test", "cached-kjar", "1.0.0.Final");
+
+    private File cacheDir;
+    private CompiledKieModuleCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        cacheDir = Files.createTempDirectory("kie-container-cache").toFile();
+        cache = new CompiledKieModuleCache(cacheDir);
+        installKjar();
+    }
+
+    @After
+    public void cleanup() {
+        KieServices.Factory.get().getRepository().removeKieModule(RELEASE_ID);
+        delete(cacheDir);
+    }
+
+    @Test
+    public void testStoreAndLoadEntry() throws Exception {
+        InternalKieContainer kieContainer = cache.newKieContainer(CONTAINER_ID, RELEASE_ID);
+        Assertions.assertThat(fireRules(kieContainer)).isEqualTo(1);
+        kieContainer.dispose();
+
+        List<File> entries = entries();
+        Assertions.assertThat(entries).hasSize(1);
+        Assertions.assertThat(entryNames(entries.get(0))).anyMatch(name -> name.endsWith("kbase.cache"));
+        long stored = entries.get(0).lastModified();
+
+        // as after restart, nothing is in memory
+        KieServices.Factory.get().getRepository().removeKieModule(RELEASE_ID);
+
+        kieContainer = cache.newKieContainer(CONTAINER_ID, RELEASE_ID);
+        Assertions.assertThat(fireRules(kieContainer)).isEqualTo(1);
+        kieContainer.dispose();
+
+        // loaded from the entry, not built and stored again
+        Assertions.assertThat(entries()).containsExactly(entries.get(0));
+        Assertions.assertThat(entries.get(0).lastModified()).isEqualTo(stored);
+    }
+
+    @Test
+    public void testInvalidEntryIsRebuilt() throws Exception {
+        cache.newKieContainer(CONTAINER_ID, RELEASE_ID).dispose();
+        File entry = entries().get(0);
+        Files.write(entry.toPath(), "not a jar".getBytes());
+        KieServices.Factory.get().getRepository().removeKieModule(RELEASE_ID);
+
+        InternalKieContainer kieContainer = cache.newKieContainer(CONTAINER_ID, RELEASE_ID);
+        Assertions.assertThat(fireRules(kieContainer)).isEqualTo(1);
+        kieContainer.dispose();
+
+        Assertions.assertThat(entry).isFile();
+        Assertions.assertThat(entryNames(entry)).anyMatch(name -> name.endsWith("kbase.cache"));
+    }
+
+    @Test
+    public void testStaleEntriesAreRemoved() throws Exception {
+        File stale = cache.getEntry(RELEASE_ID.getGroupId(), RELEASE_ID.getArtifactId(), RELEASE_ID.getVersion(), "previous-build");
+        stale.getParentFile().mkdirs();
+        Files.write(stale.toPath(), new byte[0]);
+
+        cache.newKieContainer(CONTAINER_ID, RELEASE_ID).dispose();
+
+        Assertions.assertThat(stale).doesNotExist();
+        Assertions.assertThat(entries()).hasSize(1);
+    }
+
+    private int fireRules(InternalKieContainer kieContainer) {
+        KieSession ksession = kieContainer.newKieSession();
+        try {
+            ksession.insert("fact");
+            return ksession.fireAllRules();
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private List<File> entries() {
+        File dir = cache.getEntry(RELEASE_ID.getGroupId(), RELEASE_ID.getArtifactId(), RELEASE_ID.getVersion(), "any").getParentFile();
+        File[] files = dir.listFiles((d, name) -> name.endsWith(CompiledKieModuleCache.ENTRY_SUFFIX));
+        List<File> entries = new ArrayList<File>();
+        if (files != null) {
+            Collections.addAll(entries, files);
+        }
+        return entries;
+    }
+
+    private List<String> entryNames(File entry) throws IOException {
+        List<String> names = new ArrayList<String>();
+        try (ZipFile zip = new ZipFile(entry)) {
+            zip.stream().forEach(zipEntry -> names.add(zipEntry.getName()));
+        }
+        return names;
+    }
+
+    private void installKjar() {
+        KieServices ks = KieServices.Factory.get();
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(RELEASE_ID);
+        kfs.write("src/main/resources/org/kie/server/test/rules.drl",
+                  "package org.kie.server.test\n" +
+                  "rule \"String inserted\" when\n" +
+                  "    $s : String()\n" +
+                  "then\n" +
+                  "    System.out.println($s.length());\n" +
+                  "end\n");
+        KieModule kieModule = ks.newKieBuilder(kfs).buildAll().getKieModule();
+        byte[] pom = kfs.read("pom.xml");
+        byte[] jar = ((InternalKieModule) kieModule).getBytes();
+        KieMavenRepository.getKieMavenRepository().installArtifact(RELEASE_ID, jar, pom);
+        ks.getRepository().removeKieModule(RELEASE_ID);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
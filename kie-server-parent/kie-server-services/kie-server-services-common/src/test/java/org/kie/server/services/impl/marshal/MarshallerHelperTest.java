@@ -45,6 +45,16 @@ import org.xmlunit.matchers.CompareMatcher;
 
 public class MarshallerHelperTest {
 
+	@Test
+	public void testGetFormat() {
+		assertEquals(MarshallingFormat.JSON, MarshallerHelper.getFormat("application/json"));
+		assertEquals(MarshallingFormat.JAXB, MarshallerHelper.getFormat("application/xml; charset=UTF-8"));
+		assertEquals(MarshallingFormat.XSTREAM, MarshallerHelper.getFormat("XSTREAM"));
+		// remembered descriptors give the same result
+		assertEquals(MarshallingFormat.JSON, MarshallerHelper.getFormat("application/json"));
+		assertEquals(MarshallingFormat.XSTREAM, MarshallerHelper.getFormat("XSTREAM"));
+	}
+
 	@Test
 	public void testMarshallWithoutContainer() {
 		KieServerRegistry kieServerRegistryMock = Mockito.mock(KieServerRegistry.class);
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.metrics;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.MBeanServer;
+
+import org.junit.After;
+import org.junit.Test;
+import org.kie.server.api.model.KieContainerStatus;
+import org.kie.server.api.model.ReleaseId;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.KieServerRegistryImpl;
+import org.kie.server.services.impl.admission.ContainerBulkhead;
+
+import static org.junit.Assert.*;
+
+public class KieServerMetricsTest {
+
+    private KieServerMetrics metrics = KieServerMetrics.get();
+
+    @After
+    public void cleanup() {
+        metrics.removeContainer("container1");
+        metrics.removeContainer("container2");
+        metrics.removeContainer("alias1");
+        metrics.removeContainer(KieServerMetrics.UNKNOWN_CONTAINER);
+        metrics.disable();
+    }
+
+    @Test
+    public void testRecordingDisabled() {
+        metrics.record(KieServerMetrics.RULES, "batch", "container1", null, metrics.start(), true);
+
+        assertTrue(metrics.getMetrics().isEmpty());
+    }
+
+    @Test
+    public void testRecord() throws Exception {
+        metrics.enable(true);
+
+        metrics.record(KieServerMetrics.RULES, "batch", "container1", "application/json", metrics.start(), true);
+        metrics.record(KieServerMetrics.RULES, "batch", "container1", "JSON", metrics.start(), false);
+        metrics.record(KieServerMetrics.RULES, "batch", "container2", "xstream", metrics.start(), true);
+        metrics.record(KieServerMetrics.PROCESS, "evaluation", "container1", null, metrics.start(), true);
+
+        List<RequestMetrics> all = metrics.getMetrics();
+        assertEquals(3, all.size());
+
+        RequestMetrics process = all.get(0);
+        assertEquals(KieServerMetrics.PROCESS, process.getKind());
+        assertEquals("", process.getFormat());
+
+        RequestMetrics rules = all.get(1);
+        assertEquals("container1", rules.getContainerId());
+        assertEquals("json", rules.getFormat());
+        assertEquals(2, rules.getCount());
+        assertEquals(1, rules.getErrors());
+
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(2L, mbeanServer.getAttribute(KieServerMetrics.objectName(rules), "Count"));
+
+        metrics.removeContainer("container1");
+        assertEquals(1, metrics.getMetrics().size());
+        assertFalse(mbeanServer.isRegistered(KieServerMetrics.objectName(rules)));
+    }
+
+    @Test
+    public void testUnknownContainersRecordedTogether() throws Exception {
+        KieServerRegistryImpl registry = new KieServerRegistryImpl();
+        KieContainerInstanceImpl container = new KieContainerInstanceImpl("container1", KieContainerStatus.STARTED, null, new ReleaseId("org.kie", "test", "1.0"));
+        container.getResource().setContainerAlias("alias1");
+        registry.registerContainer("container1", container);
+        metrics.enable(true, registry);
+
+        metrics.record(KieServerMetrics.REST, "ProcessResource.startProcess", "container1", null, metrics.start(), true);
+        metrics.record(KieServerMetrics.REST, "ProcessResource.startProcess", "alias1", null, metrics.start(), true);
+        metrics.record(KieServerMetrics.REST, "ProcessResource.startProcess", "container2", null, metrics.start(), false);
+        metrics.record(KieServerMetrics.REST, "ProcessResource.startProcess", "container3", null, metrics.start(), false);
+        metrics.record(KieServerMetrics.REST, "KieServerRestImpl.getInfo", null, null, metrics.start(), true);
+
+        List<RequestMetrics> all = metrics.getMetrics();
+        assertEquals(4, all.size());
+        assertEquals("", all.get(0).getContainerId());
+        assertEquals("alias1", all.get(1).getContainerId());
+        assertEquals("container1", all.get(2).getContainerId());
+
+        RequestMetrics unknown = all.get(3);
+        assertEquals(KieServerMetrics.UNKNOWN_CONTAINER, unknown.getContainerId());
+        assertEquals(2, unknown.getCount());
+        assertEquals(2, unknown.getErrors());
+
+        // requests completing after the container was disposed do not bring its metrics back
+        registry.unregisterContainer("container1");
+        metrics.removeContainer("container1");
+        metrics.record(KieServerMetrics.REST, "ProcessResource.startProcess", "container1", null, metrics.start(), true);
+        assertEquals(3, metrics.getMetrics().size());
+        assertEquals(3, unknown.getCount());
+    }
+
+    @Test
+    public void testTime() {
+        metrics.enable(false);
+
+        assertEquals(Long.valueOf(1), metrics.time(KieServerMetrics.PROCESS, "evaluation", "container1", "JSON", () -> 1L));
+        try {
+            metrics.time(KieServerMetrics.PROCESS, "evaluation", "container1", "JSON", () -> {
+                throw new IllegalStateException("Process not found");
+            });
+            fail("Failure of the work must be propagated");
+        } catch (IllegalStateException e) {
+            assertEquals("Process not found", e.getMessage());
+        }
+
+        List<RequestMetrics> all = metrics.getMetrics();
+        assertEquals(1, all.size());
+        assertEquals(2, all.get(0).getCount());
+        assertEquals(1, all.get(0).getErrors());
+    }
+
+    @Test
+    public void testWriteText() throws Exception {
+        metrics.enable(false);
+        metrics.record(KieServerMetrics.REST, "ProcessResource.startProcess", "container1", "xml", metrics.start(), true);
+
+        StringWriter writer = new StringWriter();
+        metrics.writeText(writer);
+        String text = writer.toString();
+
+        String labels = "kind=\"rest\",operation=\"ProcessResource.startProcess\",container=\"container1\",format=\"jaxb\"";
+        assertTrue(text, text.contains("# TYPE kie_server_request_seconds summary\n"));
+        assertTrue(text, text.contains("kie_server_request_seconds{" + labels + ",quantile=\"0.99\"} "));
+        assertTrue(text, text.contains("kie_server_request_seconds_count{" + labels + "} 1\n"));
+        assertTrue(text, text.contains("kie_server_request_errors_total{" + labels + "} 0\n"));
+    }
+
+    @Test
+    public void testBulkhead() throws Exception {
+        metrics.enable(true);
+        ContainerBulkhead bulkhead = new ContainerBulkhead("container1", 2, 0, 0);
+        metrics.addBulkhead(bulkhead);
+        bulkhead.acquire();
+
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(1, mbeanServer.getAttribute(KieServerMetrics.objectName(bulkhead), "ActiveRequests"));
+
+        StringWriter writer = new StringWriter();
+        metrics.writeText(writer);
+        String text = writer.toString();
+        assertTrue(text, text.contains("kie_server_container_active_requests{container=\"container1\"} 1\n"));
+        assertTrue(text, text.contains("kie_server_container_rejected_requests_total{container=\"container1\",reason=\"queue_full\"} 0\n"));
+
+        metrics.removeContainer("container1");
+        assertTrue(metrics.getBulkheads().isEmpty());
+        assertFalse(mbeanServer.isRegistered(KieServerMetrics.objectName(bulkhead)));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        long value = 0;
+        while (value < (1L << 39)) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long highest = LatencyHistogram.highestValue(index);
+            assertTrue("Value " + value + " above its bucket", highest >= value);
+            if (index > 0) {
+                assertTrue("Value " + value + " below its bucket", LatencyHistogram.highestValue(index - 1) < value);
+            }
+            // relative error of the bucket is at most 1/32
+            assertTrue("Bucket of " + value + " too wide", highest - value <= Math.max(1, value / 32));
+
+            value = value < 1000 ? value + 1 : value + value / 100;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        histogram.record(-5);
+
+        assertEquals(1001, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500500000, histogram.getSum());
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertWithin(500000, histogram.getValueAtPercentile(50));
+        assertWithin(990000, histogram.getValueAtPercentile(99));
+        assertEquals(1000000, histogram.getValueAtPercentile(100));
+    }
+
+    private void assertWithin(long expected, long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual, Math.abs(expected - actual) <= expected / 32);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.impl.security.adapters;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.security.auth.Subject;
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.callback.NameCallback;
+import javax.security.auth.callback.PasswordCallback;
+import javax.security.auth.login.AppConfigurationEntry;
+import javax.security.auth.login.Configuration;
+import javax.security.auth.login.FailedLoginException;
+import javax.security.auth.login.LoginException;
+import javax.security.auth.spi.LoginModule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JMSSecurityAdapterTest {
+
+    private static final String USER = "john";
+    private static final String PASSWORD = "secret";
+
+    private static final AtomicInteger logins = new AtomicInteger();
+
+    private Configuration previousConfiguration;
+    private JMSSecurityAdapter adapter = new JMSSecurityAdapter();
+
+    @Before
+    public void setup() {
+        try {
+            previousConfiguration = Configuration.getConfiguration();
+        } catch (SecurityException e) {
+            previousConfiguration = null;
+        }
+        Configuration.setConfiguration(new Configuration() {
+            @Override
+            public AppConfigurationEntry[] getAppConfigurationEntry(String name) {
+                return new AppConfigurationEntry[]{new AppConfigurationEntry(CountingLoginModule.class.getName(),
+                                                                             AppConfigurationEntry.LoginModuleControlFlag.REQUIRED,
+                                                                             Collections.<String, Object>emptyMap())};
+            }
+        });
+        logins.set(0);
+    }
+
+    @After
+    public void cleanup() {
+        JMSSecurityAdapter.logout();
+        JMSSecurityAdapter.setAuthenticationCacheTtl(0);
+        Configuration.setConfiguration(previousConfiguration);
+    }
+
+    @Test
+    public void testCacheDisabledByDefault() {
+        JMSSecurityAdapter.setAuthenticationCacheTtl(0);
+
+        login(USER, PASSWORD);
+        assertEquals(USER, adapter.getUser());
+        login(USER, PASSWORD);
+        assertEquals(USER, adapter.getUser());
+
+        assertEquals(2, logins.get());
+    }
+
+    @Test
+    public void testCachedLogin() {
+        JMSSecurityAdapter.setAuthenticationCacheTtl(60000);
+
+        login(USER, PASSWORD);
+        assertEquals(USER, adapter.getUser());
+        login(USER, PASSWORD);
+        assertEquals(USER, adapter.getUser());
+        assertEquals(1, logins.get());
+
+        // other credentials of the same user are verified again
+        login(USER, "wrong");
+        assertNull(adapter.getUser());
+        assertEquals(2, logins.get());
+
+        JMSSecurityAdapter.clearAuthenticationCache();
+        login(USER, PASSWORD);
+        assertEquals(USER, adapter.getUser());
+        assertEquals(3, logins.get());
+    }
+
+    @Test
+    public void testFailedLoginNotCached() {
+        JMSSecurityAdapter.setAuthenticationCacheTtl(60000);
+
+        login(USER, "wrong");
+        assertNull(adapter.getUser());
+        login(USER, "wrong");
+        assertNull(adapter.getUser());
+
+        assertEquals(2, logins.get());
+    }
+
+    @Test
+    public void testExpiredLogin() throws Exception {
+        JMSSecurityAdapter.setAuthenticationCacheTtl(1);
+
+        login(USER, PASSWORD);
+        Thread.sleep(10);
+        login(USER, PASSWORD);
+        assertEquals(USER, adapter.getUser());
+
+        assertEquals(2, logins.get());
+    }
+
+    // as KieServerMDB does for every message
+    private static void login(String user, String password) {
+        JMSSecurityAdapter.logout();
+        JMSSecurityAdapter.login(user, password);
+    }
+
+    public static class CountingLoginModule implements LoginModule {
+
+        private CallbackHandler callbackHandler;
+
+        @Override
+        public void initialize(Subject subject, CallbackHandler callbackHandler, Map<String, ?> sharedState, Map<String, ?> options) {
+            this.callbackHandler = callbackHandler;
+        }
+
+        @Override
+        public boolean login() throws LoginException {
+            logins.incrementAndGet();
+            NameCallback name = new NameCallback("user");
+            PasswordCallback password = new PasswordCallback("password", false);
+            try {
+                callbackHandler.handle(new Callback[]{name, password});
+            } catch (Exception e) {
+                throw new LoginException(e.getMessage());
+            }
+            if (!USER.equals(name.getName()) || !PASSWORD.equals(new String(password.getPassword()))) {
+                throw new FailedLoginException("Invalid credentials");
+            }
+            return true;
+        }
+
+        @Override
+        public boolean commit() throws LoginException {
+            return true;
+        }
+
+        @Override
+        public boolean abort() throws LoginException {
+            return true;
+        }
+
+        @Override
+        public boolean logout() throws LoginException {
+            return true;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import org.kie.server.api.model.type.JaxbMap;
 import org.kie.server.services.api.KieContainerInstance;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
 import org.optaplanner.core.api.score.Score;
 import org.optaplanner.core.api.solver.Solver;
@@ -106,6 +107,8 @@ public class ModelEvaluatorServiceBase {
     }
     
     public ServiceResponse<DMNResultKS> evaluateDecisions(String containerId, String contextPayload, String marshallingType) {
+        long start = KieServerMetrics.get().start();
+        boolean success = false;
         try {
             KieContainerInstanceImpl kContainer = context.getContainer(containerId);
             KieSession kieSession = kContainer.getKieContainer().newKieSession();
@@ -164,6 +167,7 @@ public class ModelEvaluatorServiceBase {
             DMNResultKS res = new DMNResultKS(model.getNamespace(), model.getName(), evalCtx.getDecisionName(), result);
             
             kieSession.dispose();
+            success = true;
             return new ServiceResponse<DMNResultKS>(
                     ServiceResponse.ResponseType.SUCCESS,
                     "OK from container '" + containerId + "'",
@@ -175,6 +179,8 @@ public class ModelEvaluatorServiceBase {
                     ServiceResponse.ResponseType.FAILURE,
                     "Error from container '" + containerId + "'" + e.getMessage(),
                     null );
+        } finally {
+            KieServerMetrics.get().record(KieServerMetrics.DMN, "evaluateDecisions", containerId, marshallingType, start, success);
         }
     }
 
@@ -15,6 +15,7 @@
 
 package org.kie.server.services.drools;
 
+import org.drools.compiler.kie.builder.impl.InternalKieContainer;
 import org.drools.core.command.runtime.BatchExecutionCommandImpl;
 import org.kie.api.command.BatchExecutionCommand;
 import org.kie.api.runtime.CommandExecutor;
@@ -22,6 +23,7 @@ import org.kie.api.runtime.ExecutionResults;
 import org.kie.server.services.api.KieContainerInstance;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
 
 /**
  * Direct rules execution service that allow use of typed objects instead of string only
@@ -39,21 +41,34 @@ public class RulesExecutionService {
         BatchExecutionCommandImpl command = (BatchExecutionCommandImpl) executionCommand;
 
         if (kci != null && kci.getKieContainer() != null) {
-            // find the session
-            CommandExecutor ks = null;
-            if( command.getLookup() != null ) {
-                ks = context.getKieSessionLookupManager().lookup(command.getLookup(), kci, context);
-            } else {
-                // if no session ID is defined, then the default is a stateful session
-                ks = ((KieContainerInstanceImpl)kci).getKieContainer().getKieSession();
-            }
+            // keeps the container from being disposed when it is replaced during the call
+            InternalKieContainer kieContainer = ((KieContainerInstanceImpl)kci).acquireKieContainer();
+            try {
+                // find the session
+                CommandExecutor ks = null;
+                if( command.getLookup() != null ) {
+                    ks = context.getKieSessionLookupManager().lookup(command.getLookup(), kci, context);
+                } else if (kieContainer != null) {
+                    // if no session ID is defined, then the default is a stateful session
+                    ks = kieContainer.getKieSession();
+                }
 
-            if (ks != null) {
-                ExecutionResults results = ks.execute(command);
+                if (ks != null) {
+                    long start = KieServerMetrics.get().start();
+                    boolean success = false;
+                    try {
+                        ExecutionResults results = ks.execute(command);
+                        success = true;
 
-                return results;
-            } else {
-                throw new IllegalStateException("Session '" + command.getLookup() + "' not found on container '" + kci.getContainerId() + "'.");
+                        return results;
+                    } finally {
+                        KieServerMetrics.get().record(KieServerMetrics.RULES, "batch", kci.getContainerId(), null, start, success);
+                    }
+                } else {
+                    throw new IllegalStateException("Session '" + command.getLookup() + "' not found on container '" + kci.getContainerId() + "'.");
+                }
+            } finally {
+                ((KieContainerInstanceImpl)kci).releaseKieContainer(kieContainer);
             }
         }
 
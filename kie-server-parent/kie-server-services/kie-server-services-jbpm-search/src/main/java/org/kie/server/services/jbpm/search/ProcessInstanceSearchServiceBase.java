@@ -25,6 +25,7 @@ import org.kie.server.api.model.definition.ProcessInstanceQueryFilterSpec;
 import org.kie.server.api.model.instance.ProcessInstanceList;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
+import org.kie.server.services.jbpm.QueryCursor;
 import org.kie.server.services.jbpm.search.util.ProcessInstanceQueryStrategy;
 import org.kie.server.services.jbpm.search.util.QueryStrategy;
 import org.slf4j.Logger;
@@ -92,4 +93,16 @@ public class ProcessInstanceSearchServiceBase extends AbstractSearchServiceBase
 	
 	}
 
+	public QueryCursor.Page getProcessInstancesWithFiltersAndCursor(String cursor, Integer pageSize, String payload, String marshallingType) {
+		RequestCallback reqCallback = new RequestCallback() {
+			
+			@Override
+			public BaseQueryFilterSpec getQueryFilterSpec() {
+				return marshallerHelper.unmarshal(payload, marshallingType, ProcessInstanceQueryFilterSpec.class);
+			}
+		};
+		
+		return queryServiceTemplate.getWithFiltersAndCursor(cursor, pageSize, queryCallback, reqCallback);
+	}
+
 }
@@ -40,6 +40,7 @@ import org.kie.api.runtime.query.QueryContext;
 import org.kie.api.task.model.TaskSummary;
 import org.kie.internal.runtime.error.ExecutionError;
 import org.kie.server.api.model.definition.BaseQueryFilterSpec;
+import org.kie.server.services.jbpm.QueryCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -94,6 +95,50 @@ public class QueryServiceTemplate {
 		return (T) transform(result, resultMapper);
 	}
 
+	/**
+	 * Same as {@link #getWithFilters(Integer, Integer, QueryCallback, RequestCallback)} but pages results with cursor
+	 * instead of offset, see {@link QueryCursor}.
+	 */
+	public QueryCursor.Page getWithFiltersAndCursor(String cursor, Integer pageSize, QueryCallback queryCallback, RequestCallback reqCallback) {
+
+		QueryParam[] params = new QueryParam[0];
+		String orderBy = null;
+		boolean ascending = true;
+
+		BaseQueryFilterSpec filterSpec = reqCallback.getQueryFilterSpec();
+		if (filterSpec != null) {
+			orderBy = filterSpec.getOrderBy();
+			ascending = filterSpec.isAscending();
+
+			// build parameters for filtering the query
+			if (filterSpec.getParameters() != null) {
+				params = new QueryParam[filterSpec.getParameters().length];
+				int index = 0;
+				for (org.kie.server.api.model.definition.QueryParam param : filterSpec.getParameters()) {
+					params[index] = new QueryParam(param.getColumn(), param.getOperator(), param.getValue());
+					index++;
+				}
+			}
+		}
+
+		// mapper without column mapping is only used to find out type of the results
+		QueryCursor queryCursor = QueryCursor.forToken(cursor, QueryMapperRegistry.get().mapperFor(queryCallback.getMapperName(), null).getType(),
+				orderBy, ascending);
+		params = queryCursor.seek(params);
+
+		Map<String, String> columnMapping = queryCallback.getQueryStrategy().getColumnMapping(params);
+		QueryResultMapper<?> resultMapper = QueryMapperRegistry.get().mapperFor(queryCallback.getMapperName(), columnMapping);
+
+		logger.debug("About to perform query '{}' with {} and page size {}", queryCallback.getQueryName(), queryCursor, pageSize);
+
+		Object result = queryService.query(queryCallback.getQueryName(), resultMapper, queryCursor.buildQueryContext(pageSize), params);
+
+		logger.debug("Result returned from the query {} mapped with {}", result, resultMapper);
+
+		QueryCursor.Page page = queryCursor.page(result, pageSize);
+		return new QueryCursor.Page(transform(page.getResult(), resultMapper), page.getNextCursor());
+	}
+
 	protected Object transform(Object result, QueryResultMapper resultMapper) {
 		Object actualResult = null;
 		if (result instanceof Collection) {
@@ -25,6 +25,7 @@ import org.kie.server.api.model.definition.TaskQueryFilterSpec;
 import org.kie.server.api.model.instance.TaskInstanceList;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
+import org.kie.server.services.jbpm.QueryCursor;
 import org.kie.server.services.jbpm.search.util.QueryStrategy;
 import org.kie.server.services.jbpm.search.util.TaskQueryStrategy;
 import org.slf4j.Logger;
@@ -91,6 +92,20 @@ public class TaskSearchServiceBase extends AbstractSearchServiceBase {
 		
 	}
 
+	public QueryCursor.Page getHumanTasksWithFiltersAndCursor(String cursor, Integer pageSize, String payload, String marshallingType) {
+		
+		RequestCallback reqCallback = new RequestCallback() {
+			
+			@Override
+			public BaseQueryFilterSpec getQueryFilterSpec() {
+				return marshallerHelper.unmarshal(payload, marshallingType, TaskQueryFilterSpec.class);
+			}
+			
+		};
+		
+		return queryServiceTemplate.getWithFiltersAndCursor(cursor, pageSize, queryCallback, reqCallback);
+	}
+
 	// TODO: Should we also implement a method that supports QueryBuilders???
 	
 
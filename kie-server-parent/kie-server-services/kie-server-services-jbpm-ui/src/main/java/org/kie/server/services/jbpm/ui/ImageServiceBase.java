@@ -24,7 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.jbpm.process.svg.SVGImageProcessor;
+import org.jbpm.process.svg.SVGStreamProcessor;
 import org.jbpm.services.api.ProcessInstanceNotFoundException;
 import org.jbpm.services.api.RuntimeDataService;
 import org.jbpm.services.api.model.NodeInstanceDesc;
@@ -131,7 +131,7 @@ public class ImageServiceBase {
 
             ByteArrayInputStream svgStream = new ByteArrayInputStream(imageSVG);
 
-            imageSVGString = SVGImageProcessor.transform(svgStream, completed, new ArrayList<String>(active.values()), subProcessLinks);
+            imageSVGString = SVGStreamProcessor.transform(svgStream, completed, active.values(), subProcessLinks);
 
             return imageSVGString;
         }
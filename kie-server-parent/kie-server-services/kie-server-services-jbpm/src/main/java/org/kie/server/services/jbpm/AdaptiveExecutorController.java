@@ -0,0 +1,213 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.kie.api.executor.Executor;
+import org.kie.api.executor.ExecutorService;
+import org.kie.api.executor.RequestInfo;
+import org.kie.api.executor.STATUS;
+import org.kie.api.runtime.query.QueryContext;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieServerConfig;
+import org.kie.server.api.model.admin.ExecutorConcurrency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adjusts number of threads of the jBPM executor to the amount of jobs waiting for execution.
+ * <p>
+ * Backlog of due jobs and the time the oldest of them is already waiting is sampled periodically. Number of threads
+ * is doubled (up to the maximum) when there are more due jobs than threads or jobs wait longer than allowed, and is
+ * decreased by one (down to the minimum) after several checks without any backlog.
+ * <p>
+ * Executor api allows to change number of threads only before the executor is initialized - every thread polls for
+ * jobs on its own - so the executor is restarted with the new size. That is done only when no job is running, as restart
+ * interrupts them; running jobs are counted in the executor tables shared by all nodes, so in a cluster the resize
+ * waits until this node's executor is idle and no other node is running a job either.
+ */
+public class AdaptiveExecutorController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveExecutorController.class);
+
+    static final int SAMPLE_SIZE = 1000;
+    static final int IDLE_CHECKS = 3;
+
+    private static final List<STATUS> QUEUED_STATUSES = Arrays.asList(STATUS.QUEUED, STATUS.RETRYING);
+
+    private final ExecutorService executorService;
+    private final Executor executor;
+
+    private final boolean adaptive;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final long checkInterval;
+    private final long maxWaitTime;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean stopped;
+
+    private volatile int targetPoolSize;
+    private volatile Sample lastSample;
+    private int idleChecks;
+
+    public AdaptiveExecutorController(ExecutorService executorService, Executor executor, KieServerConfig config) {
+        this.executorService = executorService;
+        this.executor = executor;
+        this.adaptive = Boolean.parseBoolean(config.getConfigItemValue(KieServerConstants.CFG_EXECUTOR_POOL_ADAPTIVE, "false"));
+        this.minPoolSize = Math.max(1, Integer.parseInt(config.getConfigItemValue(KieServerConstants.CFG_EXECUTOR_POOL_MIN, "1")));
+        this.maxPoolSize = Math.max(minPoolSize, Integer.parseInt(config.getConfigItemValue(KieServerConstants.CFG_EXECUTOR_POOL_MAX, "10")));
+        this.checkInterval = Long.parseLong(config.getConfigItemValue(KieServerConstants.CFG_EXECUTOR_POOL_CHECK_INTERVAL, "10"));
+        this.maxWaitTime = Long.parseLong(config.getConfigItemValue(KieServerConstants.CFG_EXECUTOR_POOL_MAX_WAIT, "10000"));
+        this.targetPoolSize = executor.getThreadPoolSize();
+    }
+
+    public void start() {
+        if (!adaptive) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "KieServerExecutorController");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, checkInterval, checkInterval, TimeUnit.SECONDS);
+        logger.info("Adaptive executor concurrency started with pool size between {} and {}", minPoolSize, maxPoolSize);
+    }
+
+    public void stop() {
+        stopped = true;
+        if (scheduler != null) {
+            // check in progress is not interrupted, executor must not be left destroyed in the middle of a restart
+            scheduler.shutdown();
+            try {
+                if (!scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logger.warn("Executor concurrency check did not finish in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public ExecutorConcurrency getConcurrency() {
+        Sample sample = lastSample;
+        if (sample == null || !adaptive) {
+            sample = sample();
+        }
+
+        return ExecutorConcurrency.builder()
+                .adaptive(adaptive)
+                .poolSize(executor.getThreadPoolSize())
+                .targetPoolSize(adaptive ? targetPoolSize : executor.getThreadPoolSize())
+                .minPoolSize(adaptive ? minPoolSize : executor.getThreadPoolSize())
+                .maxPoolSize(adaptive ? maxPoolSize : executor.getThreadPoolSize())
+                .queuedJobs(sample.queued)
+                .runningJobs(sample.running)
+                .maxWaitTime(sample.maxWait)
+                .build();
+    }
+
+    protected synchronized void check() {
+        if (stopped) {
+            return;
+        }
+        try {
+            Sample sample = sample();
+            lastSample = sample;
+
+            int poolSize = executor.getThreadPoolSize();
+            targetPoolSize = calculatePoolSize(poolSize, sample.queued, sample.running, sample.maxWait);
+            if (targetPoolSize == poolSize) {
+                return;
+            }
+            if (sample.running > 0) {
+                logger.debug("Resize of executor from {} to {} threads postponed, {} jobs are running", poolSize, targetPoolSize, sample.running);
+                return;
+            }
+
+            logger.info("Restarting executor to resize it from {} to {} threads ({} jobs queued, longest waiting {} ms)",
+                        poolSize, targetPoolSize, sample.queued, sample.maxWait);
+            executor.destroy();
+            executor.setThreadPoolSize(targetPoolSize);
+            executor.init();
+        } catch (Exception e) {
+            logger.warn("Unable to adjust executor concurrency due to {}", e.getMessage());
+            logger.debug("Complete stack trace of executor concurrency check", e);
+        }
+    }
+
+    protected int calculatePoolSize(int poolSize, int queued, int running, long maxWait) {
+        if (queued > 0 && (queued > poolSize || maxWait > maxWaitTime)) {
+            idleChecks = 0;
+            return bound(poolSize * 2);
+        }
+        if (queued == 0 && running < poolSize) {
+            if (++idleChecks >= IDLE_CHECKS) {
+                idleChecks = 0;
+                return bound(poolSize - 1);
+            }
+        } else {
+            idleChecks = 0;
+        }
+        return bound(poolSize);
+    }
+
+    protected Sample sample() {
+        long now = System.currentTimeMillis();
+        int queued = 0;
+        long maxWait = 0;
+        // jobs scheduled in the future are not waiting for a thread
+        for (RequestInfo request : executorService.getRequestsByStatus(QUEUED_STATUSES, new QueryContext(0, SAMPLE_SIZE))) {
+            long time = request.getTime() == null ? now : request.getTime().getTime();
+            if (time <= now) {
+                queued++;
+                maxWait = Math.max(maxWait, now - time);
+            }
+        }
+        int running = executorService.getRunningRequests(new QueryContext(0, SAMPLE_SIZE)).size();
+
+        return new Sample(queued, running, maxWait);
+    }
+
+    private int bound(int poolSize) {
+        return Math.min(maxPoolSize, Math.max(minPoolSize, poolSize));
+    }
+
+    protected static class Sample {
+
+        private final int queued;
+        private final int running;
+        private final long maxWait;
+
+        Sample(int queued, int running, long maxWait) {
+            this.queued = queued;
+            this.running = running;
+            this.maxWait = maxWait;
+        }
+    }
+}
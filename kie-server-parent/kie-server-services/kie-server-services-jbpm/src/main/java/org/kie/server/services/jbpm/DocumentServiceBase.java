@@ -15,15 +15,20 @@
 
 package org.kie.server.services.jbpm;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 
 import org.jbpm.document.Document;
 import org.jbpm.document.service.DocumentStorageService;
 import org.jbpm.document.service.DocumentStorageServiceProvider;
-import org.jbpm.document.service.impl.DocumentStorageServiceImpl;
 import org.kie.server.api.model.instance.DocumentInstance;
 import org.kie.server.api.model.instance.DocumentInstanceList;
 import org.kie.server.services.api.KieServerRegistry;
@@ -36,6 +41,8 @@ public class DocumentServiceBase {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentServiceBase.class);
 
+    private static final int BUFFER_SIZE = 8192;
+
     private DocumentStorageService documentStorageService = DocumentStorageServiceProvider.get().getStorageService();
     private MarshallerHelper marshallerHelper;
 
@@ -99,6 +106,51 @@ public class DocumentServiceBase {
         logger.debug("Document {} deleted successfully", document);
     }
 
+    /**
+     * Stores document content read from given stream. Storage services take the content as an array,
+     * so it is read in full before it is stored.
+     */
+    public String storeDocument(String name, Date lastModified, InputStream content) {
+        logger.debug("About to store streamed document {}", name);
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Document name must be given");
+        }
+        if (!isValidFileName(name)) {
+            throw new IllegalArgumentException("Document name '" + name + "' is not a valid file name");
+        }
+        if (lastModified == null) {
+            lastModified = new Date();
+        }
+        byte[] data = readContent(content);
+        Document document = documentStorageService.buildDocument(name, data.length, lastModified, new HashMap<String, String>());
+        logger.debug("Document created by the service {}", document);
+        documentStorageService.saveDocument(document, data);
+        logger.debug("Document {} stored successfully", document);
+
+        return document.getIdentifier();
+    }
+
+    public void updateDocument(String documentId, InputStream content) {
+        logger.debug("About to update content of document {} from stream", documentId);
+        Document document = findDocument(documentId);
+        documentStorageService.saveDocument(document, readContent(content));
+        logger.debug("Document {} updated successfully", documentId);
+    }
+
+    /**
+     * Returns document without its content - to be used together with {@link #getDocumentContent(String)}.
+     */
+    public DocumentInstance getDocumentInfo(String documentId) {
+        return convertDocument(findDocument(documentId), false);
+    }
+
+    /**
+     * Opens stream of the document content, the caller is responsible for closing it.
+     */
+    public InputStream getDocumentContent(String documentId) {
+        return new ByteArrayInputStream(findDocument(documentId).getContent());
+    }
+
     public DocumentInstanceList listDocuments(Integer page, Integer pageSize) {
         logger.debug("About to list documents with page {} and pageSize {}", page, pageSize);
         final List<Document> documents = documentStorageService.listDocuments(page, pageSize);
@@ -123,6 +175,45 @@ public class DocumentServiceBase {
         return list;
     }
 
+    /*
+     * Storage services keep documents in files named after their ids and names, streamed documents
+     * must not point anywhere else
+     */
+    protected static boolean isValidFileName(String name) {
+        return name != null && !name.isEmpty()
+                && name.indexOf('/') == -1 && name.indexOf('\\') == -1 && name.indexOf('\0') == -1
+                && !name.contains(File.separator)
+                && !name.equals(".") && !name.equals("..");
+    }
+
+    protected Document findDocument(String documentId) {
+        Document document = isValidFileName(documentId) ? documentStorageService.getDocument(documentId) : null;
+        if (document == null) {
+            throw new KieServerRuntimeException("No document found with id " + documentId);
+        }
+        return document;
+    }
+
+    protected byte[] readContent(InputStream content) {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new KieServerRuntimeException("Unable to read document content", e);
+        } finally {
+            try {
+                content.close();
+            } catch (IOException e) {
+                logger.debug("Unable to close document content stream", e);
+            }
+        }
+    }
+
     protected DocumentInstance convertDocument(Document document, boolean withContent) {
         if (document == null) {
             return null;
@@ -140,6 +140,7 @@ public class JbpmKieServerExtension implements KieServerExtension {
     private UserTaskAdminService userTaskAdminService;
 
     private ExecutorService executorService;
+    private AdaptiveExecutorController executorController;
 
     private QueryService queryService;
 
@@ -256,6 +257,9 @@ public class JbpmKieServerExtension implements KieServerExtension {
 
             executorService.init();
 
+            executorController = new AdaptiveExecutorController(executorService, ((ExecutorServiceImpl) executorService).getExecutor(), config);
+            executorController.start();
+
             ((KModuleDeploymentService) deploymentService).setExecutorService(executorService);
         }
 
@@ -290,6 +294,7 @@ public class JbpmKieServerExtension implements KieServerExtension {
         services.add(userTaskService);
         services.add(runtimeDataService);
         services.add(executorService);
+        services.add(executorController);
         services.add(queryService);
         services.add(processInstanceMigrationService);
         services.add(processInstanceAdminService);
@@ -302,6 +307,9 @@ public class JbpmKieServerExtension implements KieServerExtension {
     public void destroy(KieServerImpl kieServer, KieServerRegistry registry) {
         ((AbstractDeploymentService)deploymentService).shutdown();
 
+        if (executorController != null) {
+            executorController.stop();
+        }
         if (executorService != null) {
             executorService.destroy();
         }
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.drools.persistence.api.TransactionManager;
 import org.jbpm.services.api.DefinitionService;
 import org.jbpm.services.api.ProcessService;
 import org.jbpm.services.api.RuntimeDataService;
@@ -31,12 +32,18 @@ import org.kie.api.runtime.process.WorkItem;
 import org.kie.internal.KieInternalServices;
 import org.kie.internal.process.CorrelationKey;
 import org.kie.internal.process.CorrelationKeyFactory;
+import org.kie.server.api.KieServerConstants;
 import org.kie.server.api.model.instance.ProcessInstanceList;
+import org.kie.server.api.model.instance.ProcessStartResult;
+import org.kie.server.api.model.instance.ProcessStartResultList;
+import org.kie.server.api.model.instance.ProcessStartSpec;
+import org.kie.server.api.model.instance.ProcessStartSpecList;
 import org.kie.server.api.model.instance.WorkItemInstance;
 import org.kie.server.api.model.instance.WorkItemInstanceList;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.locator.ContainerLocatorProvider;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
 import org.kie.server.services.jbpm.locator.ByProcessInstanceIdContainerLocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,6 +54,9 @@ public class ProcessServiceBase {
 
     public static final Logger logger = LoggerFactory.getLogger(ProcessServiceBase.class);
 
+    // bulk starts are recorded apart from starts of single instances as they take much longer
+    private static final String BULK_START_PREFIX = "bulk:";
+
     private ProcessService processService;
     private DefinitionService definitionService;
     private RuntimeDataService runtimeDataService;
@@ -55,6 +65,8 @@ public class ProcessServiceBase {
 
     private CorrelationKeyFactory correlationKeyFactory = KieInternalServices.Factory.get().newCorrelationKeyFactory();
 
+    private int bulkStartChunkSize = Integer.parseInt(System.getProperty(KieServerConstants.CFG_BULK_START_CHUNK_SIZE, "100"));
+
     public ProcessServiceBase(ProcessService processService, DefinitionService definitionService, RuntimeDataService runtimeDataService, KieServerRegistry context) {
         this.processService = processService;
         this.definitionService = definitionService;
@@ -69,7 +81,9 @@ public class ProcessServiceBase {
         definitionService.getProcessDefinition(containerId, processId);
 
         logger.debug("Calling start process with id {} on container {} and parameters {}", processId, containerId, null);
-        Long processInstanceId = processService.startProcess(containerId, processId);
+        String deploymentId = containerId;
+        Long processInstanceId = KieServerMetrics.get().time(KieServerMetrics.PROCESS, processId, containerId, marshallingType,
+                                                             () -> processService.startProcess(deploymentId, processId));
 
         // return response
         String response = marshallerHelper.marshal(containerId, marshallingType, processInstanceId);
@@ -86,7 +100,9 @@ public class ProcessServiceBase {
         Map<String, Object> parameters = marshallerHelper.unmarshal(containerId, payload, marshallingType, Map.class);
 
         logger.debug("Calling start process with id {} on container {} and parameters {}", processId, containerId, parameters);
-        Long processInstanceId = processService.startProcess(containerId, processId, parameters);
+        String deploymentId = containerId;
+        Long processInstanceId = KieServerMetrics.get().time(KieServerMetrics.PROCESS, processId, containerId, marshallingType,
+                                                             () -> processService.startProcess(deploymentId, processId, parameters));
 
         // return response
         String response = marshallerHelper.marshal(containerId, marshallingType, processInstanceId);
@@ -106,7 +122,9 @@ public class ProcessServiceBase {
         CorrelationKey actualCorrelationKey = correlationKeyFactory.newCorrelationKey(Arrays.asList(correlationProperties));
 
         logger.debug("Calling start process with id {} on container {} and parameters {}", processId, containerId, parameters);
-        Long processInstanceId = processService.startProcess(containerId, processId, actualCorrelationKey, parameters);
+        String deploymentId = containerId;
+        Long processInstanceId = KieServerMetrics.get().time(KieServerMetrics.PROCESS, processId, containerId, marshallingType,
+                                                             () -> processService.startProcess(deploymentId, processId, actualCorrelationKey, parameters));
 
         // return response
         String response = marshallerHelper.marshal(containerId, marshallingType, processInstanceId);
@@ -115,6 +133,70 @@ public class ProcessServiceBase {
     }
 
 
+    /**
+     * Starts one process instance per start specification found in the payload. Instances are started in transactions
+     * ({@link TransactionalBatch}) of <code>chunkSize</code> instances (or the configured default when not given or not positive); when any instance of a chunk fails
+     * the chunk is rolled back and its instances are started again one by one so that only the failing ones are reported
+     * as errors. Results are returned in the same order as the specifications. The whole bulk start is recorded in request
+     * metrics as single request.
+     * <p>
+     * When called within an already running transaction the instances cannot be started in separate transactions - the first
+     * failure marks that transaction for rollback, so no instance is reported as started and the remaining ones are not started.
+     */
+    public String startProcesses(String containerId, String processId, Integer chunkSize, String payload, String marshallingType) {
+        containerId = context.getContainerId(containerId, ContainerLocatorProvider.get().getLocator());
+        // check validity of deployment and process id
+        definitionService.getProcessDefinition(containerId, processId);
+
+        logger.debug("About to unmarshal process start specifications from payload: '{}'", payload);
+        List<ProcessStartSpec> specs = marshallerHelper.unmarshal(containerId, payload, marshallingType, ProcessStartSpecList.class).getItems();
+
+        int size = chunkSize != null && chunkSize > 0 ? chunkSize : bulkStartChunkSize;
+        logger.debug("Calling start process with id {} on container {} for {} instances in chunks of {}", processId, containerId, specs.size(), size);
+        String deploymentId = containerId;
+        List<ProcessStartResult> results = KieServerMetrics.get().time(KieServerMetrics.PROCESS, BULK_START_PREFIX + processId, containerId, marshallingType,
+                                                                       () -> startProcessChunks(deploymentId, processId, specs, size));
+
+        // return response
+        String response = marshallerHelper.marshal(containerId, marshallingType, new ProcessStartResultList(results));
+        return response;
+    }
+
+    protected List<ProcessStartResult> startProcessChunks(String containerId, String processId, List<ProcessStartSpec> specs, int chunkSize) {
+        String rolledBackMessage = "Transaction marked for rollback, process instance not started";
+        TransactionalBatch<ProcessStartSpec, ProcessStartResult> batch = new TransactionalBatch<ProcessStartSpec, ProcessStartResult>(getTransactionManager(), rolledBackMessage) {
+            @Override
+            protected ProcessStartResult execute(ProcessStartSpec spec) {
+                Long processInstanceId = startProcessInstance(containerId, processId, spec.getCorrelationKey(), spec.getVariables());
+                return ProcessStartResult.success(processInstanceId, spec.getCorrelationKey());
+            }
+
+            @Override
+            protected ProcessStartResult failure(ProcessStartSpec spec, String errorMessage) {
+                return ProcessStartResult.failure(spec.getCorrelationKey(), errorMessage);
+            }
+
+            @Override
+            protected boolean isSuccessful(ProcessStartResult result) {
+                return result.isSuccessful();
+            }
+        };
+        return batch.execute(specs, chunkSize);
+    }
+
+    protected Long startProcessInstance(String containerId, String processId, String correlationKey, Map<String, Object> parameters) {
+        if (correlationKey == null || correlationKey.isEmpty()) {
+            return processService.startProcess(containerId, processId, parameters);
+        }
+        CorrelationKey actualCorrelationKey = correlationKeyFactory.newCorrelationKey(Arrays.asList(correlationKey.split(":")));
+        return processService.startProcess(containerId, processId, actualCorrelationKey, parameters);
+    }
+
+    protected TransactionManager getTransactionManager() {
+        return TransactionalBatch.getDefaultTransactionManager();
+    }
+
+
     public Object abortProcessInstance(String containerId, Number processInstanceId) {
 
         processService.abortProcessInstance(processInstanceId.longValue());
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.jbpm.services.api.model.ProcessInstanceDesc;
+import org.jbpm.services.api.model.UserTaskInstanceDesc;
+import org.jbpm.services.api.query.model.QueryParam;
+import org.kie.api.runtime.query.QueryContext;
+import org.kie.api.task.model.TaskSummary;
+
+/**
+ * Keyset (cursor) paging of queries executed via QueryService. Instead of skipping <code>page * pageSize</code> rows
+ * every next page continues right after the last row of the previous one, using a seek predicate on the row id
+ * column - so deep pages cost the same as the first one.
+ * <p>
+ * Rows are always ordered by their id (process instance id or task id, depending on the mapper) as that is
+ * the only unique key available to all the supported queries. Cursor is passed to clients as an opaque token
+ * that carries the id column, direction and the id of the last returned row; empty token denotes the first page.
+ */
+public class QueryCursor {
+
+    public static final String PROCESS_INSTANCE_ID_COLUMN = "PROCESSINSTANCEID";
+    public static final String TASK_ID_COLUMN = "TASKID";
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = ":";
+
+    private final String column;
+    private final boolean ascending;
+    private final Long lastId;
+
+    QueryCursor(String column, boolean ascending, Long lastId) {
+        this.column = column;
+        this.ascending = ascending;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Creates cursor for given token and result mapper type.
+     * @param token cursor token returned with the previous page or empty for the first page
+     * @param mapperType type produced by the query result mapper, determines the id column
+     * @param orderBy requested ordering, must be either not given or the id column
+     * @param ascending requested direction, used only for the first page when ordered by the id column
+     * @throws IllegalArgumentException when the token is not valid or the query cannot be paged by cursor
+     */
+    public static QueryCursor forToken(String token, Class<?> mapperType, String orderBy, boolean ascending) {
+        String column = idColumn(mapperType);
+        if (column == null) {
+            throw new IllegalArgumentException("Cursor paging is not supported for results of type " + mapperType);
+        }
+
+        if (token == null || token.trim().isEmpty()) {
+            if (orderBy == null || orderBy.trim().isEmpty()) {
+                return new QueryCursor(column, true, null);
+            }
+            if (!column.equalsIgnoreCase(orderBy.trim())) {
+                throw new IllegalArgumentException("Cursor paging requires results to be ordered by " + column + " but was " + orderBy);
+            }
+            return new QueryCursor(column, ascending, null);
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8).split(SEPARATOR);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + token + "'", e);
+        }
+        if (parts.length != 4 || !VERSION.equals(parts[0]) || !column.equals(parts[1])) {
+            throw new IllegalArgumentException("Invalid cursor '" + token + "'");
+        }
+        try {
+            return new QueryCursor(parts[1], "A".equals(parts[2]), Long.valueOf(parts[3]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor '" + token + "'", e);
+        }
+    }
+
+    /**
+     * Returns the id column rows of given mapper type are keyed by or null when not supported.
+     */
+    public static String idColumn(Class<?> mapperType) {
+        if (mapperType == null) {
+            return null;
+        }
+        if (ProcessInstanceDesc.class.isAssignableFrom(mapperType)) {
+            return PROCESS_INSTANCE_ID_COLUMN;
+        }
+        if (UserTaskInstanceDesc.class.isAssignableFrom(mapperType) || TaskSummary.class.isAssignableFrom(mapperType)) {
+            return TASK_ID_COLUMN;
+        }
+        return null;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Query context to fetch the page - one row more than requested is read to find out if there is a next page.
+     */
+    public QueryContext buildQueryContext(Integer pageSize) {
+        return new QueryContext(0, pageSize + 1, column, ascending);
+    }
+
+    /**
+     * Adds the seek predicate to given query parameters, on the first page they are returned as they are.
+     */
+    public QueryParam[] seek(QueryParam[] params) {
+        if (lastId == null) {
+            return params;
+        }
+        QueryParam[] seekParams = Arrays.copyOf(params, params.length + 1);
+        seekParams[params.length] = new QueryParam(column, ascending ? "GREATER_THAN" : "LOWER_THAN", Collections.singletonList(lastId));
+
+        return seekParams;
+    }
+
+    /**
+     * Trims the query result (as returned by QueryService) to the page size and returns it together
+     * with the token of the next page.
+     */
+    public Page page(Object result, Integer pageSize) {
+        if (!(result instanceof Collection)) {
+            return new Page(result, null);
+        }
+        List<Object> rows = new ArrayList<Object>((Collection<?>) result);
+        if (rows.size() <= pageSize) {
+            return new Page(rows, null);
+        }
+        rows = rows.subList(0, pageSize);
+        if (rows.isEmpty()) {
+            return new Page(rows, null);
+        }
+        Long id = rowId(rows.get(rows.size() - 1));
+
+        return new Page(rows, new QueryCursor(column, ascending, id).toToken());
+    }
+
+    public String toToken() {
+        String value = VERSION + SEPARATOR + column + SEPARATOR + (ascending ? "A" : "D") + SEPARATOR + (lastId == null ? "" : lastId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected Long rowId(Object row) {
+        if (row instanceof ProcessInstanceDesc) {
+            return ((ProcessInstanceDesc) row).getId();
+        }
+        if (row instanceof UserTaskInstanceDesc) {
+            return ((UserTaskInstanceDesc) row).getTaskId();
+        }
+        if (row instanceof TaskSummary) {
+            return ((TaskSummary) row).getId();
+        }
+        throw new IllegalStateException("Unable to get id of query result " + row);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCursor{column=" + column + ", ascending=" + ascending + ", lastId=" + lastId + "}";
+    }
+
+    /**
+     * Single page of results read with a cursor.
+     */
+    public static class Page {
+
+        private final Object result;
+        private final String nextCursor;
+
+        public Page(Object result, String nextCursor) {
+            this.result = result;
+            this.nextCursor = nextCursor;
+        }
+
+        public Object getResult() {
+            return result;
+        }
+
+        /**
+         * Token of the next page or null when this is the last page.
+         */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
@@ -180,6 +180,64 @@ public class QueryDataServiceBase {
         return transform(result, resultMapper);
     }
 
+    /**
+     * Same as {@link #query(String, String, String, Integer, Integer)} but pages results with cursor instead of offset,
+     * see {@link QueryCursor}.
+     */
+    public QueryCursor.Page queryWithCursor(String queryName, String mapper, String orderBy, String cursor, Integer pageSize) {
+
+        QueryResultMapper<?> resultMapper = QueryMapperRegistry.get().mapperFor(mapper, null);
+        QueryCursor queryCursor = QueryCursor.forToken(cursor, resultMapper.getType(), orderBy, true);
+
+        logger.debug("About to perform query '{}' with {} and page size {}", queryName, queryCursor, pageSize);
+        Object result = queryService.query(queryName, resultMapper, queryCursor.buildQueryContext(pageSize), queryCursor.seek(new QueryParam[0]));
+        logger.debug("Result returned from the query {} mapped with {}", result, resultMapper);
+
+        QueryCursor.Page page = queryCursor.page(result, pageSize);
+        return new QueryCursor.Page(transform(page.getResult(), resultMapper), page.getNextCursor());
+    }
+
+    /**
+     * Same as {@link #queryFiltered(String, String, Integer, Integer, String, String)} but pages results with cursor
+     * instead of offset, see {@link QueryCursor}. Ordering of the filter spec must be either empty or by the id column.
+     */
+    public QueryCursor.Page queryFilteredWithCursor(String queryName, String mapper, String cursor, Integer pageSize, String payload, String marshallingType) {
+        QueryParam[] params = new QueryParam[0];
+        Map<String, String> columnMapping = null;
+        QueryFilterSpec filterSpec = new QueryFilterSpec();
+
+        if (payload != null && !payload.isEmpty()) {
+            logger.debug("About to unmarshal queryDefinition from payload: '{}'", payload);
+            filterSpec = marshallerHelper.unmarshal(payload, marshallingType, QueryFilterSpec.class);
+
+            // build parameters for filtering the query
+            if (filterSpec.getParameters() != null) {
+                params = new QueryParam[filterSpec.getParameters().length];
+                int index = 0;
+                for (org.kie.server.api.model.definition.QueryParam param : filterSpec.getParameters()) {
+                    params[index] = new QueryParam(param.getColumn(), param.getOperator(), param.getValue());
+                    index++;
+                }
+            }
+
+            columnMapping = filterSpec.getColumnMapping();
+        }
+
+        QueryResultMapper<?> resultMapper = QueryMapperRegistry.get().mapperFor(mapper, columnMapping);
+
+        if (filterSpec.getOrderByClause() != null) {
+            throw new IllegalArgumentException("Order by clause is not supported with cursor paging");
+        }
+        QueryCursor queryCursor = QueryCursor.forToken(cursor, resultMapper.getType(), filterSpec.getOrderBy(), filterSpec.isAscending());
+
+        logger.debug("About to perform query '{}' with {} and page size {}", queryName, queryCursor, pageSize);
+        Object result = queryService.query(queryName, resultMapper, queryCursor.buildQueryContext(pageSize), queryCursor.seek(params));
+        logger.debug("Result returned from the query {} mapped with {}", result, resultMapper);
+
+        QueryCursor.Page page = queryCursor.page(result, pageSize);
+        return new QueryCursor.Page(transform(page.getResult(), resultMapper), page.getNextCursor());
+    }
+
     public Object queryFilteredWithBuilder(String queryName, String mapper, String builder, Integer page, Integer pageSize, String payload, String marshallingType) {
         Map<String, String> columnMapping = null;
         QueryContext queryContext = buildQueryContext(page, pageSize);
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.persistence.api.TransactionManager;
+import org.drools.persistence.api.TransactionManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes an operation on a batch of items in transactions of given number of items. When the operation fails for any
+ * item of a chunk the chunk is rolled back and the operation is executed again item by item, each in its own transaction,
+ * so that only the failing items are reported as errors and nothing is applied partially to an item. Results are returned
+ * in the same order as the items.
+ * <p>
+ * When executed within an already running transaction the items cannot be split into separate transactions - the first
+ * failure marks that transaction for rollback, so the operation is not executed on the remaining items and none of them
+ * is reported as successful.
+ * @param <I> type of the items
+ * @param <R> type of the result of single item
+ */
+public abstract class TransactionalBatch<I, R> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionalBatch.class);
+
+    private static volatile TransactionManager defaultTransactionManager;
+
+    private final TransactionManager transactionManager;
+    private final String rolledBackMessage;
+
+    /**
+     * Returns transaction manager of the environment, shared by all batches.
+     */
+    public static TransactionManager getDefaultTransactionManager() {
+        if (defaultTransactionManager == null) {
+            defaultTransactionManager = TransactionManagerFactory.get().newTransactionManager();
+        }
+        return defaultTransactionManager;
+    }
+
+    /**
+     * @param rolledBackMessage error message of items whose operation was rolled back with caller's transaction
+     */
+    protected TransactionalBatch(TransactionManager transactionManager, String rolledBackMessage) {
+        this.transactionManager = transactionManager;
+        this.rolledBackMessage = rolledBackMessage;
+    }
+
+    /**
+     * Executes the operation on single item, returns its successful result or throws exception when it fails.
+     */
+    protected abstract R execute(I item);
+
+    protected abstract R failure(I item, String errorMessage);
+
+    protected abstract boolean isSuccessful(R result);
+
+    public List<R> execute(List<I> items, int chunkSize) {
+        int size = Math.max(chunkSize, 1);
+        List<R> results = new ArrayList<R>(items.size());
+        for (int from = 0; from < items.size(); from += size) {
+            if (!executeChunk(items.subList(from, Math.min(from + size, items.size())), results)) {
+                return rolledBack(items, results);
+            }
+        }
+        return results;
+    }
+
+    /*
+     * executes the operation on items of the chunk and adds their results, returns false when the chunk ran in caller's
+     * transaction and the operation failed - the transaction is then marked for rollback and the rest is not executed
+     */
+    protected boolean executeChunk(List<I> chunk, List<R> results) {
+        TransactionManager txm = transactionManager;
+        boolean txOwner;
+        try {
+            txOwner = txm.begin();
+        } catch (Exception e) {
+            logger.warn("Unable to begin transaction for {} items due to {}", chunk.size(), e.getMessage(), e);
+            for (I item : chunk) {
+                results.add(failure(item, e.getMessage()));
+            }
+            return true;
+        }
+        if (!txOwner) {
+            // already running in caller's transaction that cannot be split into chunks
+            for (I item : chunk) {
+                R result = executeSafely(item);
+                results.add(result);
+                if (!isSuccessful(result)) {
+                    // make sure the caller's transaction is not committed with part of the items
+                    rollback(txOwner);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<R> chunkResults = new ArrayList<R>(chunk.size());
+        try {
+            for (I item : chunk) {
+                chunkResults.add(execute(item));
+            }
+            txm.commit(txOwner);
+            results.addAll(chunkResults);
+            return true;
+        } catch (Exception e) {
+            logger.debug("Operation on chunk of {} items failed due to {}, executing it item by item", chunk.size(), e.getMessage());
+            rollback(txOwner);
+        }
+
+        for (I item : chunk) {
+            try {
+                txOwner = txm.begin();
+            } catch (Exception e) {
+                results.add(failure(item, e.getMessage()));
+                continue;
+            }
+            R result = executeSafely(item);
+            if (isSuccessful(result)) {
+                try {
+                    txm.commit(txOwner);
+                } catch (Exception e) {
+                    result = failure(item, e.getMessage());
+                }
+            } else {
+                rollback(txOwner);
+            }
+            results.add(result);
+        }
+        return true;
+    }
+
+    protected R executeSafely(I item) {
+        try {
+            return execute(item);
+        } catch (Exception e) {
+            logger.debug("Operation on {} failed due to {}", item, e.getMessage(), e);
+            return failure(item, e.getMessage());
+        }
+    }
+
+    /*
+     * results of operations executed in caller's transaction marked for rollback - none of them is kept,
+     * failures keep their own error message
+     */
+    protected List<R> rolledBack(List<I> items, List<R> results) {
+        List<R> rolledBack = new ArrayList<R>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (i < results.size() && !isSuccessful(results.get(i))) {
+                rolledBack.add(results.get(i));
+            } else {
+                rolledBack.add(failure(items.get(i), rolledBackMessage));
+            }
+        }
+        return rolledBack;
+    }
+
+    private void rollback(boolean txOwner) {
+        try {
+            transactionManager.rollback(txOwner);
+        } catch (Exception e) {
+            logger.warn("Unable to rollback transaction due to {}", e.getMessage(), e);
+        }
+    }
+}
@@ -17,9 +17,11 @@ package org.kie.server.services.jbpm;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.drools.persistence.api.TransactionManager;
 import org.jbpm.services.api.TaskNotFoundException;
 import org.jbpm.services.api.UserTaskService;
 import org.kie.api.task.model.Attachment;
@@ -36,6 +38,8 @@ import org.kie.server.api.model.instance.TaskAttachmentList;
 import org.kie.server.api.model.instance.TaskComment;
 import org.kie.server.api.model.instance.TaskCommentList;
 import org.kie.server.api.model.instance.TaskInstance;
+import org.kie.server.api.model.instance.TaskOperationResult;
+import org.kie.server.api.model.instance.TaskOperationResultList;
 import org.kie.server.services.api.ContainerLocator;
 import org.kie.server.services.api.KieServerRegistry;
 import org.kie.server.services.impl.marshal.MarshallerHelper;
@@ -200,6 +204,101 @@ public class UserTaskServiceBase {
         userTaskService.nominate(taskId.longValue(), userId, potOwnerEntities);
     }
 
+    // bulk operations - failure of one task does not affect the others, see executeOnTasks
+
+    public String claimTasks(String containerId, List<? extends Number> taskIds, String userId, String marshallingType) {
+
+        final String user = getUser(userId);
+        logger.debug("About to claim tasks with ids {} as user '{}'", taskIds, user);
+        return executeOnTasks(containerId, taskIds, marshallingType, taskId -> userTaskService.claim(taskId, user));
+    }
+
+    public String startTasks(String containerId, List<? extends Number> taskIds, String userId, String marshallingType) {
+
+        final String user = getUser(userId);
+        logger.debug("About to start tasks with ids {} as user '{}'", taskIds, user);
+        return executeOnTasks(containerId, taskIds, marshallingType, taskId -> userTaskService.start(taskId, user));
+    }
+
+    public String claimAndStartTasks(String containerId, List<? extends Number> taskIds, String userId, String marshallingType) {
+
+        final String user = getUser(userId);
+        logger.debug("About to claim and start tasks with ids {} as user '{}'", taskIds, user);
+        return executeOnTasks(containerId, taskIds, marshallingType, taskId -> {
+            userTaskService.claim(taskId, user);
+            userTaskService.start(taskId, user);
+        });
+    }
+
+    public String releaseTasks(String containerId, List<? extends Number> taskIds, String userId, String marshallingType) {
+
+        final String user = getUser(userId);
+        logger.debug("About to release tasks with ids {} as user '{}'", taskIds, user);
+        return executeOnTasks(containerId, taskIds, marshallingType, taskId -> userTaskService.release(taskId, user));
+    }
+
+    /**
+     * Completes multiple tasks, payload is a map of task id to outcome parameters of that task.
+     */
+    public String completeTasks(String containerId, String userId, String payload, String marshallingType) {
+
+        final String user = getUser(userId);
+        logger.debug("About to unmarshal outcome parameters of multiple tasks from payload: '{}'", payload);
+        Map<Object, Object> parametersPerTask = marshallerHelper.unmarshal(containerId, payload, marshallingType, Map.class);
+
+        // keys are strings when the payload comes as JSON
+        final Map<Long, Map<String, Object>> parameters = new LinkedHashMap<Long, Map<String, Object>>();
+        for (Map.Entry<Object, Object> entry : parametersPerTask.entrySet()) {
+            parameters.put(Long.valueOf(String.valueOf(entry.getKey())), (Map<String, Object>) entry.getValue());
+        }
+
+        logger.debug("About to complete tasks with ids {} as user '{}'", parameters.keySet(), user);
+        return executeOnTasks(containerId, new ArrayList<Long>(parameters.keySet()), marshallingType,
+                taskId -> userTaskService.complete(taskId, user, parameters.get(taskId)));
+    }
+
+    /**
+     * Executes the operation on all tasks in one transaction, see {@link TransactionalBatch}. When it fails for any of the tasks the transaction is rolled
+     * back and the operation is executed again task by task, each in its own transaction, so that only the failing tasks are
+     * reported as errors and operations made of more steps (claim and start) are never applied to a task partially.
+     * <p>
+     * When called within an already running transaction the first failure marks that transaction for rollback, so the
+     * operation is not executed on the remaining tasks and none of the tasks is reported as successful.
+     */
+    protected String executeOnTasks(String containerId, List<? extends Number> taskIds, String marshallingType, TaskOperation operation) {
+        String rolledBackMessage = "Transaction marked for rollback, operation not executed";
+        TransactionalBatch<Number, TaskOperationResult> batch = new TransactionalBatch<Number, TaskOperationResult>(getTransactionManager(), rolledBackMessage) {
+            @Override
+            protected TaskOperationResult execute(Number taskId) {
+                operation.execute(taskId.longValue());
+                return TaskOperationResult.success(taskId.longValue());
+            }
+
+            @Override
+            protected TaskOperationResult failure(Number taskId, String errorMessage) {
+                return TaskOperationResult.failure(taskId.longValue(), errorMessage);
+            }
+
+            @Override
+            protected boolean isSuccessful(TaskOperationResult result) {
+                return result.isSuccessful();
+            }
+        };
+        // all tasks in one transaction
+        List<TaskOperationResult> results = batch.execute(new ArrayList<Number>(taskIds), taskIds.size());
+
+        return marshallerHelper.marshal(containerId, marshallingType, new TaskOperationResultList(results));
+    }
+
+    protected TransactionManager getTransactionManager() {
+        return TransactionalBatch.getDefaultTransactionManager();
+    }
+
+    protected interface TaskOperation {
+
+        void execute(Long taskId);
+    }
+
     public void setPriority(String containerId, Number taskId, String priorityPayload, String marshallingType) {
 
         logger.debug("About to unmarshal task priority from payload: '{}'", priorityPayload);
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm.admin;
+
+import org.kie.server.api.model.admin.ExecutorConcurrency;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.jbpm.AdaptiveExecutorController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ExecutorAdminServiceBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorAdminServiceBase.class);
+
+    private AdaptiveExecutorController executorController;
+    private KieServerRegistry context;
+
+    public ExecutorAdminServiceBase(AdaptiveExecutorController executorController, KieServerRegistry context) {
+        this.executorController = executorController;
+        this.context = context;
+    }
+
+    public boolean isExecutorAvailable() {
+        return executorController != null;
+    }
+
+    public ExecutorConcurrency getExecutorConcurrency() {
+        if (executorController == null) {
+            throw new IllegalStateException("Executor is disabled");
+        }
+        ExecutorConcurrency concurrency = executorController.getConcurrency();
+        logger.debug("Current executor concurrency {}", concurrency);
+        return concurrency;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jbpm.executor.impl.ExecutorServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.api.executor.Command;
+import org.kie.api.executor.CommandContext;
+import org.kie.api.executor.ExecutionResults;
+import org.kie.api.executor.Executor;
+import org.kie.api.executor.ExecutorService;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieServerConfig;
+import org.kie.server.api.model.KieServerConfigItem;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieServerImpl;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveExecutorControllerIntegrationTest extends JbpmKieServerExtensionBaseTest {
+
+    private static final long TIMEOUT = 10000;
+
+    private static final AtomicInteger running = new AtomicInteger();
+    private static final AtomicInteger maxRunning = new AtomicInteger();
+    private static final AtomicInteger done = new AtomicInteger();
+    private static volatile CountDownLatch release;
+
+    @Mock
+    private KieServerImpl kieServer;
+
+    @Mock
+    private KieServerRegistry kieServerRegistry;
+
+    private JbpmKieServerExtension serverExtension;
+    private ExecutorService executorService;
+    private Executor executor;
+    private KieServerConfig config;
+
+    @Before
+    public void setUp() throws Exception {
+        running.set(0);
+        maxRunning.set(0);
+        done.set(0);
+        release = new CountDownLatch(1);
+
+        config = new KieServerConfig();
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_PERSISTANCE_TM,
+                "org.hibernate.service.jta.platform.internal.BitronixJtaPlatform", String.class.getName()));
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_POOL, "1", String.class.getName()));
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_INTERVAL, "1", String.class.getName()));
+        when(kieServerRegistry.getConfig()).thenReturn(config);
+
+        serverExtension = new JbpmKieServerExtension();
+        serverExtension.init(kieServer, kieServerRegistry);
+        executorService = serverExtension.getAppComponents(ExecutorService.class);
+        executor = ((ExecutorServiceImpl) executorService).getExecutor();
+    }
+
+    @After
+    public void cleanup() {
+        release.countDown();
+        serverExtension.destroy(kieServer, kieServerRegistry);
+    }
+
+    @Test(timeout = 60000)
+    public void testMoreJobsRunConcurrentlyAfterGrowth() throws Exception {
+        // one thread runs one job at a time
+        scheduleJobs(2);
+        waitFor(running, 1);
+        Thread.sleep(3000);
+        assertEquals(1, maxRunning.get());
+        release.countDown();
+        waitFor(done, 2);
+
+        // jobs queued while the executor is not running any job, e.g. a burst after an idle period
+        release = new CountDownLatch(1);
+        maxRunning.set(0);
+        executor.destroy();
+        scheduleJobs(4);
+
+        KieServerConfig adaptiveConfig = new KieServerConfig();
+        adaptiveConfig.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_POOL_ADAPTIVE, "true", String.class.getName()));
+        adaptiveConfig.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_POOL_MAX, "4", String.class.getName()));
+        AdaptiveExecutorController controller = new AdaptiveExecutorController(executorService, executor, adaptiveConfig);
+        controller.check();
+
+        assertEquals(2, executor.getThreadPoolSize());
+        waitFor(running, 2);
+        Thread.sleep(3000);
+        assertEquals(2, maxRunning.get());
+
+        // no resize while jobs are running
+        controller.check();
+        assertEquals(2, executor.getThreadPoolSize());
+
+        release.countDown();
+        waitFor(done, 6);
+    }
+
+    private void scheduleJobs(int count) {
+        for (int i = 0; i < count; i++) {
+            CommandContext ctx = new CommandContext();
+            ctx.setData("businessKey", "adaptive-" + System.nanoTime());
+            executorService.scheduleRequest(BlockingCommand.class.getName(), ctx);
+        }
+    }
+
+    private static void waitFor(AtomicInteger counter, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (counter.get() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Expected " + expected + " jobs but was " + counter.get());
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    public static class BlockingCommand implements Command {
+
+        @Override
+        public ExecutionResults execute(CommandContext ctx) throws Exception {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            } finally {
+                running.decrementAndGet();
+                done.incrementAndGet();
+            }
+            return new ExecutionResults();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.api.executor.Executor;
+import org.kie.api.executor.ExecutorService;
+import org.kie.api.executor.RequestInfo;
+import org.kie.api.executor.STATUS;
+import org.kie.api.runtime.query.QueryContext;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieServerConfig;
+import org.kie.server.api.model.KieServerConfigItem;
+import org.kie.server.api.model.admin.ExecutorConcurrency;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AdaptiveExecutorControllerTest {
+
+    @Mock
+    private ExecutorService executorService;
+
+    @Mock
+    private Executor executor;
+
+    private KieServerConfig config;
+    private AdaptiveExecutorController controller;
+
+    @Before
+    public void setup() {
+        config = new KieServerConfig();
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_POOL_ADAPTIVE, "true", String.class.getName()));
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_POOL_MIN, "2", String.class.getName()));
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_POOL_MAX, "8", String.class.getName()));
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_POOL_MAX_WAIT, "1000", String.class.getName()));
+
+        when(executor.getThreadPoolSize()).thenReturn(2);
+        controller = new AdaptiveExecutorController(executorService, executor, config);
+    }
+
+    @Test
+    public void testGrowOnBacklog() {
+        assertEquals(4, controller.calculatePoolSize(2, 3, 2, 0));
+        assertEquals(8, controller.calculatePoolSize(4, 10, 4, 0));
+        assertEquals(8, controller.calculatePoolSize(8, 100, 8, 0));
+    }
+
+    @Test
+    public void testGrowOnWaitTime() {
+        assertEquals(2, controller.calculatePoolSize(2, 1, 2, 500));
+        assertEquals(4, controller.calculatePoolSize(2, 1, 2, 1500));
+    }
+
+    @Test
+    public void testShrinkWhenIdle() {
+        for (int i = 1; i < AdaptiveExecutorController.IDLE_CHECKS; i++) {
+            assertEquals(6, controller.calculatePoolSize(6, 0, 1, 0));
+        }
+        assertEquals(5, controller.calculatePoolSize(6, 0, 1, 0));
+
+        // any backlog resets idle checks
+        controller.calculatePoolSize(5, 0, 1, 0);
+        controller.calculatePoolSize(5, 1, 1, 0);
+        assertEquals(5, controller.calculatePoolSize(5, 0, 1, 0));
+
+        assertEquals(2, controller.calculatePoolSize(1, 0, 0, 0));
+    }
+
+    @Test
+    public void testResizeWhenNoJobRunning() {
+        long now = System.currentTimeMillis();
+        List<RequestInfo> queued = Arrays.asList(request(now - 5000), request(now - 100), request(now - 10), request(now + 60000));
+        when(executorService.getRequestsByStatus(anyListOf(STATUS.class), any(QueryContext.class))).thenReturn(queued);
+        when(executorService.getRunningRequests(any(QueryContext.class))).thenReturn(Collections.emptyList());
+
+        controller.check();
+
+        verify(executor).destroy();
+        verify(executor).setThreadPoolSize(4);
+        verify(executor).init();
+
+        ExecutorConcurrency concurrency = controller.getConcurrency();
+        assertTrue(concurrency.isAdaptive());
+        assertEquals(4, concurrency.getTargetPoolSize());
+        assertEquals(3, concurrency.getQueuedJobs());
+        assertTrue(concurrency.getMaxWaitTime() >= 5000);
+    }
+
+    @Test
+    public void testResizePostponedWhenJobRunning() {
+        // executor must be restarted to be resized, which would interrupt running jobs
+        long now = System.currentTimeMillis();
+        List<RequestInfo> queued = Arrays.asList(request(now - 5000));
+        List<RequestInfo> running = Arrays.asList(request(now - 10000));
+        when(executorService.getRequestsByStatus(anyListOf(STATUS.class), any(QueryContext.class))).thenReturn(queued);
+        when(executorService.getRunningRequests(any(QueryContext.class))).thenReturn(running);
+
+        controller.check();
+
+        verify(executor, never()).destroy();
+        verify(executor, never()).setThreadPoolSize(anyInt());
+        assertEquals(4, controller.getConcurrency().getTargetPoolSize());
+        assertEquals(2, controller.getConcurrency().getPoolSize());
+    }
+
+    @Test
+    public void testNoResizeAfterStop() {
+        long now = System.currentTimeMillis();
+        List<RequestInfo> queued = Arrays.asList(request(now - 5000), request(now - 5000), request(now - 5000));
+        when(executorService.getRequestsByStatus(anyListOf(STATUS.class), any(QueryContext.class))).thenReturn(queued);
+        when(executorService.getRunningRequests(any(QueryContext.class))).thenReturn(Collections.emptyList());
+
+        controller.start();
+        controller.stop();
+        controller.check();
+
+        verify(executor, never()).destroy();
+        verify(executor, never()).init();
+    }
+
+    private RequestInfo request(long time) {
+        RequestInfo request = mock(RequestInfo.class);
+        when(request.getTime()).thenReturn(new Date(time));
+        return request;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+
+import org.jbpm.document.service.impl.DocumentStorageServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.server.api.model.instance.DocumentInstance;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.api.KieServerRuntimeException;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DocumentServiceBaseTest {
+
+    @Mock
+    private KieServerRegistry kieServerRegistry;
+
+    private File storageDir;
+    private DocumentServiceBase documentServiceBase;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("kie-server-docs").toFile();
+        documentServiceBase = new DocumentServiceBase(new DocumentStorageServiceImpl(storageDir.getAbsolutePath()), kieServerRegistry);
+    }
+
+    @After
+    public void cleanup() {
+        delete(storageDir);
+    }
+
+    @Test
+    public void testStoreAndReadStreamedDocument() throws Exception {
+        String documentId = documentServiceBase.storeDocument("test.txt", new Date(), content("first version"));
+
+        DocumentInstance document = documentServiceBase.getDocumentInfo(documentId);
+        assertEquals("test.txt", document.getName());
+        assertEquals("first version".length(), document.getSize());
+        assertNull(document.getContent());
+        assertEquals("first version", read(documentServiceBase.getDocumentContent(documentId)));
+
+        // the same document as seen by the storage service
+        document = documentServiceBase.getDocument(documentId);
+        assertEquals("first version", new String(document.getContent(), StandardCharsets.UTF_8));
+
+        documentServiceBase.updateDocument(documentId, content("second version"));
+        assertEquals("second version", read(documentServiceBase.getDocumentContent(documentId)));
+        document = documentServiceBase.getDocumentInfo(documentId);
+        assertEquals("test.txt", document.getName());
+        assertEquals("second version".length(), document.getSize());
+    }
+
+    @Test
+    public void testStoreDocumentWithPathInNameRejected() {
+        for (String name : new String[]{"../test.txt", "..", "dir/test.txt", "dir\\test.txt", "../../" + storageDir.getName() + ".txt"}) {
+            try {
+                documentServiceBase.storeDocument(name, new Date(), content("content"));
+                fail("Document name " + name + " should be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        assertFalse(new File(storageDir.getParentFile(), "test.txt").exists());
+    }
+
+    @Test(expected = KieServerRuntimeException.class)
+    public void testGetDocumentContentOutsideOfStorage() throws Exception {
+        File outside = new File(storageDir.getParentFile(), storageDir.getName() + "-outside");
+        outside.mkdirs();
+        try {
+            Files.write(new File(outside, "secret.txt").toPath(), "secret".getBytes(StandardCharsets.UTF_8));
+            documentServiceBase.getDocumentContent("../" + outside.getName());
+        } finally {
+            delete(outside);
+        }
+    }
+
+    private static InputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStream content) throws IOException {
+        try {
+            byte[] buffer = new byte[1024];
+            StringBuilder result = new StringBuilder();
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                result.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            return result.toString();
+        } finally {
+            content.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
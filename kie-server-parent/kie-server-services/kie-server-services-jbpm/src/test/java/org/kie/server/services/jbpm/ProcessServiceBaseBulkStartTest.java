@@ -0,0 +1,225 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.persistence.api.TransactionManager;
+import org.jbpm.services.api.DefinitionService;
+import org.jbpm.services.api.ProcessService;
+import org.jbpm.services.api.RuntimeDataService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.internal.process.CorrelationKey;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.instance.ProcessStartResult;
+import org.kie.server.api.model.instance.ProcessStartResultList;
+import org.kie.server.api.model.instance.ProcessStartSpec;
+import org.kie.server.api.model.instance.ProcessStartSpecList;
+import org.kie.server.services.api.ContainerLocator;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.kie.server.services.impl.metrics.KieServerMetrics;
+import org.kie.server.services.impl.metrics.RequestMetrics;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProcessServiceBaseBulkStartTest {
+
+    private static final String CONTAINER_ID = "bulk-container";
+    private static final String PROCESS_ID = "bulk-process";
+    private static final String PAYLOAD = "payload";
+    private static final String FAIL = "fail";
+
+    @Mock
+    private ProcessService processService;
+    @Mock
+    private DefinitionService definitionService;
+    @Mock
+    private RuntimeDataService runtimeDataService;
+    @Mock
+    private KieServerRegistry context;
+    @Mock
+    private KieContainerInstanceImpl container;
+    @Mock
+    private Marshaller marshaller;
+    @Mock
+    private TransactionManager transactionManager;
+
+    private AtomicLong processInstanceIds = new AtomicLong();
+
+    @Before
+    public void setup() {
+        when(context.getContainerId(eq(CONTAINER_ID), any(ContainerLocator.class))).thenReturn(CONTAINER_ID);
+        when(context.getContainer(eq(CONTAINER_ID), any(ContainerLocator.class))).thenReturn(container);
+        when(container.getMarshaller(MarshallingFormat.JSON)).thenReturn(marshaller);
+        when(marshaller.marshall(any())).thenReturn("");
+        when(transactionManager.begin()).thenReturn(true);
+        when(processService.startProcess(eq(CONTAINER_ID), eq(PROCESS_ID), any(CorrelationKey.class), anyMap())).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) throws Throwable {
+                Map<?, ?> parameters = (Map<?, ?>) invocation.getArguments()[3];
+                if (parameters.containsKey(FAIL)) {
+                    throw new IllegalStateException("Start failed");
+                }
+                return processInstanceIds.incrementAndGet();
+            }
+        });
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(KieServerConstants.CFG_BULK_START_CHUNK_SIZE);
+    }
+
+    @Test
+    public void testStartInConfiguredChunks() {
+        System.setProperty(KieServerConstants.CFG_BULK_START_CHUNK_SIZE, "2");
+        List<ProcessStartResult> results = startProcesses(null, specs(5));
+
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(results.get(i).isSuccessful());
+            assertEquals(Long.valueOf(i + 1), results.get(i).getProcessInstanceId());
+        }
+        verify(transactionManager, times(3)).begin();
+        verify(transactionManager, times(3)).commit(true);
+        verify(transactionManager, never()).rollback(anyBoolean());
+    }
+
+    @Test
+    public void testStartInRequestedChunks() {
+        System.setProperty(KieServerConstants.CFG_BULK_START_CHUNK_SIZE, "2");
+        List<ProcessStartResult> results = startProcesses(5, specs(5));
+
+        assertEquals(5, results.size());
+        verify(transactionManager, times(1)).begin();
+        verify(transactionManager, times(1)).commit(true);
+    }
+
+    @Test
+    public void testFailedChunkStartedOneByOne() {
+        List<ProcessStartSpec> specs = specs(5);
+        specs.get(3).getVariables().put(FAIL, true);
+        List<ProcessStartResult> results = startProcesses(3, specs);
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccessful());
+        assertTrue(results.get(1).isSuccessful());
+        assertTrue(results.get(2).isSuccessful());
+        assertFalse(results.get(3).isSuccessful());
+        assertEquals("3", results.get(3).getCorrelationKey());
+        assertEquals("Start failed", results.get(3).getErrorMessage());
+        assertTrue(results.get(4).isSuccessful());
+
+        // first chunk, second chunk rolled back and then its two instances one by one
+        verify(transactionManager, times(4)).begin();
+        verify(transactionManager, times(2)).commit(true);
+        verify(transactionManager, times(2)).rollback(true);
+    }
+
+    @Test
+    public void testFailureInCallerTransaction() {
+        when(transactionManager.begin()).thenReturn(false);
+        List<ProcessStartSpec> specs = specs(5);
+        specs.get(3).getVariables().put(FAIL, true);
+        List<ProcessStartResult> results = startProcesses(3, specs);
+
+        // caller's transaction is rolled back so none of the instances is kept
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertFalse(results.get(i).isSuccessful());
+            assertEquals(String.valueOf(i), results.get(i).getCorrelationKey());
+        }
+        assertEquals("Start failed", results.get(3).getErrorMessage());
+        verify(processService, times(4)).startProcess(eq(CONTAINER_ID), eq(PROCESS_ID), any(CorrelationKey.class), anyMap());
+        verify(transactionManager).rollback(false);
+        verify(transactionManager, never()).commit(anyBoolean());
+    }
+
+    @Test
+    public void testBeginFailure() {
+        when(transactionManager.begin()).thenThrow(new IllegalStateException("No transaction"));
+        List<ProcessStartResult> results = startProcesses(2, specs(3));
+
+        assertEquals(3, results.size());
+        for (ProcessStartResult result : results) {
+            assertFalse(result.isSuccessful());
+            assertEquals("No transaction", result.getErrorMessage());
+        }
+        verify(processService, never()).startProcess(anyString(), anyString(), any(CorrelationKey.class), anyMap());
+    }
+
+    @Test
+    public void testBulkStartRecordedInMetrics() {
+        KieServerMetrics metrics = KieServerMetrics.get();
+        metrics.enable(false);
+        try {
+            startProcesses(2, specs(5));
+
+            List<RequestMetrics> recorded = metrics.getMetrics();
+            assertEquals(1, recorded.size());
+            assertEquals(KieServerMetrics.PROCESS, recorded.get(0).getKind());
+            assertEquals("bulk:" + PROCESS_ID, recorded.get(0).getOperation());
+            assertEquals(CONTAINER_ID, recorded.get(0).getContainerId());
+            assertEquals(1, recorded.get(0).getCount());
+            assertEquals(0, recorded.get(0).getErrors());
+        } finally {
+            metrics.removeContainer(CONTAINER_ID);
+            metrics.disable();
+        }
+    }
+
+    private List<ProcessStartResult> startProcesses(Integer chunkSize, List<ProcessStartSpec> specs) {
+        when(marshaller.unmarshall(PAYLOAD, ProcessStartSpecList.class)).thenReturn(new ProcessStartSpecList(specs));
+        ProcessServiceBase processServiceBase = new ProcessServiceBase(processService, definitionService, runtimeDataService, context) {
+            @Override
+            protected TransactionManager getTransactionManager() {
+                return transactionManager;
+            }
+        };
+        processServiceBase.startProcesses(CONTAINER_ID, PROCESS_ID, chunkSize, PAYLOAD, MarshallingFormat.JSON.name());
+
+        ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+        verify(marshaller).marshall(response.capture());
+        return ((ProcessStartResultList) response.getValue()).getItems();
+    }
+
+    private static List<ProcessStartSpec> specs(int count) {
+        List<ProcessStartSpec> specs = new ArrayList<ProcessStartSpec>();
+        for (int i = 0; i < count; i++) {
+            specs.add(new ProcessStartSpec(String.valueOf(i), new HashMap<String, Object>()));
+        }
+        return specs;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import javax.naming.InitialContext;
+import javax.sql.DataSource;
+
+import org.jbpm.kie.services.impl.query.SqlQueryDefinition;
+import org.jbpm.services.api.model.ProcessInstanceDesc;
+import org.jbpm.services.api.query.QueryService;
+import org.jbpm.services.api.query.model.QueryDefinition.Target;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.model.KieServerConfig;
+import org.kie.server.api.model.KieServerConfigItem;
+import org.kie.server.api.model.instance.ProcessInstance;
+import org.kie.server.api.model.instance.ProcessInstanceList;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieServerImpl;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueryDataServiceBaseCursorTest extends JbpmKieServerExtensionBaseTest {
+
+    private static final String DATA_SOURCE = "java:jboss/datasources/ExampleDS";
+    private static final String QUERY_NAME = "cursorProcessInstances";
+    private static final String MAPPER = "ProcessInstances";
+    private static final int INSTANCES = 25;
+
+    @Mock
+    private KieServerImpl kieServer;
+
+    @Mock
+    private KieServerRegistry kieServerRegistry;
+
+    private JbpmKieServerExtension serverExtension;
+    private QueryService queryService;
+    private QueryDataServiceBase queryDataServiceBase;
+
+    @Before
+    public void setUp() throws Exception {
+        KieServerConfig kieServerConfig = new KieServerConfig();
+        kieServerConfig.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_PERSISTANCE_TM,
+                "org.hibernate.service.jta.platform.internal.BitronixJtaPlatform", String.class.getName()));
+        kieServerConfig.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_EXECUTOR_DISABLED,
+                "true", String.class.getName()));
+        when(kieServerRegistry.getConfig()).thenReturn(kieServerConfig);
+        when(kieServerRegistry.getExtraClasses()).thenReturn(new HashSet<Class<?>>());
+
+        serverExtension = new JbpmKieServerExtension();
+        serverExtension.init(kieServer, kieServerRegistry);
+
+        queryService = serverExtension.getAppComponents(QueryService.class);
+        queryDataServiceBase = new QueryDataServiceBase(queryService, kieServerRegistry);
+
+        insertProcessInstances();
+
+        SqlQueryDefinition query = new SqlQueryDefinition(QUERY_NAME, DATA_SOURCE, Target.CUSTOM);
+        query.setExpression("select * from ProcessInstanceLog");
+        queryService.replaceQuery(query);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        queryService.unregisterQuery(QUERY_NAME);
+        execute("delete from ProcessInstanceLog");
+        serverExtension.destroy(kieServer, kieServerRegistry);
+    }
+
+    @Test
+    public void testQueryWithCursor() {
+        List<Long> ids = new ArrayList<Long>();
+        String cursor = "";
+        int pages = 0;
+        do {
+            QueryCursor.Page page = queryDataServiceBase.queryWithCursor(QUERY_NAME, MAPPER, null, cursor, 10);
+            ids.addAll(processInstanceIds(page));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(INSTANCES, ids.size());
+        for (int i = 0; i < INSTANCES; i++) {
+            assertEquals(Long.valueOf(i + 1), ids.get(i));
+        }
+    }
+
+    @Test
+    public void testQueryWithCursorSameAsOffsetPaging() {
+        String cursor = "";
+        for (int page = 0; page < 3; page++) {
+            QueryCursor.Page cursorPage = queryDataServiceBase.queryWithCursor(QUERY_NAME, MAPPER, QueryCursor.PROCESS_INSTANCE_ID_COLUMN, cursor, 10);
+            ProcessInstanceList offsetPage = (ProcessInstanceList) queryDataServiceBase.query(QUERY_NAME, MAPPER, QueryCursor.PROCESS_INSTANCE_ID_COLUMN, page, 10);
+
+            List<Long> offsetIds = new ArrayList<Long>();
+            for (ProcessInstance instance : offsetPage.getItems()) {
+                offsetIds.add(instance.getId());
+            }
+            assertEquals(offsetIds, processInstanceIds(cursorPage));
+            cursor = cursorPage.getNextCursor();
+        }
+        assertNull(cursor);
+    }
+
+    @Test
+    public void testQueryFilteredWithCursorDescending() {
+        String payload = "{\"order-by\" : \"PROCESSINSTANCEID\", \"order-asc\" : false, " +
+                "\"query-params\" : [ { \"cond-column\" : \"PROCESSID\", \"cond-operator\" : \"EQUALS_TO\", \"cond-values\" : [ \"even\" ] } ] }";
+        List<Long> ids = new ArrayList<Long>();
+        String cursor = "";
+        do {
+            QueryCursor.Page page = queryDataServiceBase.queryFilteredWithCursor(QUERY_NAME, MAPPER, cursor, 5, payload, "application/json");
+            ids.addAll(processInstanceIds(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(12, ids.size());
+        long expected = 24;
+        for (Long id : ids) {
+            assertEquals(Long.valueOf(expected), id);
+            expected -= 2;
+        }
+    }
+
+    @Test
+    public void testCursorTokens() {
+        QueryCursor first = QueryCursor.forToken("", ProcessInstanceDesc.class, null, false);
+        assertEquals(QueryCursor.PROCESS_INSTANCE_ID_COLUMN, first.getColumn());
+        assertTrue(first.isAscending());
+        assertNull(first.getLastId());
+
+        QueryCursor next = QueryCursor.forToken(new QueryCursor(QueryCursor.PROCESS_INSTANCE_ID_COLUMN, false, 42L).toToken(), ProcessInstanceDesc.class, null, true);
+        assertFalse(next.isAscending());
+        assertEquals(Long.valueOf(42), next.getLastId());
+
+        assertInvalid("not a cursor", ProcessInstanceDesc.class, null);
+        // token of process instances cannot be used for tasks
+        assertInvalid(next.toToken(), org.kie.api.task.model.TaskSummary.class, null);
+        assertInvalid("", ProcessInstanceDesc.class, "processName");
+        assertInvalid("", List.class, null);
+    }
+
+    private void assertInvalid(String token, Class<?> mapperType, String orderBy) {
+        try {
+            QueryCursor.forToken(token, mapperType, orderBy, true);
+            fail("Cursor '" + token + "' should not be accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private List<Long> processInstanceIds(QueryCursor.Page page) {
+        List<Long> ids = new ArrayList<Long>();
+        for (ProcessInstance instance : ((ProcessInstanceList) page.getResult()).getItems()) {
+            ids.add(instance.getId());
+        }
+        return ids;
+    }
+
+    private void insertProcessInstances() throws Exception {
+        DataSource dataSource = (DataSource) new InitialContext().lookup(DATA_SOURCE);
+        Connection connection = dataSource.getConnection();
+        try {
+            PreparedStatement statement = connection.prepareStatement("insert into ProcessInstanceLog " +
+                    "(id, processInstanceId, processId, processName, processVersion, status, start_date, externalId, user_identity) " +
+                    "values (?, ?, ?, ?, '1.0', 1, ?, 'cursor-test', 'john')");
+            // inserted out of order so results are not just in insertion order
+            for (int i = INSTANCES; i > 0; i--) {
+                statement.setLong(1, i);
+                statement.setLong(2, i);
+                statement.setString(3, i % 2 == 0 ? "even" : "odd");
+                statement.setString(4, "Process " + i);
+                statement.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                statement.executeUpdate();
+            }
+            statement.close();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void execute(String sql) throws Exception {
+        DataSource dataSource = (DataSource) new InitialContext().lookup(DATA_SOURCE);
+        Connection connection = dataSource.getConnection();
+        try {
+            Statement statement = connection.createStatement();
+            statement.executeUpdate(sql);
+            statement.close();
+        } finally {
+            connection.close();
+        }
+    }
+}
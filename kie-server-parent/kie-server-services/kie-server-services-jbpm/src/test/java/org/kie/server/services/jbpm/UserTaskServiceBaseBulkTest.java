@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.kie.server.services.jbpm;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.persistence.api.TransactionManager;
+import org.jbpm.services.api.TaskNotFoundException;
+import org.jbpm.services.api.UserTaskService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kie.internal.identity.IdentityProvider;
+import org.kie.server.api.KieServerConstants;
+import org.kie.server.api.marshalling.Marshaller;
+import org.kie.server.api.marshalling.MarshallingFormat;
+import org.kie.server.api.model.KieServerConfig;
+import org.kie.server.api.model.KieServerConfigItem;
+import org.kie.server.api.model.instance.TaskOperationResult;
+import org.kie.server.api.model.instance.TaskOperationResultList;
+import org.kie.server.services.api.ContainerLocator;
+import org.kie.server.services.api.KieServerRegistry;
+import org.kie.server.services.impl.KieContainerInstanceImpl;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UserTaskServiceBaseBulkTest {
+
+    private static final String CONTAINER_ID = "bulk-container";
+    private static final String USER = "john";
+    private static final String TYPE = MarshallingFormat.JSON.name();
+
+    @Mock
+    private UserTaskService userTaskService;
+    @Mock
+    private KieServerRegistry context;
+    @Mock
+    private IdentityProvider identityProvider;
+    @Mock
+    private KieContainerInstanceImpl container;
+    @Mock
+    private Marshaller marshaller;
+    @Mock
+    private TransactionManager transactionManager;
+
+    private UserTaskServiceBase userTaskServiceBase;
+
+    @Before
+    public void setup() {
+        KieServerConfig config = new KieServerConfig();
+        config.addConfigItem(new KieServerConfigItem(KieServerConstants.CFG_BYPASS_AUTH_USER, "true", String.class.getName()));
+        when(context.getConfig()).thenReturn(config);
+        when(context.getIdentityProvider()).thenReturn(identityProvider);
+        when(context.getContainer(eq(CONTAINER_ID), any(ContainerLocator.class))).thenReturn(container);
+        when(container.getMarshaller(MarshallingFormat.JSON)).thenReturn(marshaller);
+        when(marshaller.marshall(any())).thenReturn("");
+        when(transactionManager.begin()).thenReturn(true);
+
+        userTaskServiceBase = new UserTaskServiceBase(userTaskService, context) {
+            @Override
+            protected TransactionManager getTransactionManager() {
+                return transactionManager;
+            }
+        };
+    }
+
+    @Test
+    public void testClaimTasksInOneTransaction() {
+        userTaskServiceBase.claimTasks(CONTAINER_ID, Arrays.asList(1L, 2L, 3L), USER, TYPE);
+
+        List<TaskOperationResult> results = results();
+        assertEquals(3, results.size());
+        for (TaskOperationResult result : results) {
+            assertTrue(result.isSuccessful());
+        }
+        verify(userTaskService).claim(1L, USER);
+        verify(userTaskService).claim(2L, USER);
+        verify(userTaskService).claim(3L, USER);
+        verify(transactionManager, times(1)).begin();
+        verify(transactionManager, times(1)).commit(true);
+        verify(transactionManager, never()).rollback(anyBoolean());
+    }
+
+    @Test
+    public void testFailedTaskExecutedOneByOne() {
+        doThrow(new TaskNotFoundException("Task 2 not found")).when(userTaskService).release(2L, USER);
+        userTaskServiceBase.releaseTasks(CONTAINER_ID, Arrays.asList(1L, 2L, 3L), USER, TYPE);
+
+        List<TaskOperationResult> results = results();
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccessful());
+        assertFalse(results.get(1).isSuccessful());
+        assertEquals(Long.valueOf(2), results.get(1).getTaskId());
+        assertEquals("Task 2 not found", results.get(1).getErrorMessage());
+        assertTrue(results.get(2).isSuccessful());
+
+        // batch rolled back and then each task in its own transaction
+        verify(transactionManager, times(4)).begin();
+        verify(transactionManager, times(2)).commit(true);
+        verify(transactionManager, times(2)).rollback(true);
+    }
+
+    @Test
+    public void testClaimRolledBackWhenStartFails() {
+        doThrow(new IllegalStateException("Cannot start")).when(userTaskService).start(2L, USER);
+        userTaskServiceBase.claimAndStartTasks(CONTAINER_ID, Arrays.asList(1L, 2L), USER, TYPE);
+
+        List<TaskOperationResult> results = results();
+        assertTrue(results.get(0).isSuccessful());
+        assertFalse(results.get(1).isSuccessful());
+        assertEquals("Cannot start", results.get(1).getErrorMessage());
+
+        // claim and start of the failing task happen in a transaction that is rolled back
+        InOrder inOrder = inOrder(transactionManager, userTaskService);
+        inOrder.verify(transactionManager).begin();
+        inOrder.verify(userTaskService).claim(2L, USER);
+        inOrder.verify(userTaskService).start(2L, USER);
+        inOrder.verify(transactionManager).rollback(true);
+        verify(transactionManager, times(1)).commit(true);
+    }
+
+    @Test
+    public void testFailureInCallerTransaction() {
+        when(transactionManager.begin()).thenReturn(false);
+        doThrow(new IllegalStateException("Cannot start")).when(userTaskService).start(2L, USER);
+        userTaskServiceBase.startTasks(CONTAINER_ID, Arrays.asList(1L, 2L, 3L), USER, TYPE);
+
+        List<TaskOperationResult> results = results();
+        assertEquals(3, results.size());
+        for (TaskOperationResult result : results) {
+            assertFalse(result.isSuccessful());
+        }
+        assertEquals("Cannot start", results.get(1).getErrorMessage());
+        verify(userTaskService, never()).start(3L, USER);
+        verify(transactionManager).rollback(false);
+        verify(transactionManager, never()).commit(anyBoolean());
+    }
+
+    @Test
+    public void testBeginFailure() {
+        when(transactionManager.begin()).thenThrow(new IllegalStateException("No transaction"));
+        userTaskServiceBase.claimTasks(CONTAINER_ID, Arrays.asList(1L, 2L), USER, TYPE);
+
+        List<TaskOperationResult> results = results();
+        assertEquals(2, results.size());
+        for (TaskOperationResult result : results) {
+            assertFalse(result.isSuccessful());
+            assertEquals("No transaction", result.getErrorMessage());
+        }
+        verify(userTaskService, never()).claim(anyLong(), anyString());
+    }
+
+    @Test
+    public void testCompleteTasks() {
+        Map<String, Object> firstParams = new HashMap<String, Object>();
+        firstParams.put("approved", true);
+        Map<Object, Object> payload = new HashMap<Object, Object>();
+        // task ids are strings when the payload comes as JSON
+        payload.put("1", firstParams);
+        payload.put("2", new HashMap<String, Object>());
+        when(marshaller.unmarshall("payload", Map.class)).thenReturn(payload);
+
+        userTaskServiceBase.completeTasks(CONTAINER_ID, USER, "payload", TYPE);
+
+        assertEquals(2, results().size());
+        verify(userTaskService).complete(1L, USER, firstParams);
+        verify(userTaskService).complete(2L, USER, new HashMap<String, Object>());
+        verify(transactionManager, times(1)).commit(true);
+    }
+
+    private List<TaskOperationResult> results() {
+        ArgumentCaptor<Object> response = ArgumentCaptor.forClass(Object.class);
+        verify(marshaller).marshall(response.capture());
+        return ((TaskOperationResultList) response.getValue()).getItems();
+    }
+}
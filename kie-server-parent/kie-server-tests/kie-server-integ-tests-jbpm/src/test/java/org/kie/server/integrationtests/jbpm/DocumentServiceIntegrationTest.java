@@ -15,6 +15,10 @@
 
 package org.kie.server.integrationtests.jbpm;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -138,6 +142,28 @@ public class DocumentServiceIntegrationTest extends JbpmKieServerBaseIntegration
         documentClient.getDocument("not-existing");
     }
 
+    @Test
+    public void testCreateUpdateStreamedDocument() throws Exception {
+        // larger than any internal buffer so the content goes over in several chunks
+        byte[] streamedContent = new byte[100 * 1024];
+        for (int i = 0; i < streamedContent.length; i++) {
+            streamedContent[i] = (byte) i;
+        }
+        String documentId = documentClient.createDocument("streamed document", new ByteArrayInputStream(streamedContent));
+        assertNotNull(documentId);
+
+        DocumentInstance fromServer = documentClient.getDocument(documentId);
+        assertEquals("streamed document", fromServer.getName());
+        assertEquals(streamedContent.length, fromServer.getSize());
+        assertArrayEquals(streamedContent, readFully(documentClient.getDocumentContent(documentId)));
+
+        documentClient.updateDocumentContent(documentId, new ByteArrayInputStream(contentBytes));
+
+        fromServer = documentClient.getDocument(documentId);
+        assertEquals("streamed document", fromServer.getName());
+        assertArrayEquals(contentBytes, readFully(documentClient.getDocumentContent(documentId)));
+    }
+
     @Test
     public void testUpdateDocument() {
         String documentId = documentClient.createDocument(document);
@@ -342,4 +368,18 @@ public class DocumentServiceIntegrationTest extends JbpmKieServerBaseIntegration
         assertEquals(expected.getSize(), actual.getSize());
         assertEquals(new String(expected.getContent()), new String(actual.getContent()));
     }
+
+    private static byte[] readFully(InputStream input) throws IOException {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
 }
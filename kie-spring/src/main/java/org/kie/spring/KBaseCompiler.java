@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.spring;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.api.KieBase;
+import org.kie.api.builder.ReleaseId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles KieBases declared in a Spring application context ahead of the KBaseFactoryBeans,
+ * either in parallel while the context is being refreshed or in the background.
+ * Compiled KieBases are kept per application context and handed over to the factory beans.
+ */
+public class KBaseCompiler {
+
+    private static final Logger log = LoggerFactory.getLogger(KBaseCompiler.class);
+
+    public static final String KBASE_COMPILATION_PROPERTY = "org.kie.spring.kbase.compilation";
+
+    public enum Mode {
+        /**
+         * KieBases are compiled one by one by their factory beans on the startup thread.
+         */
+        SEQUENTIAL,
+        /**
+         * KieBases are compiled in parallel and the context refresh waits for all of them.
+         */
+        PARALLEL,
+        /**
+         * KieBases are compiled in the background; factory beans wait for their KieBase on first use.
+         */
+        LAZY;
+
+        public static Mode fromString(String mode) {
+            if (mode == null || mode.trim().isEmpty()) {
+                return SEQUENTIAL;
+            }
+            return Mode.valueOf(mode.trim().toUpperCase());
+        }
+    }
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private final ReleaseId releaseId;
+    private final Mode mode;
+    private final Map<String, Future<KieBase>> kBases = new ConcurrentHashMap<String, Future<KieBase>>();
+
+    public KBaseCompiler(ReleaseId releaseId, Mode mode) {
+        this.releaseId = releaseId;
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void compile(Collection<String> kBaseNames) {
+        if (mode == Mode.SEQUENTIAL || kBaseNames.isEmpty()) {
+            return;
+        }
+        int threads = Math.min(kBaseNames.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "kie-spring-kbase-compiler-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            for (final String kBaseName : kBaseNames) {
+                kBases.put(kBaseName, executor.submit(new Callable<KieBase>() {
+                    @Override
+                    public KieBase call() throws Exception {
+                        Thread.currentThread().setContextClassLoader(classLoader);
+                        long start = System.currentTimeMillis();
+                        KieBase kieBase = new KieObjectsResolver().resolveKBase(kBaseName, releaseId);
+                        log.debug("KieBase {} compiled in {} ms", kBaseName, System.currentTimeMillis() - start);
+                        return kieBase;
+                    }
+                }));
+            }
+        } finally {
+            // already submitted compilations are still carried out
+            executor.shutdown();
+        }
+
+        if (mode == Mode.PARALLEL) {
+            for (String kBaseName : kBaseNames) {
+                getKieBase(kBaseName);
+            }
+        }
+    }
+
+    /**
+     * Returns compiled KieBase of given name, waiting for its compilation if needed, or null when
+     * the KieBase was not compiled by this compiler.
+     */
+    public KieBase getKieBase(String kBaseName) {
+        Future<KieBase> future = kBases.get(kBaseName);
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for KieBase " + kBaseName, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Unable to compile KieBase " + kBaseName, e.getCause());
+        }
+    }
+}
@@ -76,6 +76,8 @@ public class KModuleBeanFactoryPostProcessor implements BeanFactoryPostProcessor
     protected URL kModuleRootUrl;
     protected ReleaseId releaseId;
     private ApplicationContext context;
+    private String kBaseCompilation = System.getProperty(KBaseCompiler.KBASE_COMPILATION_PROPERTY);
+    private KBaseCompiler kBaseCompiler;
 
     public KModuleBeanFactoryPostProcessor() {
     }
@@ -97,6 +99,25 @@ public class KModuleBeanFactoryPostProcessor implements BeanFactoryPostProcessor
         this.releaseId = releaseId;
     }
 
+    public String getKBaseCompilation() {
+        return kBaseCompilation;
+    }
+
+    /**
+     * Sets how declared KieBases are compiled - sequential (default), parallel or lazy.
+     * See {@link KBaseCompiler.Mode}.
+     */
+    public void setKBaseCompilation(String kBaseCompilation) {
+        this.kBaseCompilation = kBaseCompilation;
+    }
+
+    /**
+     * Additional Setter to satisfy Spring Eclipse support (avoiding "No setter found" errors).
+     */
+    public void setkBaseCompilation(String kBaseCompilation) {
+        this.kBaseCompilation = kBaseCompilation;
+    }
+
     @Override
     public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
         log.info(":: BeanFactoryPostProcessor::postProcessBeanFactory called ::");
@@ -121,11 +142,18 @@ public class KModuleBeanFactoryPostProcessor implements BeanFactoryPostProcessor
             releaseId = KieRepositoryImpl.INSTANCE.getDefaultReleaseId();
         }
 
+        KBaseCompiler.Mode compilationMode = KBaseCompiler.Mode.fromString(kBaseCompilation);
+        kBaseCompiler = compilationMode != KBaseCompiler.Mode.SEQUENTIAL ? new KBaseCompiler(releaseId, compilationMode) : null;
+
         for (String beanDef : beanFactory.getBeanDefinitionNames()) {
             BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanDef);
             if (beanDefinition.getBeanClassName() != null && beanDefinition.getBeanClassName().equalsIgnoreCase(KModuleFactoryBean.class.getName())) {
                 KieModuleModel kieModuleModel = fetchKieModuleModel(beanFactory);
                 addKieModuleToRepo(kieModuleModel);
+                if (kBaseCompiler != null) {
+                    log.info("Compiling KieBases " + kieModuleModel.getKieBaseModels().keySet() + " in " + kBaseCompiler.getMode() + " mode");
+                    kBaseCompiler.compile(kieModuleModel.getKieBaseModels().keySet());
+                }
             }
         }
     }
@@ -213,6 +241,9 @@ public class KModuleBeanFactoryPostProcessor implements BeanFactoryPostProcessor
 
                 kieModuleModel.getRawKieBaseModels().put( kBase.getName(), kBase );
                 beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("releaseId", releaseId));
+                if (kBaseCompiler != null) {
+                    beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("kBaseCompiler", kBaseCompiler));
+                }
                 addKieSessionModels(beanFactory, kBase);
             }
         }
@@ -244,6 +275,9 @@ public class KModuleBeanFactoryPostProcessor implements BeanFactoryPostProcessor
                     Map<String, KieSessionModel> rawKieSessionModels = kBase.getRawKieSessionModels();
                     rawKieSessionModels.put(kSession.getName(), kSession);
                     beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("releaseId", releaseId));
+                    if (kBaseCompiler != null) {
+                        beanDefinition.getPropertyValues().addPropertyValue(new PropertyValue("kBaseCompiler", kBaseCompiler));
+                    }
 
                     kSession.setDefault( "true".equals( getPropertyValue(beanDefinition, "def") ) );
 
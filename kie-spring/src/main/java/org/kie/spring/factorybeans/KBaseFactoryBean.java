@@ -20,6 +20,7 @@ package org.kie.spring.factorybeans;
 import org.kie.api.KieBase;
 import org.kie.api.builder.ReleaseId;
 import org.kie.api.runtime.KieContainer;
+import org.kie.spring.KBaseCompiler;
 import org.kie.spring.KieObjectsResolver;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.InitializingBean;
@@ -39,10 +40,11 @@ public class KBaseFactoryBean
     private String scope;
     private String def;
 
-    private KieBase kBase;
+    private volatile KieBase kBase;
     private ReleaseId releaseId;
     protected boolean singleton = true;
     protected KieContainer kieContainer;
+    private KBaseCompiler kBaseCompiler;
 
     public ReleaseId getReleaseId() {
         return releaseId;
@@ -139,12 +141,32 @@ public class KBaseFactoryBean
         this.kieContainer = kieContainer;
     }
 
+    public KBaseCompiler getKBaseCompiler() {
+        return kBaseCompiler;
+    }
+
+    public void setKBaseCompiler(KBaseCompiler kBaseCompiler) {
+        this.kBaseCompiler = kBaseCompiler;
+    }
+
+    /**
+     * Additional Setter to satisfy Spring Eclipse support (avoiding "No setter found" errors).
+     */
+    public void setkBaseCompiler(KBaseCompiler kBaseCompiler) {
+        this.kBaseCompiler = kBaseCompiler;
+    }
+
     public KieBase getObject() throws Exception {
-        if ( singleton) {
-            return kBase;
-        } else {
-            return kieContainer.newKieBase(kBaseName, null);
+        // KieBase compiled in the background or, for prototype scope, compiled once and shared
+        // by all prototype instances - only sessions created from it are fresh
+        if ( kBase == null ) {
+            synchronized (this) {
+                if ( kBase == null ) {
+                    kBase = resolveKBase();
+                }
+            }
         }
+        return kBase;
     }
 
     public Class<? extends KieBase> getObjectType() {
@@ -164,9 +186,22 @@ public class KBaseFactoryBean
     }
 
     public void afterPropertiesSet() throws Exception {
-        if ( singleton ) {
-            KieObjectsResolver kieObjectsResolver = new KieObjectsResolver();
-            kBase = kieObjectsResolver.resolveKBase(kBaseName, releaseId);
+        if ( singleton && (kBaseCompiler == null || kBaseCompiler.getMode() != KBaseCompiler.Mode.LAZY) ) {
+            kBase = resolveKBase();
+        }
+    }
+
+    private KieBase resolveKBase() {
+        if ( kBaseCompiler != null ) {
+            KieBase compiled = kBaseCompiler.getKieBase(kBaseName);
+            if ( compiled != null ) {
+                return compiled;
+            }
+        }
+        if ( !singleton && kieContainer != null ) {
+            return kieContainer.newKieBase(kBaseName, null);
         }
+        KieObjectsResolver kieObjectsResolver = new KieObjectsResolver();
+        return kieObjectsResolver.resolveKBase(kBaseName, releaseId);
     }
 }
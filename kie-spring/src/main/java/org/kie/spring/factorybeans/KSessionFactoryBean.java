@@ -34,6 +34,8 @@ import org.kie.api.runtime.KieRuntime;
 import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.StatelessKieSession;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.spring.KBaseCompiler;
 import org.kie.spring.KieObjectsResolver;
 import org.kie.spring.factorybeans.helper.KSessionFactoryBeanHelper;
 import org.kie.spring.factorybeans.helper.StatefulKSessionFactoryBeanHelper;
@@ -67,6 +69,7 @@ public class KSessionFactoryBean
     protected List<Object> groupedListeners = new ArrayList<Object>();
 
     private ReleaseId releaseId;
+    private KBaseCompiler kBaseCompiler;
 
     private String def;
     private String scope;
@@ -85,6 +88,21 @@ public class KSessionFactoryBean
         this.releaseId = releaseId;
     }
 
+    public KBaseCompiler getKBaseCompiler() {
+        return kBaseCompiler;
+    }
+
+    public void setKBaseCompiler(KBaseCompiler kBaseCompiler) {
+        this.kBaseCompiler = kBaseCompiler;
+    }
+
+    /**
+     * Additional Setter to satisfy Spring Eclipse support (avoiding "No setter found" errors).
+     */
+    public void setkBaseCompiler(KBaseCompiler kBaseCompiler) {
+        this.kBaseCompiler = kBaseCompiler;
+    }
+
     public KieSessionConfiguration getConf() {
         return conf;
     }
@@ -201,9 +219,7 @@ public class KSessionFactoryBean
     public void afterPropertiesSet() throws Exception {
 
         if ( "singleton".equalsIgnoreCase(scope) ) {
-            KieObjectsResolver kieObjectsResolver = new KieObjectsResolver();
-
-            kSession = kieObjectsResolver.resolveKSession(name, releaseId);
+            kSession = resolveKSession();
             if (kSession instanceof StatelessKieSession) {
                 helper = new StatelessKSessionFactoryBeanHelper(this, (StatelessKieSession) kSession);
             } else if (kSession instanceof KieSession) {
@@ -223,6 +239,22 @@ public class KSessionFactoryBean
         }
     }
 
+    private Object resolveKSession() {
+        KieBase compiled = kBaseCompiler != null ? kBaseCompiler.getKieBase(kBaseName) : null;
+        if (compiled == null) {
+            return new KieObjectsResolver().resolveKSession(name, releaseId);
+        }
+        // session of the KieBase compiled ahead, resolving it from a new KieContainer would compile the KieBase again
+        KieSessionConfiguration sessionConf = KieServices.Factory.get().newKieSessionConfiguration();
+        if (clockType != null && !clockType.isEmpty()) {
+            sessionConf.setOption(ClockTypeOption.get(clockType));
+        }
+        if ("stateless".equalsIgnoreCase(type)) {
+            return compiled.newStatelessKieSession(sessionConf);
+        }
+        return compiled.newKieSession(sessionConf, null);
+    }
+
     public StatefulKSessionFactoryBeanHelper.JpaConfiguration getJpaConfiguration() {
         return jpaConfiguration;
     }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.spring.tests;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.runtime.KieSession;
+import org.kie.spring.KBaseCompiler;
+import org.kie.spring.beans.Person;
+import org.kie.spring.factorybeans.KBaseFactoryBean;
+import org.kie.spring.factorybeans.KSessionFactoryBean;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import static org.junit.Assert.*;
+
+public class KieSpringKBaseCompilationTest {
+
+    @Test
+    public void testParallelKBaseCompilation() throws Exception {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("org/kie/spring/kbase-compilation-parallel.xml");
+        try {
+            assertKBasesCompiled(context);
+            KBaseFactoryBean factoryBean = (KBaseFactoryBean) context.getBean("&drl_kiesample");
+            assertEquals(KBaseCompiler.Mode.PARALLEL, factoryBean.getKBaseCompiler().getMode());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Test
+    public void testLazyKBaseCompilation() throws Exception {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("org/kie/spring/kbase-compilation-lazy.xml");
+        try {
+            assertKBasesCompiled(context);
+            KBaseFactoryBean factoryBean = (KBaseFactoryBean) context.getBean("&drl_kiesample2");
+            assertEquals(KBaseCompiler.Mode.LAZY, factoryBean.getKBaseCompiler().getMode());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Test
+    public void testPrototypeKBaseIsCompiledOnce() throws Exception {
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("org/kie/spring/kbase-compilation-parallel.xml");
+        try {
+            KBaseFactoryBean singletonFactoryBean = (KBaseFactoryBean) context.getBean("&drl_kiesample3");
+
+            KBaseFactoryBean prototypeFactoryBean = new KBaseFactoryBean();
+            prototypeFactoryBean.setKBaseName("drl_kiesample3");
+            prototypeFactoryBean.setReleaseId(singletonFactoryBean.getReleaseId());
+            prototypeFactoryBean.setSingleton(false);
+            prototypeFactoryBean.afterPropertiesSet();
+
+            KieBase kieBase = prototypeFactoryBean.getObject();
+            assertNotNull(kieBase);
+            assertSame(kieBase, prototypeFactoryBean.getObject());
+
+            KieSession ksession = kieBase.newKieSession();
+            KieSession anotherKsession = kieBase.newKieSession();
+            assertNotSame(ksession, anotherKsession);
+            ksession.dispose();
+            anotherKsession.dispose();
+        } finally {
+            context.close();
+        }
+    }
+
+    private void assertKBasesCompiled(ClassPathXmlApplicationContext context) {
+        for (String kBaseName : new String[]{"drl_kiesample", "drl_kiesample2", "drl_kiesample3"}) {
+            KieBase kieBase = (KieBase) context.getBean(kBaseName);
+            assertNotNull(kieBase);
+            assertFalse(kieBase.getKiePackages().isEmpty());
+        }
+
+        KieSession ksession = (KieSession) context.getBean("ksession1");
+        // session is created from the compiled KieBase, which is not built again for it
+        assertSame(context.getBean("drl_kiesample"), ksession.getKieBase());
+        KSessionFactoryBean kSessionFactoryBean = (KSessionFactoryBean) context.getBean("&ksession1");
+        assertNotNull(kSessionFactoryBean.getKBaseCompiler());
+
+        Person person = new Person("HAL", 42);
+        ksession.setGlobal("persons", new ArrayList<Object>());
+        ksession.insert(person);
+        ksession.fireAllRules();
+        assertTrue(person.isHappy());
+    }
+}